@@ -0,0 +1,52 @@
+package com.Bank.analytics.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Alert thresholds under {@code analytics.alerts}: {@code defaults} for every branch, and
+ * {@code branches.<branchId>} overriding any subset of them for a single branch.
+ */
+@Component
+@ConfigurationProperties(prefix = "analytics.alerts")
+@Data
+public class AlertProperties {
+    
+    private Thresholds defaults = new Thresholds(0.9, 15, 3, 2.0, 10);
+    private Map<Long, Thresholds> branches = new HashMap<>();
+    
+    /** Thresholds for the branch, overrides first and defaults for anything left unset. */
+    public Thresholds forBranch(Long branchId) {
+        Thresholds override = branches.get(branchId);
+        if (override == null) {
+            return defaults;
+        }
+        return new Thresholds(
+            override.occupancyRatio != null ? override.occupancyRatio : defaults.occupancyRatio,
+            override.waitSlaMinutes != null ? override.waitSlaMinutes : defaults.waitSlaMinutes,
+            override.waitMinSamples != null ? override.waitMinSamples : defaults.waitMinSamples,
+            override.spikeFactor != null ? override.spikeFactor : defaults.spikeFactor,
+            override.spikeMinVisitors != null ? override.spikeMinVisitors : defaults.spikeMinVisitors);
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Thresholds {
+        /** Occupancy / max capacity at which a capacity warning is raised (1.0 and above is critical). */
+        private Double occupancyRatio;
+        /** Average wait over the current and previous hour that breaches the SLA. */
+        private Integer waitSlaMinutes;
+        /** Entries with a wait time needed before the SLA rule fires. */
+        private Integer waitMinSamples;
+        /** Visitors this hour as a multiple of the usual visitors for the hour. */
+        private Double spikeFactor;
+        /** Visitors this hour below which no spike is reported. */
+        private Integer spikeMinVisitors;
+    }
+}
@@ -0,0 +1,21 @@
+package com.Bank.analytics.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class AnalyticsCacheConfig implements WebMvcConfigurer {
+    
+    private final AnalyticsEtagInterceptor analyticsEtagInterceptor;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(analyticsEtagInterceptor)
+                .addPathPatterns("/analytics/**", "/dashboard/**")
+                // Live views carry timestamps and must never be revalidated against a data version
+                .excludePathPatterns("/dashboard/real-time-stats", "/dashboard/alerts", "/dashboard/anomalies", "/dashboard/stream");
+    }
+}
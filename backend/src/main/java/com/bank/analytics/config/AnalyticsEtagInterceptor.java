@@ -0,0 +1,73 @@
+package com.Bank.analytics.config;
+
+import com.Bank.analytics.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers conditional GETs on the analytics endpoints before the controller runs.
+ *
+ * The strong ETag hashes the branch's data version, today's date (for endpoints with
+ * relative defaults) and the full request path and parameters. A matching If-None-Match
+ * short-circuits with 304. Every response must revalidate, past ranges included: back-dated
+ * writes, updates and deletes restate closed days and bump the data version like any other write.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnalyticsEtagInterceptor implements HandlerInterceptor {
+    
+    private final DataVersionService dataVersionService;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        
+        LocalDate today = LocalDate.now();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        
+        String etag = "\"" + DigestUtils.md5DigestAsHex(
+            fingerprint(request, today).getBytes(StandardCharsets.UTF_8)) + "\"";
+        // Sets the ETag header, and status 304 when it matches If-None-Match
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+    
+    private String fingerprint(HttpServletRequest request, LocalDate today) {
+        StringBuilder fingerprint = new StringBuilder()
+            .append(dataVersionService.currentVersion(resolveBranchId(request)))
+            .append('|').append(today)
+            .append('|').append(request.getRequestURI());
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) ->
+            fingerprint.append('|').append(name).append('=').append(Arrays.toString(values)));
+        return fingerprint.toString();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Long resolveBranchId(HttpServletRequest request) {
+        String branchId = request.getParameter("branchId");
+        if (branchId == null) {
+            Map<String, String> pathVariables = (Map<String, String>)
+                request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            branchId = pathVariables != null ? pathVariables.get("branchId") : null;
+        }
+        try {
+            return branchId != null ? Long.valueOf(branchId) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.Bank.analytics.config;
 
+import com.Bank.analytics.dto.KeysetPage;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -17,6 +19,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000", "http://localhost:3001", "http://localhost:5173")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(KeysetPage.NEXT_PAGE_TOKEN_HEADER, HttpHeaders.CONTENT_DISPOSITION)
                 .allowCredentials(true);
                 
         // Specific mapping for analytics endpoints
@@ -42,6 +45,8 @@ public class CorsConfig implements WebMvcConfigurer {
         configuration.addAllowedOrigin("http://localhost:5173");
         configuration.addAllowedMethod("*");
         configuration.addAllowedHeader("*");
+        configuration.addExposedHeader(KeysetPage.NEXT_PAGE_TOKEN_HEADER);
+        configuration.addExposedHeader(HttpHeaders.CONTENT_DISPOSITION);
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -1,9 +1,17 @@
 package com.Bank.analytics.controller;
 
 import com.Bank.analytics.dto.DashboardMetricsDTO;
+import com.Bank.analytics.dto.DashboardWidget;
 import com.Bank.analytics.dto.FootfallTrendDTO;
 import com.Bank.analytics.dto.PeakHourDTO;
+import com.Bank.analytics.dto.RegionMetricsDTO;
+import com.Bank.analytics.dto.TimeBucket;
+import com.Bank.analytics.dto.TimeSeriesMetric;
 import com.Bank.analytics.service.AnalyticsService;
+import com.Bank.analytics.service.DurationPercentileService;
+import com.Bank.analytics.service.ForecastBacktestService;
+import com.Bank.analytics.service.RegionalAnalyticsService;
+import com.Bank.analytics.service.TimeSeriesService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,7 +21,10 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/analytics")
@@ -23,6 +34,10 @@ import java.util.List;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final RegionalAnalyticsService regionalAnalyticsService;
+    private final ForecastBacktestService forecastBacktestService;
+    private final TimeSeriesService timeSeriesService;
+    private final DurationPercentileService durationPercentileService;
     
     @GetMapping("/dashboard/metrics")
     @Operation(summary = "Get dashboard metrics", description = "Retrieve key performance indicators for dashboard")
@@ -38,6 +53,28 @@ public class AnalyticsController {
         return ResponseEntity.ok(metrics);
     }
     
+    @GetMapping("/dashboard-bundle")
+    @Operation(summary = "Get dashboard bundle", description = "Several dashboard widgets for one branch/range computed from one shared data pass")
+    public ResponseEntity<Map<String, Object>> getDashboardBundle(
+            @Parameter(description = "Branch ID for filtering")
+            @RequestParam(required = false) Long branchId,
+            @Parameter(description = "Start date for analysis")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date for analysis")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Widgets to include, e.g. metrics,peakHours,performanceTrends (default: all)")
+            @RequestParam(required = false) List<String> widgets) {
+        
+        Set<DashboardWidget> requested = EnumSet.allOf(DashboardWidget.class);
+        if (widgets != null && !widgets.isEmpty()) {
+            requested = EnumSet.noneOf(DashboardWidget.class);
+            for (String widget : widgets) {
+                requested.add(DashboardWidget.fromKey(widget));
+            }
+        }
+        return ResponseEntity.ok(analyticsService.getDashboardBundle(branchId, startDate, endDate, requested));
+    }
+    
     @GetMapping("/footfall-trends")
     @Operation(summary = "Get footfall trends", description = "Get historical footfall data across all branches for specified date range")
     public ResponseEntity<List<FootfallTrendDTO>> getFootfallTrends(
@@ -62,6 +99,84 @@ public class AnalyticsController {
         return ResponseEntity.ok(trends);
     }
     
+    @GetMapping("/footfall-forecast")
+    @Operation(summary = "Get footfall forecast", description = "Daily, and optionally hourly, visitor forecasts from the per-branch seasonal models")
+    public ResponseEntity<List<Map<String, Object>>> getFootfallForecast(
+            @Parameter(description = "Branch ID (optional, null for all branches)")
+            @RequestParam(required = false) Long branchId,
+            @Parameter(description = "First forecast date (default: tomorrow)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Number of days to forecast")
+            @RequestParam(defaultValue = "7") int days,
+            @Parameter(description = "Include visitors per hour of the day")
+            @RequestParam(defaultValue = "false") boolean hourly) {
+        
+        LocalDate firstDate = startDate != null ? startDate : LocalDate.now().plusDays(1);
+        List<Map<String, Object>> forecast = analyticsService.getFootfallForecast(branchId, firstDate, days, hourly);
+        return ResponseEntity.ok(forecast);
+    }
+    
+    @GetMapping("/forecast-backtest")
+    @Operation(summary = "Backtest footfall forecasters", description = "Rolling-origin MAPE/RMSE per branch and horizon over historical footfall")
+    public ResponseEntity<Map<String, Object>> getForecastBacktest(
+            @Parameter(description = "Start of the history to replay")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End of the history to replay")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Branch IDs to backtest (default: all branches with visits)")
+            @RequestParam(required = false) List<Long> branchIds,
+            @Parameter(description = "Forecasters to compare: holt-winters, seasonal-naive, naive (default: all)")
+            @RequestParam(required = false) List<String> forecasters,
+            @Parameter(description = "Days forecast from each origin")
+            @RequestParam(defaultValue = "7") int horizon,
+            @Parameter(description = "Days of history before the first origin")
+            @RequestParam(defaultValue = "56") int minTrainDays,
+            @Parameter(description = "Days between consecutive origins")
+            @RequestParam(defaultValue = "1") int stride) {
+        
+        Map<String, Object> backtest = forecastBacktestService.backtest(startDate, endDate, branchIds, forecasters, horizon, minTrainDays, stride);
+        return ResponseEntity.ok(backtest);
+    }
+    
+    @GetMapping("/time-series")
+    @Operation(summary = "Get metric time series", description = "Any metric in 15-minute, hourly, daily, weekly or monthly buckets, optionally downsampled (LTTB) to a point budget")
+    public ResponseEntity<Map<String, Object>> getTimeSeries(
+            @Parameter(description = "Metric: footfall, avgWaitTime, avgServiceTime, customerSatisfaction, transactions, completedTransactions, revenue, avgProcessingTime")
+            @RequestParam String metric,
+            @Parameter(description = "Bucket width: 15m, hour, day, week, month")
+            @RequestParam(defaultValue = "day") String bucket,
+            @Parameter(description = "Branch ID (optional, null for all branches)")
+            @RequestParam(required = false) Long branchId,
+            @Parameter(description = "Start date of the series")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date of the series")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Maximum points returned (optional, at least 3)")
+            @RequestParam(required = false) Integer maxPoints) {
+        
+        Map<String, Object> series = timeSeriesService.series(TimeSeriesMetric.fromKey(metric), TimeBucket.fromKey(bucket),
+            branchId, startDate, endDate, maxPoints);
+        return ResponseEntity.ok(series);
+    }
+    
+    @GetMapping("/duration-percentiles")
+    @Operation(summary = "Get duration percentiles", description = "Percentile wait, service and processing times merged from per-day quantile sketches")
+    public ResponseEntity<Map<String, Object>> getDurationPercentiles(
+            @Parameter(description = "Branch ID (optional, null for all branches)")
+            @RequestParam(required = false) Long branchId,
+            @Parameter(description = "Visit purpose for wait/service times and service type for processing times (optional, null for all)")
+            @RequestParam(required = false) String serviceType,
+            @Parameter(description = "Start date for analysis")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date for analysis")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Percentiles to report (default: 50, 90, 95, 99)")
+            @RequestParam(required = false) List<Double> percentiles) {
+        
+        Map<String, Object> result = durationPercentileService.percentiles(branchId, serviceType, startDate, endDate, percentiles);
+        return ResponseEntity.ok(result);
+    }
+    
     @GetMapping("/peak-hours")
     @Operation(summary = "Get peak hour analysis", description = "Retrieve hourly utilization patterns for specific branch or all branches")
     public ResponseEntity<List<PeakHourDTO>> getPeakHourAnalysis(
@@ -77,22 +192,41 @@ public class AnalyticsController {
     }
     
     @GetMapping("/branch-comparison")
-    @Operation(summary = "Get branch comparison data", description = "Compare performance metrics across all branches")
+    @Operation(summary = "Get branch comparison data", description = "Compare and rank performance metrics across branches")
     public ResponseEntity<List<DashboardMetricsDTO>> getBranchComparison(
             @Parameter(description = "Start date for comparison") 
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @Parameter(description = "End date for comparison") 
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        
-        List<DashboardMetricsDTO> comparison = List.of(
-            analyticsService.getDashboardMetrics(1L, startDate, endDate), // Siruseri
-            analyticsService.getDashboardMetrics(2L, startDate, endDate), // T Nagar  
-            analyticsService.getDashboardMetrics(3L, startDate, endDate)  // Navalur
-        );
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Branch IDs to compare (default: all active branches)")
+            @RequestParam(required = false) List<Long> branchIds,
+            @Parameter(description = "Metric to rank by, highest first")
+            @RequestParam(defaultValue = "totalFootfall") String rankBy,
+            @Parameter(description = "Return only the top N branches")
+            @RequestParam(required = false) Integer top,
+            @Parameter(description = "Return only the bottom N branches")
+            @RequestParam(required = false) Integer bottom) {
         
+        List<DashboardMetricsDTO> comparison = analyticsService.getBranchComparison(branchIds, startDate, endDate, rankBy, top, bottom);
         return ResponseEntity.ok(comparison);
     }
     
+    @GetMapping("/regions")
+    @Operation(summary = "Get regional drill-down", description = "Footfall, revenue, wait and satisfaction for a national, state or city node and its children")
+    public ResponseEntity<RegionMetricsDTO> getRegionBreakdown(
+            @Parameter(description = "State to drill into (optional, national view when omitted)")
+            @RequestParam(required = false) String state,
+            @Parameter(description = "City within the state to drill into (optional)")
+            @RequestParam(required = false) String city,
+            @Parameter(description = "Start date for analysis")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date for analysis")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        
+        RegionMetricsDTO regions = regionalAnalyticsService.getRegionBreakdown(state, city, startDate, endDate);
+        return ResponseEntity.ok(regions);
+    }
+    
     @GetMapping("/service-utilization")
     @Operation(summary = "Get service utilization heatmap", description = "Service demand intensity by hour and service type")
     public ResponseEntity<Object> getServiceUtilization(
@@ -2,19 +2,25 @@ package com.Bank.analytics.controller;
 
 import com.Bank.analytics.entity.CustomerEntry;
 import com.Bank.analytics.repository.CustomerEntryRepository;
+import com.Bank.analytics.service.KeysetPageService;
+import com.Bank.analytics.service.RowStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.ArrayList;
 import com.Bank.analytics.dto.CustomerEntryDTO;
+import com.Bank.analytics.dto.KeysetPage;
 
 @RestController
 @RequestMapping("/entries")
@@ -24,13 +30,19 @@ import com.Bank.analytics.dto.CustomerEntryDTO;
 public class CustomerEntryController {
     
     private final CustomerEntryRepository customerEntryRepository;
+    private final RowStreamService rowStreamService;
+    private final KeysetPageService keysetPageService;
     
     @GetMapping
-    @Operation(summary = "Get all customer entries", description = "Retrieve all customer branch entries")
-    public ResponseEntity<List<CustomerEntryDTO>> getAllEntries() {
-        List<CustomerEntry> entries = customerEntryRepository.findAll();
-        List<CustomerEntryDTO> dtos = entries.stream().map(this::convertToDTO).collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    @Operation(summary = "List customer entries",
+               description = "One page of entries by entry date and id; the next page's token is returned in the X-Next-Page-Token header")
+    public ResponseEntity<List<CustomerEntryDTO>> getAllEntries(
+            @Parameter(description = "Token from the previous page; omit for the first page") @RequestParam(required = false) String pageToken,
+            @Parameter(description = "Page size, capped by analytics.paging.max-size") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Every entry in one response, up to analytics.paging.max-all-size") @RequestParam(defaultValue = "false") boolean all) {
+        KeysetPage<CustomerEntry> page = keysetPageService.entries(pageToken, size, all);
+        List<CustomerEntryDTO> dtos = page.items().stream().map(this::convertToDTO).collect(java.util.stream.Collectors.toList());
+        return ResponseEntity.ok().headers(page.headers()).body(dtos);
     }
     
     @GetMapping("/branch/{branchId}")
@@ -49,24 +61,38 @@ public class CustomerEntryController {
     }
     
     @GetMapping("/date-range")
-    public ResponseEntity<List<CustomerEntryDTO>> getEntriesByDateRange(
+    @Operation(summary = "Get entries in a date range", description = "Streams every entry in the range as a JSON array")
+    public ResponseEntity<StreamingResponseBody> getEntriesByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<CustomerEntry> entries = customerEntryRepository.findByEntryDateBetween(startDate, endDate);
-        List<CustomerEntryDTO> dtos = entries.stream().map(this::convertToDTO).collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        RowStreamService.StreamSlot slot = rowStreamService.tryReserveStream();
+        if (slot == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        StreamingResponseBody body = out -> {
+            try (slot) {
+                rowStreamService.writeEntriesJson(null, startDate, endDate, out);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
     
     @GetMapping("/branch/{branchId}/date-range")
-    public ResponseEntity<List<CustomerEntryDTO>> getEntriesByBranchAndDateRange(
+    @Operation(summary = "Get branch entries in a date range", description = "Streams the branch's entries in the range as a JSON array")
+    public ResponseEntity<StreamingResponseBody> getEntriesByBranchAndDateRange(
             @PathVariable Long branchId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<CustomerEntry> entries = customerEntryRepository.findByBranchAndDateRange(branchId, startDate, endDate);
-        List<CustomerEntryDTO> dtos = entries.stream()
-            .map(this::convertToDTO)
-            .collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        RowStreamService.StreamSlot slot = rowStreamService.tryReserveStream();
+        if (slot == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        StreamingResponseBody body = out -> {
+            try (slot) {
+                rowStreamService.writeEntriesJson(branchId, startDate, endDate, out);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
     
     @PostMapping
@@ -80,6 +106,19 @@ public class CustomerEntryController {
         }
     }
     
+    @PatchMapping("/{entryId}/exit")
+    @Operation(summary = "Record customer exit", description = "Close an entry; exit time defaults to now")
+    public ResponseEntity<CustomerEntryDTO> recordExit(
+            @PathVariable Long entryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime exitTime) {
+        return customerEntryRepository.findById(entryId)
+            .map(entry -> {
+                entry.setExitTime(exitTime != null ? exitTime : LocalTime.now());
+                return ResponseEntity.ok(convertToDTO(customerEntryRepository.save(entry)));
+            })
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/analytics/satisfaction/{branchId}")
     public ResponseEntity<Double> getAverageSatisfaction(@PathVariable Long branchId) {
         Double avgSatisfaction = customerEntryRepository.getAverageSatisfactionByBranch(branchId);
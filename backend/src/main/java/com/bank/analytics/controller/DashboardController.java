@@ -2,13 +2,17 @@ package com.Bank.analytics.controller;
 
 import com.Bank.analytics.dto.DashboardMetricsDTO;
 import com.Bank.analytics.service.AnalyticsService;
+import com.Bank.analytics.service.DashboardStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.time.LocalDate;
 import java.util.Map;
 import java.util.HashMap;
@@ -22,6 +26,7 @@ import java.util.List;
 public class DashboardController {
     
     private final AnalyticsService analyticsService;
+    private final DashboardStreamService dashboardStreamService;
     
     @GetMapping("/real-time-stats")
     @Operation(summary = "Get real-time dashboard stats", description = "Retrieve live dashboard statistics")
@@ -37,6 +42,28 @@ public class DashboardController {
         return ResponseEntity.ok(alerts);
     }
     
+    @GetMapping("/anomalies")
+    @Operation(summary = "Get footfall and wait anomalies", description = "Unusual hourly footfall or wait times against the usual values for that hour of the week")
+    public ResponseEntity<List<Map<String, Object>>> getAnomalies(
+            @Parameter(description = "Branch ID, omit for all branches") @RequestParam(required = false) Long branchId) {
+        List<Map<String, Object>> anomalies = analyticsService.getAnomalies(branchId);
+        return ResponseEntity.ok(anomalies);
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream live dashboard", description = "Server-Sent Events with real-time stats and alerts, pushed on change")
+    public ResponseEntity<SseEmitter> streamDashboard(
+            @Parameter(description = "Branch ID, omit for all branches") @RequestParam(required = false) Long branchId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = dashboardStreamService.subscribe(branchId, lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+            .header("X-Accel-Buffering", "no")
+            .body(emitter);
+    }
+    
     @GetMapping("/summary/{branchId}")
     @Operation(summary = "Get branch summary", description = "Quick summary for specific branch")
     public ResponseEntity<DashboardMetricsDTO> getBranchSummary(
@@ -1,6 +1,7 @@
 package com.Bank.analytics.controller;
 
 import com.Bank.analytics.service.LargeDataGeneratorService;
+import com.Bank.analytics.service.RollupRefreshService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -18,12 +19,14 @@ import java.util.HashMap;
 public class DataGeneratorController {
     
     private final LargeDataGeneratorService dataGeneratorService;
+    private final RollupRefreshService rollupRefreshService;
     
         @PostMapping("/regenerate-transactions")
     @Operation(summary = "Regenerate transaction data", description = "Regenerate transaction data with better service distribution patterns")
     public ResponseEntity<Map<String, Object>> regenerateTransactions() {
         try {
             dataGeneratorService.regenerateTransactionData();
+            rollupRefreshService.rebuild();
             
             Map<String, Object> response = Map.of(
                 "success", true,
@@ -48,6 +51,7 @@ public class DataGeneratorController {
     public ResponseEntity<Map<String, Object>> generateLargeDataset() {
         try {
             dataGeneratorService.generateLargeDataset();
+            rollupRefreshService.rebuild();
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -0,0 +1,156 @@
+package com.Bank.analytics.controller;
+
+import com.Bank.analytics.dto.ExportDataset;
+import com.Bank.analytics.dto.ExportFormat;
+import com.Bank.analytics.entity.ReportDefinition;
+import com.Bank.analytics.entity.ReportFile;
+import com.Bank.analytics.exception.ResourceNotFoundException;
+import com.Bank.analytics.service.ReportExportService;
+import com.Bank.analytics.service.ReportSchedulerService;
+import com.Bank.analytics.service.RowStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/reports")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+@Tag(name = "Reports", description = "APIs for exporting report data and scheduling materialized reports")
+public class ReportController {
+    
+    private final ReportExportService reportExportService;
+    private final RowStreamService rowStreamService;
+    private final ReportSchedulerService reportSchedulerService;
+    
+    // Exports can outlast spring.mvc.async.request-timeout, so they carry their own (0 for none)
+    @Value("${analytics.reports.export-timeout-ms:0}")
+    private long exportTimeoutMs;
+    
+    /**
+     * Streams the export on an async task with its own timeout. A response cut off mid-stream (a
+     * truncated gzip) is resumed from the last complete row with startDate and afterId.
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export report data", description = "Streams entries, transactions or daily branch totals as CSV or TSV, gzipped by default. "
+        + "A truncated download is resumed with startDate set to the last complete row's date and afterId to its id")
+    public WebAsyncTask<Void> export(
+            @Parameter(description = "Dataset: entries, transactions, daily-summary")
+            @RequestParam String dataset,
+            @Parameter(description = "Format: csv, tsv")
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "Branch ID (optional, null for all branches)")
+            @RequestParam(required = false) Long branchId,
+            @Parameter(description = "Start date of the export")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date of the export")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Resume after this id on startDate (entries and transactions only)")
+            @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Gzip the file")
+            @RequestParam(defaultValue = "true") boolean gzip,
+            HttpServletResponse response) {
+        
+        ExportDataset exportDataset = ExportDataset.fromKey(dataset);
+        ExportFormat exportFormat = ExportFormat.fromKey(format);
+        List<Long> branchIds = branchId != null ? List.of(branchId) : List.of();
+        reportExportService.validate(exportDataset, branchIds, startDate, endDate, afterId);
+        
+        RowStreamService.StreamSlot slot = rowStreamService.tryReserveStream();
+        if (slot == null) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return null;
+        }
+        MediaType contentType = gzip
+            ? MediaType.parseMediaType("application/gzip")
+            : new MediaType(MediaType.parseMediaType(exportFormat.getContentType()), StandardCharsets.UTF_8);
+        response.setContentType(contentType.toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename(reportExportService.fileName(exportDataset, exportFormat, startDate, endDate, gzip))
+            .build().toString());
+        return new WebAsyncTask<>(exportTimeoutMs, () -> {
+            try (slot) {
+                reportExportService.export(exportDataset, exportFormat, branchIds, startDate, endDate, afterId, gzip, response.getOutputStream());
+            }
+            return null;
+        });
+    }
+    
+    @GetMapping("/definitions")
+    @Operation(summary = "Get scheduled reports", description = "Every report definition with its schedule and last run")
+    public ResponseEntity<List<ReportDefinition>> getDefinitions() {
+        return ResponseEntity.ok(reportSchedulerService.definitions());
+    }
+    
+    @GetMapping("/definitions/{id}")
+    public ResponseEntity<ReportDefinition> getDefinition(@PathVariable Long id) {
+        return ResponseEntity.ok(reportSchedulerService.definition(id));
+    }
+    
+    @PostMapping("/definitions")
+    @Operation(summary = "Schedule a report", description = "Branches (empty for all), dataset, range template (yesterday, last-7-days, last-30-days, previous-week, previous-month, month-to-date), format and a cron schedule")
+    public ResponseEntity<ReportDefinition> createDefinition(@Valid @RequestBody ReportDefinition definition) {
+        return ResponseEntity.ok(reportSchedulerService.save(null, definition));
+    }
+    
+    @PutMapping("/definitions/{id}")
+    public ResponseEntity<ReportDefinition> updateDefinition(@PathVariable Long id, @Valid @RequestBody ReportDefinition definition) {
+        return ResponseEntity.ok(reportSchedulerService.save(id, definition));
+    }
+    
+    @DeleteMapping("/definitions/{id}")
+    @Operation(summary = "Delete a scheduled report", description = "Deletes the definition and its materialized files")
+    public ResponseEntity<Void> deleteDefinition(@PathVariable Long id) {
+        reportSchedulerService.delete(id);
+        return ResponseEntity.ok().build();
+    }
+    
+    @PostMapping("/definitions/{id}/run")
+    @Operation(summary = "Run a report now", description = "Queues a run in the background; queued is false if the report is already running")
+    public ResponseEntity<Map<String, Object>> runDefinition(@PathVariable Long id) {
+        boolean queued = reportSchedulerService.runNow(id);
+        return ResponseEntity.accepted().body(Map.of("reportId", id, "queued", queued));
+    }
+    
+    @GetMapping("/files")
+    @Operation(summary = "Get the report catalog", description = "Materialized report files, newest first")
+    public ResponseEntity<List<ReportFile>> getFiles(
+            @Parameter(description = "Report ID (optional, null for all reports)")
+            @RequestParam(required = false) Long reportId) {
+        return ResponseEntity.ok(reportSchedulerService.files(reportId));
+    }
+    
+    @GetMapping("/files/{fileId}")
+    @Operation(summary = "Download a report file", description = "Serves a materialized report from disk")
+    public ResponseEntity<Resource> downloadFile(@PathVariable Long fileId) {
+        ReportFile file = reportSchedulerService.file(fileId);
+        Path path = reportSchedulerService.path(file);
+        if (!Files.isReadable(path)) {
+            throw new ResourceNotFoundException("Report file", fileId);
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/gzip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(file.getFileName()).build().toString())
+            .body(new FileSystemResource(path));
+    }
+}
@@ -2,6 +2,7 @@ package com.Bank.analytics.controller;
 
 import com.Bank.analytics.entity.Staff;
 import com.Bank.analytics.repository.StaffRepository;
+import com.Bank.analytics.service.KeysetPageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -10,6 +11,7 @@ import java.util.List;
 import java.util.ArrayList;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import com.Bank.analytics.dto.KeysetPage;
 import com.Bank.analytics.dto.StaffDTO;
 
 @RestController
@@ -19,12 +21,15 @@ import com.Bank.analytics.dto.StaffDTO;
 public class StaffController {
     
     private final StaffRepository staffRepository;
+    private final KeysetPageService keysetPageService;
     
     @GetMapping
-    public ResponseEntity<List<StaffDTO>> getAllStaff() {
-        List<Staff> staff = staffRepository.findAll();
-        List<StaffDTO> dtos = staff.stream().map(this::convertToDTO).collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<StaffDTO>> getAllStaff(@RequestParam(required = false) String pageToken,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam(defaultValue = "false") boolean all) {
+        KeysetPage<Staff> page = keysetPageService.staff(pageToken, size, all);
+        List<StaffDTO> dtos = page.items().stream().map(this::convertToDTO).collect(java.util.stream.Collectors.toList());
+        return ResponseEntity.ok().headers(page.headers()).body(dtos);
     }
     
     @GetMapping("/branch/{branchId}")
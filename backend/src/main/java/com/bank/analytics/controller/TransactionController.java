@@ -2,16 +2,23 @@ package com.Bank.analytics.controller;
 
 import com.Bank.analytics.entity.Transaction;
 import com.Bank.analytics.repository.TransactionRepository;
+import com.Bank.analytics.service.KeysetPageService;
+import com.Bank.analytics.service.RowStreamService;
+import com.Bank.analytics.store.Money;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.ArrayList;
 import java.math.BigDecimal;
+import com.Bank.analytics.dto.KeysetPage;
 import com.Bank.analytics.dto.TransactionDTO;
 
 @RestController
@@ -21,12 +28,16 @@ import com.Bank.analytics.dto.TransactionDTO;
 public class TransactionController {
     
     private final TransactionRepository transactionRepository;
+    private final RowStreamService rowStreamService;
+    private final KeysetPageService keysetPageService;
     
     @GetMapping
-    public ResponseEntity<List<TransactionDTO>> getAllTransactions() {
-        List<Transaction> transactions = transactionRepository.findAll();
-        List<TransactionDTO> dtos = transactions.stream().map(this::convertToDTO).collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<TransactionDTO>> getAllTransactions(@RequestParam(required = false) String pageToken,
+                                                                   @RequestParam(required = false) Integer size,
+                                                                   @RequestParam(defaultValue = "false") boolean all) {
+        KeysetPage<Transaction> page = keysetPageService.transactions(pageToken, size, all);
+        List<TransactionDTO> dtos = page.items().stream().map(this::convertToDTO).collect(java.util.stream.Collectors.toList());
+        return ResponseEntity.ok().headers(page.headers()).body(dtos);
     }
     
     @GetMapping("/branch/{branchId}")
@@ -42,13 +53,20 @@ public class TransactionController {
     }
     
     @GetMapping("/branch/{branchId}/date-range")
-    public ResponseEntity<List<TransactionDTO>> getTransactionsByBranchAndDateRange(
+    public ResponseEntity<StreamingResponseBody> getTransactionsByBranchAndDateRange(
             @PathVariable Long branchId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<Transaction> transactions = transactionRepository.findByBranchAndDateRange(branchId, startDate, endDate);
-        List<TransactionDTO> dtos = transactions.stream().map(this::convertToDTO).collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        RowStreamService.StreamSlot slot = rowStreamService.tryReserveStream();
+        if (slot == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        StreamingResponseBody body = out -> {
+            try (slot) {
+                rowStreamService.writeTransactionsJson(branchId, startDate, endDate, out);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
     
     @PostMapping
@@ -68,9 +86,9 @@ public class TransactionController {
     }
     
     @GetMapping("/analytics/amount/{branchId}")
-    public ResponseEntity<Double> getTotalTransactionAmount(@PathVariable Long branchId) {
-        Double totalAmount = transactionRepository.getTotalAmountByBranch(branchId);
-        return ResponseEntity.ok(totalAmount != null ? totalAmount : 0.0);
+    public ResponseEntity<BigDecimal> getTotalTransactionAmount(@PathVariable Long branchId) {
+        long totalCents = Money.cents(transactionRepository.getTotalCentsByBranch(branchId));
+        return ResponseEntity.ok(Money.fromCents(totalCents));
     }
     
     private TransactionDTO convertToDTO(Transaction transaction) {
@@ -0,0 +1,26 @@
+package com.Bank.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyBranchSummaryDTO {
+    private LocalDate date;
+    private String branchCode;
+    private String branchName;
+    private Long visitors;
+    private Double avgWaitTime;
+    private Double avgServiceTime;
+    private Double avgSatisfaction;
+    private Long transactions;
+    private Long completedTransactions;
+    private BigDecimal revenue;
+    private Double avgProcessingTime;
+}
\ No newline at end of file
@@ -19,4 +19,6 @@ public class DashboardMetricsDTO {
     private Double totalRevenue;
     private String branchName;
     private String dateRange;
+    private Long branchId;
+    private Integer rank;
 }
\ No newline at end of file
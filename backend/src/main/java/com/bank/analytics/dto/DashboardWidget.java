@@ -0,0 +1,30 @@
+package com.Bank.analytics.dto;
+
+/**
+ * Widgets that can be requested together from the dashboard bundle, keyed as in the response.
+ */
+public enum DashboardWidget implements KeyedEnum {
+    
+    METRICS("metrics"),
+    FOOTFALL_TRENDS("footfallTrends"),
+    PEAK_HOURS("peakHours"),
+    SERVICE_UTILIZATION("serviceUtilization"),
+    CUSTOMER_SATISFACTION("customerSatisfaction"),
+    SERVICE_EFFICIENCY("serviceEfficiency"),
+    PERFORMANCE_TRENDS("performanceTrends");
+    
+    private final String key;
+    
+    DashboardWidget(String key) {
+        this.key = key;
+    }
+    
+    @Override
+    public String getKey() {
+        return key;
+    }
+    
+    public static DashboardWidget fromKey(String key) {
+        return KeyedEnum.fromKey(DashboardWidget.class, key, "dashboard widget");
+    }
+}
@@ -0,0 +1,27 @@
+package com.Bank.analytics.dto;
+
+/**
+ * What a report export contains: raw customer entries, raw transactions, or per-branch daily totals
+ * read from the hourly rollups.
+ */
+public enum ExportDataset implements KeyedEnum {
+    
+    ENTRIES("entries"),
+    TRANSACTIONS("transactions"),
+    DAILY_SUMMARY("daily-summary");
+    
+    private final String key;
+    
+    ExportDataset(String key) {
+        this.key = key;
+    }
+    
+    @Override
+    public String getKey() {
+        return key;
+    }
+    
+    public static ExportDataset fromKey(String key) {
+        return KeyedEnum.fromKey(ExportDataset.class, key, "export dataset");
+    }
+}
@@ -0,0 +1,45 @@
+package com.Bank.analytics.dto;
+
+/**
+ * Delimited text formats a report can be written in.
+ */
+public enum ExportFormat implements KeyedEnum {
+    
+    CSV("csv", ',', "\r\n", "text/csv"),
+    TSV("tsv", '\t', "\n", "text/tab-separated-values");
+    
+    private final String key;
+    private final char delimiter;
+    private final String lineEnd;
+    private final String contentType;
+    
+    ExportFormat(String key, char delimiter, String lineEnd, String contentType) {
+        this.key = key;
+        this.delimiter = delimiter;
+        this.lineEnd = lineEnd;
+        this.contentType = contentType;
+    }
+    
+    /** Also the file extension. */
+    @Override
+    public String getKey() {
+        return key;
+    }
+    
+    public char getDelimiter() {
+        return delimiter;
+    }
+    
+    /** CRLF for CSV as RFC 4180 asks, LF for TSV. */
+    public String getLineEnd() {
+        return lineEnd;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public static ExportFormat fromKey(String key) {
+        return KeyedEnum.fromKey(ExportFormat.class, key, "export format");
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDate;
+import java.util.Map;
 
 @Data
 @Builder
@@ -12,6 +13,8 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class FootfallTrendDTO {
     private LocalDate date;
+    private Map<Long, Long> branchFootfall; // Visitors keyed by branch ID, one entry per known branch
+    // Legacy per-branch fields (branch IDs 1-3) kept for existing dashboard consumers
     private Long siruseri;
     private Long tnagar;
     private Long navalur;
@@ -0,0 +1,28 @@
+package com.Bank.analytics.dto;
+
+import com.Bank.analytics.exception.InvalidRequestException;
+
+/**
+ * An enum that requests name by a short key.
+ */
+public interface KeyedEnum {
+    
+    String getKey();
+    
+    /**
+     * The constant whose key or name matches, ignoring case and surrounding blanks. An unknown or
+     * missing key is an invalid request, described by what, e.g. "export format".
+     */
+    static <E extends Enum<E> & KeyedEnum> E fromKey(Class<E> type, String key, String what) {
+        if (key == null || key.isBlank()) {
+            throw new InvalidRequestException("Missing " + what);
+        }
+        String trimmed = key.trim();
+        for (E constant : type.getEnumConstants()) {
+            if (constant.getKey().equalsIgnoreCase(trimmed) || constant.name().equalsIgnoreCase(trimmed)) {
+                return constant;
+            }
+        }
+        throw new InvalidRequestException("Unknown " + what + " '" + trimmed + "'");
+    }
+}
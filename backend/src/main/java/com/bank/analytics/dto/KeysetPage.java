@@ -0,0 +1,21 @@
+package com.Bank.analytics.dto;
+
+import org.springframework.http.HttpHeaders;
+import java.util.List;
+
+/**
+ * One page of a keyset listing; nextToken is null on the last page.
+ */
+public record KeysetPage<T>(List<T> items, String nextToken) {
+    
+    /** Response header carrying {@link #nextToken()}, so listing bodies stay plain JSON arrays. */
+    public static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+    
+    public HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextToken != null) {
+            headers.set(NEXT_PAGE_TOKEN_HEADER, nextToken);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,33 @@
+package com.Bank.analytics.dto;
+
+import com.Bank.analytics.exception.InvalidRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page, ordered by (date, id), carried between requests as an
+ * opaque URL-safe token.
+ */
+public record KeysetToken(LocalDate date, long id) {
+    
+    public String encode() {
+        byte[] raw = (date + ":" + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+    
+    /** Null for a null or blank token, i.e. the first page. */
+    public static KeysetToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new KeysetToken(LocalDate.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException e) {
+            throw new InvalidRequestException("Invalid pageToken");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.Bank.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegionMetricsDTO {
+    private String level;
+    private String name;
+    private String state;
+    private String city;
+    private Long branchId;
+    private Integer branchCount;
+    private Long totalFootfall;
+    private Long totalTransactions;
+    private Double totalRevenue;
+    private Double avgWaitTime;
+    private Double customerSatisfaction;
+    private List<RegionMetricsDTO> children;
+}
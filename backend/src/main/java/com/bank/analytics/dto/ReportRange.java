@@ -0,0 +1,54 @@
+package com.Bank.analytics.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Date range templates for scheduled reports, resolved against the day a run was scheduled for.
+ * Every range ends on or before the previous day, so a report only ever covers closed days.
+ */
+public enum ReportRange implements KeyedEnum {
+    
+    YESTERDAY("yesterday"),
+    LAST_7_DAYS("last-7-days"),
+    LAST_30_DAYS("last-30-days"),
+    PREVIOUS_WEEK("previous-week"),
+    PREVIOUS_MONTH("previous-month"),
+    MONTH_TO_DATE("month-to-date");
+    
+    private final String key;
+    
+    ReportRange(String key) {
+        this.key = key;
+    }
+    
+    @Override
+    public String getKey() {
+        return key;
+    }
+    
+    public LocalDate startDate(LocalDate runDate) {
+        LocalDate yesterday = runDate.minusDays(1);
+        return switch (this) {
+            case YESTERDAY -> yesterday;
+            case LAST_7_DAYS -> runDate.minusDays(7);
+            case LAST_30_DAYS -> runDate.minusDays(30);
+            case PREVIOUS_WEEK -> runDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(1);
+            case PREVIOUS_MONTH -> runDate.withDayOfMonth(1).minusMonths(1);
+            case MONTH_TO_DATE -> yesterday.withDayOfMonth(1);
+        };
+    }
+    
+    public LocalDate endDate(LocalDate runDate) {
+        return switch (this) {
+            case PREVIOUS_WEEK -> runDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusDays(1);
+            case PREVIOUS_MONTH -> runDate.withDayOfMonth(1).minusDays(1);
+            default -> runDate.minusDays(1);
+        };
+    }
+    
+    public static ReportRange fromKey(String key) {
+        return KeyedEnum.fromKey(ReportRange.class, key, "report range");
+    }
+}
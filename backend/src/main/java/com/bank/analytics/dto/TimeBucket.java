@@ -0,0 +1,55 @@
+package com.Bank.analytics.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket widths of the time-series engine. Weeks start on Monday.
+ */
+public enum TimeBucket implements KeyedEnum {
+    
+    MINUTE_15("15m"),
+    HOUR("hour"),
+    DAY("day"),
+    WEEK("week"),
+    MONTH("month");
+    
+    private final String key;
+    
+    TimeBucket(String key) {
+        this.key = key;
+    }
+    
+    @Override
+    public String getKey() {
+        return key;
+    }
+    
+    /** Start of the bucket containing the time. */
+    public LocalDateTime floor(LocalDateTime time) {
+        return switch (this) {
+            case MINUTE_15 -> time.truncatedTo(ChronoUnit.HOURS).plusMinutes(time.getMinute() / 15 * 15);
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+    
+    /** Start of the bucket after the one starting at bucketStart. */
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return switch (this) {
+            case MINUTE_15 -> bucketStart.plusMinutes(15);
+            case HOUR -> bucketStart.plusHours(1);
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+    
+    public static TimeBucket fromKey(String key) {
+        return KeyedEnum.fromKey(TimeBucket.class, key, "time bucket");
+    }
+}
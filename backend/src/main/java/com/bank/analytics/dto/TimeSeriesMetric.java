@@ -0,0 +1,39 @@
+package com.Bank.analytics.dto;
+
+/**
+ * Metrics the time-series engine can bucket. Footfall metrics come from customer entries, the
+ * others from transactions; counts are 0 for an empty bucket and averages are null.
+ */
+public enum TimeSeriesMetric implements KeyedEnum {
+    
+    FOOTFALL("footfall", false),
+    AVG_WAIT_TIME("avgWaitTime", false),
+    AVG_SERVICE_TIME("avgServiceTime", false),
+    CUSTOMER_SATISFACTION("customerSatisfaction", false),
+    TRANSACTIONS("transactions", true),
+    COMPLETED_TRANSACTIONS("completedTransactions", true),
+    REVENUE("revenue", true),
+    AVG_PROCESSING_TIME("avgProcessingTime", true);
+    
+    private final String key;
+    private final boolean transactional;
+    
+    TimeSeriesMetric(String key, boolean transactional) {
+        this.key = key;
+        this.transactional = transactional;
+    }
+    
+    @Override
+    public String getKey() {
+        return key;
+    }
+    
+    /** True when the metric is computed from transactions rather than customer entries. */
+    public boolean isTransactional() {
+        return transactional;
+    }
+    
+    public static TimeSeriesMetric fromKey(String key) {
+        return KeyedEnum.fromKey(TimeSeriesMetric.class, key, "time-series metric");
+    }
+}
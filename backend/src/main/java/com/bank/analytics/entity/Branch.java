@@ -1,5 +1,6 @@
 package com.Bank.analytics.entity;
 
+import com.Bank.analytics.event.AnalyticsDataChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -7,6 +8,7 @@ import java.time.LocalTime;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(AnalyticsDataChangeListener.class)
 @Table(name = "branches")
 @Data
 @NoArgsConstructor
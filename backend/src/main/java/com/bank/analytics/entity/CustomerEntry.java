@@ -1,15 +1,21 @@
 package com.Bank.analytics.entity;
 
+import com.Bank.analytics.event.AnalyticsDataChangeListener;
+import com.Bank.analytics.event.RollupDay;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "customer_entries")
+@EntityListeners(AnalyticsDataChangeListener.class)
+@Table(name = "customer_entries",
+       indexes = {@Index(name = "idx_customer_entries_created_at", columnList = "created_at"),
+                  @Index(name = "idx_customer_entries_date_id", columnList = "entry_date, entry_id")})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -60,6 +66,13 @@ public class CustomerEntry {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Branch branch;
     
+    // Branch and day as last loaded or written, so a write that moves the row also restates the day it left
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private RollupDay persistedDay;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,64 @@
+package com.Bank.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Customer entries pre-aggregated per branch, date, hour and visit purpose.
+ * Rows are written only by RollupRefreshService, the application reads them.
+ */
+@Entity
+@Immutable
+@Table(name = "footfall_hourly_rollup",
+       indexes = @Index(name = "idx_footfall_rollup_date", columnList = "rollup_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FootfallHourlyRollup {
+    
+    @EmbeddedId
+    private Key id;
+    
+    @Column(name = "visit_count", nullable = false)
+    private Long visitCount;
+    
+    @Column(name = "wait_sum", nullable = false)
+    private Long waitSum;
+    
+    @Column(name = "wait_count", nullable = false)
+    private Long waitCount;
+    
+    @Column(name = "service_sum", nullable = false)
+    private Long serviceSum;
+    
+    @Column(name = "service_count", nullable = false)
+    private Long serviceCount;
+    
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum;
+    
+    @Column(name = "rating_count", nullable = false)
+    private Long ratingCount;
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        
+        @Column(name = "branch_id", nullable = false)
+        private Long branchId;
+        
+        @Column(name = "rollup_date", nullable = false)
+        private LocalDate rollupDate;
+        
+        @Column(name = "rollup_hour", nullable = false)
+        private Integer rollupHour;
+        
+        @Column(name = "visit_purpose", nullable = false, length = 100)
+        private String visitPurpose;
+    }
+}
@@ -0,0 +1,83 @@
+package com.Bank.analytics.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A report run on a cron schedule: which branches (none for all), which export dataset over which
+ * range template, in which format. Keys are those of ExportDataset, ReportRange and ExportFormat.
+ */
+@Entity
+@Table(name = "report_definitions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportDefinition {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "report_id")
+    private Long reportId;
+    
+    @NotBlank
+    @Column(name = "name", nullable = false)
+    private String name;
+    
+    /** Spring cron expression: second, minute, hour, day of month, month, day of week. */
+    @NotBlank
+    @Column(name = "cron", nullable = false, length = 100)
+    private String cron;
+    
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "report_definition_branches", joinColumns = @JoinColumn(name = "report_id"))
+    @Column(name = "branch_id")
+    private List<Long> branchIds = new ArrayList<>();
+    
+    @NotBlank
+    @Column(name = "dataset", nullable = false, length = 50)
+    private String dataset;
+    
+    @NotBlank
+    @Column(name = "range_template", nullable = false, length = 50)
+    private String rangeTemplate;
+    
+    @NotBlank
+    @Column(name = "format", nullable = false, length = 10)
+    private String format;
+    
+    @Column(name = "active", nullable = false)
+    private Boolean active = true;
+    
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+    
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+    
+    @Column(name = "last_status", length = 20)
+    private String lastStatus;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,45 @@
+package com.Bank.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Catalog entry for one materialized run of a {@link ReportDefinition}; the file itself lives under
+ * the report output directory at {@code <reportId>/<fileName>}.
+ */
+@Entity
+@Table(name = "report_files",
+       indexes = @Index(name = "idx_report_files_report_created", columnList = "report_id, created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportFile {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "file_id")
+    private Long fileId;
+    
+    @Column(name = "report_id", nullable = false)
+    private Long reportId;
+    
+    @Column(name = "report_name", nullable = false)
+    private String reportName;
+    
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+    
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+    
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+    
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package com.Bank.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+
+/**
+ * A branch-day of a rollup touched by a write the created_at window cannot see (an update,
+ * a delete, a back-dated or late-committing insert), waiting to be re-aggregated.
+ */
+@Entity
+@Table(name = "rollup_changes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "change_id")
+    private Long changeId;
+    
+    @Column(name = "rollup_name", length = 50, nullable = false)
+    private String rollupName;
+    
+    @Column(name = "branch_id", nullable = false)
+    private Long branchId;
+    
+    @Column(name = "change_date", nullable = false)
+    private LocalDate changeDate;
+}
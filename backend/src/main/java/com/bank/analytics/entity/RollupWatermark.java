@@ -0,0 +1,26 @@
+package com.Bank.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * created_at high-water mark up to which a rollup table has absorbed source rows.
+ */
+@Entity
+@Table(name = "rollup_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupWatermark {
+    
+    @Id
+    @Column(name = "rollup_name", length = 50)
+    private String rollupName;
+    
+    @Column(name = "high_water_mark")
+    private LocalDateTime highWaterMark;
+    
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt;
+}
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
-@Table(name = "staff")
+@Table(name = "staff",
+       indexes = @Index(name = "idx_staff_hire_date_id", columnList = "hire_date, staff_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
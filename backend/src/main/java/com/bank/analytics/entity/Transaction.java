@@ -1,5 +1,7 @@
 package com.Bank.analytics.entity;
 
+import com.Bank.analytics.event.AnalyticsDataChangeListener;
+import com.Bank.analytics.event.RollupDay;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -7,10 +9,14 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
-@Table(name = "transactions")
+@EntityListeners(AnalyticsDataChangeListener.class)
+@Table(name = "transactions",
+       indexes = {@Index(name = "idx_transactions_created_at", columnList = "created_at"),
+                  @Index(name = "idx_transactions_date_id", columnList = "transaction_date, transaction_id")})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -65,6 +71,13 @@ public class Transaction {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Staff staff;
     
+    // Branch and day as last loaded or written, so a write that moves the row also restates the day it left
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private RollupDay persistedDay;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,59 @@
+package com.Bank.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Transactions pre-aggregated per branch, date, hour and service type.
+ * Rows are written only by RollupRefreshService, the application reads them.
+ */
+@Entity
+@Immutable
+@Table(name = "transaction_hourly_rollup",
+       indexes = @Index(name = "idx_transaction_rollup_date", columnList = "rollup_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHourlyRollup {
+    
+    @EmbeddedId
+    private Key id;
+    
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+    
+    @Column(name = "completed_count", nullable = false)
+    private Long completedCount;
+    
+    @Column(name = "completed_amount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal completedAmount;
+    
+    @Column(name = "processing_sum", nullable = false)
+    private Long processingSum;
+    
+    @Column(name = "processing_count", nullable = false)
+    private Long processingCount;
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        
+        @Column(name = "branch_id", nullable = false)
+        private Long branchId;
+        
+        @Column(name = "rollup_date", nullable = false)
+        private LocalDate rollupDate;
+        
+        @Column(name = "rollup_hour", nullable = false)
+        private Integer rollupHour;
+        
+        @Column(name = "service_type", nullable = false, length = 50)
+        private String serviceType;
+    }
+}
@@ -0,0 +1,74 @@
+package com.Bank.analytics.event;
+
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.entity.Transaction;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.ChangeType;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.DataKind;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener attached to {@link CustomerEntry}, {@link Transaction} and {@link Branch}. Hibernate
+ * obtains it from the Spring context, so every JPA write is turned into an application event.
+ * Entries and transactions also remember the branch-day they were loaded or last written with,
+ * so listeners can tell which day an update moved a row away from.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnalyticsDataChangeListener {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @PostLoad
+    public void onLoad(Object entity) {
+        rememberDay(entity);
+    }
+    
+    @PostPersist
+    public void onPersist(Object entity) {
+        publish(entity, ChangeType.CREATED);
+        rememberDay(entity);
+    }
+    
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        publish(entity, ChangeType.UPDATED);
+        rememberDay(entity);
+    }
+    
+    @PostRemove
+    public void onRemove(Object entity) {
+        publish(entity, ChangeType.DELETED);
+    }
+    
+    private void publish(Object entity, ChangeType change) {
+        if (entity instanceof CustomerEntry entry) {
+            eventPublisher.publishEvent(new AnalyticsDataChangedEvent(
+                DataKind.CUSTOMER_ENTRY, change, branchIdOf(entry.getBranch()), entry));
+        } else if (entity instanceof Transaction transaction) {
+            eventPublisher.publishEvent(new AnalyticsDataChangedEvent(
+                DataKind.TRANSACTION, change, branchIdOf(transaction.getBranch()), transaction));
+        } else if (entity instanceof Branch branch) {
+            eventPublisher.publishEvent(new AnalyticsDataChangedEvent(
+                DataKind.BRANCH, change, branch.getBranchId(), branch));
+        }
+    }
+    
+    private static void rememberDay(Object entity) {
+        if (entity instanceof CustomerEntry entry) {
+            entry.setPersistedDay(new RollupDay(branchIdOf(entry.getBranch()), entry.getEntryDate()));
+        } else if (entity instanceof Transaction transaction) {
+            transaction.setPersistedDay(new RollupDay(branchIdOf(transaction.getBranch()), transaction.getTransactionDate()));
+        }
+    }
+    
+    private static Long branchIdOf(Branch branch) {
+        return branch != null ? branch.getBranchId() : null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.Bank.analytics.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published whenever a customer entry, transaction or branch row is inserted, updated or deleted.
+ */
+@Getter
+@RequiredArgsConstructor
+@ToString(exclude = "entity")
+public class AnalyticsDataChangedEvent {
+    
+    private final DataKind kind;
+    private final ChangeType change;
+    private final Long branchId;
+    private final Object entity;
+    
+    public enum DataKind {
+        CUSTOMER_ENTRY, TRANSACTION, BRANCH
+    }
+    
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+}
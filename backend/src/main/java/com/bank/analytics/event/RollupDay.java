@@ -0,0 +1,9 @@
+package com.Bank.analytics.event;
+
+import java.time.LocalDate;
+
+/**
+ * One branch-day of a rollup.
+ */
+public record RollupDay(Long branchId, LocalDate date) {
+}
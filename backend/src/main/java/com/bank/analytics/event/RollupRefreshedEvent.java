@@ -0,0 +1,28 @@
+package com.Bank.analytics.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Published after the hourly rollups have absorbed all source rows created up to {@code cutoff}.
+ * The refresh folded in rows with created_at in ({@code footfallSince}, cutoff] and
+ * ({@code transactionSince}, cutoff]; a null bound means the rollup was loaded from scratch.
+ * {@code restatedDays} are the branch-days whose rows in either rollup were replaced by a fresh
+ * aggregate after updates, deletes or late inserts, rather than added to.
+ * {@code rebuilt} is set when the rollups were dropped and rebuilt.
+ */
+@Getter
+@RequiredArgsConstructor
+@ToString
+public class RollupRefreshedEvent {
+    
+    private final LocalDateTime cutoff;
+    private final LocalDateTime footfallSince;
+    private final LocalDateTime transactionSince;
+    private final int rowsTouched;
+    private final Set<RollupDay> restatedDays;
+    private final boolean rebuilt;
+}
@@ -12,6 +12,7 @@ import jakarta.validation.ConstraintViolationException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 @RestControllerAdvice
 @Slf4j
@@ -68,6 +69,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
     
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(InvalidRequestException ex) {
+        log.error("Invalid request: {}", ex.getMessage());
+        
+        ErrorResponse error = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.BAD_REQUEST.value())
+            .error("Invalid Request")
+            .message(ex.getMessage())
+            .build();
+            
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+    
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ErrorResponse> handleConstraintViolation(ConstraintViolationException ex) {
         log.error("Constraint violation: {}", ex.getMessage());
@@ -82,6 +97,33 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
     
+    /**
+     * Only a task that timed out, running or waiting for a connection permit, is a transient 503.
+     * Request errors raised inside a task are answered as on the request thread; anything else is a 500.
+     */
+    @ExceptionHandler(ParallelQueryException.class)
+    public ResponseEntity<ErrorResponse> handleParallelQuery(ParallelQueryException ex) {
+        if (ex.getCause() instanceof InvalidRequestException invalid) {
+            return handleInvalidRequest(invalid);
+        }
+        if (ex.getCause() instanceof ResourceNotFoundException notFound) {
+            return handleResourceNotFound(notFound);
+        }
+        if (!(ex.getCause() instanceof TimeoutException)) {
+            return handleGenericException(ex);
+        }
+        log.error("Parallel query failed: {}", ex.getMessage(), ex.getCause());
+        
+        ErrorResponse error = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+            .error("Service Unavailable")
+            .message(ex.getMessage())
+            .build();
+            
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         log.error("Unexpected error: ", ex);
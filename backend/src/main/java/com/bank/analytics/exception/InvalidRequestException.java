@@ -0,0 +1,12 @@
+package com.Bank.analytics.exception;
+
+/**
+ * Raised when a request parameter or body fails validation; the message is returned to the caller.
+ * Other IllegalArgumentExceptions stay internal and surface as 500.
+ */
+public class InvalidRequestException extends RuntimeException {
+    
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.Bank.analytics.exception;
+
+/**
+ * Raised when one task of a parallel query fan-out fails or exceeds its timeout.
+ * The remaining tasks of the same scope have been cancelled by the time this is thrown.
+ */
+public class ParallelQueryException extends RuntimeException {
+    
+    public ParallelQueryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,6 +1,11 @@
 package com.Bank.analytics.repository;
 
 import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.repository.projection.DurationCount;
+import com.Bank.analytics.repository.projection.HourlyBranchWait;
+import com.Bank.analytics.repository.projection.OpenVisit;
+import com.Bank.analytics.repository.projection.TimeBucketFootfall;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -25,6 +30,15 @@ public interface CustomerEntryRepository extends JpaRepository<CustomerEntry, Lo
     @Query("SELECT COUNT(ce) FROM CustomerEntry ce WHERE ce.branch.branchId = :branchId AND ce.entryDate = :date")
     Long countByBranchAndDate(@Param("branchId") Long branchId, @Param("date") LocalDate date);
     
+    @Query("SELECT ce.entryId AS entryId, ce.branch.branchId AS branchId, ce.entryTime AS entryTime, ce.exitTime AS exitTime " +
+           "FROM CustomerEntry ce WHERE ce.entryDate = :date AND (ce.exitTime IS NULL OR ce.exitTime > :time)")
+    List<OpenVisit> findOpenVisits(@Param("date") LocalDate date, @Param("time") java.time.LocalTime time);
+    
+    @Query("SELECT ce.branch.branchId AS branchId, EXTRACT(HOUR FROM ce.entryTime) AS hour, COUNT(ce) AS visitors, " +
+           "COALESCE(SUM(ce.waitTimeMinutes), 0) AS waitSum, COUNT(ce.waitTimeMinutes) AS waitCount FROM CustomerEntry ce " +
+           "WHERE ce.entryDate = :date GROUP BY ce.branch.branchId, EXTRACT(HOUR FROM ce.entryTime)")
+    List<HourlyBranchWait> sumVisitsAndWaitByBranchAndHour(@Param("date") LocalDate date);
+    
     @Query("SELECT AVG(ce.satisfactionRating) FROM CustomerEntry ce WHERE ce.branch.branchId = :branchId")
     Double getAverageSatisfactionByBranch(@Param("branchId") Long branchId);
     
@@ -61,4 +75,46 @@ public interface CustomerEntryRepository extends JpaRepository<CustomerEntry, Lo
     @Query("SELECT ce FROM CustomerEntry ce WHERE ce.entryTime BETWEEN :startDateTime AND :endDateTime")
     List<CustomerEntry> findByEntryTimeBetween(@Param("startDateTime") java.time.LocalDateTime startDateTime,
                                               @Param("endDateTime") java.time.LocalDateTime endDateTime);
+    
+    /**
+     * Footfall sums per quarter hour, read from the entries themselves since the rollups are hourly.
+     */
+    @Query("SELECT ce.entryDate AS bucketDate, EXTRACT(HOUR FROM ce.entryTime) AS hour, " +
+           "CASE WHEN EXTRACT(MINUTE FROM ce.entryTime) < 15 THEN 0 WHEN EXTRACT(MINUTE FROM ce.entryTime) < 30 THEN 15 WHEN EXTRACT(MINUTE FROM ce.entryTime) < 45 THEN 30 ELSE 45 END AS minute, " +
+           "COUNT(ce) AS visits, COALESCE(SUM(ce.waitTimeMinutes), 0) AS waitSum, COUNT(ce.waitTimeMinutes) AS waitCount, " +
+           "COALESCE(SUM(ce.serviceTimeMinutes), 0) AS serviceSum, COUNT(ce.serviceTimeMinutes) AS serviceCount, " +
+           "COALESCE(SUM(ce.satisfactionRating), 0) AS ratingSum, COUNT(ce.satisfactionRating) AS ratingCount FROM CustomerEntry ce " +
+           "WHERE ce.entryDate BETWEEN :startDate AND :endDate AND (:branchId IS NULL OR ce.branch.branchId = :branchId) " +
+           "GROUP BY ce.entryDate, EXTRACT(HOUR FROM ce.entryTime), " +
+           "CASE WHEN EXTRACT(MINUTE FROM ce.entryTime) < 15 THEN 0 WHEN EXTRACT(MINUTE FROM ce.entryTime) < 30 THEN 15 WHEN EXTRACT(MINUTE FROM ce.entryTime) < 45 THEN 30 ELSE 45 END")
+    List<TimeBucketFootfall> sumFootfallTotalsByQuarterHour(@Param("branchId") Long branchId,
+                                                           @Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT ce.waitTimeMinutes AS minutes, COUNT(ce) AS samples FROM CustomerEntry ce " +
+           "WHERE ce.entryDate BETWEEN :startDate AND :endDate AND ce.waitTimeMinutes IS NOT NULL " +
+           "AND (:branchId IS NULL OR ce.branch.branchId = :branchId) " +
+           "AND (:serviceType IS NULL OR UPPER(COALESCE(ce.visitPurpose, 'Unspecified')) = UPPER(:serviceType)) " +
+           "GROUP BY ce.waitTimeMinutes")
+    List<DurationCount> countWaitTimes(@Param("branchId") Long branchId,
+                                       @Param("serviceType") String serviceType,
+                                       @Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT ce.serviceTimeMinutes AS minutes, COUNT(ce) AS samples FROM CustomerEntry ce " +
+           "WHERE ce.entryDate BETWEEN :startDate AND :endDate AND ce.serviceTimeMinutes IS NOT NULL " +
+           "AND (:branchId IS NULL OR ce.branch.branchId = :branchId) " +
+           "AND (:serviceType IS NULL OR UPPER(COALESCE(ce.visitPurpose, 'Unspecified')) = UPPER(:serviceType)) " +
+           "GROUP BY ce.serviceTimeMinutes")
+    List<DurationCount> countServiceTimes(@Param("branchId") Long branchId,
+                                          @Param("serviceType") String serviceType,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT ce FROM CustomerEntry ce JOIN FETCH ce.branch ORDER BY ce.entryDate, ce.entryId")
+    List<CustomerEntry> findPage(Pageable page);
+    
+    @Query("SELECT ce FROM CustomerEntry ce JOIN FETCH ce.branch WHERE ce.entryDate > :date OR (ce.entryDate = :date AND ce.entryId > :id) " +
+           "ORDER BY ce.entryDate, ce.entryId")
+    List<CustomerEntry> findPageAfter(@Param("date") LocalDate date, @Param("id") Long id, Pageable page);
 }
\ No newline at end of file
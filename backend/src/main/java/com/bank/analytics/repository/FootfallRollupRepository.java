@@ -0,0 +1,112 @@
+package com.Bank.analytics.repository;
+
+import com.Bank.analytics.entity.FootfallHourlyRollup;
+import com.Bank.analytics.repository.projection.BranchFootfallTotals;
+import com.Bank.analytics.repository.projection.BranchHourlyVisits;
+import com.Bank.analytics.repository.projection.DailyBranchFootfall;
+import com.Bank.analytics.repository.projection.DailyBranchHourVisits;
+import com.Bank.analytics.repository.projection.DashboardKpis;
+import com.Bank.analytics.repository.projection.FootfallTotals;
+import com.Bank.analytics.repository.projection.HourlyVisits;
+import com.Bank.analytics.repository.projection.PurposeHourCount;
+import com.Bank.analytics.repository.projection.TimeBucketFootfall;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Read-only queries over footfall_hourly_rollup. A null branchId means all branches.
+ */
+@org.springframework.stereotype.Repository
+public interface FootfallRollupRepository extends Repository<FootfallHourlyRollup, FootfallHourlyRollup.Key> {
+    
+    @Query("SELECT r.id.rollupDate AS entryDate, r.id.branchId AS branchId, SUM(r.visitCount) AS visitors FROM FootfallHourlyRollup r " +
+           "WHERE r.id.rollupDate BETWEEN :startDate AND :endDate GROUP BY r.id.rollupDate, r.id.branchId")
+    List<DailyBranchFootfall> sumDailyFootfallByBranch(@Param("startDate") LocalDate startDate,
+                                                      @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT r.id.rollupDate AS entryDate, r.id.branchId AS branchId, r.id.rollupHour AS hour, SUM(r.visitCount) AS visitors, " +
+           "SUM(r.waitSum) AS waitSum, SUM(r.waitCount) AS waitCount FROM FootfallHourlyRollup r WHERE r.id.rollupDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY r.id.rollupDate, r.id.branchId, r.id.rollupHour ORDER BY r.id.rollupDate")
+    List<DailyBranchHourVisits> sumVisitsByBranchDateAndHour(@Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT r.id.rollupHour AS hour, SUM(r.visitCount) AS visitors FROM FootfallHourlyRollup r " +
+           "WHERE r.id.rollupDate BETWEEN :startDate AND :endDate AND (:branchId IS NULL OR r.id.branchId = :branchId) " +
+           "GROUP BY r.id.rollupHour")
+    List<HourlyVisits> sumVisitsByHour(@Param("branchId") Long branchId,
+                                       @Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT COALESCE(SUM(r.visitCount), 0) AS visits, COALESCE(SUM(r.waitSum), 0) AS waitSum, " +
+           "COALESCE(SUM(r.waitCount), 0) AS waitCount, COALESCE(SUM(r.serviceSum), 0) AS serviceSum, " +
+           "COALESCE(SUM(r.serviceCount), 0) AS serviceCount, COALESCE(SUM(r.ratingSum), 0) AS ratingSum, " +
+           "COALESCE(SUM(r.ratingCount), 0) AS ratingCount FROM FootfallHourlyRollup r " +
+           "WHERE r.id.rollupDate BETWEEN :startDate AND :endDate AND (:branchId IS NULL OR r.id.branchId = :branchId)")
+    FootfallTotals sumFootfallTotals(@Param("branchId") Long branchId,
+                                     @Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT r.id.branchId AS branchId, SUM(r.visitCount) AS visits, SUM(r.waitSum) AS waitSum, SUM(r.waitCount) AS waitCount, " +
+           "SUM(r.serviceSum) AS serviceSum, SUM(r.serviceCount) AS serviceCount, SUM(r.ratingSum) AS ratingSum, " +
+           "SUM(r.ratingCount) AS ratingCount FROM FootfallHourlyRollup r " +
+           "WHERE r.id.rollupDate BETWEEN :startDate AND :endDate GROUP BY r.id.branchId")
+    List<BranchFootfallTotals> sumFootfallTotalsByBranch(@Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT r.id.branchId AS branchId, r.id.rollupHour AS hour, SUM(r.visitCount) AS visitors FROM FootfallHourlyRollup r " +
+           "WHERE r.id.rollupDate BETWEEN :startDate AND :endDate GROUP BY r.id.branchId, r.id.rollupHour")
+    List<BranchHourlyVisits> sumVisitsByBranchAndHour(@Param("startDate") LocalDate startDate,
+                                                      @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT r.id.visitPurpose AS visitPurpose, r.id.rollupHour AS hour, SUM(r.visitCount) AS visitors FROM FootfallHourlyRollup r " +
+           "WHERE r.id.rollupDate BETWEEN :startDate AND :endDate AND (:branchId IS NULL OR r.id.branchId = :branchId) " +
+           "GROUP BY r.id.visitPurpose, r.id.rollupHour")
+    List<PurposeHourCount> sumVisitsByPurposeAndHour(@Param("branchId") Long branchId,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Every dashboard KPI for a branch/range in one round trip: entry and transaction
+     * rollup sums, the busiest hour, the active branch count and the branch name.
+     */
+    @Query(value = "SELECT f.visits AS visits, f.wait_sum AS waitSum, f.wait_count AS waitCount, " +
+           "f.service_sum AS serviceSum, f.service_count AS serviceCount, f.rating_sum AS ratingSum, f.rating_count AS ratingCount, " +
+           "(SELECT MAX(h.visits) FROM (SELECT SUM(visit_count) AS visits FROM footfall_hourly_rollup " +
+           "  WHERE rollup_date BETWEEN :startDate AND :endDate AND (:branchId IS NULL OR branch_id = :branchId) " +
+           "  GROUP BY rollup_hour) h) AS peakHourVisits, " +
+           "t.transactions AS transactions, t.revenue_cents AS revenueCents, t.processing_sum AS processingSum, t.processing_count AS processingCount, " +
+           "(SELECT COUNT(*) FROM branches WHERE status = 'ACTIVE') AS activeBranches, " +
+           "(SELECT branch_name FROM branches WHERE branch_id = :branchId) AS branchName " +
+           "FROM (SELECT SUM(visit_count) AS visits, SUM(wait_sum) AS wait_sum, SUM(wait_count) AS wait_count, " +
+           "  SUM(service_sum) AS service_sum, SUM(service_count) AS service_count, " +
+           "  SUM(rating_sum) AS rating_sum, SUM(rating_count) AS rating_count FROM footfall_hourly_rollup " +
+           "  WHERE rollup_date BETWEEN :startDate AND :endDate AND (:branchId IS NULL OR branch_id = :branchId)) f " +
+           "CROSS JOIN (SELECT SUM(transaction_count) AS transactions, ROUND(SUM(completed_amount) * 100) AS revenue_cents, " +
+           "  SUM(processing_sum) AS processing_sum, SUM(processing_count) AS processing_count FROM transaction_hourly_rollup " +
+           "  WHERE rollup_date BETWEEN :startDate AND :endDate AND (:branchId IS NULL OR branch_id = :branchId)) t",
+           nativeQuery = true)
+    DashboardKpis loadDashboardKpis(@Param("branchId") Long branchId,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT r.id.rollupDate AS bucketDate, 0 AS hour, 0 AS minute, SUM(r.visitCount) AS visits, SUM(r.waitSum) AS waitSum, " +
+           "SUM(r.waitCount) AS waitCount, SUM(r.serviceSum) AS serviceSum, SUM(r.serviceCount) AS serviceCount, " +
+           "SUM(r.ratingSum) AS ratingSum, SUM(r.ratingCount) AS ratingCount FROM FootfallHourlyRollup r " +
+           "WHERE r.id.rollupDate BETWEEN :startDate AND :endDate AND (:branchId IS NULL OR r.id.branchId = :branchId) " +
+           "GROUP BY r.id.rollupDate")
+    List<TimeBucketFootfall> sumFootfallTotalsByDate(@Param("branchId") Long branchId,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT r.id.rollupDate AS bucketDate, r.id.rollupHour AS hour, 0 AS minute, SUM(r.visitCount) AS visits, SUM(r.waitSum) AS waitSum, " +
+           "SUM(r.waitCount) AS waitCount, SUM(r.serviceSum) AS serviceSum, SUM(r.serviceCount) AS serviceCount, " +
+           "SUM(r.ratingSum) AS ratingSum, SUM(r.ratingCount) AS ratingCount FROM FootfallHourlyRollup r " +
+           "WHERE r.id.rollupDate BETWEEN :startDate AND :endDate AND (:branchId IS NULL OR r.id.branchId = :branchId) " +
+           "GROUP BY r.id.rollupDate, r.id.rollupHour")
+    List<TimeBucketFootfall> sumFootfallTotalsByDateAndHour(@Param("branchId") Long branchId,
+                                                           @Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
+}
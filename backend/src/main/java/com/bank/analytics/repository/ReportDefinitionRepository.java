@@ -0,0 +1,33 @@
+package com.Bank.analytics.repository;
+
+import com.Bank.analytics.entity.ReportDefinition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReportDefinitionRepository extends JpaRepository<ReportDefinition, Long> {
+    
+    @Query("SELECT r FROM ReportDefinition r WHERE r.active = true AND r.nextRunAt <= :now ORDER BY r.nextRunAt")
+    List<ReportDefinition> findDue(@Param("now") LocalDateTime now);
+    
+    // Run bookkeeping is written column by column so it never overwrites a concurrent edit of the definition
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportDefinition r SET r.nextRunAt = :nextRunAt WHERE r.reportId = :reportId")
+    int updateNextRunAt(@Param("reportId") Long reportId, @Param("nextRunAt") LocalDateTime nextRunAt);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportDefinition r SET r.lastRunAt = :lastRunAt, r.lastStatus = :lastStatus, r.lastError = :lastError " +
+           "WHERE r.reportId = :reportId")
+    int updateLastRun(@Param("reportId") Long reportId,
+                      @Param("lastRunAt") LocalDateTime lastRunAt,
+                      @Param("lastStatus") String lastStatus,
+                      @Param("lastError") String lastError);
+}
@@ -0,0 +1,17 @@
+package com.Bank.analytics.repository;
+
+import com.Bank.analytics.entity.ReportFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ReportFileRepository extends JpaRepository<ReportFile, Long> {
+    
+    @Query("SELECT f FROM ReportFile f WHERE (:reportId IS NULL OR f.reportId = :reportId) ORDER BY f.createdAt DESC, f.fileId DESC")
+    List<ReportFile> findCatalog(@Param("reportId") Long reportId);
+    
+    List<ReportFile> findByReportId(Long reportId);
+}
@@ -0,0 +1,9 @@
+package com.Bank.analytics.repository;
+
+import com.Bank.analytics.entity.RollupChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RollupChangeRepository extends JpaRepository<RollupChange, Long> {
+}
@@ -1,10 +1,12 @@
 package com.Bank.analytics.repository;
 
 import com.Bank.analytics.entity.Staff;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,4 +26,11 @@ public interface StaffRepository extends JpaRepository<Staff, Long> {
     
     @Query("SELECT COUNT(s) FROM Staff s WHERE s.branch.branchId = :branchId AND s.status = 'ACTIVE'")
     Long countActiveStaffByBranch(@Param("branchId") Long branchId);
+    
+    @Query("SELECT s FROM Staff s JOIN FETCH s.branch ORDER BY s.hireDate, s.staffId")
+    List<Staff> findPage(Pageable page);
+    
+    @Query("SELECT s FROM Staff s JOIN FETCH s.branch WHERE s.hireDate > :date OR (s.hireDate = :date AND s.staffId > :id) " +
+           "ORDER BY s.hireDate, s.staffId")
+    List<Staff> findPageAfter(@Param("date") LocalDate date, @Param("id") Long id, Pageable page);
 }
\ No newline at end of file
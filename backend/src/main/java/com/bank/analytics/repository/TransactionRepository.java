@@ -1,6 +1,9 @@
 package com.Bank.analytics.repository;
 
 import com.Bank.analytics.entity.Transaction;
+import com.Bank.analytics.repository.projection.DurationCount;
+import com.Bank.analytics.repository.projection.TimeBucketTransactions;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -27,13 +30,8 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT COUNT(t) FROM Transaction t WHERE t.branch.branchId = :branchId AND t.transactionStatus = 'COMPLETED'")
     Long countCompletedTransactionsByBranch(@Param("branchId") Long branchId);
     
-    @Query("SELECT SUM(t.transactionAmount) FROM Transaction t WHERE t.branch.branchId = :branchId AND t.transactionStatus = 'COMPLETED'")
-    Double getTotalAmountByBranch(@Param("branchId") Long branchId);
-    
-    @Query("SELECT SUM(t.transactionAmount) FROM Transaction t WHERE t.transactionDate BETWEEN :startDate AND :endDate AND t.transactionStatus = 'COMPLETED' AND (:branchId IS NULL OR t.branch.branchId = :branchId)")
-    Double getTotalAmountByBranchAndDateRange(@Param("branchId") Long branchId,
-                                             @Param("startDate") LocalDate startDate,
-                                             @Param("endDate") LocalDate endDate);
+    @Query("SELECT CAST(SUM(t.transactionAmount) * 100 AS Long) FROM Transaction t WHERE t.branch.branchId = :branchId AND t.transactionStatus = 'COMPLETED'")
+    Long getTotalCentsByBranch(@Param("branchId") Long branchId);
     
     @Query("SELECT AVG(t.processingTimeMinutes) FROM Transaction t WHERE t.transactionDate BETWEEN :startDate AND :endDate AND (:branchId IS NULL OR t.branch.branchId = :branchId)")
     Double getAverageProcessingTimeByBranch(@Param("branchId") Long branchId,
@@ -52,11 +50,39 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                                   @Param("startDate") LocalDate startDate,
                                   @Param("endDate") LocalDate endDate);
     
-    @Query("SELECT SUM(t.transactionAmount) FROM Transaction t WHERE t.transactionDate = :date AND (:branchId IS NULL OR t.branch.branchId = :branchId)")
-    Double getTotalAmountByBranchAndDate(@Param("branchId") Long branchId,
-                                        @Param("date") LocalDate date);
-    
     @Query("SELECT COUNT(t) FROM Transaction t WHERE t.transactionDate = :date AND (:branchId IS NULL OR t.branch.branchId = :branchId)")
     Long countByBranchAndDate(@Param("branchId") Long branchId,
                              @Param("date") LocalDate date);
+    
+    /**
+     * Transaction sums per quarter hour, read from the transactions themselves since the rollups are hourly.
+     */
+    @Query("SELECT t.transactionDate AS bucketDate, EXTRACT(HOUR FROM t.transactionTime) AS hour, " +
+           "CASE WHEN EXTRACT(MINUTE FROM t.transactionTime) < 15 THEN 0 WHEN EXTRACT(MINUTE FROM t.transactionTime) < 30 THEN 15 WHEN EXTRACT(MINUTE FROM t.transactionTime) < 45 THEN 30 ELSE 45 END AS minute, " +
+           "COUNT(t) AS transactions, SUM(CASE WHEN t.transactionStatus = 'COMPLETED' THEN 1 ELSE 0 END) AS completedTransactions, " +
+           "COALESCE(CAST(SUM(CASE WHEN t.transactionStatus = 'COMPLETED' THEN t.transactionAmount END) * 100 AS Long), 0) AS revenueCents, " +
+           "COALESCE(SUM(t.processingTimeMinutes), 0) AS processingSum, COUNT(t.processingTimeMinutes) AS processingCount " +
+           "FROM Transaction t WHERE t.transactionDate BETWEEN :startDate AND :endDate AND (:branchId IS NULL OR t.branch.branchId = :branchId) " +
+           "GROUP BY t.transactionDate, EXTRACT(HOUR FROM t.transactionTime), " +
+           "CASE WHEN EXTRACT(MINUTE FROM t.transactionTime) < 15 THEN 0 WHEN EXTRACT(MINUTE FROM t.transactionTime) < 30 THEN 15 WHEN EXTRACT(MINUTE FROM t.transactionTime) < 45 THEN 30 ELSE 45 END")
+    List<TimeBucketTransactions> sumTransactionTotalsByQuarterHour(@Param("branchId") Long branchId,
+                                                                  @Param("startDate") LocalDate startDate,
+                                                                  @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT t.processingTimeMinutes AS minutes, COUNT(t) AS samples FROM Transaction t " +
+           "WHERE t.transactionDate BETWEEN :startDate AND :endDate AND t.processingTimeMinutes IS NOT NULL " +
+           "AND (:branchId IS NULL OR t.branch.branchId = :branchId) " +
+           "AND (:serviceType IS NULL OR UPPER(t.serviceType) = UPPER(:serviceType)) " +
+           "GROUP BY t.processingTimeMinutes")
+    List<DurationCount> countProcessingTimes(@Param("branchId") Long branchId,
+                                             @Param("serviceType") String serviceType,
+                                             @Param("startDate") LocalDate startDate,
+                                             @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.branch ORDER BY t.transactionDate, t.transactionId")
+    List<Transaction> findPage(Pageable page);
+    
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.branch WHERE t.transactionDate > :date OR (t.transactionDate = :date AND t.transactionId > :id) " +
+           "ORDER BY t.transactionDate, t.transactionId")
+    List<Transaction> findPageAfter(@Param("date") LocalDate date, @Param("id") Long id, Pageable page);
 }
\ No newline at end of file
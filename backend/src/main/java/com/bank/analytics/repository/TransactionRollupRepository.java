@@ -0,0 +1,57 @@
+package com.Bank.analytics.repository;
+
+import com.Bank.analytics.entity.TransactionHourlyRollup;
+import com.Bank.analytics.repository.projection.BranchTransactionTotals;
+import com.Bank.analytics.repository.projection.DailyTransactionTotals;
+import com.Bank.analytics.repository.projection.TimeBucketTransactions;
+import com.Bank.analytics.repository.projection.TransactionTotals;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Read-only queries over transaction_hourly_rollup. A null branchId means all branches.
+ */
+@org.springframework.stereotype.Repository
+public interface TransactionRollupRepository extends Repository<TransactionHourlyRollup, TransactionHourlyRollup.Key> {
+    
+    @Query("SELECT COALESCE(SUM(r.transactionCount), 0) AS transactions, COALESCE(SUM(r.completedCount), 0) AS completedTransactions, " +
+           "COALESCE(CAST(SUM(r.completedAmount) * 100 AS Long), 0) AS revenueCents, COALESCE(SUM(r.processingSum), 0) AS processingSum, " +
+           "COALESCE(SUM(r.processingCount), 0) AS processingCount FROM TransactionHourlyRollup r " +
+           "WHERE r.id.rollupDate BETWEEN :startDate AND :endDate AND (:branchId IS NULL OR r.id.branchId = :branchId)")
+    TransactionTotals sumTransactionTotals(@Param("branchId") Long branchId,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT r.id.branchId AS branchId, SUM(r.transactionCount) AS transactions, SUM(r.completedCount) AS completedTransactions, " +
+           "CAST(SUM(r.completedAmount) * 100 AS Long) AS revenueCents, SUM(r.processingSum) AS processingSum, SUM(r.processingCount) AS processingCount " +
+           "FROM TransactionHourlyRollup r WHERE r.id.rollupDate BETWEEN :startDate AND :endDate GROUP BY r.id.branchId")
+    List<BranchTransactionTotals> sumTransactionTotalsByBranch(@Param("startDate") LocalDate startDate,
+                                                               @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT r.id.rollupDate AS transactionDate, SUM(r.transactionCount) AS transactions, " +
+           "CAST(SUM(r.completedAmount) * 100 AS Long) AS revenueCents " +
+           "FROM TransactionHourlyRollup r WHERE r.id.rollupDate BETWEEN :startDate AND :endDate " +
+           "AND (:branchId IS NULL OR r.id.branchId = :branchId) GROUP BY r.id.rollupDate")
+    List<DailyTransactionTotals> sumDailyTotals(@Param("branchId") Long branchId,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT r.id.rollupDate AS bucketDate, 0 AS hour, 0 AS minute, SUM(r.transactionCount) AS transactions, " +
+           "SUM(r.completedCount) AS completedTransactions, CAST(SUM(r.completedAmount) * 100 AS Long) AS revenueCents, SUM(r.processingSum) AS processingSum, " +
+           "SUM(r.processingCount) AS processingCount FROM TransactionHourlyRollup r WHERE r.id.rollupDate BETWEEN :startDate AND :endDate " +
+           "AND (:branchId IS NULL OR r.id.branchId = :branchId) GROUP BY r.id.rollupDate")
+    List<TimeBucketTransactions> sumTransactionTotalsByDate(@Param("branchId") Long branchId,
+                                                           @Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT r.id.rollupDate AS bucketDate, r.id.rollupHour AS hour, 0 AS minute, SUM(r.transactionCount) AS transactions, " +
+           "SUM(r.completedCount) AS completedTransactions, CAST(SUM(r.completedAmount) * 100 AS Long) AS revenueCents, SUM(r.processingSum) AS processingSum, " +
+           "SUM(r.processingCount) AS processingCount FROM TransactionHourlyRollup r WHERE r.id.rollupDate BETWEEN :startDate AND :endDate " +
+           "AND (:branchId IS NULL OR r.id.branchId = :branchId) GROUP BY r.id.rollupDate, r.id.rollupHour")
+    List<TimeBucketTransactions> sumTransactionTotalsByDateAndHour(@Param("branchId") Long branchId,
+                                                                  @Param("startDate") LocalDate startDate,
+                                                                  @Param("endDate") LocalDate endDate);
+}
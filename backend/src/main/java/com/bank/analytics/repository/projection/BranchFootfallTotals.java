@@ -0,0 +1,8 @@
+package com.Bank.analytics.repository.projection;
+
+/**
+ * Additive footfall sums for one branch over a range.
+ */
+public interface BranchFootfallTotals extends FootfallTotals {
+    Long getBranchId();
+}
@@ -0,0 +1,10 @@
+package com.Bank.analytics.repository.projection;
+
+/**
+ * Visitors for a branch within one hour of the day (0-23), summed over a date range.
+ */
+public interface BranchHourlyVisits {
+    Long getBranchId();
+    Integer getHour();
+    Long getVisitors();
+}
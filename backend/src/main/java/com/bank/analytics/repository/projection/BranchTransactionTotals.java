@@ -0,0 +1,8 @@
+package com.Bank.analytics.repository.projection;
+
+/**
+ * Additive transaction sums for one branch over a range.
+ */
+public interface BranchTransactionTotals extends TransactionTotals {
+    Long getBranchId();
+}
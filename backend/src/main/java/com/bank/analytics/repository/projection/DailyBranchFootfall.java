@@ -0,0 +1,12 @@
+package com.Bank.analytics.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the grouped footfall aggregate: visitors for a branch on a date.
+ */
+public interface DailyBranchFootfall {
+    LocalDate getEntryDate();
+    Long getBranchId();
+    Long getVisitors();
+}
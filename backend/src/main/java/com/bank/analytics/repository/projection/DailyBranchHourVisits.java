@@ -0,0 +1,15 @@
+package com.Bank.analytics.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Visitors, and their summed and counted wait times, for a branch within one hour (0-23) of one date.
+ */
+public interface DailyBranchHourVisits {
+    LocalDate getEntryDate();
+    Long getBranchId();
+    Integer getHour();
+    Long getVisitors();
+    Long getWaitSum();
+    Long getWaitCount();
+}
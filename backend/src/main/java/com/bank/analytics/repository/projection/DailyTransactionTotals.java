@@ -0,0 +1,12 @@
+package com.Bank.analytics.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Transaction count and completed revenue in cents for one date.
+ */
+public interface DailyTransactionTotals {
+    LocalDate getTransactionDate();
+    Long getTransactions();
+    Long getRevenueCents();
+}
@@ -0,0 +1,22 @@
+package com.Bank.analytics.repository.projection;
+
+/**
+ * Raw sums behind the dashboard KPIs for a branch (or all branches) and date range.
+ * Averages are derived from the sum/count pairs by the caller.
+ */
+public interface DashboardKpis {
+    Long getVisits();
+    Long getWaitSum();
+    Long getWaitCount();
+    Long getServiceSum();
+    Long getServiceCount();
+    Long getRatingSum();
+    Long getRatingCount();
+    Long getPeakHourVisits();
+    Long getTransactions();
+    Long getRevenueCents();
+    Long getProcessingSum();
+    Long getProcessingCount();
+    Long getActiveBranches();
+    String getBranchName();
+}
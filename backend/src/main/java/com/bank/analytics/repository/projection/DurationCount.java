@@ -0,0 +1,9 @@
+package com.Bank.analytics.repository.projection;
+
+/**
+ * How many rows had one duration, in minutes, over a date range.
+ */
+public interface DurationCount {
+    Integer getMinutes();
+    Long getSamples();
+}
@@ -0,0 +1,14 @@
+package com.Bank.analytics.repository.projection;
+
+/**
+ * Additive footfall sums for a branch/range. Each *Count is the number of entries that had the value.
+ */
+public interface FootfallTotals {
+    Long getVisits();
+    Long getWaitSum();
+    Long getWaitCount();
+    Long getServiceSum();
+    Long getServiceCount();
+    Long getRatingSum();
+    Long getRatingCount();
+}
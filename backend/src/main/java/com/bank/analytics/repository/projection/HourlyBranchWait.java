@@ -0,0 +1,12 @@
+package com.Bank.analytics.repository.projection;
+
+/**
+ * Visitors and wait-time sums for a branch within one hour of the day (0-23).
+ */
+public interface HourlyBranchWait {
+    Long getBranchId();
+    Integer getHour();
+    Long getVisitors();
+    Long getWaitSum();
+    Long getWaitCount();
+}
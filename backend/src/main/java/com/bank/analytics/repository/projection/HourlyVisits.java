@@ -0,0 +1,9 @@
+package com.Bank.analytics.repository.projection;
+
+/**
+ * Visitors within one hour of the day (0-23), summed over a date range.
+ */
+public interface HourlyVisits {
+    Integer getHour();
+    Long getVisitors();
+}
@@ -0,0 +1,13 @@
+package com.Bank.analytics.repository.projection;
+
+import java.time.LocalTime;
+
+/**
+ * A visit of the day that has not ended yet: the customer is in the branch or still expected.
+ */
+public interface OpenVisit {
+    Long getEntryId();
+    Long getBranchId();
+    LocalTime getEntryTime();
+    LocalTime getExitTime();
+}
@@ -0,0 +1,10 @@
+package com.Bank.analytics.repository.projection;
+
+/**
+ * Visitors for a visit purpose within an hour of the day, summed over a date range.
+ */
+public interface PurposeHourCount {
+    String getVisitPurpose();
+    Integer getHour();
+    Long getVisitors();
+}
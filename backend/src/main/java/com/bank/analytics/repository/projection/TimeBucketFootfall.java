@@ -0,0 +1,13 @@
+package com.Bank.analytics.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Footfall sums for one time slot: a date, an hour (0-23) and the first minute of its quarter hour.
+ * Coarser groupings report hour and minute as 0.
+ */
+public interface TimeBucketFootfall extends FootfallTotals {
+    LocalDate getBucketDate();
+    Integer getHour();
+    Integer getMinute();
+}
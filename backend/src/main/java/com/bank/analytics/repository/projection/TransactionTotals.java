@@ -0,0 +1,12 @@
+package com.Bank.analytics.repository.projection;
+
+/**
+ * Additive transaction sums for a branch/range; revenue, in cents, counts completed transactions only.
+ */
+public interface TransactionTotals {
+    Long getTransactions();
+    Long getCompletedTransactions();
+    Long getRevenueCents();
+    Long getProcessingSum();
+    Long getProcessingCount();
+}
@@ -0,0 +1,275 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.config.AlertProperties;
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.repository.BranchRepository;
+import com.Bank.analytics.repository.CustomerEntryRepository;
+import com.Bank.analytics.repository.projection.HourlyBranchWait;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Evaluates dashboard alert rules as data arrives and keeps the active alerts in memory.
+ *
+ * Rules, with per-branch thresholds from {@link AlertProperties}:
+ * occupancy against max capacity, average wait over the current and previous hour against the
+ * wait SLA, and visitors this hour against the usual visitors for that hour (a footfall spike).
+ * Each branch keeps today's hourly visit and wait counters. A created or deleted entry adjusts
+ * them and re-evaluates that branch only; an update, which may have moved the entry to another
+ * hour, branch or wait, re-reads today's counters. A periodic tick picks up time-driven changes. Rebuilds,
+ * ticks and entry writes share the instance lock, so a write cannot land in branch state that a
+ * running rebuild is about to replace. Readers get an immutable snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AlertRuleEngine {
+    
+    private static final int HOURS_PER_DAY = HourlyHistogram.HOURS_PER_DAY;
+    private static final int BASELINE_DAYS = 28;
+    private static final DateTimeFormatter SINCE_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    
+    private final AlertProperties alertProperties;
+    private final BranchRepository branchRepository;
+    private final CustomerEntryRepository customerEntryRepository;
+    private final HourlyHistogramService hourlyHistogramService;
+    private final BusinessCalendarService businessCalendarService;
+    private final OccupancyTracker occupancyTracker;
+    
+    private volatile Map<Long, BranchState> states = Map.of();
+    private volatile List<Map<String, Object>> snapshot = List.of();
+    private volatile LocalDate day;
+    
+    /** Active alerts across all branches, or a single "operating normally" notice. */
+    public List<Map<String, Object>> currentAlerts() {
+        List<Map<String, Object>> alerts = snapshot;
+        return alerts.isEmpty() ? List.of(normalAlert()) : alerts;
+    }
+    
+    /** Active alerts across all branches, empty when there are none. */
+    public List<Map<String, Object>> activeAlerts() {
+        return snapshot;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        LocalDate today = LocalDate.now();
+        LocalDate baselineStart = today.minusDays(BASELINE_DAYS);
+        LocalDate baselineEnd = today.minusDays(1);
+        long baselineDays = Math.max(1, businessCalendarService.workingDays(baselineStart, baselineEnd));
+        
+        Map<Long, BranchState> rebuilt = new TreeMap<>();
+        for (Branch branch : branchRepository.findAll()) {
+            if (branch.getStatus() != null && branch.getStatus() != Branch.BranchStatus.ACTIVE) {
+                continue;
+            }
+            HourlyHistogram usual = hourlyHistogramService.getHistogram(branch.getBranchId(), baselineStart, baselineEnd);
+            double[] baseline = new double[HOURS_PER_DAY];
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                baseline[hour] = usual.visitors(hour) / (double) baselineDays;
+            }
+            rebuilt.put(branch.getBranchId(), new BranchState(branch.getBranchId(), branch.getBranchName(), baseline));
+        }
+        loadCounters(rebuilt, today);
+        states = rebuilt;
+        day = today;
+        LocalTime now = LocalTime.now();
+        rebuilt.values().forEach(state -> evaluate(state, now));
+        publish();
+        log.info("Alert rules rebuilt for {} branches, {} active alerts", rebuilt.size(), snapshot.size());
+    }
+    
+    @Scheduled(fixedDelayString = "${analytics.alerts.evaluate-interval-ms:30000}", initialDelay = 30000)
+    public synchronized void tick() {
+        if (!LocalDate.now().equals(day)) {
+            rebuild();
+        } else {
+            evaluateAll();
+        }
+    }
+    
+    // Runs after OccupancyTracker so the occupancy rule sees the entry that triggered it
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public synchronized void onDataChanged(AnalyticsDataChangedEvent event) {
+        if (event.getKind() == AnalyticsDataChangedEvent.DataKind.BRANCH) {
+            rebuild();
+            return;
+        }
+        if (event.getKind() != AnalyticsDataChangedEvent.DataKind.CUSTOMER_ENTRY || event.getBranchId() == null) {
+            return;
+        }
+        if (event.getChange() == AnalyticsDataChangedEvent.ChangeType.UPDATED) {
+            // The entry's previous hour, wait and branch are gone by now, so re-read today
+            if (day != null) {
+                loadCounters(states, day);
+                evaluateAll();
+            }
+            return;
+        }
+        BranchState state = states.get(event.getBranchId());
+        if (state == null) {
+            return;
+        }
+        if (event.getEntity() instanceof CustomerEntry entry
+                && LocalDate.now().equals(entry.getEntryDate()) && entry.getEntryTime() != null) {
+            int delta = event.getChange() == AnalyticsDataChangedEvent.ChangeType.DELETED ? -1 : 1;
+            state.record(entry.getEntryTime().getHour(), entry.getWaitTimeMinutes(), delta);
+        }
+        if (evaluate(state, LocalTime.now())) {
+            publish();
+        }
+    }
+    
+    /** Replaces the hourly counters of the given branches with the day's totals from the entries. */
+    private void loadCounters(Map<Long, BranchState> target, LocalDate date) {
+        target.values().forEach(BranchState::clear);
+        for (HourlyBranchWait row : customerEntryRepository.sumVisitsAndWaitByBranchAndHour(date)) {
+            BranchState state = target.get(row.getBranchId());
+            if (state != null) {
+                state.set(row.getHour(), row.getVisitors(), row.getWaitSum(), row.getWaitCount());
+            }
+        }
+    }
+    
+    private void evaluateAll() {
+        LocalTime now = LocalTime.now();
+        boolean changed = false;
+        for (BranchState state : states.values()) {
+            changed |= evaluate(state, now);
+        }
+        if (changed) {
+            publish();
+        }
+    }
+    
+    /**
+     * Re-runs every rule for one branch. Returns whether its set of active alerts changed.
+     */
+    private boolean evaluate(BranchState state, LocalTime now) {
+        AlertProperties.Thresholds thresholds = alertProperties.forBranch(state.branchId);
+        Map<String, Alert> active = new LinkedHashMap<>();
+        
+        int occupancy = occupancyTracker.occupancy(state.branchId);
+        int capacity = businessCalendarService.capacity(state.branchId);
+        if (capacity > 0 && occupancy >= capacity) {
+            state.raise(active, "OCCUPANCY", "critical",
+                state.branchName + " over capacity (" + occupancy + "/" + capacity + " customers)", now);
+        } else if (capacity > 0 && occupancy >= thresholds.getOccupancyRatio() * capacity) {
+            state.raise(active, "OCCUPANCY", "warning",
+                state.branchName + " approaching capacity (" + occupancy + "/" + capacity + " customers)", now);
+        }
+        
+        synchronized (state) {
+            int hour = now.getHour();
+            long waitSum = state.waitSum[hour] + (hour > 0 ? state.waitSum[hour - 1] : 0);
+            long waitCount = state.waitCount[hour] + (hour > 0 ? state.waitCount[hour - 1] : 0);
+            if (waitCount >= thresholds.getWaitMinSamples() && waitSum > (long) thresholds.getWaitSlaMinutes() * waitCount) {
+                state.raise(active, "WAIT_SLA", "warning", state.branchName + " average wait " + Math.round(waitSum / (double) waitCount)
+                    + " min exceeds " + thresholds.getWaitSlaMinutes() + " min SLA", now);
+            }
+            
+            long visits = state.visits[hour];
+            double usual = state.baseline[hour];
+            if (visits >= thresholds.getSpikeMinVisitors() && visits >= thresholds.getSpikeFactor() * usual) {
+                state.raise(active, "FOOTFALL_SPIKE", "warning", state.branchName + " footfall spike (" + visits
+                    + " visitors this hour, usually " + Math.round(usual) + ")", now);
+            }
+            
+            boolean changed = !active.keySet().equals(state.active.keySet())
+                || active.values().stream().anyMatch(a -> !a.equals(state.active.get(a.rule)));
+            state.active = active;
+            return changed;
+        }
+    }
+    
+    private synchronized void publish() {
+        List<Map<String, Object>> alerts = new ArrayList<>();
+        for (BranchState state : states.values()) {
+            for (Alert alert : state.active.values()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("id", state.branchId + "-" + alert.rule);
+                entry.put("branchId", state.branchId);
+                entry.put("rule", alert.rule);
+                entry.put("type", alert.severity);
+                entry.put("message", alert.message);
+                entry.put("time", "Since " + alert.since.format(SINCE_FORMAT));
+                alerts.add(Map.copyOf(entry));
+            }
+        }
+        snapshot = List.copyOf(alerts);
+    }
+    
+    static Map<String, Object> normalAlert() {
+        return Map.of("id", 0, "type", "info", "message", "All branches operating normally", "time", "Live");
+    }
+    
+    private record Alert(String rule, String severity, String message, LocalTime since) {
+    }
+    
+    /**
+     * Today's counters and current alerts of one branch. Counters are guarded by the instance.
+     */
+    private static final class BranchState {
+        
+        private final Long branchId;
+        private final String branchName;
+        private final double[] baseline;
+        private final long[] visits = new long[HOURS_PER_DAY];
+        private final long[] waitSum = new long[HOURS_PER_DAY];
+        private final long[] waitCount = new long[HOURS_PER_DAY];
+        private volatile Map<String, Alert> active = Map.of();
+        
+        BranchState(Long branchId, String branchName, double[] baseline) {
+            this.branchId = branchId;
+            this.branchName = branchName != null ? branchName : "Branch " + branchId;
+            this.baseline = baseline;
+        }
+        
+        /** Counts an entry in (delta 1) or out of (delta -1) its hour. */
+        synchronized void record(int hour, Integer waitMinutes, int delta) {
+            visits[hour] = Math.max(0, visits[hour] + delta);
+            if (waitMinutes != null) {
+                waitSum[hour] = Math.max(0, waitSum[hour] + (long) delta * waitMinutes);
+                waitCount[hour] = Math.max(0, waitCount[hour] + delta);
+            }
+        }
+        
+        synchronized void set(int hour, long visitCount, long waitTotal, long waitSamples) {
+            visits[hour] = visitCount;
+            waitSum[hour] = waitTotal;
+            waitCount[hour] = waitSamples;
+        }
+        
+        synchronized void clear() {
+            Arrays.fill(visits, 0);
+            Arrays.fill(waitSum, 0);
+            Arrays.fill(waitCount, 0);
+        }
+        
+        /** Adds an alert to the new set, keeping the original start time if it was already active. */
+        void raise(Map<String, Alert> next, String rule, String severity, String message, LocalTime now) {
+            Alert previous = active.get(rule);
+            LocalTime since = previous != null && previous.severity.equals(severity) ? previous.since : now;
+            next.put(rule, new Alert(rule, severity, message, since));
+        }
+    }
+}
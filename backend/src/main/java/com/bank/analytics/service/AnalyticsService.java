@@ -1,122 +1,340 @@
 package com.Bank.analytics.service;
 
 import com.Bank.analytics.dto.DashboardMetricsDTO;
+import com.Bank.analytics.dto.DashboardWidget;
 import com.Bank.analytics.dto.FootfallTrendDTO;
 import com.Bank.analytics.dto.PeakHourDTO;
-import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.exception.InvalidRequestException;
 import com.Bank.analytics.repository.BranchRepository;
 import com.Bank.analytics.repository.CustomerEntryRepository;
-import com.Bank.analytics.repository.TransactionRepository;
+import com.Bank.analytics.repository.FootfallRollupRepository;
+import com.Bank.analytics.repository.TransactionRollupRepository;
+import com.Bank.analytics.repository.projection.DailyTransactionTotals;
+import com.Bank.analytics.repository.projection.DashboardKpis;
+import com.Bank.analytics.store.CubeMeasure;
+import com.Bank.analytics.store.CubeTotals;
+import com.Bank.analytics.store.FootfallStore;
+import com.Bank.analytics.store.FootfallSummary;
+import com.Bank.analytics.store.Money;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.time.DayOfWeek;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.HashMap;
-import com.Bank.analytics.entity.Transaction;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AnalyticsService {
     
+    private static final Map<String, ToDoubleFunction<DashboardMetricsDTO>> RANK_METRICS = Map.of(
+        "totalFootfall", DashboardMetricsDTO::getTotalFootfall,
+        "peakHourTraffic", DashboardMetricsDTO::getPeakHourTraffic,
+        "avgVisitDuration", DashboardMetricsDTO::getAvgVisitDuration,
+        "customerSatisfaction", DashboardMetricsDTO::getCustomerSatisfaction,
+        "serviceEfficiency", DashboardMetricsDTO::getServiceEfficiency,
+        "totalRevenue", DashboardMetricsDTO::getTotalRevenue);
+    private static final int MAX_FORECAST_DAYS = 90;
+    
     private final CustomerEntryRepository customerEntryRepository;
+    private final HourlyHistogramService hourlyHistogramService;
+    private final ParallelQueryExecutor parallelQueryExecutor;
     private final BranchRepository branchRepository;
-    private final TransactionRepository transactionRepository;
+    private final FootfallRollupRepository footfallRollupRepository;
+    private final FootfallStore footfallStore;
+    private final RangeTotalsService rangeTotalsService;
+    private final BusinessCalendarService businessCalendarService;
+    private final TransactionRollupRepository transactionRollupRepository;
+    private final OccupancyTracker occupancyTracker;
+    private final AlertRuleEngine alertRuleEngine;
+    private final AnomalyDetector anomalyDetector;
+    private final FootfallForecastService footfallForecastService;
     
     public DashboardMetricsDTO getDashboardMetrics(Long branchId, LocalDate startDate, LocalDate endDate) {
-        Long totalFootfall = getTotalFootfall(branchId, startDate, endDate);
-        Long peakHourTraffic = getPeakHourTraffic(branchId, startDate, endDate);
-        Double avgSatisfaction = getAverageSatisfaction(branchId, startDate, endDate);
-        Double avgVisitDuration = getAverageVisitDuration(branchId, startDate, endDate);
-        Double serviceEfficiency = calculateServiceEfficiencyScore(branchId, startDate, endDate);
-        Long activeBranches = branchRepository.countActiveBranches();
-        
-        String branchName = branchId != null ? 
-            branchRepository.findById(branchId).map(b -> b.getBranchName()).orElse("All Branches") : 
-            "All Branches";
-            
-        Double totalRevenue = transactionRepository.getTotalAmountByBranchAndDateRange(branchId, startDate, endDate);
+        if (!rangeTotalsService.isCubeReady()) {
+            return getDashboardMetricsFromRollups(branchId, startDate, endDate);
+        }
+        
+        // Sums and the hourly histogram are two prefix-cube lookups each, whatever the range
+        CubeTotals totals = rangeTotalsService.totals(branchId, startDate, endDate);
+        HourlyHistogram histogram = hourlyHistogramService.getHistogram(branchId, startDate, endDate);
+        return buildDashboardMetrics(branchId, startDate, endDate, totals, histogram);
+    }
+    
+    private DashboardMetricsDTO buildDashboardMetrics(Long branchId, LocalDate startDate, LocalDate endDate,
+                                                      CubeTotals totals, HourlyHistogram histogram) {
+        String branchName = branchId != null
+            ? branchRepository.findById(branchId).map(Branch::getBranchName).orElse("All Branches")
+            : "All Branches";
+        return toDashboardMetrics(totals, histogram, branchName, branchRepository.countActiveBranches(), startDate, endDate);
+    }
+    
+    private DashboardMetricsDTO toDashboardMetrics(CubeTotals totals, HourlyHistogram histogram, String branchName,
+                                                   Long activeBranches, LocalDate startDate, LocalDate endDate) {
+        Double avgSatisfaction = totals.average(CubeMeasure.RATING_SUM, CubeMeasure.RATING_COUNT);
+        Double avgVisitDuration = totals.average(CubeMeasure.SERVICE_SUM, CubeMeasure.SERVICE_COUNT);
+        Double serviceEfficiency = calculateServiceEfficiencyScore(
+            totals.average(CubeMeasure.WAIT_SUM, CubeMeasure.WAIT_COUNT),
+            totals.average(CubeMeasure.PROCESSING_SUM, CubeMeasure.PROCESSING_COUNT));
         
         return DashboardMetricsDTO.builder()
-            .totalFootfall(totalFootfall)
-            .peakHourTraffic(peakHourTraffic)
-            .avgVisitDuration(avgVisitDuration)
-            .customerSatisfaction(avgSatisfaction)
+            .totalFootfall(totals.get(CubeMeasure.VISITS))
+            .peakHourTraffic(histogram.peakVisitors())
+            .avgVisitDuration(avgVisitDuration != null ? avgVisitDuration : 25.0)
+            .customerSatisfaction(avgSatisfaction != null ? avgSatisfaction : 4.0)
             .activeBranches(activeBranches)
             .serviceEfficiency(serviceEfficiency)
-            .totalRevenue(totalRevenue != null ? totalRevenue : 0.0)
+            .totalRevenue(Money.toDouble(totals.get(CubeMeasure.REVENUE_CENTS)))
             .branchName(branchName)
             .dateRange(startDate + " to " + endDate)
             .build();
     }
     
-    public List<FootfallTrendDTO> getFootfallTrends(LocalDate startDate, LocalDate endDate) {
-        List<FootfallTrendDTO> trends = new ArrayList<>();
+    private DashboardMetricsDTO getDashboardMetricsFromRollups(Long branchId, LocalDate startDate, LocalDate endDate) {
+        // One aggregate statement returns every KPI sum for the branch/range
+        DashboardKpis kpis = footfallRollupRepository.loadDashboardKpis(branchId, startDate, endDate);
         
-        LocalDate current = startDate;
-        while (!current.isAfter(endDate)) {
-            // Use same logic as getTotalFootfall but per branch and per day
-            Long siruseri = customerEntryRepository.countByBranchAndDate(1L, current);
-            Long tnagar = customerEntryRepository.countByBranchAndDate(2L, current);
-            Long navalur = customerEntryRepository.countByBranchAndDate(3L, current);
-            
-            // Ensure we handle null values properly (convert to 0)
-            siruseri = siruseri != null ? siruseri : 0L;
-            tnagar = tnagar != null ? tnagar : 0L;
-            navalur = navalur != null ? navalur : 0L;
-            
-            trends.add(FootfallTrendDTO.builder()
-                .date(current)
-                .siruseri(siruseri)
-                .tnagar(tnagar)
-                .navalur(navalur)
-                .total(siruseri + tnagar + navalur)
-                .predicted(null)
-                .build());
-                
-            current = current.plusDays(1);
+        Double avgSatisfaction = average(kpis.getRatingSum(), kpis.getRatingCount());
+        Double avgVisitDuration = average(kpis.getServiceSum(), kpis.getServiceCount());
+        Double serviceEfficiency = calculateServiceEfficiencyScore(
+            average(kpis.getWaitSum(), kpis.getWaitCount()),
+            average(kpis.getProcessingSum(), kpis.getProcessingCount()));
+        
+        String branchName = branchId != null && kpis.getBranchName() != null ? kpis.getBranchName() : "All Branches";
+        
+        return DashboardMetricsDTO.builder()
+            .totalFootfall(kpis.getVisits() != null ? kpis.getVisits() : 0L)
+            .peakHourTraffic(kpis.getPeakHourVisits() != null ? kpis.getPeakHourVisits() : 0L)
+            .avgVisitDuration(avgVisitDuration != null ? avgVisitDuration : 25.0)
+            .customerSatisfaction(avgSatisfaction != null ? avgSatisfaction : 4.0)
+            .activeBranches(kpis.getActiveBranches())
+            .serviceEfficiency(serviceEfficiency)
+            .totalRevenue(Money.toDouble(Money.cents(kpis.getRevenueCents())))
+            .branchName(branchName)
+            .dateRange(startDate + " to " + endDate)
+            .build();
+    }
+    
+    /**
+     * Dashboard metrics for many branches at once, ranked server-side. Every branch is served from
+     * the same grouped totals, so the number of queries does not depend on the branch count.
+     *
+     * @param branchIds branches to compare, all active branches when null or empty
+     * @param rankBy    metric to rank by (a {@link DashboardMetricsDTO} field), highest first
+     * @param top       keep only the best N when set
+     * @param bottom    keep only the worst N when set; with top, both ends are returned
+     */
+    public List<DashboardMetricsDTO> getBranchComparison(List<Long> branchIds, LocalDate startDate, LocalDate endDate,
+                                                         String rankBy, Integer top, Integer bottom) {
+        ToDoubleFunction<DashboardMetricsDTO> rankMetric = RANK_METRICS.get(rankBy);
+        if (rankMetric == null) {
+            throw new InvalidRequestException("Cannot rank branches by '" + rankBy + "', expected one of " + RANK_METRICS.keySet());
         }
         
-        return trends;
+        List<Branch> branches = branchRepository.findAll();
+        long activeBranches = branches.stream().filter(b -> b.getStatus() == Branch.BranchStatus.ACTIVE).count();
+        Set<Long> requested = branchIds != null && !branchIds.isEmpty() ? Set.copyOf(branchIds) : null;
+        List<Branch> compared = branches.stream()
+            .filter(b -> requested != null ? requested.contains(b.getBranchId()) : b.getStatus() == Branch.BranchStatus.ACTIVE)
+            .collect(Collectors.toList());
+        
+        Map<Long, CubeTotals> totals = rangeTotalsService.totalsByBranch(
+            compared.stream().map(Branch::getBranchId).collect(Collectors.toList()), startDate, endDate);
+        List<DashboardMetricsDTO> ranked = new ArrayList<>(compared.size());
+        for (Branch branch : compared) {
+            CubeTotals branchTotals = totals.get(branch.getBranchId());
+            DashboardMetricsDTO metrics = toDashboardMetrics(branchTotals, new HourlyHistogram(branchTotals.visitsByHour()),
+                branch.getBranchName(), activeBranches, startDate, endDate);
+            metrics.setBranchId(branch.getBranchId());
+            ranked.add(metrics);
+        }
+        ranked.sort(Comparator.comparingDouble(rankMetric).reversed()
+            .thenComparing(DashboardMetricsDTO::getBranchId));
+        for (int i = 0; i < ranked.size(); i++) {
+            ranked.get(i).setRank(i + 1);
+        }
+        
+        if (top == null && bottom == null) {
+            return ranked;
+        }
+        int topCount = top != null ? Math.min(Math.max(top, 0), ranked.size()) : 0;
+        int bottomFrom = bottom != null ? Math.max(topCount, ranked.size() - Math.max(bottom, 0)) : ranked.size();
+        List<DashboardMetricsDTO> selected = new ArrayList<>(ranked.subList(0, topCount));
+        selected.addAll(ranked.subList(bottomFrom, ranked.size()));
+        return selected;
+    }
+    
+    /**
+     * Several dashboard widgets for one branch/range from a single data pass. The range totals
+     * (which carry the hourly histogram) are loaded once and shared by every widget; the other
+     * inputs are loaded side by side, and only when a requested widget needs them.
+     */
+    public Map<String, Object> getDashboardBundle(Long branchId, LocalDate startDate, LocalDate endDate, Set<DashboardWidget> widgets) {
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidRequestException("endDate must not be before startDate");
+        }
+        boolean needsTotals = widgets.stream().anyMatch(widget ->
+            widget != DashboardWidget.FOOTFALL_TRENDS && widget != DashboardWidget.SERVICE_UTILIZATION);
+        boolean needsPerformance = widgets.contains(DashboardWidget.PERFORMANCE_TRENDS);
+        boolean needsPrevious = needsPerformance || widgets.contains(DashboardWidget.CUSTOMER_SATISFACTION);
+        long periodDays = ChronoUnit.DAYS.between(startDate, endDate);
+        LocalDate prevStartDate = startDate.minusDays(periodDays);
+        LocalDate prevEndDate = startDate.minusDays(1);
+        
+        CubeTotals totals = null;
+        CubeTotals previousTotals = null;
+        List<DailyTransactionTotals> dailyRows = null;
+        Map<LocalDate, Map<Long, Long>> dailyFootfall = null;
+        Map<String, long[]> serviceHourCounts = null;
+        try (ParallelQueryExecutor.Scope scope = parallelQueryExecutor.openScope()) {
+            var totalsTask = needsTotals
+                ? scope.fork("totals", () -> rangeTotalsService.totals(branchId, startDate, endDate)) : null;
+            var previousTask = needsPrevious
+                ? scope.fork("previousTotals", () -> rangeTotalsService.totals(branchId, prevStartDate, prevEndDate)) : null;
+            var dailyTask = needsPerformance
+                ? scope.fork("dailyTotals", () -> transactionRollupRepository.sumDailyTotals(branchId, startDate, endDate)) : null;
+            var footfallTask = widgets.contains(DashboardWidget.FOOTFALL_TRENDS)
+                ? scope.fork("dailyFootfall", () -> footfallStore.dailyVisitsByBranch(startDate, endDate)) : null;
+            var utilizationTask = widgets.contains(DashboardWidget.SERVICE_UTILIZATION)
+                ? scope.fork("purposeByHour", () -> footfallStore.visitsByPurposeAndHour(branchId, startDate, endDate)) : null;
+            scope.join();
+            
+            totals = totalsTask != null ? totalsTask.get() : null;
+            previousTotals = previousTask != null ? previousTask.get() : null;
+            dailyRows = dailyTask != null ? dailyTask.get() : null;
+            dailyFootfall = footfallTask != null ? footfallTask.get() : null;
+            serviceHourCounts = utilizationTask != null ? utilizationTask.get() : null;
+        }
+        HourlyHistogram histogram = totals != null ? new HourlyHistogram(totals.visitsByHour()) : null;
+        
+        Map<String, Object> bundle = new LinkedHashMap<>();
+        bundle.put("branchId", branchId);
+        bundle.put("period", startDate + " to " + endDate);
+        for (DashboardWidget widget : widgets) {
+            Object data = switch (widget) {
+                case METRICS -> buildDashboardMetrics(branchId, startDate, endDate, totals, histogram);
+                case FOOTFALL_TRENDS -> buildFootfallSeries(dailyFootfall, startDate, endDate, null);
+                case PEAK_HOURS -> buildPeakHourAnalysis(branchId, startDate, endDate, histogram);
+                case SERVICE_UTILIZATION -> buildServiceUtilization(branchId, startDate, endDate, serviceHourCounts);
+                case CUSTOMER_SATISFACTION -> buildCustomerSatisfaction(branchId, startDate, endDate, totals, previousTotals);
+                case SERVICE_EFFICIENCY -> buildServiceEfficiency(branchId, startDate, endDate, totals);
+                case PERFORMANCE_TRENDS -> buildPerformanceTrends(branchId, startDate, endDate, dailyRows, totals, previousTotals, histogram);
+            };
+            bundle.put(widget.getKey(), data);
+        }
+        return bundle;
+    }
+    
+    public List<FootfallTrendDTO> getFootfallTrends(LocalDate startDate, LocalDate endDate) {
+        return buildFootfallSeries(startDate, endDate, null);
     }
 
     public List<FootfallTrendDTO> getFootfallTrendsWithPrediction(LocalDate startDate, LocalDate endDate) {
+        // Get historical data first
+        List<FootfallTrendDTO> trends = buildFootfallSeries(startDate, endDate, false);
+        
+        // Add 7-day predictions using simple trend analysis
+        List<FootfallTrendDTO> predictions = generateFootfallPredictions(trends, 7);
+        trends.addAll(predictions);
+        
+        return trends;
+    }
+    
+    /**
+     * Model forecast for each of the given days, with visitors per hour of the day when hourly is
+     * set. Empty until the forecast models have been fitted.
+     */
+    public List<Map<String, Object>> getFootfallForecast(Long branchId, LocalDate startDate, int days, boolean hourly) {
+        if (days < 1 || days > MAX_FORECAST_DAYS) {
+            throw new InvalidRequestException("Forecast days must be between 1 and " + MAX_FORECAST_DAYS);
+        }
+        List<Map<String, Object>> forecast = new ArrayList<>();
+        if (!footfallForecastService.isReady()) {
+            return forecast;
+        }
+        for (int i = 0; i < days; i++) {
+            LocalDate date = startDate.plusDays(i);
+            Double visitors = footfallForecastService.dailyForecast(branchId, date);
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("date", date);
+            point.put("visitors", visitors != null ? Math.round(visitors) : 0L);
+            if (hourly) {
+                double[] byHour = footfallForecastService.hourlyForecast(branchId, date);
+                List<Long> hours = new ArrayList<>();
+                for (int hour = 0; hour < HourlyHistogram.HOURS_PER_DAY; hour++) {
+                    hours.add(byHour != null ? Math.round(byHour[hour]) : 0L);
+                }
+                point.put("hourly", hours);
+            }
+            forecast.add(point);
+        }
+        return forecast;
+    }
+    
+    /**
+     * Builds one trend point per day from a single grouped (date, branch) aggregate over the
+     * footfall store, so the cost does not grow with the branch count.
+     */
+    private List<FootfallTrendDTO> buildFootfallSeries(LocalDate startDate, LocalDate endDate, Boolean predicted) {
+        return buildFootfallSeries(footfallStore.dailyVisitsByBranch(startDate, endDate), startDate, endDate, predicted);
+    }
+    
+    private List<FootfallTrendDTO> buildFootfallSeries(Map<LocalDate, Map<Long, Long>> countsByDate,
+                                                       LocalDate startDate, LocalDate endDate, Boolean predicted) {
+        List<Long> branchIds = getKnownBranchIds();
         List<FootfallTrendDTO> trends = new ArrayList<>();
         
-        // Get historical data first
         LocalDate current = startDate;
         while (!current.isAfter(endDate)) {
-            Long siruseri = customerEntryRepository.countByBranchAndDate(1L, current);
-            Long tnagar = customerEntryRepository.countByBranchAndDate(2L, current);
-            Long navalur = customerEntryRepository.countByBranchAndDate(3L, current);
+            Map<Long, Long> dayCounts = countsByDate.getOrDefault(current, Map.of());
             
-            siruseri = siruseri != null ? siruseri : 0L;
-            tnagar = tnagar != null ? tnagar : 0L;
-            navalur = navalur != null ? navalur : 0L;
+            // Every known branch gets a value, branches without visits count as 0
+            Map<Long, Long> branchFootfall = new LinkedHashMap<>();
+            for (Long branchId : branchIds) {
+                branchFootfall.put(branchId, dayCounts.getOrDefault(branchId, 0L));
+            }
+            dayCounts.forEach(branchFootfall::putIfAbsent);
             
-            trends.add(FootfallTrendDTO.builder()
-                .date(current)
-                .siruseri(siruseri)
-                .tnagar(tnagar)
-                .navalur(navalur)
-                .total(siruseri + tnagar + navalur)
-                .predicted(false)
-                .build());
-                
+            trends.add(toFootfallTrend(current, branchFootfall, predicted));
             current = current.plusDays(1);
         }
         
-        // Add 7-day predictions using simple trend analysis
-        List<FootfallTrendDTO> predictions = generateFootfallPredictions(trends, 7);
-        trends.addAll(predictions);
-        
         return trends;
     }
     
+    private List<Long> getKnownBranchIds() {
+        return branchRepository.findAll().stream()
+            .map(Branch::getBranchId)
+            .sorted()
+            .collect(Collectors.toList());
+    }
+    
+    private FootfallTrendDTO toFootfallTrend(LocalDate date, Map<Long, Long> branchFootfall, Boolean predicted) {
+        return FootfallTrendDTO.builder()
+            .date(date)
+            .branchFootfall(branchFootfall)
+            .siruseri(branchFootfall.getOrDefault(1L, 0L))
+            .tnagar(branchFootfall.getOrDefault(2L, 0L))
+            .navalur(branchFootfall.getOrDefault(3L, 0L))
+            .total(branchFootfall.values().stream().mapToLong(Long::longValue).sum())
+            .predicted(predicted)
+            .build();
+    }
+    
+    /**
+     * Forecasts the days after the last historical point from the per-branch Holt-Winters models.
+     * Until those have been fitted, falls back to the recent average with a half-over-half trend and
+     * a fixed day-of-week multiplier (holidays behave like a Sunday).
+     */
     private List<FootfallTrendDTO> generateFootfallPredictions(List<FootfallTrendDTO> historicalData, int days) {
         List<FootfallTrendDTO> predictions = new ArrayList<>();
         
@@ -124,6 +342,21 @@ public class AnalyticsService {
             return predictions;
         }
         
+        Set<Long> branchIds = historicalData.get(historicalData.size() - 1).getBranchFootfall().keySet();
+        LocalDate lastDate = historicalData.get(historicalData.size() - 1).getDate();
+        if (footfallForecastService.isReady()) {
+            for (int i = 1; i <= days; i++) {
+                LocalDate predictionDate = lastDate.plusDays(i);
+                Map<Long, Long> predicted = new LinkedHashMap<>();
+                for (Long branchId : branchIds) {
+                    Double forecast = footfallForecastService.dailyForecast(branchId, predictionDate);
+                    predicted.put(branchId, forecast != null ? Math.round(forecast) : 0L);
+                }
+                predictions.add(toFootfallTrend(predictionDate, predicted, true));
+            }
+            return predictions;
+        }
+        
         // Calculate averages and trends from last 14 days for better prediction accuracy
         int analysisWindow = Math.min(14, historicalData.size());
         List<FootfallTrendDTO> recentData = historicalData.subList(
@@ -131,70 +364,47 @@ public class AnalyticsService {
             historicalData.size()
         );
         
-        // Calculate average footfall per branch
-        double avgSiruseri = recentData.stream().mapToLong(FootfallTrendDTO::getSiruseri).average().orElse(25);
-        double avgTnagar = recentData.stream().mapToLong(FootfallTrendDTO::getTnagar).average().orElse(30);
-        double avgNavalur = recentData.stream().mapToLong(FootfallTrendDTO::getNavalur).average().orElse(20);
-        
-        // Calculate weekly trend (growth/decline rate)
-        double ssiTrend = calculateWeeklyTrend(recentData, "siruseri");
-        double tnTrend = calculateWeeklyTrend(recentData, "tnagar");
-        double nvTrend = calculateWeeklyTrend(recentData, "navalur");
+        // Calculate average footfall and weekly trend (growth/decline rate) per branch
+        Map<Long, Double> averages = new HashMap<>();
+        Map<Long, Double> weeklyTrends = new HashMap<>();
+        for (Long branchId : branchIds) {
+            averages.put(branchId, recentData.stream()
+                .mapToLong(t -> t.getBranchFootfall().getOrDefault(branchId, 0L))
+                .average().orElse(25));
+            weeklyTrends.put(branchId, calculateWeeklyTrend(recentData, branchId));
+        }
         
-        // Generate predictions for next 7 days
-        LocalDate lastDate = historicalData.get(historicalData.size() - 1).getDate();
         for (int i = 1; i <= days; i++) {
             LocalDate predictionDate = lastDate.plusDays(i);
             
-            // Apply day-of-week patterns and trends
-            double dayMultiplier = getDayOfWeekMultiplier(predictionDate.getDayOfWeek().getValue());
-            
-            // Calculate predicted values with trend and seasonal adjustments
-            long predSiruseri = Math.round(avgSiruseri * dayMultiplier * (1 + ssiTrend * i / 7.0));
-            long predTnagar = Math.round(avgTnagar * dayMultiplier * (1 + tnTrend * i / 7.0));
-            long predNavalur = Math.round(avgNavalur * dayMultiplier * (1 + nvTrend * i / 7.0));
+            // Apply day-of-week patterns and trends, holidays behave like a Sunday
+            double dayMultiplier = businessCalendarService.isHoliday(predictionDate)
+                ? getDayOfWeekMultiplier(DayOfWeek.SUNDAY.getValue())
+                : getDayOfWeekMultiplier(predictionDate.getDayOfWeek().getValue());
             
-            // Ensure minimum values and add some randomness for realism
-            predSiruseri = Math.max(10, predSiruseri + (long)(Math.random() * 10 - 5));
-            predTnagar = Math.max(10, predTnagar + (long)(Math.random() * 10 - 5));
-            predNavalur = Math.max(10, predNavalur + (long)(Math.random() * 10 - 5));
+            Map<Long, Long> predicted = new LinkedHashMap<>();
+            for (Long branchId : branchIds) {
+                long value = Math.round(averages.get(branchId) * dayMultiplier * (1 + weeklyTrends.get(branchId) * i / 7.0));
+                predicted.put(branchId, Math.max(10, value));
+            }
             
-            predictions.add(FootfallTrendDTO.builder()
-                .date(predictionDate)
-                .siruseri(predSiruseri)
-                .tnagar(predTnagar)
-                .navalur(predNavalur)
-                .total(predSiruseri + predTnagar + predNavalur)
-                .predicted(true)
-                .build());
+            predictions.add(toFootfallTrend(predictionDate, predicted, true));
         }
         
         return predictions;
     }
     
-    private double calculateWeeklyTrend(List<FootfallTrendDTO> data, String branch) {
+    private double calculateWeeklyTrend(List<FootfallTrendDTO> data, Long branchId) {
         if (data.size() < 7) return 0.0;
         
         // Compare first half vs second half of data to determine trend
         int midPoint = data.size() / 2;
-        double firstHalfAvg, secondHalfAvg;
-        
-        switch (branch) {
-            case "siruseri":
-                firstHalfAvg = data.subList(0, midPoint).stream().mapToLong(FootfallTrendDTO::getSiruseri).average().orElse(0);
-                secondHalfAvg = data.subList(midPoint, data.size()).stream().mapToLong(FootfallTrendDTO::getSiruseri).average().orElse(0);
-                break;
-            case "tnagar":
-                firstHalfAvg = data.subList(0, midPoint).stream().mapToLong(FootfallTrendDTO::getTnagar).average().orElse(0);
-                secondHalfAvg = data.subList(midPoint, data.size()).stream().mapToLong(FootfallTrendDTO::getTnagar).average().orElse(0);
-                break;
-            case "navalur":
-                firstHalfAvg = data.subList(0, midPoint).stream().mapToLong(FootfallTrendDTO::getNavalur).average().orElse(0);
-                secondHalfAvg = data.subList(midPoint, data.size()).stream().mapToLong(FootfallTrendDTO::getNavalur).average().orElse(0);
-                break;
-            default:
-                return 0.0;
-        }
+        double firstHalfAvg = data.subList(0, midPoint).stream()
+            .mapToLong(t -> t.getBranchFootfall().getOrDefault(branchId, 0L))
+            .average().orElse(0);
+        double secondHalfAvg = data.subList(midPoint, data.size()).stream()
+            .mapToLong(t -> t.getBranchFootfall().getOrDefault(branchId, 0L))
+            .average().orElse(0);
         
         if (firstHalfAvg == 0) return 0.0;
         return (secondHalfAvg - firstHalfAvg) / firstHalfAvg; // Growth rate
@@ -215,22 +425,31 @@ public class AnalyticsService {
     }
     
     public List<PeakHourDTO> getPeakHourAnalysis(Long branchId, LocalDate startDate, LocalDate endDate) {
+        return buildPeakHourAnalysis(branchId, startDate, endDate,
+            hourlyHistogramService.getHistogram(branchId, startDate, endDate));
+    }
+    
+    private List<PeakHourDTO> buildPeakHourAnalysis(Long branchId, LocalDate startDate, LocalDate endDate, HourlyHistogram histogram) {
         List<PeakHourDTO> peakHours = new ArrayList<>();
+        Integer capacity = businessCalendarService.capacity(branchId); // Maximum concurrent capacity
         
-        // Generate hourly analysis from 9 AM to 6 PM using real database data
-        for (int hour = 9; hour <= 18; hour++) {
-            // Get actual visitors count for this hour from database
-            Long visitorsForHour = getVisitorsByHour(branchId, hour, startDate, endDate);
-            
-            Integer capacity = 50; // Maximum concurrent capacity
+        // Opening hours are always reported, other hours only when they had visitors
+        for (int hour = 0; hour < HourlyHistogram.HOURS_PER_DAY; hour++) {
+            Long visitorsForHour = histogram.visitors(hour);
+            if (!businessCalendarService.isOpen(branchId, hour) && visitorsForHour == 0) {
+                continue;
+            }
             
-            // Convert hourly visitors to estimated concurrent occupancy
-            // Assuming average banking visit duration of 20 minutes (1/3 hour)
+            // Visitor-hours against open capacity-hours for this hour of the day over the range,
+            // assuming an average banking visit of 20 minutes (1/3 hour)
             double avgVisitDurationHours = 0.33; // 20 minutes = 1/3 hour
-            long estimatedConcurrentVisitors = Math.round(visitorsForHour * avgVisitDurationHours);
+            double capacityHours = businessCalendarService.capacityHours(branchId, hour, startDate, endDate);
+            double visitorHours = visitorsForHour * avgVisitDurationHours;
             
             // Calculate realistic utilization percentage (0-100%)
-            Double utilization = Math.min(100.0, (estimatedConcurrentVisitors * 100.0) / capacity);
+            Double utilization = capacityHours > 0
+                ? Math.min(100.0, Math.round(visitorHours * 1000.0 / capacityHours) / 10.0)
+                : (visitorsForHour > 0 ? 100.0 : 0.0);
             String status = getUtilizationStatus(utilization);
             
             peakHours.add(PeakHourDTO.builder()
@@ -246,20 +465,17 @@ public class AnalyticsService {
     }
     
     public Object getServiceUtilization(Long branchId, LocalDate startDate, LocalDate endDate) {
-        // Use real customer entry data from database (NOT transactions)
-        List<CustomerEntry> entries = branchId != null ? 
-            customerEntryRepository.findByBranchAndDateRange(branchId, startDate, endDate) :
-            customerEntryRepository.findByEntryDateBetween(startDate, endDate);
-            
-        Map<String, Map<Integer, Long>> serviceHourCounts = new HashMap<>();
-        
-        // Process real customer entries to get actual service utilization by hour
-        for (CustomerEntry entry : entries) {
-            String service = entry.getVisitPurpose();
-            int hour = entry.getEntryTime().getHour();
-            
-            serviceHourCounts.computeIfAbsent(service, k -> new HashMap<>())
-                .merge(hour, 1L, Long::sum);
+        // Use customer entries (visit purpose by hour), NOT transactions
+        return buildServiceUtilization(branchId, startDate, endDate,
+            footfallStore.visitsByPurposeAndHour(branchId, startDate, endDate));
+    }
+    
+    private Object buildServiceUtilization(Long branchId, LocalDate startDate, LocalDate endDate,
+                                           Map<String, long[]> serviceHourCounts) {
+        // Open branch-days per hour over the range, looked up once per column
+        double[] openBranchDays = new double[HourlyHistogram.HOURS_PER_DAY];
+        for (int hour = 9; hour < 17; hour++) {
+            openBranchDays[hour] = businessCalendarService.openBranchDays(branchId, hour, startDate, endDate);
         }
         
         String[][] services = new String[4][9];
@@ -270,11 +486,11 @@ public class AnalyticsService {
             services[i][0] = serviceNames[i];
             for (int j = 0; j < hours.length; j++) {
                 // Get actual transaction count for this service and hour
-                Long count = serviceHourCounts.getOrDefault(serviceNames[i], new HashMap<>())
-                    .getOrDefault(j + 9, 0L);
+                long[] purposeCounts = serviceHourCounts.get(serviceNames[i]);
+                Long count = purposeCounts != null ? purposeCounts[j + 9] : 0L;
                 
                 // Calculate utilization based on real transaction count WITH DATE RANGE
-                int utilization = calculateServiceUtilizationFromRealData(serviceNames[i], j + 9, count, startDate, endDate);
+                int utilization = calculateServiceUtilizationFromRealData(serviceNames[i], count, openBranchDays[j + 9]);
                 services[i][j + 1] = String.valueOf(utilization);
             }
         }
@@ -291,129 +507,62 @@ public class AnalyticsService {
         Map<String, Object> stats = new HashMap<>();
         stats.put("timestamp", System.currentTimeMillis());
         stats.put("systemStatus", "online");
-        stats.put("activeConnections", customerEntryRepository.findByEntryDate(LocalDate.now()).size());
+        stats.put("activeConnections", occupancyTracker.occupancy(null));
         stats.put("serverHealth", calculateSystemHealth() + "%");
         stats.put("lastUpdate", LocalDate.now().toString());
-        return stats;
-    }
-    
-    public List<Map<String, Object>> getDashboardAlerts() {
-        List<Map<String, Object>> alerts = new ArrayList<>();
         
-        for (Long branchId : List.of(1L, 2L, 3L)) {
-            Long todayCount = customerEntryRepository.countByBranchAndDate(branchId, LocalDate.now());
-            String branchName = branchRepository.findById(branchId).map(b -> b.getBranchName()).orElse("Branch");
-            
-            if (todayCount > 40) {
-                Map<String, Object> alert = new HashMap<>();
-                alert.put("id", branchId);
-                alert.put("type", "warning");
-                alert.put("message", branchName + " approaching capacity (" + todayCount + " visitors)");
-                alert.put("time", "Live");
-                alerts.add(alert);
-            }
+        // Live occupancy against capacity, all O(1) lookups
+        List<Map<String, Object>> branchOccupancy = new ArrayList<>();
+        for (Long branchId : businessCalendarService.activeBranchIds()) {
+            int occupancy = occupancyTracker.occupancy(branchId);
+            int capacity = businessCalendarService.capacity(branchId);
+            Map<String, Object> branch = new HashMap<>();
+            branch.put("branchId", branchId);
+            branch.put("occupancy", occupancy);
+            branch.put("capacity", capacity);
+            branch.put("utilization", occupancyRate(occupancy, capacity));
+            branchOccupancy.add(branch);
         }
-        
-        if (alerts.isEmpty()) {
-            Map<String, Object> alert = new HashMap<>();
-            alert.put("id", 0);
-            alert.put("type", "info");
-            alert.put("message", "All branches operating normally");
-            alert.put("time", "Live");
-            alerts.add(alert);
-        }
-        
-        return alerts;
-    }
-
-    private double calculateSystemHealth() {
-        long totalEntries = customerEntryRepository.findByEntryDate(LocalDate.now()).size();
-        long activeBranches = branchRepository.countActiveBranches();
-        return Math.min(99.9, 85.0 + (totalEntries * 0.5) + (activeBranches * 2.0));
+        int totalCapacity = businessCalendarService.capacity(null);
+        stats.put("currentOccupancy", occupancyTracker.occupancy(null));
+        stats.put("totalCapacity", totalCapacity);
+        stats.put("occupancyRate", occupancyRate(occupancyTracker.occupancy(null), totalCapacity));
+        stats.put("branchOccupancy", branchOccupancy);
+        return stats;
     }
     
-    private Long getTotalFootfall(Long branchId, LocalDate startDate, LocalDate endDate) {
-        if (branchId != null) {
-            // For specific branch, use branch-specific query
-            return (long) customerEntryRepository.findByBranchAndDateRange(branchId, startDate, endDate).size();
-        } else {
-            // For all branches, sum the counts from all 3 branches to ensure consistency 
-            // with getFootfallTrends which also uses per-branch counting
-            Long totalCount = 0L;
-            LocalDate current = startDate;
-            while (!current.isAfter(endDate)) {
-                Long siruseri = customerEntryRepository.countByBranchAndDate(1L, current);
-                Long tnagar = customerEntryRepository.countByBranchAndDate(2L, current);
-                Long navalur = customerEntryRepository.countByBranchAndDate(3L, current);
-                
-                // Handle null values properly
-                siruseri = siruseri != null ? siruseri : 0L;
-                tnagar = tnagar != null ? tnagar : 0L;
-                navalur = navalur != null ? navalur : 0L;
-                
-                totalCount += siruseri + tnagar + navalur;
-                current = current.plusDays(1);
-            }
-            return totalCount;
-        }
+    private static double occupancyRate(int occupancy, int capacity) {
+        return capacity > 0 ? Math.round(occupancy * 1000.0 / capacity) / 10.0 : 0.0;
     }
     
-    private Long getPeakHourTraffic(Long branchId, LocalDate startDate, LocalDate endDate) {
-        Long maxHourlyTraffic = 0L;
-        
-        // Check each hour from 9 AM to 6 PM to find peak
-        for (int hour = 9; hour <= 18; hour++) {
-            Long hourlyTraffic = getVisitorsByHour(branchId, hour, startDate, endDate);
-            if (hourlyTraffic > maxHourlyTraffic) {
-                maxHourlyTraffic = hourlyTraffic;
-            }
+    /**
+     * Rule-based alerts followed by detected anomalies, or a single "operating normally" notice.
+     */
+    public List<Map<String, Object>> getDashboardAlerts() {
+        List<Map<String, Object>> anomalies = anomalyDetector.currentAnomalies();
+        if (anomalies.isEmpty()) {
+            return alertRuleEngine.currentAlerts();
         }
-        
-        return maxHourlyTraffic;
-    }
-    
-    private Long getVisitorsByHour(Long branchId, int hour, LocalDate startDate, LocalDate endDate) {
-        LocalTime startTime = LocalTime.of(hour, 0);
-        LocalTime endTime = LocalTime.of(hour, 59, 59);
-        
-        return customerEntryRepository.countByHourAndDateRange(startTime, endTime, startDate, endDate, branchId);
+        List<Map<String, Object>> alerts = new ArrayList<>(alertRuleEngine.activeAlerts());
+        alerts.addAll(anomalies);
+        return alerts;
     }
     
-    private Double getAverageSatisfaction(Long branchId, LocalDate startDate, LocalDate endDate) {
-        if (branchId != null) {
-            return customerEntryRepository.getAverageSatisfactionByBranch(branchId);
-        } else {
-            // Calculate average across all branches
-            List<CustomerEntry> entries = customerEntryRepository.findByEntryDateBetween(startDate, endDate);
-            return entries.stream()
-                .filter(entry -> entry.getSatisfactionRating() != null)
-                .mapToInt(CustomerEntry::getSatisfactionRating)
-                .average()
-                .orElse(4.0);
-        }
+    /** Footfall and wait anomalies for the current and previous hour, for one branch or all when null. */
+    public List<Map<String, Object>> getAnomalies(Long branchId) {
+        return anomalyDetector.currentAnomalies().stream()
+            .filter(anomaly -> branchId == null || branchId.equals(anomaly.get("branchId")))
+            .toList();
     }
-    
-    private Double getAverageVisitDuration(Long branchId, LocalDate startDate, LocalDate endDate) {
-        if (branchId != null) {
-            return customerEntryRepository.getAverageServiceTimeByBranch(branchId, startDate, endDate);
-        } else {
-            List<CustomerEntry> entries = customerEntryRepository.findByEntryDateBetween(startDate, endDate);
-            return entries.stream()
-                .filter(entry -> entry.getServiceTimeMinutes() != null)
-                .mapToInt(CustomerEntry::getServiceTimeMinutes)
-                .average()
-                .orElse(25.0);
-        }
+
+    private double calculateSystemHealth() {
+        long currentOccupancy = occupancyTracker.occupancy(null);
+        long activeBranches = businessCalendarService.activeBranchIds().size();
+        return Math.min(99.9, 85.0 + (currentOccupancy * 0.5) + (activeBranches * 2.0));
     }
     
-    private Double calculateServiceEfficiencyScore(Long branchId, LocalDate startDate, LocalDate endDate) {
+    private Double calculateServiceEfficiencyScore(Double avgWaitTime, Double avgProcessingTime) {
         // Calculate efficiency based on processing time vs wait time
-        Double avgWaitTime = branchId != null ? 
-            customerEntryRepository.getAverageWaitTimeByBranch(branchId, startDate, endDate) :
-            getGlobalAverageWaitTime(startDate, endDate);
-            
-        Double avgProcessingTime = transactionRepository.getAverageProcessingTimeByBranch(branchId, startDate, endDate);
-        
         if (avgWaitTime == null || avgProcessingTime == null || (avgWaitTime + avgProcessingTime) == 0) {
             return 85.0; // Default efficiency
         }
@@ -424,13 +573,8 @@ public class AnalyticsService {
         return Math.min(99.0, Math.max(50.0, efficiency)); // Cap between 50-99%
     }
     
-    private Double getGlobalAverageWaitTime(LocalDate startDate, LocalDate endDate) {
-        List<CustomerEntry> entries = customerEntryRepository.findByEntryDateBetween(startDate, endDate);
-        return entries.stream()
-            .filter(entry -> entry.getWaitTimeMinutes() != null)
-            .mapToInt(CustomerEntry::getWaitTimeMinutes)
-            .average()
-            .orElse(10.0);
+    private static Double average(Long sum, Long count) {
+        return sum != null && count != null && count > 0 ? sum.doubleValue() / count : null;
     }
     
     private String getUtilizationStatus(Double utilization) {
@@ -443,25 +587,14 @@ public class AnalyticsService {
         }
     }
     
-    private int calculateServiceUtilizationFromRealData(String serviceName, int hour, Long transactionCount, LocalDate startDate, LocalDate endDate) {
+    private int calculateServiceUtilizationFromRealData(String serviceName, Long transactionCount, double openBranchDays) {
         // Base utilization calculation from actual customer entry count considering time period
         
         // Calculate base utilization percentage based on customer entry volume
         int maxEntriesPerHour = getMaxEntriesPerService(serviceName);
         
-        // Calculate total working days in the period (Monday to Friday only)
-        long workingDays = 0;
-        LocalDate current = startDate;
-        while (!current.isAfter(endDate)) {
-            DayOfWeek dayOfWeek = current.getDayOfWeek();
-            if (dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY) {
-                workingDays++;
-            }
-            current = current.plusDays(1);
-        }
-        
-        // Maximum possible entries for this service in this hour over the time period
-        long maxPossibleEntries = maxEntriesPerHour * workingDays;
+        // Maximum possible entries for this service in this hour over the days the branches were open
+        double maxPossibleEntries = maxEntriesPerHour * openBranchDays;
         
         // Calculate utilization percentage based on actual vs possible entries
         double utilizationPercentage = maxPossibleEntries > 0 ? 
@@ -501,31 +634,20 @@ public class AnalyticsService {
      */
     public Object calculateCustomerSatisfaction(Long branchId, LocalDate startDate, LocalDate endDate) {
         try {
-            // Get satisfaction data using existing working methods
-            Double avgSatisfaction = branchId != null ? 
-                customerEntryRepository.getAverageSatisfactionByBranch(branchId) :
-                getAverageSatisfaction(null, startDate, endDate);
-            
-            // Use simple date range query that we know works
-            List<CustomerEntry> entries = branchId != null ? 
-                customerEntryRepository.findByBranchAndDateRange(branchId, startDate, endDate) :
-                customerEntryRepository.findByEntryDateBetween(startDate, endDate);
-
-            // Calculate metrics safely
-            double score = avgSatisfaction != null ? Math.round(avgSatisfaction * 100.0) / 100.0 : 4.0;
-            int reviewCount = (int) entries.stream().filter(e -> e.getSatisfactionRating() != null).count();
-            
-            // Calculate simple change (placeholder for now)
-            double change = 0.3; // Will be enhanced later with actual comparison logic
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("score", score);
-            response.put("change", change);
-            response.put("reviewCount", Math.max(reviewCount, 1));
-            response.put("period", startDate + " to " + endDate);
-            response.put("branchId", branchId);
-
-            return response;
+            long periodDays = ChronoUnit.DAYS.between(startDate, endDate);
+            LocalDate prevStartDate = startDate.minusDays(periodDays);
+            LocalDate prevEndDate = startDate.minusDays(1);
+            CubeTotals currentTotals;
+            CubeTotals previousTotals;
+            try (ParallelQueryExecutor.Scope scope = parallelQueryExecutor.openScope()) {
+                var currentTask = scope.fork("currentTotals", () -> rangeTotalsService.totals(branchId, startDate, endDate));
+                var previousTask = scope.fork("previousTotals", () -> rangeTotalsService.totals(branchId, prevStartDate, prevEndDate));
+                scope.join();
+                
+                currentTotals = currentTask.get();
+                previousTotals = previousTask.get();
+            }
+            return buildCustomerSatisfaction(branchId, startDate, endDate, currentTotals, previousTotals);
         } catch (Exception e) {
             // Return fallback data if any error occurs
             Map<String, Object> response = new HashMap<>();
@@ -537,6 +659,32 @@ public class AnalyticsService {
             return response;
         }
     }
+    
+    private Map<String, Object> buildCustomerSatisfaction(Long branchId, LocalDate startDate, LocalDate endDate,
+                                                          CubeTotals totals, CubeTotals previousTotals) {
+        // Get satisfaction data from the range totals
+        FootfallSummary footfall = totals.footfall();
+        Double avgSatisfaction = footfall.averageRating();
+        long ratingCount = footfall.getRatingCount();
+        Double prevSatisfaction = previousTotals.footfall().averageRating();
+
+        // Calculate metrics safely
+        double score = avgSatisfaction != null ? Math.round(avgSatisfaction * 100.0) / 100.0 : 4.0;
+        int reviewCount = (int) ratingCount;
+        
+        // Score points gained or lost against the previous period of the same length
+        double change = avgSatisfaction != null && prevSatisfaction != null
+            ? Math.round((avgSatisfaction - prevSatisfaction) * 100.0) / 100.0 : 0.0;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("score", score);
+        response.put("change", change);
+        response.put("reviewCount", Math.max(reviewCount, 1));
+        response.put("period", startDate + " to " + endDate);
+        response.put("branchId", branchId);
+
+        return response;
+    }
 
 
 
@@ -545,35 +693,67 @@ public class AnalyticsService {
      * Provides revenue trends, transaction patterns, and growth metrics
      */
     public Object calculatePerformanceTrends(Long branchId, LocalDate startDate, LocalDate endDate) {
-        // Get revenue and transaction data
-        Double totalRevenue = transactionRepository.getTotalAmountByBranchAndDateRange(branchId, startDate, endDate);
-        Long transactionCount = transactionRepository.countByBranchAndDateRange(branchId, startDate, endDate);
-        
-        // Calculate daily averages
-        long daysDiff = ChronoUnit.DAYS.between(startDate, endDate) + 1;
-        double dailyRevenue = totalRevenue != null ? totalRevenue / daysDiff : 0.0;
-
-        // Calculate growth rates (compare with previous period)
+        // Previous period of the same length, used for growth rates
         long periodDays = ChronoUnit.DAYS.between(startDate, endDate);
         LocalDate prevStartDate = startDate.minusDays(periodDays);
         LocalDate prevEndDate = startDate.minusDays(1);
         
-        Double prevRevenue = transactionRepository.getTotalAmountByBranchAndDateRange(branchId, prevStartDate, prevEndDate);
-        Long prevTransactionCount = transactionRepository.countByBranchAndDateRange(branchId, prevStartDate, prevEndDate);
+        // The sub-queries are independent, run them side by side
+        List<DailyTransactionTotals> dailyRows;
+        CubeTotals currentTotals;
+        CubeTotals previousTotals;
+        HourlyHistogram histogram;
+        try (ParallelQueryExecutor.Scope scope = parallelQueryExecutor.openScope()) {
+            var dailyTask = scope.fork("dailyTotals", () -> transactionRollupRepository.sumDailyTotals(branchId, startDate, endDate));
+            var currentTask = scope.fork("currentTotals", () -> rangeTotalsService.totals(branchId, startDate, endDate));
+            var previousTask = scope.fork("previousTotals", () -> rangeTotalsService.totals(branchId, prevStartDate, prevEndDate));
+            var histogramTask = scope.fork("hourlyHistogram", () -> hourlyHistogramService.getHistogram(branchId, startDate, endDate));
+            scope.join();
+            
+            dailyRows = dailyTask.get();
+            currentTotals = currentTask.get();
+            previousTotals = previousTask.get();
+            histogram = histogramTask.get();
+        }
+        return buildPerformanceTrends(branchId, startDate, endDate, dailyRows, currentTotals, previousTotals, histogram);
+    }
+    
+    private Map<String, Object> buildPerformanceTrends(Long branchId, LocalDate startDate, LocalDate endDate,
+                                                       List<DailyTransactionTotals> dailyRows, CubeTotals currentTotals,
+                                                       CubeTotals previousTotals, HourlyHistogram histogram) {
+        long periodDays = ChronoUnit.DAYS.between(startDate, endDate);
+        long prevRevenueCents = previousTotals.get(CubeMeasure.REVENUE_CENTS);
+        Long prevTransactionCount = previousTotals.get(CubeMeasure.TRANSACTIONS);
+        Double avgWaitTime = currentTotals.average(CubeMeasure.WAIT_SUM, CubeMeasure.WAIT_COUNT);
+        Double avgProcessingTime = currentTotals.average(CubeMeasure.PROCESSING_SUM, CubeMeasure.PROCESSING_COUNT);
+        
+        // Period totals come from the same daily rows that feed the charts
+        Map<LocalDate, DailyTransactionTotals> dailyTotals = new HashMap<>();
+        long totalRevenueCents = 0L;
+        long transactionCount = 0L;
+        for (DailyTransactionTotals row : dailyRows) {
+            dailyTotals.put(row.getTransactionDate(), row);
+            totalRevenueCents += Money.cents(row.getRevenueCents());
+            transactionCount += row.getTransactions();
+        }
         
-        double revenueGrowth = calculateGrowthRate(totalRevenue, prevRevenue);
-        double transactionGrowth = calculateGrowthRate(transactionCount != null ? transactionCount.doubleValue() : 0, 
+        // Calculate daily averages
+        long daysDiff = periodDays + 1;
+        double dailyRevenue = Money.toDouble(totalRevenueCents) / daysDiff;
+
+        double revenueGrowth = calculateGrowthRate(Money.toDouble(totalRevenueCents), Money.toDouble(prevRevenueCents));
+        double transactionGrowth = calculateGrowthRate((double) transactionCount, 
                                                       prevTransactionCount != null ? prevTransactionCount.doubleValue() : 0);
 
         // Generate chart data for the period
-        List<Double> revenueChart = generateDailyRevenueChart(branchId, startDate, endDate);
-        List<Double> transactionChart = generateDailyTransactionChart(branchId, startDate, endDate);
+        List<Double> revenueChart = generateDailyRevenueChart(dailyTotals, startDate, endDate);
+        List<Double> transactionChart = generateDailyTransactionChart(dailyTotals, startDate, endDate);
         
         // Find peak hour
-        String peakHour = findPeakHour(branchId, startDate, endDate);
+        String peakHour = formatPeakHour(histogram);
         
         // Calculate overall efficiency
-        double efficiency = calculateServiceEfficiencyScore(branchId, startDate, endDate);
+        double efficiency = calculateServiceEfficiencyScore(avgWaitTime, avgProcessingTime);
 
         Map<String, Object> response = new HashMap<>();
         response.put("dailyRevenue", Math.round(dailyRevenue * 100.0) / 100.0);
@@ -599,67 +779,41 @@ public class AnalyticsService {
         return ((current - previous) / previous) * 100.0;
     }
 
-    private List<Double> generateDailyRevenueChart(Long branchId, LocalDate startDate, LocalDate endDate) {
+    private List<Double> generateDailyRevenueChart(Map<LocalDate, DailyTransactionTotals> dailyTotals, LocalDate startDate, LocalDate endDate) {
         List<Double> chartData = new ArrayList<>();
         LocalDate currentDate = startDate;
         
         while (!currentDate.isAfter(endDate)) {
-            Double dailyRevenue = transactionRepository.getTotalAmountByBranchAndDate(branchId, currentDate);
-            chartData.add(dailyRevenue != null ? dailyRevenue : 0.0);
+            DailyTransactionTotals totals = dailyTotals.get(currentDate);
+            chartData.add(Money.toDouble(totals != null ? Money.cents(totals.getRevenueCents()) : 0L));
             currentDate = currentDate.plusDays(1);
         }
         
         return chartData;
     }
 
-    private List<Double> generateDailyTransactionChart(Long branchId, LocalDate startDate, LocalDate endDate) {
+    private List<Double> generateDailyTransactionChart(Map<LocalDate, DailyTransactionTotals> dailyTotals, LocalDate startDate, LocalDate endDate) {
         List<Double> chartData = new ArrayList<>();
         LocalDate currentDate = startDate;
         
         while (!currentDate.isAfter(endDate)) {
-            Long dailyCount = transactionRepository.countByBranchAndDate(branchId, currentDate);
-            chartData.add(dailyCount != null ? dailyCount.doubleValue() : 0.0);
+            DailyTransactionTotals totals = dailyTotals.get(currentDate);
+            chartData.add(totals != null ? totals.getTransactions().doubleValue() : 0.0);
             currentDate = currentDate.plusDays(1);
         }
         
         return chartData;
     }
 
-    private String findPeakHour(Long branchId, LocalDate startDate, LocalDate endDate) {
-        // Get peak hour analysis
-        List<PeakHourDTO> peakHours = getPeakHourAnalysis(branchId, startDate, endDate);
-        
-        return peakHours.stream()
-            .max((p1, p2) -> Long.compare(p1.getVisitors(), p2.getVisitors()))
-            .map(peak -> peak.getHour() + ":00")
-            .orElse("11:00 AM");
+    private String formatPeakHour(HourlyHistogram histogram) {
+        int peakHour = histogram.peakHour();
+        return peakHour >= 0 ? String.format("%02d:00:00", peakHour) : "11:00 AM";
     }
 
     public Object calculateServiceEfficiency(Long branchId, LocalDate startDate, LocalDate endDate) {
         try {
-            // Use existing working methods for efficiency calculation
-            Double serviceEfficiency = calculateServiceEfficiencyScore(branchId, startDate, endDate);
-            Double avgWaitTime = branchId != null ? 
-                customerEntryRepository.getAverageWaitTimeByBranch(branchId, startDate, endDate) :
-                getGlobalAverageWaitTime(startDate, endDate);
-            
-            // Get transaction count using existing method
-            Long transactionCount = transactionRepository.countByBranchAndDateRange(branchId, startDate, endDate);
-            
-            // Calculate safe metrics with fallbacks
-            double waitTime = avgWaitTime != null ? Math.round(avgWaitTime * 100.0) / 100.0 : 3.5;
-            double transactionSpeed = serviceEfficiency != null ? Math.min(serviceEfficiency + 20, 98) : 85.0;
-            double staffUtilization = serviceEfficiency != null ? Math.min(serviceEfficiency + 10, 95) : 80.0;
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("waitTime", waitTime);
-            response.put("transactionSpeed", transactionSpeed);
-            response.put("staffUtilization", staffUtilization);
-            response.put("transactionCount", transactionCount != null ? transactionCount : 0);
-            response.put("period", startDate + " to " + endDate);
-            response.put("branchId", branchId);
-
-            return response;
+            // Wait, processing and transaction totals all come from one range lookup
+            return buildServiceEfficiency(branchId, startDate, endDate, rangeTotalsService.totals(branchId, startDate, endDate));
         } catch (Exception e) {
             // Return fallback data if any error occurs
             Map<String, Object> response = new HashMap<>();
@@ -672,4 +826,26 @@ public class AnalyticsService {
             return response;
         }
     }
+    
+    private Map<String, Object> buildServiceEfficiency(Long branchId, LocalDate startDate, LocalDate endDate, CubeTotals totals) {
+        Double avgWaitTime = totals.average(CubeMeasure.WAIT_SUM, CubeMeasure.WAIT_COUNT);
+        Double serviceEfficiency = calculateServiceEfficiencyScore(avgWaitTime,
+            totals.average(CubeMeasure.PROCESSING_SUM, CubeMeasure.PROCESSING_COUNT));
+        Long transactionCount = totals.get(CubeMeasure.TRANSACTIONS);
+        
+        // Calculate safe metrics with fallbacks
+        double waitTime = avgWaitTime != null ? Math.round(avgWaitTime * 100.0) / 100.0 : 3.5;
+        double transactionSpeed = serviceEfficiency != null ? Math.min(serviceEfficiency + 20, 98) : 85.0;
+        double staffUtilization = serviceEfficiency != null ? Math.min(serviceEfficiency + 10, 95) : 80.0;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("waitTime", waitTime);
+        response.put("transactionSpeed", transactionSpeed);
+        response.put("staffUtilization", staffUtilization);
+        response.put("transactionCount", transactionCount != null ? transactionCount : 0);
+        response.put("period", startDate + " to " + endDate);
+        response.put("branchId", branchId);
+
+        return response;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,344 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.repository.BranchRepository;
+import com.Bank.analytics.repository.CustomerEntryRepository;
+import com.Bank.analytics.repository.FootfallRollupRepository;
+import com.Bank.analytics.repository.projection.DailyBranchHourVisits;
+import com.Bank.analytics.repository.projection.HourlyBranchWait;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flags unusual hourly footfall and wait times per branch as entries arrive.
+ *
+ * Each branch keeps, for every hour of the week, an exponentially weighted mean and variance of
+ * the visitors in that hour and of their average wait, plus counters for the hour in progress.
+ * An entry bumps the counters and re-checks the hour in progress against the usual values for
+ * that hour of the week (a footfall spike or a wait blowup); when an hour ends it is checked for
+ * a footfall drop and then folded into the averages. Every update is O(1) and each branch holds
+ * a fixed 168-slot table. The averages are warmed once at startup from the recent rollups, after
+ * which history is never rescanned. Holidays are neither checked nor learned from.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnomalyDetector {
+    
+    private static final int HOURS_PER_DAY = HourlyHistogram.HOURS_PER_DAY;
+    private static final int HOURS_PER_WEEK = 7 * HOURS_PER_DAY;
+    
+    private final BranchRepository branchRepository;
+    private final FootfallRollupRepository footfallRollupRepository;
+    private final CustomerEntryRepository customerEntryRepository;
+    private final BusinessCalendarService businessCalendarService;
+    
+    @Value("${analytics.anomaly.smoothing:0.1}")
+    private double smoothing;
+    
+    @Value("${analytics.anomaly.z-threshold:3.0}")
+    private double zThreshold;
+    
+    @Value("${analytics.anomaly.warmup-samples:3}")
+    private int warmupSamples;
+    
+    @Value("${analytics.anomaly.min-visitors:5}")
+    private int minVisitors;
+    
+    @Value("${analytics.anomaly.min-wait-samples:3}")
+    private int minWaitSamples;
+    
+    @Value("${analytics.anomaly.seed-weeks:8}")
+    private int seedWeeks;
+    
+    private final Map<Long, BranchSeries> branches = new ConcurrentHashMap<>();
+    private volatile Map<Long, String> branchNames = Map.of();
+    private volatile List<Map<String, Object>> snapshot = List.of();
+    
+    /** Anomalies for the hour in progress and the hour before it, across all branches. */
+    public List<Map<String, Object>> currentAnomalies() {
+        return snapshot;
+    }
+    
+    /**
+     * Warms the hour-of-week averages from the last seedWeeks of rollups and today's entries.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void seed() {
+        LocalDate today = LocalDate.now();
+        LocalDate first = today.minusWeeks(seedWeeks);
+        long firstHour = epochHour(first, 0);
+        long nowHour = epochHour(LocalDateTime.now());
+        
+        Map<Long, Map<Long, long[]>> history = new HashMap<>();
+        for (DailyBranchHourVisits row : footfallRollupRepository.sumVisitsByBranchDateAndHour(first, today.minusDays(1))) {
+            history.computeIfAbsent(row.getBranchId(), id -> new HashMap<>())
+                .put(epochHour(row.getEntryDate(), row.getHour()), new long[] {row.getVisitors(), row.getWaitSum(), row.getWaitCount()});
+        }
+        for (HourlyBranchWait row : customerEntryRepository.sumVisitsAndWaitByBranchAndHour(today)) {
+            history.computeIfAbsent(row.getBranchId(), id -> new HashMap<>())
+                .put(epochHour(today, row.getHour()), new long[] {row.getVisitors(), row.getWaitSum(), row.getWaitCount()});
+        }
+        for (Long branchId : businessCalendarService.activeBranchIds()) {
+            history.computeIfAbsent(branchId, id -> new HashMap<>());
+        }
+        
+        Map<Long, String> names = new HashMap<>();
+        for (Branch branch : branchRepository.findAll()) {
+            if (branch.getBranchName() != null) {
+                names.put(branch.getBranchId(), branch.getBranchName());
+            }
+        }
+        branchNames = names;
+        
+        branches.clear();
+        history.forEach((branchId, hours) -> {
+            BranchSeries series = new BranchSeries(branchId, firstHour);
+            for (long hour = firstHour; hour <= nowHour; hour++) {
+                long[] values = hours.get(hour);
+                if (values != null) {
+                    series.record(values[0], values[1], values[2]);
+                }
+                if (hour < nowHour) {
+                    series.close(false);
+                }
+            }
+            branches.put(branchId, series);
+        });
+        publish(nowHour);
+        log.info("Anomaly detector warmed for {} branches from {} weeks of hourly footfall", branches.size(), seedWeeks);
+    }
+    
+    /**
+     * Closes hours that have ended, checking each for a footfall drop, and expires old anomalies.
+     */
+    @Scheduled(fixedDelayString = "${analytics.anomaly.evaluate-interval-ms:60000}", initialDelay = 60000)
+    public void tick() {
+        long nowHour = epochHour(LocalDateTime.now());
+        for (BranchSeries series : branches.values()) {
+            series.advanceTo(nowHour);
+        }
+        publish(nowHour);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(AnalyticsDataChangedEvent event) {
+        if (event.getKind() != AnalyticsDataChangedEvent.DataKind.CUSTOMER_ENTRY
+                || event.getChange() != AnalyticsDataChangedEvent.ChangeType.CREATED
+                || event.getBranchId() == null
+                || !(event.getEntity() instanceof CustomerEntry entry)
+                || entry.getEntryDate() == null || entry.getEntryTime() == null) {
+            return;
+        }
+        long nowHour = epochHour(LocalDateTime.now());
+        // Only the hour in progress is live; earlier hours have already been folded in
+        if (epochHour(entry.getEntryDate(), entry.getEntryTime().getHour()) != nowHour) {
+            return;
+        }
+        BranchSeries series = branches.computeIfAbsent(event.getBranchId(), id -> new BranchSeries(id, nowHour));
+        series.advanceTo(nowHour);
+        Integer wait = entry.getWaitTimeMinutes();
+        if (series.recordAndCheck(wait != null ? wait : 0, wait != null ? 1 : 0)) {
+            publish(nowHour);
+        }
+    }
+    
+    private synchronized void publish(long nowHour) {
+        List<Map<String, Object>> anomalies = new ArrayList<>();
+        for (BranchSeries series : new TreeMap<>(branches).values()) {
+            anomalies.addAll(series.current(nowHour));
+        }
+        snapshot = List.copyOf(anomalies);
+    }
+    
+    private static long epochHour(LocalDate date, int hour) {
+        return date.toEpochDay() * HOURS_PER_DAY + hour;
+    }
+    
+    private static long epochHour(LocalDateTime time) {
+        return epochHour(time.toLocalDate(), time.getHour());
+    }
+    
+    private static String hourLabel(long epochHour) {
+        return String.format("%02d:00", (int) (epochHour % HOURS_PER_DAY));
+    }
+    
+    private record Anomaly(String rule, String severity, long hour, String message, double observed, double expected, double zScore) {
+    }
+    
+    /**
+     * The hour-of-week averages and the hour in progress of one branch, guarded by the instance.
+     */
+    private final class BranchSeries {
+        
+        private final Long branchId;
+        private final Ewma[] visits = new Ewma[HOURS_PER_WEEK];
+        private final Ewma[] waits = new Ewma[HOURS_PER_WEEK];
+        private final Map<String, Anomaly> active = new LinkedHashMap<>();
+        private long openHour;
+        private long openVisits;
+        private long openWaitSum;
+        private long openWaitCount;
+        
+        BranchSeries(Long branchId, long openHour) {
+            this.branchId = branchId;
+            this.openHour = openHour;
+            for (int i = 0; i < HOURS_PER_WEEK; i++) {
+                visits[i] = new Ewma();
+                waits[i] = new Ewma();
+            }
+        }
+        
+        synchronized void record(long visitors, long waitSum, long waitCount) {
+            openVisits += visitors;
+            openWaitSum += waitSum;
+            openWaitCount += waitCount;
+        }
+        
+        /** Counts one entry into the hour in progress; returns whether the active anomalies changed. */
+        synchronized boolean recordAndCheck(long waitSum, long waitCount) {
+            record(1, waitSum, waitCount);
+            if (isHoliday(openHour)) {
+                return false;
+            }
+            boolean changed = false;
+            Ewma usual = visits[slot(openHour)];
+            double z = usual.zScore(openVisits, Math.sqrt(Math.max(usual.mean, 1.0)));
+            Anomaly previousSpike = active.get("FOOTFALL_ANOMALY_HIGH");
+            if (usual.samples >= warmupSamples && openVisits >= minVisitors && z >= zThreshold
+                    && (previousSpike == null || previousSpike.hour != openHour)) {
+                raise(new Anomaly("FOOTFALL_ANOMALY_HIGH", "warning", openHour,
+                    "Unusual footfall spike at " + name() + ": " + openVisits + " visitors since "
+                        + hourLabel(openHour) + ", usually " + Math.round(usual.mean),
+                    openVisits, usual.mean, z));
+                changed = true;
+            }
+            
+            Ewma usualWait = waits[slot(openHour)];
+            if (openWaitCount >= minWaitSamples && usualWait.samples >= warmupSamples) {
+                double average = openWaitSum / (double) openWaitCount;
+                double waitZ = usualWait.zScore(average, 1.0);
+                Anomaly previous = active.get("WAIT_ANOMALY");
+                if (waitZ >= zThreshold && (previous == null || previous.hour != openHour || previous.observed != average)) {
+                    raise(new Anomaly("WAIT_ANOMALY", "critical", openHour,
+                        "Unusual wait at " + name() + ": " + Math.round(average) + " min average since "
+                            + hourLabel(openHour) + ", usually " + Math.round(usualWait.mean) + " min",
+                        average, usualWait.mean, waitZ));
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+        
+        /** Closes every hour before the given one. */
+        synchronized void advanceTo(long hour) {
+            while (openHour < hour) {
+                close(true);
+            }
+        }
+        
+        /**
+         * Checks the hour in progress for a footfall drop (when asked to), folds it into the
+         * averages and opens the next hour.
+         */
+        synchronized void close(boolean check) {
+            if (!isHoliday(openHour)) {
+                Ewma usual = visits[slot(openHour)];
+                double z = usual.zScore(openVisits, Math.sqrt(Math.max(usual.mean, 1.0)));
+                if (check && usual.samples >= warmupSamples && usual.mean >= minVisitors && z <= -zThreshold) {
+                    raise(new Anomaly("FOOTFALL_ANOMALY_LOW", "warning", openHour,
+                        "Unusual footfall drop at " + name() + ": " + openVisits + " visitors from "
+                            + hourLabel(openHour) + ", usually " + Math.round(usual.mean),
+                        openVisits, usual.mean, z));
+                }
+                usual.add(openVisits);
+                if (openWaitCount > 0) {
+                    waits[slot(openHour)].add(openWaitSum / (double) openWaitCount);
+                }
+            }
+            openHour++;
+            openVisits = 0;
+            openWaitSum = 0;
+            openWaitCount = 0;
+        }
+        
+        /** Anomalies about the hour in progress or the hour before; older ones are dropped. */
+        synchronized List<Map<String, Object>> current(long nowHour) {
+            active.values().removeIf(anomaly -> anomaly.hour < nowHour - 1);
+            List<Map<String, Object>> current = new ArrayList<>();
+            for (Anomaly anomaly : active.values()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("id", branchId + "-" + anomaly.rule);
+                entry.put("branchId", branchId);
+                entry.put("rule", anomaly.rule);
+                entry.put("type", anomaly.severity);
+                entry.put("message", anomaly.message);
+                entry.put("time", "Since " + hourLabel(anomaly.hour));
+                entry.put("observed", Math.round(anomaly.observed * 10.0) / 10.0);
+                entry.put("expected", Math.round(anomaly.expected * 10.0) / 10.0);
+                entry.put("zScore", Math.round(anomaly.zScore * 100.0) / 100.0);
+                current.add(Map.copyOf(entry));
+            }
+            return current;
+        }
+        
+        private String name() {
+            return branchNames.getOrDefault(branchId, "Branch " + branchId);
+        }
+        
+        private void raise(Anomaly anomaly) {
+            active.put(anomaly.rule, anomaly);
+        }
+        
+        private boolean isHoliday(long hour) {
+            return businessCalendarService.isHoliday(LocalDate.ofEpochDay(Math.floorDiv(hour, HOURS_PER_DAY)));
+        }
+        
+        private int slot(long hour) {
+            return Math.floorMod(hour, HOURS_PER_WEEK);
+        }
+    }
+    
+    /**
+     * Exponentially weighted mean and variance of one hour-of-week series.
+     */
+    private final class Ewma {
+        
+        private double mean;
+        private double variance;
+        private int samples;
+        
+        void add(double value) {
+            if (samples == 0) {
+                mean = value;
+            } else {
+                double diff = value - mean;
+                mean += smoothing * diff;
+                variance = (1 - smoothing) * (variance + smoothing * diff * diff);
+            }
+            samples++;
+        }
+        
+        /** Standard score of value, with the deviation floored at minDeviation. */
+        double zScore(double value, double minDeviation) {
+            return (value - mean) / Math.max(Math.sqrt(variance), minDeviation);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.repository.BranchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Working days and open capacity per branch, precomputed so any date range costs O(1).
+ *
+ * A working day is any day that is neither a weekend day ({@code analytics.calendar.weekend-days})
+ * nor a listed holiday ({@code analytics.calendar.holidays}). The calendar keeps a prefix table of
+ * working days over a window around today, plus, per branch, the fraction of every hour of the
+ * day it is open (from opening/closing time) and its max capacity. Capacity for a range is then
+ * working days x open fraction x capacity. The window grows on demand, and the branch profiles
+ * are rebuilt whenever a branch row changes: every change bumps a generation, and tables built
+ * from an older generation are never served, even if a build was already running.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BusinessCalendarService {
+    
+    private static final int HOURS_PER_DAY = 24;
+    private static final int WINDOW_MARGIN_DAYS = 366;
+    
+    private final BranchRepository branchRepository;
+    
+    @Value("${analytics.calendar.weekend-days:SATURDAY,SUNDAY}")
+    private String weekendDays;
+    
+    @Value("${analytics.calendar.holidays:}")
+    private String holidayList;
+    
+    private final AtomicLong generation = new AtomicLong();
+    private volatile CalendarTables tables;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(AnalyticsDataChangedEvent event) {
+        if (event.getKind() == AnalyticsDataChangedEvent.DataKind.BRANCH) {
+            generation.incrementAndGet();
+        }
+    }
+    
+    public boolean isHoliday(LocalDate date) {
+        return tables(date, date).holidays.contains(date);
+    }
+    
+    public boolean isWorkingDay(LocalDate date) {
+        return workingDays(date, date) == 1;
+    }
+    
+    /** Working days in the inclusive range. */
+    public long workingDays(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return 0;
+        }
+        return tables(startDate, endDate).workingDays(startDate, endDate);
+    }
+    
+    /** Max capacity of the branch, or of all active branches together when branchId is null. */
+    public int capacity(Long branchId) {
+        int capacity = 0;
+        for (BranchProfile profile : tables(LocalDate.now(), LocalDate.now()).profiles(branchId)) {
+            capacity += profile.maxCapacity;
+        }
+        return capacity;
+    }
+    
+    /** Ids of the active branches. */
+    public List<Long> activeBranchIds() {
+        return tables(LocalDate.now(), LocalDate.now()).activeBranchIds;
+    }
+    
+    /** Whether the branch (any active branch when null) is open at some point during the hour. */
+    public boolean isOpen(Long branchId, int hour) {
+        for (BranchProfile profile : tables(LocalDate.now(), LocalDate.now()).profiles(branchId)) {
+            if (profile.openFraction[hour] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Branch-days the branch (all active branches when null) is open during the given hour over the
+     * range, counting a partially open hour fractionally.
+     */
+    public double openBranchDays(Long branchId, int hour, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return 0.0;
+        }
+        CalendarTables current = tables(startDate, endDate);
+        double openFraction = 0.0;
+        for (BranchProfile profile : current.profiles(branchId)) {
+            openFraction += profile.openFraction[hour];
+        }
+        return current.workingDays(startDate, endDate) * openFraction;
+    }
+    
+    /**
+     * Customer capacity-hours available during the given hour of the day over the range:
+     * open branch-days weighted by each branch's max capacity.
+     */
+    public double capacityHours(Long branchId, int hour, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return 0.0;
+        }
+        CalendarTables current = tables(startDate, endDate);
+        double capacity = 0.0;
+        for (BranchProfile profile : current.profiles(branchId)) {
+            capacity += profile.openFraction[hour] * profile.maxCapacity;
+        }
+        return current.workingDays(startDate, endDate) * capacity;
+    }
+    
+    private CalendarTables tables(LocalDate startDate, LocalDate endDate) {
+        CalendarTables current = tables;
+        if (current != null && current.generation == generation.get() && current.covers(startDate, endDate)) {
+            return current;
+        }
+        synchronized (this) {
+            // Read before building, so a branch change during the build leaves these tables stale
+            long expected = generation.get();
+            current = tables;
+            if (current == null || current.generation != expected || !current.covers(startDate, endDate)) {
+                LocalDate today = LocalDate.now();
+                LocalDate first = min(startDate, today).minusDays(WINDOW_MARGIN_DAYS);
+                LocalDate last = max(endDate, today).plusDays(WINDOW_MARGIN_DAYS);
+                if (current != null) {
+                    first = min(first, current.firstDate());
+                    last = max(last, current.lastDate());
+                }
+                current = build(first, last, expected);
+                tables = current;
+            }
+            return current;
+        }
+    }
+    
+    private CalendarTables build(LocalDate first, LocalDate last, long generation) {
+        Set<DayOfWeek> weekend = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : weekendDays.split(",")) {
+            if (!day.isBlank()) {
+                weekend.add(DayOfWeek.valueOf(day.trim().toUpperCase()));
+            }
+        }
+        Set<LocalDate> holidays = new HashSet<>();
+        for (String holiday : holidayList.split(",")) {
+            if (!holiday.isBlank()) {
+                holidays.add(LocalDate.parse(holiday.trim()));
+            }
+        }
+        
+        long firstDay = first.toEpochDay();
+        int days = (int) (last.toEpochDay() - firstDay + 1);
+        int[] workingPrefix = new int[days + 1];
+        LocalDate date = first;
+        for (int i = 0; i < days; i++, date = date.plusDays(1)) {
+            boolean working = !weekend.contains(date.getDayOfWeek()) && !holidays.contains(date);
+            workingPrefix[i + 1] = workingPrefix[i] + (working ? 1 : 0);
+        }
+        
+        Map<Long, BranchProfile> profiles = new HashMap<>();
+        for (Branch branch : branchRepository.findAll()) {
+            profiles.put(branch.getBranchId(), new BranchProfile(branch));
+        }
+        log.debug("Business calendar built for {} to {} ({} branches)", first, last, profiles.size());
+        return new CalendarTables(generation, firstDay, workingPrefix, Set.copyOf(holidays), profiles);
+    }
+    
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+    
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+    
+    /**
+     * Immutable snapshot: prefix[i] is the number of working days before firstDay + i.
+     */
+    private static final class CalendarTables {
+        
+        private final long generation;
+        private final long firstDay;
+        private final int[] workingPrefix;
+        private final Set<LocalDate> holidays;
+        private final Map<Long, BranchProfile> profiles;
+        private final List<BranchProfile> activeProfiles;
+        private final List<Long> activeBranchIds;
+        
+        CalendarTables(long generation, long firstDay, int[] workingPrefix, Set<LocalDate> holidays, Map<Long, BranchProfile> profiles) {
+            this.generation = generation;
+            this.firstDay = firstDay;
+            this.workingPrefix = workingPrefix;
+            this.holidays = holidays;
+            this.profiles = profiles;
+            this.activeProfiles = profiles.values().stream().filter(p -> p.active).toList();
+            this.activeBranchIds = profiles.entrySet().stream()
+                .filter(e -> e.getValue().active).map(Map.Entry::getKey).sorted().toList();
+        }
+        
+        LocalDate firstDate() {
+            return LocalDate.ofEpochDay(firstDay);
+        }
+        
+        LocalDate lastDate() {
+            return LocalDate.ofEpochDay(firstDay + workingPrefix.length - 2);
+        }
+        
+        boolean covers(LocalDate startDate, LocalDate endDate) {
+            return startDate.toEpochDay() >= firstDay && endDate.toEpochDay() < firstDay + workingPrefix.length - 1;
+        }
+        
+        long workingDays(LocalDate startDate, LocalDate endDate) {
+            return workingPrefix[(int) (endDate.toEpochDay() - firstDay) + 1] - workingPrefix[(int) (startDate.toEpochDay() - firstDay)];
+        }
+        
+        List<BranchProfile> profiles(Long branchId) {
+            if (branchId == null) {
+                return activeProfiles;
+            }
+            BranchProfile profile = profiles.get(branchId);
+            return profile != null ? List.of(profile) : List.of();
+        }
+    }
+    
+    /**
+     * Opening hours of one branch as the open fraction of each hour of the day.
+     */
+    private static final class BranchProfile {
+        
+        private final double[] openFraction = new double[HOURS_PER_DAY];
+        private final int maxCapacity;
+        private final boolean active;
+        
+        BranchProfile(Branch branch) {
+            this.maxCapacity = branch.getMaxCapacity() != null ? branch.getMaxCapacity() : 0;
+            this.active = branch.getStatus() == null || branch.getStatus() == Branch.BranchStatus.ACTIVE;
+            
+            LocalTime opening = branch.getOpeningTime() != null ? branch.getOpeningTime() : LocalTime.of(9, 0);
+            LocalTime closing = branch.getClosingTime() != null ? branch.getClosingTime() : LocalTime.of(18, 0);
+            int openMinute = opening.getHour() * 60 + opening.getMinute();
+            int closeMinute = closing.getHour() * 60 + closing.getMinute();
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                int overlap = Math.min(closeMinute, (hour + 1) * 60) - Math.max(openMinute, hour * 60);
+                openFraction[hour] = Math.max(0, overlap) / 60.0;
+            }
+        }
+    }
+}
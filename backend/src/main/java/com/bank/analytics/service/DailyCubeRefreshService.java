@@ -0,0 +1,168 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.event.RollupDay;
+import com.Bank.analytics.event.RollupRefreshedEvent;
+import com.Bank.analytics.repository.BranchRepository;
+import com.Bank.analytics.store.CubeMeasure;
+import com.Bank.analytics.store.DailyMeasures;
+import com.Bank.analytics.store.DailyPrefixCube;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps {@link DailyPrefixCube} in step with the hourly rollups.
+ *
+ * The first refresh after startup, and every rebuild, loads the cube from the rollups grouped
+ * by branch, day and (for footfall) hour. Later refreshes add just the window of source rows the rollups absorbed,
+ * aggregated the same way the rollup upserts aggregate them, so the cube and the rollups always
+ * agree; branch-days the refresh restated are re-read from the rollups and replaced. The city and state series each branch rolls up into are taken from the branch table
+ * before a load and re-applied whenever a branch changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailyCubeRefreshService {
+    
+    private static final String FOOTFALL_ROLLUP_SELECT =
+        "SELECT branch_id, rollup_date, rollup_hour, SUM(visit_count), SUM(wait_sum), SUM(wait_count), SUM(service_sum), " +
+        "SUM(service_count), SUM(rating_sum), SUM(rating_count) FROM footfall_hourly_rollup ";
+    
+    private static final String FOOTFALL_FROM_ROLLUP =
+        FOOTFALL_ROLLUP_SELECT + "GROUP BY branch_id, rollup_date, rollup_hour ORDER BY rollup_date";
+    
+    private static final String FOOTFALL_DAY_FROM_ROLLUP =
+        FOOTFALL_ROLLUP_SELECT + "WHERE branch_id = ? AND rollup_date = ? GROUP BY branch_id, rollup_date, rollup_hour";
+    
+    private static final String TRANSACTIONS_ROLLUP_SELECT =
+        "SELECT branch_id, rollup_date, SUM(transaction_count), SUM(completed_count), ROUND(SUM(completed_amount) * 100), " +
+        "SUM(processing_sum), SUM(processing_count) FROM transaction_hourly_rollup ";
+    
+    private static final String TRANSACTIONS_FROM_ROLLUP =
+        TRANSACTIONS_ROLLUP_SELECT + "GROUP BY branch_id, rollup_date ORDER BY rollup_date";
+    
+    private static final String TRANSACTIONS_DAY_FROM_ROLLUP =
+        TRANSACTIONS_ROLLUP_SELECT + "WHERE branch_id = ? AND rollup_date = ? GROUP BY branch_id, rollup_date";
+    
+    private static final String FOOTFALL_WINDOW =
+        "SELECT branch_id, entry_date, HOUR(entry_time), COUNT(*), COALESCE(SUM(wait_time_minutes), 0), COUNT(wait_time_minutes), " +
+        "COALESCE(SUM(service_time_minutes), 0), COUNT(service_time_minutes), " +
+        "COALESCE(SUM(satisfaction_rating), 0), COUNT(satisfaction_rating) " +
+        "FROM customer_entries WHERE created_at > ? AND created_at <= ? GROUP BY branch_id, entry_date, HOUR(entry_time)";
+    
+    private static final String TRANSACTIONS_WINDOW =
+        "SELECT branch_id, transaction_date, COUNT(*), SUM(CASE WHEN transaction_status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+        "COALESCE(ROUND(SUM(CASE WHEN transaction_status = 'COMPLETED' THEN transaction_amount END) * 100), 0), " +
+        "COALESCE(SUM(processing_time_minutes), 0), COUNT(processing_time_minutes) " +
+        "FROM transactions WHERE created_at > ? AND created_at <= ? GROUP BY branch_id, transaction_date";
+    
+    private static final CubeMeasure[] FOOTFALL_MEASURES = {
+        CubeMeasure.VISITS, CubeMeasure.WAIT_SUM, CubeMeasure.WAIT_COUNT, CubeMeasure.SERVICE_SUM,
+        CubeMeasure.SERVICE_COUNT, CubeMeasure.RATING_SUM, CubeMeasure.RATING_COUNT
+    };
+    
+    private static final CubeMeasure[] TRANSACTION_MEASURES = {
+        CubeMeasure.TRANSACTIONS, CubeMeasure.COMPLETED_TRANSACTIONS, CubeMeasure.REVENUE_CENTS,
+        CubeMeasure.PROCESSING_SUM, CubeMeasure.PROCESSING_COUNT
+    };
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final DailyPrefixCube dailyPrefixCube;
+    private final BranchRepository branchRepository;
+    
+    // Updates the store before DataVersionService bumps the ETag versions for this refresh
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRollupRefreshed(RollupRefreshedEvent event) {
+        if (event.isRebuilt() || !dailyPrefixCube.isReady()
+                || event.getFootfallSince() == null || event.getTransactionSince() == null) {
+            long started = System.currentTimeMillis();
+            dailyPrefixCube.setRegions(regionsByBranch());
+            List<DailyMeasures> days = new ArrayList<>();
+            days.addAll(jdbcTemplate.query(FOOTFALL_FROM_ROLLUP, (rs, i) -> toFootfallMeasures(rs)));
+            days.addAll(jdbcTemplate.query(TRANSACTIONS_FROM_ROLLUP, (rs, i) -> toTransactionMeasures(rs)));
+            dailyPrefixCube.load(days);
+            log.info("Daily prefix cube loaded from {} branch-days in {} ms", days.size(), System.currentTimeMillis() - started);
+            return;
+        }
+        if (event.getRowsTouched() == 0 && event.getRestatedDays().isEmpty()) {
+            return;
+        }
+        
+        List<DailyMeasures> deltas = new ArrayList<>();
+        LocalDateTime cutoff = event.getCutoff();
+        if (event.getFootfallSince().isBefore(cutoff)) {
+            deltas.addAll(jdbcTemplate.query(FOOTFALL_WINDOW, (rs, i) -> toFootfallMeasures(rs),
+                event.getFootfallSince(), cutoff));
+        }
+        if (event.getTransactionSince().isBefore(cutoff)) {
+            deltas.addAll(jdbcTemplate.query(TRANSACTIONS_WINDOW, (rs, i) -> toTransactionMeasures(rs),
+                event.getTransactionSince(), cutoff));
+        }
+        dailyPrefixCube.add(deltas);
+        if (!event.getRestatedDays().isEmpty()) {
+            dailyPrefixCube.replace(restatedDays(event.getRestatedDays()));
+        }
+    }
+    
+    /** The rollup totals of each branch-day, with an empty entry so days left without rows are cleared. */
+    private List<DailyMeasures> restatedDays(Set<RollupDay> restated) {
+        List<DailyMeasures> days = new ArrayList<>();
+        for (RollupDay day : restated) {
+            days.add(new DailyMeasures(day.branchId(), day.date(), DailyMeasures.empty()));
+            days.addAll(jdbcTemplate.query(FOOTFALL_DAY_FROM_ROLLUP, (rs, i) -> toFootfallMeasures(rs), day.branchId(), day.date()));
+            days.addAll(jdbcTemplate.query(TRANSACTIONS_DAY_FROM_ROLLUP, (rs, i) -> toTransactionMeasures(rs), day.branchId(), day.date()));
+        }
+        return days;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(AnalyticsDataChangedEvent event) {
+        if (event.getKind() == AnalyticsDataChangedEvent.DataKind.BRANCH) {
+            dailyPrefixCube.setRegions(regionsByBranch());
+        }
+    }
+    
+    private Map<Long, List<String>> regionsByBranch() {
+        Map<Long, List<String>> regions = new HashMap<>();
+        for (Branch branch : branchRepository.findAll()) {
+            regions.put(branch.getBranchId(), List.of(
+                DailyPrefixCube.citySeries(branch.getState(), branch.getCity()),
+                DailyPrefixCube.stateSeries(branch.getState())));
+        }
+        return regions;
+    }
+    
+    // Footfall rows are per hour: branch, date, hour, then the footfall measures
+    private static DailyMeasures toFootfallMeasures(ResultSet rs) throws SQLException {
+        long[] values = DailyMeasures.empty();
+        for (int i = 0; i < FOOTFALL_MEASURES.length; i++) {
+            values[FOOTFALL_MEASURES[i].ordinal()] = rs.getLong(i + 4);
+        }
+        values[DailyMeasures.hourSlot(rs.getInt(3))] = values[CubeMeasure.VISITS.ordinal()];
+        return new DailyMeasures(rs.getLong(1), rs.getDate(2).toLocalDate(), values);
+    }
+    
+    // Transaction rows are per day: branch, date, then the transaction measures
+    private static DailyMeasures toTransactionMeasures(ResultSet rs) throws SQLException {
+        long[] values = DailyMeasures.empty();
+        for (int i = 0; i < TRANSACTION_MEASURES.length; i++) {
+            values[TRANSACTION_MEASURES[i].ordinal()] = rs.getLong(i + 3);
+        }
+        return new DailyMeasures(rs.getLong(1), rs.getDate(2).toLocalDate(), values);
+    }
+}
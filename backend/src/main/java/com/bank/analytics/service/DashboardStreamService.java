@@ -0,0 +1,268 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes live dashboard snapshots to Server-Sent Events subscribers.
+ *
+ * Every tick (or sooner after a data change) the real-time stats and alerts are computed once,
+ * split into one payload for all branches and one per branch, and each payload is serialized
+ * once into a ready-made SSE frame that every subscriber of that topic is handed as is. Frames
+ * are only sent when a topic's content changed; otherwise subscribers get a heartbeat comment.
+ *
+ * Each subscriber holds at most one undelivered frame. A slow client that is still writing when
+ * the next frame arrives has the older one replaced, so it skips to the latest state instead of
+ * queueing, and writes happen on virtual threads so one stalled socket never delays the others.
+ * Frames carry an id and a reconnect delay; a client reconnecting with the Last-Event-ID of the
+ * current frame is not sent it again.
+ */
+@Service
+@Slf4j
+public class DashboardStreamService implements DisposableBean {
+    
+    private static final String EVENT_NAME = "dashboard";
+    private static final String ALL_BRANCHES = "all";
+    
+    private final AnalyticsService analyticsService;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+    private final long heartbeatIntervalMs;
+    private final long reconnectDelayMs;
+    private final int maxSubscribers;
+    
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Frame> latestFrames = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean dataChanged = new AtomicBoolean(true);
+    private volatile long lastHeartbeatMillis;
+    
+    public DashboardStreamService(AnalyticsService analyticsService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${analytics.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                                  @Value("${analytics.stream.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+                                  @Value("${analytics.stream.reconnect-delay-ms:3000}") long reconnectDelayMs,
+                                  @Value("${analytics.stream.max-subscribers:1000}") int maxSubscribers) {
+        this.analyticsService = analyticsService;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.maxSubscribers = maxSubscribers;
+    }
+    
+    /**
+     * Registers a subscriber for one branch, or all branches when branchId is null, and queues
+     * the current snapshot for it. Returns null when the subscriber limit is reached.
+     */
+    public SseEmitter subscribe(Long branchId, String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(topicFor(branchId), emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        
+        Frame current = latestFrames.get(subscriber.topic);
+        if (current == null) {
+            dataChanged.set(true);
+        } else if (!current.id.equals(lastEventId)) {
+            subscriber.offer(current);
+        }
+        return emitter;
+    }
+    
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(AnalyticsDataChangedEvent event) {
+        dataChanged.set(true);
+    }
+    
+    /**
+     * Recomputes the snapshot once for all subscribers. A no-op without subscribers; otherwise runs
+     * when data has changed, and at least once per heartbeat interval to pick up time-driven changes.
+     */
+    @Scheduled(fixedDelayString = "${analytics.stream.tick-ms:1000}", initialDelay = 5000)
+    public void tick() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        boolean heartbeatDue = now - lastHeartbeatMillis >= heartbeatIntervalMs;
+        if (dataChanged.getAndSet(false) || heartbeatDue) {
+            if (heartbeatDue) {
+                lastHeartbeatMillis = now;
+            }
+            broadcast(heartbeatDue);
+        }
+    }
+    
+    private void broadcast(boolean heartbeatDue) {
+        Map<String, Object> stats = analyticsService.getRealTimeStats();
+        List<Map<String, Object>> alerts = analyticsService.getDashboardAlerts();
+        Map<String, Map<String, Object>> payloads = payloadsByTopic(stats, alerts);
+        
+        Map<String, Frame> changed = new HashMap<>();
+        for (Map.Entry<String, Map<String, Object>> payload : payloads.entrySet()) {
+            Frame previous = latestFrames.get(payload.getKey());
+            if (previous == null || !previous.content.equals(payload.getValue())) {
+                Frame frame = frame(payload.getValue(), stats.get("timestamp"));
+                if (frame != null) {
+                    latestFrames.put(payload.getKey(), frame);
+                    changed.put(payload.getKey(), frame);
+                }
+            }
+        }
+        
+        for (Subscriber subscriber : subscribers) {
+            Frame frame = changed.get(subscriber.topic);
+            if (frame != null) {
+                subscriber.offer(frame);
+            } else if (heartbeatDue) {
+                subscriber.offer(Frame.HEARTBEAT);
+            }
+        }
+    }
+    
+    /**
+     * Splits the snapshot into the all-branches payload and one payload per branch. The poll
+     * timestamp is left out so unchanged content compares equal across ticks.
+     */
+    private Map<String, Map<String, Object>> payloadsByTopic(Map<String, Object> stats, List<Map<String, Object>> alerts) {
+        Map<String, Map<String, Object>> payloads = new HashMap<>();
+        Map<String, Object> allStats = new LinkedHashMap<>(stats);
+        allStats.remove("timestamp");
+        payloads.put(ALL_BRANCHES, Map.of("stats", allStats, "alerts", alerts));
+        
+        Object branches = stats.get("branchOccupancy");
+        if (branches instanceof List<?> branchOccupancy) {
+            for (Object item : branchOccupancy) {
+                if (item instanceof Map<?, ?> branch && branch.get("branchId") != null) {
+                    Object branchId = branch.get("branchId");
+                    List<Map<String, Object>> branchAlerts = new ArrayList<>();
+                    for (Map<String, Object> alert : alerts) {
+                        if (Objects.equals(alert.get("branchId"), branchId)) {
+                            branchAlerts.add(alert);
+                        }
+                    }
+                    payloads.put(topicFor(((Number) branchId).longValue()), Map.of("stats", branch, "alerts", branchAlerts));
+                }
+            }
+        }
+        return payloads;
+    }
+    
+    private Frame frame(Map<String, Object> content, Object timestamp) {
+        Map<String, Object> body = new LinkedHashMap<>(content);
+        body.put("timestamp", timestamp);
+        try {
+            String id = Long.toString(sequence.incrementAndGet());
+            Set<DataWithMediaType> data = SseEmitter.event()
+                .id(id)
+                .name(EVENT_NAME)
+                .reconnectTime(reconnectDelayMs)
+                .data(objectMapper.writeValueAsString(body), MediaType.APPLICATION_JSON)
+                .build();
+            return new Frame(id, content, data);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize dashboard snapshot: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private static String topicFor(Long branchId) {
+        return branchId != null ? "branch:" + branchId : ALL_BRANCHES;
+    }
+    
+    @Override
+    public void destroy() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        writers.shutdownNow();
+    }
+    
+    /**
+     * A serialized SSE frame, shared by every subscriber of its topic.
+     */
+    private record Frame(String id, Map<String, Object> content, Set<DataWithMediaType> data) {
+        
+        static final Frame HEARTBEAT = new Frame("", Map.of(), SseEmitter.event().comment("heartbeat").build());
+    }
+    
+    /**
+     * One open stream with a single-slot mailbox: offering a frame replaces any frame not yet
+     * written, and at most one writer runs per subscriber.
+     */
+    private final class Subscriber {
+        
+        private final String topic;
+        private final SseEmitter emitter;
+        private final AtomicReference<Frame> pending = new AtomicReference<>();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        
+        Subscriber(String topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+        
+        void offer(Frame frame) {
+            Frame replaced = pending.getAndSet(frame);
+            if (replaced != null && replaced != Frame.HEARTBEAT && frame == Frame.HEARTBEAT) {
+                // Never let a heartbeat displace real data
+                pending.compareAndSet(frame, replaced);
+            }
+            if (writing.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                Frame frame;
+                while ((frame = pending.getAndSet(null)) != null) {
+                    emitter.send(frame.data);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping dashboard stream subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                writing.set(false);
+            }
+            if (pending.get() != null && writing.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+    }
+}
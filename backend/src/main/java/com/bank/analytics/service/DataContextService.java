@@ -201,10 +201,8 @@ public class DataContextService implements ApplicationRunner {
             for (FootfallTrendDTO trend : trendData) {
                 if (!trend.getPredicted()) {
                     trends.append("• ").append(trend.getDate()).append(": ")
-                            .append("New York: ").append(trend.getSiruseri())
-                            .append(", Washington DC: ").append(trend.getTnagar())
-                            .append(", New Jersey: ").append(trend.getNavalur())
-                            .append(", Total: ").append(trend.getTotal()).append("\n");
+                            .append(formatBranchFootfall(trend))
+                            .append("Total: ").append(trend.getTotal()).append("\n");
                 }
             }
             
@@ -213,10 +211,8 @@ public class DataContextService implements ApplicationRunner {
             for (FootfallTrendDTO trend : trendData) {
                 if (trend.getPredicted() != null && trend.getPredicted()) {
                     trends.append("• ").append(trend.getDate()).append(" (Predicted): ")
-                            .append("New York: ").append(trend.getSiruseri())
-                            .append(", Washington DC: ").append(trend.getTnagar())
-                            .append(", New Jersey: ").append(trend.getNavalur())
-                            .append(", Total: ").append(trend.getTotal()).append("\n");
+                            .append(formatBranchFootfall(trend))
+                            .append("Total: ").append(trend.getTotal()).append("\n");
                 }
             }
             
@@ -226,6 +222,13 @@ public class DataContextService implements ApplicationRunner {
         return trends.toString();
     }
 
+    private String formatBranchFootfall(FootfallTrendDTO trend) {
+        StringBuilder line = new StringBuilder();
+        trend.getBranchFootfall().forEach((branchId, visitors) ->
+            line.append(getBranchDisplayName(branchId, null)).append(": ").append(visitors).append(", "));
+        return line.toString();
+    }
+
     private String get30DayAnalytics(LocalDate startDate, LocalDate endDate) {
         StringBuilder analytics = new StringBuilder();
         try {
@@ -0,0 +1,101 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.event.RollupDay;
+import com.Bank.analytics.event.RollupRefreshedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory data-version watermarks used to build ETags for the analytics endpoints.
+ *
+ * Every committed write to customer entries, transactions or branches advances the version
+ * of its branch and the global version. Analytics are served from the hourly rollups, which lag
+ * the raw tables, so a branch is bumped a second time once a rollup refresh has absorbed
+ * its writes; otherwise a response computed in between would be pinned to the new version.
+ * The boot id keeps ETags from a previous process from ever matching.
+ */
+@Service
+@Slf4j
+public class DataVersionService {
+    
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final AtomicLong epoch = new AtomicLong();
+    private final Map<Long, AtomicLong> branchVersions = new ConcurrentHashMap<>();
+    // Branches with writes not yet visible in the rollups, keyed to their latest write time
+    private final Map<Long, LocalDateTime> pendingRollup = new ConcurrentHashMap<>();
+    
+    /**
+     * Version token for one branch, or for all branches when {@code branchId} is null.
+     */
+    public String currentVersion(Long branchId) {
+        if (branchId == null) {
+            return bootId + "-" + globalVersion.get();
+        }
+        AtomicLong branchVersion = branchVersions.get(branchId);
+        return bootId + "-" + epoch.get() + "." + (branchVersion != null ? branchVersion.get() : 0L);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(AnalyticsDataChangedEvent event) {
+        if (event.getBranchId() == null) {
+            markAllChanged();
+            return;
+        }
+        markChanged(event.getBranchId());
+        if (event.getKind() != AnalyticsDataChangedEvent.DataKind.BRANCH) {
+            pendingRollup.put(event.getBranchId(), LocalDateTime.now());
+        }
+    }
+    
+    // Runs after the derived stores have absorbed the refresh, so a response computed from the
+    // previous state is never tagged with the new version
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onRollupRefreshed(RollupRefreshedEvent event) {
+        if (event.isRebuilt()) {
+            pendingRollup.clear();
+            markAllChanged();
+            return;
+        }
+        if (event.getRowsTouched() == 0 && event.getRestatedDays().isEmpty()) {
+            return;
+        }
+        
+        boolean attributed = false;
+        for (RollupDay day : event.getRestatedDays()) {
+            markChanged(day.branchId());
+            attributed = true;
+        }
+        for (Map.Entry<Long, LocalDateTime> pending : pendingRollup.entrySet()) {
+            if (!pending.getValue().isAfter(event.getCutoff())
+                    && pendingRollup.remove(pending.getKey(), pending.getValue())) {
+                markChanged(pending.getKey());
+                attributed = true;
+            }
+        }
+        // Rows written behind our back (SQL imports, other instances) cannot be traced to a branch
+        if (!attributed) {
+            markAllChanged();
+        }
+    }
+    
+    public void markChanged(Long branchId) {
+        branchVersions.computeIfAbsent(branchId, id -> new AtomicLong()).incrementAndGet();
+        globalVersion.incrementAndGet();
+    }
+    
+    public void markAllChanged() {
+        epoch.incrementAndGet();
+        globalVersion.incrementAndGet();
+        log.debug("All analytics data versions invalidated");
+    }
+}
@@ -0,0 +1,63 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.dto.ExportFormat;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes rows of a CSV (RFC 4180 quoting and CRLF record ends) or TSV (tabs and line breaks in
+ * values become spaces) file. Nulls are empty fields. Text starting with =, +, - or @ gets a
+ * leading apostrophe so spreadsheets show it instead of evaluating it as a formula.
+ */
+final class DelimitedWriter {
+    
+    private static final String FORMULA_PREFIXES = "=+-@";
+    
+    private final Writer out;
+    private final ExportFormat format;
+    
+    DelimitedWriter(Writer out, ExportFormat format) {
+        this.out = out;
+        this.format = format;
+    }
+    
+    void row(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(format.getDelimiter());
+            }
+            if (values[i] != null) {
+                out.write(escape(text(values[i])));
+            }
+        }
+        out.write(format.getLineEnd());
+    }
+    
+    // Times always carry seconds so a column sorts and parses uniformly
+    private static String text(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof LocalTime time) {
+            return DateTimeFormatter.ISO_LOCAL_TIME.format(time);
+        }
+        // Only free text: numbers keep their sign
+        if (value instanceof CharSequence text && !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            return "'" + text;
+        }
+        return value.toString();
+    }
+    
+    private String escape(String value) {
+        if (format == ExportFormat.TSV) {
+            return value.replace('\t', ' ').replace('\r', ' ').replace('\n', ' ');
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\r') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
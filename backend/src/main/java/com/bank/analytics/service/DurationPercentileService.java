@@ -0,0 +1,87 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.exception.InvalidRequestException;
+import com.Bank.analytics.repository.CustomerEntryRepository;
+import com.Bank.analytics.repository.TransactionRepository;
+import com.Bank.analytics.repository.projection.DurationCount;
+import com.Bank.analytics.store.DurationHistogram;
+import com.Bank.analytics.store.DurationMetric;
+import com.Bank.analytics.store.DurationSketchStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Percentile wait, service and processing times for a branch (null for all branches), service type
+ * (null for all) and inclusive date range.
+ *
+ * Served by merging one {@link DurationSketchStore} sketch per day once the store has loaded; until
+ * then each metric is one grouped count of the source rows by duration.
+ */
+@Service
+@RequiredArgsConstructor
+public class DurationPercentileService {
+    
+    private static final List<Double> DEFAULT_PERCENTILES = List.of(50.0, 90.0, 95.0, 99.0);
+    
+    private final DurationSketchStore durationSketchStore;
+    private final CustomerEntryRepository customerEntryRepository;
+    private final TransactionRepository transactionRepository;
+    
+    public Map<String, Object> percentiles(Long branchId, String serviceType, LocalDate startDate, LocalDate endDate,
+                                           List<Double> percentiles) {
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidRequestException("endDate must not be before startDate");
+        }
+        List<Double> requested = percentiles == null || percentiles.isEmpty() ? DEFAULT_PERCENTILES : percentiles;
+        for (Double percentile : requested) {
+            if (percentile == null || percentile < 0 || percentile > 100) {
+                throw new InvalidRequestException("Percentiles must be between 0 and 100");
+            }
+        }
+        String type = serviceType != null && !serviceType.isBlank() ? serviceType.trim() : null;
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("branchId", branchId);
+        response.put("serviceType", type);
+        response.put("startDate", startDate);
+        response.put("endDate", endDate);
+        response.put("waitTime", summarize(histogram(DurationMetric.WAIT, branchId, type, startDate, endDate), requested));
+        response.put("serviceTime", summarize(histogram(DurationMetric.SERVICE, branchId, type, startDate, endDate), requested));
+        response.put("processingTime", summarize(histogram(DurationMetric.PROCESSING, branchId, type, startDate, endDate), requested));
+        return response;
+    }
+    
+    private DurationHistogram histogram(DurationMetric metric, Long branchId, String serviceType,
+                                        LocalDate startDate, LocalDate endDate) {
+        if (durationSketchStore.isReady()) {
+            return durationSketchStore.merged(metric, branchId, serviceType, startDate, endDate);
+        }
+        
+        List<DurationCount> counts = switch (metric) {
+            case WAIT -> customerEntryRepository.countWaitTimes(branchId, serviceType, startDate, endDate);
+            case SERVICE -> customerEntryRepository.countServiceTimes(branchId, serviceType, startDate, endDate);
+            case PROCESSING -> transactionRepository.countProcessingTimes(branchId, serviceType, startDate, endDate);
+        };
+        DurationHistogram histogram = new DurationHistogram();
+        for (DurationCount count : counts) {
+            histogram.record(count.getMinutes(), count.getSamples());
+        }
+        return histogram;
+    }
+    
+    /** Sample count, the requested percentiles keyed e.g. p95 or p99.9, and the maximum, in minutes. */
+    private static Map<String, Object> summarize(DurationHistogram histogram, List<Double> percentiles) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("samples", histogram.count());
+        for (Double percentile : percentiles) {
+            String key = percentile == Math.rint(percentile) ? String.valueOf(percentile.intValue()) : percentile.toString();
+            summary.put("p" + key, histogram.percentile(percentile));
+        }
+        summary.put("max", histogram.max());
+        return summary;
+    }
+}
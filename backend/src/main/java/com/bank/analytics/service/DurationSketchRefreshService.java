@@ -0,0 +1,114 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.event.RollupDay;
+import com.Bank.analytics.event.RollupRefreshedEvent;
+import com.Bank.analytics.store.DurationMetric;
+import com.Bank.analytics.store.DurationSample;
+import com.Bank.analytics.store.DurationSketchStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps {@link DurationSketchStore} in step with the hourly rollups.
+ *
+ * The rollups only hold sums, so the sketches are built from the source rows grouped by branch,
+ * day, service type and duration: all rows the rollups hold on the first refresh after startup and
+ * after every rebuild, then just the window of rows each refresh absorbed. Branch-days with
+ * restated rollup rows are rebuilt from all their source rows up to the cutoff.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DurationSketchRefreshService {
+    
+    private static final String ENTRY_DURATIONS =
+        "SELECT branch_id, entry_date, COALESCE(visit_purpose, 'Unspecified'), %1$s, COUNT(*) FROM customer_entries " +
+        "WHERE %1$s IS NOT NULL AND %2$s GROUP BY branch_id, entry_date, COALESCE(visit_purpose, 'Unspecified'), %1$s";
+    
+    private static final String PROCESSING_DURATIONS =
+        "SELECT branch_id, transaction_date, service_type, processing_time_minutes, COUNT(*) FROM transactions " +
+        "WHERE processing_time_minutes IS NOT NULL AND %s GROUP BY branch_id, transaction_date, service_type, processing_time_minutes";
+    
+    // Same windows as the rollup refresh, so the sketches cover exactly the rows the rollups do
+    private static final String INITIAL_WINDOW = "(created_at IS NULL OR created_at <= ?)";
+    private static final String INCREMENTAL_WINDOW = "created_at > ? AND created_at <= ?";
+    private static final String ENTRY_DAY_WINDOW = "branch_id = ? AND entry_date = ? AND " + INITIAL_WINDOW;
+    private static final String TRANSACTION_DAY_WINDOW = "branch_id = ? AND transaction_date = ? AND " + INITIAL_WINDOW;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final DurationSketchStore durationSketchStore;
+    
+    // Updates the store before DataVersionService bumps the ETag versions for this refresh
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRollupRefreshed(RollupRefreshedEvent event) {
+        LocalDateTime cutoff = event.getCutoff();
+        if (event.isRebuilt() || !durationSketchStore.isReady()
+                || event.getFootfallSince() == null || event.getTransactionSince() == null) {
+            long started = System.currentTimeMillis();
+            List<DurationSample> samples = new ArrayList<>();
+            samples.addAll(entryDurations(DurationMetric.WAIT, INITIAL_WINDOW, cutoff));
+            samples.addAll(entryDurations(DurationMetric.SERVICE, INITIAL_WINDOW, cutoff));
+            samples.addAll(processingDurations(INITIAL_WINDOW, cutoff));
+            durationSketchStore.load(samples);
+            log.info("Duration sketches loaded from {} duration groups in {} ms", samples.size(), System.currentTimeMillis() - started);
+            return;
+        }
+        if (event.getRowsTouched() == 0 && event.getRestatedDays().isEmpty()) {
+            return;
+        }
+        
+        List<DurationSample> samples = new ArrayList<>();
+        if (event.getFootfallSince().isBefore(cutoff)) {
+            samples.addAll(entryDurations(DurationMetric.WAIT, INCREMENTAL_WINDOW, event.getFootfallSince(), cutoff));
+            samples.addAll(entryDurations(DurationMetric.SERVICE, INCREMENTAL_WINDOW, event.getFootfallSince(), cutoff));
+        }
+        if (event.getTransactionSince().isBefore(cutoff)) {
+            samples.addAll(processingDurations(INCREMENTAL_WINDOW, event.getTransactionSince(), cutoff));
+        }
+        durationSketchStore.add(samples);
+        
+        // Sketches cannot subtract, so a restated branch-day is rebuilt from its rows
+        Map<LocalDate, Set<Long>> restatedBranches = new TreeMap<>();
+        List<DurationSample> restated = new ArrayList<>();
+        for (RollupDay day : event.getRestatedDays()) {
+            restatedBranches.computeIfAbsent(day.date(), date -> new TreeSet<>()).add(day.branchId());
+            restated.addAll(entryDurations(DurationMetric.WAIT, ENTRY_DAY_WINDOW, day.branchId(), day.date(), cutoff));
+            restated.addAll(entryDurations(DurationMetric.SERVICE, ENTRY_DAY_WINDOW, day.branchId(), day.date(), cutoff));
+            restated.addAll(processingDurations(TRANSACTION_DAY_WINDOW, day.branchId(), day.date(), cutoff));
+        }
+        if (!restatedBranches.isEmpty()) {
+            durationSketchStore.replaceBranchDays(restatedBranches, restated);
+        }
+    }
+    
+    private List<DurationSample> entryDurations(DurationMetric metric, String window, Object... args) {
+        String column = metric == DurationMetric.WAIT ? "wait_time_minutes" : "service_time_minutes";
+        return jdbcTemplate.query(String.format(ENTRY_DURATIONS, column, window), (rs, i) -> toSample(rs, metric), args);
+    }
+    
+    private List<DurationSample> processingDurations(String window, Object... args) {
+        return jdbcTemplate.query(String.format(PROCESSING_DURATIONS, window),
+            (rs, i) -> toSample(rs, DurationMetric.PROCESSING), args);
+    }
+    
+    // Rows are branch, date, service type, minutes, occurrences
+    private static DurationSample toSample(ResultSet rs, DurationMetric metric) throws SQLException {
+        return new DurationSample(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getString(3), metric, rs.getInt(4), rs.getLong(5));
+    }
+}
@@ -0,0 +1,247 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.event.RollupRefreshedEvent;
+import com.Bank.analytics.repository.FootfallRollupRepository;
+import com.Bank.analytics.repository.projection.DailyBranchHourVisits;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-branch footfall forecasts from in-memory {@link HoltWintersModel}s.
+ *
+ * Each branch has a daily model (weekly and yearly seasonality) and an hourly model (daily and
+ * weekly seasonality), fitted from the hourly rollups after the first rollup refresh and after a
+ * rollup rebuild. From then on each day is fed to the models once the rollups have absorbed it,
+ * so serving a forecast never refits or reads history. Holidays are left out of the fit as
+ * missing days and are forecast with the pattern of a Sunday. A refresh that restates a day the
+ * models have already seen (an update, delete or back-dated visit) triggers a refit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FootfallForecastService {
+    
+    static final int[] DAILY_PERIODS = {7, 365};
+    private static final int[] HOURLY_PERIODS = {HourlyHistogram.HOURS_PER_DAY, 7 * HourlyHistogram.HOURS_PER_DAY};
+    
+    private final FootfallRollupRepository footfallRollupRepository;
+    private final BusinessCalendarService businessCalendarService;
+    private final DataVersionService dataVersionService;
+    
+    @Value("${analytics.forecast.history-days:730}")
+    private int historyDays;
+    
+    @Value("${analytics.forecast.hourly-history-days:56}")
+    private int hourlyHistoryDays;
+    
+    private volatile Map<Long, BranchModels> models = Map.of();
+    // Last day fed to the models, null until the first fit
+    private volatile LocalDate closedThrough;
+    
+    /** False until the models have been fitted; callers fall back to their own estimate until then. */
+    public boolean isReady() {
+        return closedThrough != null;
+    }
+    
+    // Updates the store before DataVersionService bumps the ETag versions for this refresh
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRollupRefreshed(RollupRefreshedEvent event) {
+        // A day is complete once the rollups have absorbed everything created before midnight
+        LocalDate lastComplete = event.getCutoff().toLocalDate().minusDays(1);
+        if (event.isRebuilt() || closedThrough == null || restatesClosedDay(event)) {
+            refit(lastComplete);
+        } else if (lastComplete.isAfter(closedThrough)) {
+            close(lastComplete);
+        }
+    }
+    
+    /**
+     * Forecast visitors on the date, for the branch or summed over all branches when branchId is
+     * null; null when there is no model.
+     */
+    public Double dailyForecast(Long branchId, LocalDate date) {
+        boolean holiday = businessCalendarService.isHoliday(date);
+        long step = date.toEpochDay();
+        long seasonStep = holiday ? sundayOf(date).toEpochDay() : step;
+        Double total = null;
+        for (BranchModels branch : modelsFor(branchId)) {
+            double value = Math.max(0.0, branch.daily(step, seasonStep));
+            total = total != null ? total + value : value;
+        }
+        return total;
+    }
+    
+    /**
+     * Forecast visitors per hour of the day (0-23) on the date, for the branch or summed over all
+     * branches when branchId is null; null when there is no model.
+     */
+    public double[] hourlyForecast(Long branchId, LocalDate date) {
+        boolean holiday = businessCalendarService.isHoliday(date);
+        long firstHour = date.toEpochDay() * HourlyHistogram.HOURS_PER_DAY;
+        long firstSeasonHour = (holiday ? sundayOf(date) : date).toEpochDay() * HourlyHistogram.HOURS_PER_DAY;
+        double[] total = null;
+        for (BranchModels branch : modelsFor(branchId)) {
+            if (total == null) {
+                total = new double[HourlyHistogram.HOURS_PER_DAY];
+            }
+            for (int hour = 0; hour < HourlyHistogram.HOURS_PER_DAY; hour++) {
+                total[hour] += Math.max(0.0, branch.hourly(firstHour + hour, firstSeasonHour + hour));
+            }
+        }
+        return total;
+    }
+    
+    private List<BranchModels> modelsFor(Long branchId) {
+        Map<Long, BranchModels> current = models;
+        if (branchId == null) {
+            return List.copyOf(current.values());
+        }
+        BranchModels branch = current.get(branchId);
+        return branch != null ? List.of(branch) : List.of();
+    }
+    
+    private static LocalDate sundayOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+    }
+    
+    /**
+     * Fits fresh models from the history up to and including lastComplete.
+     */
+    private synchronized void refit(LocalDate lastComplete) {
+        long started = System.currentTimeMillis();
+        LocalDate first = lastComplete.minusDays(historyDays - 1);
+        LocalDate firstHourly = lastComplete.minusDays(Math.min(historyDays, hourlyHistoryDays) - 1);
+        int days = historyDays;
+        int hours = (int) (lastComplete.toEpochDay() - firstHourly.toEpochDay() + 1) * HourlyHistogram.HOURS_PER_DAY;
+        
+        Map<Long, double[]> daily = new TreeMap<>();
+        Map<Long, double[]> hourly = new HashMap<>();
+        for (DailyBranchHourVisits row : footfallRollupRepository.sumVisitsByBranchDateAndHour(first, lastComplete)) {
+            daily.computeIfAbsent(row.getBranchId(), id -> new double[days])
+                [(int) (row.getEntryDate().toEpochDay() - first.toEpochDay())] += row.getVisitors();
+            if (!row.getEntryDate().isBefore(firstHourly)) {
+                hourly.computeIfAbsent(row.getBranchId(), id -> new double[hours])
+                    [(int) (row.getEntryDate().toEpochDay() - firstHourly.toEpochDay()) * HourlyHistogram.HOURS_PER_DAY + row.getHour()]
+                    += row.getVisitors();
+            }
+        }
+        
+        Map<Long, BranchModels> fitted = new HashMap<>();
+        daily.forEach((branchId, values) -> {
+            // Start at the branch's first visit so the days before it opened do not count as closed days
+            int start = 0;
+            while (start < values.length && values[start] == 0) {
+                start++;
+            }
+            LocalDate opened = first.plusDays(start);
+            double[] dailyValues = new double[values.length - start];
+            for (int i = 0; i < dailyValues.length; i++) {
+                dailyValues[i] = businessCalendarService.isHoliday(opened.plusDays(i)) ? Double.NaN : values[start + i];
+            }
+            
+            LocalDate hourlyStart = opened.isAfter(firstHourly) ? opened : firstHourly;
+            int skip = (int) (hourlyStart.toEpochDay() - firstHourly.toEpochDay()) * HourlyHistogram.HOURS_PER_DAY;
+            double[] source = hourly.getOrDefault(branchId, new double[hours]);
+            double[] hourlyValues = new double[Math.max(0, hours - skip)];
+            for (int i = 0; i < hourlyValues.length; i++) {
+                LocalDate date = hourlyStart.plusDays(i / HourlyHistogram.HOURS_PER_DAY);
+                hourlyValues[i] = businessCalendarService.isHoliday(date) ? Double.NaN : source[skip + i];
+            }
+            
+            fitted.put(branchId, new BranchModels(
+                HoltWintersModel.fit(DAILY_PERIODS, opened.toEpochDay(), dailyValues),
+                HoltWintersModel.fit(HOURLY_PERIODS, hourlyStart.toEpochDay() * HourlyHistogram.HOURS_PER_DAY, hourlyValues)));
+        });
+        models = fitted;
+        closedThrough = lastComplete;
+        dataVersionService.markAllChanged();
+        log.info("Footfall forecast models fitted for {} branches through {} in {} ms",
+            fitted.size(), lastComplete, System.currentTimeMillis() - started);
+    }
+    
+    private boolean restatesClosedDay(RollupRefreshedEvent event) {
+        LocalDate closed = closedThrough;
+        return event.getRestatedDays().stream().anyMatch(day -> !day.date().isAfter(closed));
+    }
+    
+    /**
+     * Feeds the days after closedThrough up to and including lastComplete to every model.
+     */
+    private synchronized void close(LocalDate lastComplete) {
+        LocalDate first = closedThrough.plusDays(1);
+        if (lastComplete.isBefore(first)) {
+            return;
+        }
+        Map<Long, Map<LocalDate, long[]>> byBranch = new HashMap<>();
+        for (DailyBranchHourVisits row : footfallRollupRepository.sumVisitsByBranchDateAndHour(first, lastComplete)) {
+            byBranch.computeIfAbsent(row.getBranchId(), id -> new HashMap<>())
+                .computeIfAbsent(row.getEntryDate(), date -> new long[HourlyHistogram.HOURS_PER_DAY])[row.getHour()] += row.getVisitors();
+        }
+        if (!models.keySet().containsAll(byBranch.keySet())) {
+            // A branch without a model has had its first visits; fit it along with the others
+            refit(lastComplete);
+            return;
+        }
+        
+        for (LocalDate date = first; !date.isAfter(lastComplete); date = date.plusDays(1)) {
+            boolean holiday = businessCalendarService.isHoliday(date);
+            for (Map.Entry<Long, BranchModels> branch : models.entrySet()) {
+                long[] hours = byBranch.getOrDefault(branch.getKey(), Map.of())
+                    .getOrDefault(date, new long[HourlyHistogram.HOURS_PER_DAY]);
+                branch.getValue().observe(date, hours, holiday);
+            }
+        }
+        closedThrough = lastComplete;
+        dataVersionService.markAllChanged();
+        log.debug("Footfall forecast models advanced through {}", lastComplete);
+    }
+    
+    /**
+     * The daily and hourly model of one branch, guarded by the instance.
+     */
+    private static final class BranchModels {
+        
+        private final HoltWintersModel daily;
+        private final HoltWintersModel hourly;
+        
+        BranchModels(HoltWintersModel daily, HoltWintersModel hourly) {
+            this.daily = daily;
+            this.hourly = hourly;
+        }
+        
+        synchronized double daily(long step, long seasonStep) {
+            return daily.forecast(step, seasonStep);
+        }
+        
+        synchronized double hourly(long step, long seasonStep) {
+            return hourly.forecast(step, seasonStep);
+        }
+        
+        synchronized void observe(LocalDate date, long[] hours, boolean holiday) {
+            long total = 0;
+            long firstHour = date.toEpochDay() * HourlyHistogram.HOURS_PER_DAY;
+            for (int hour = 0; hour < hours.length; hour++) {
+                total += hours[hour];
+                if (firstHour + hour > hourly.lastStep()) {
+                    hourly.observe(firstHour + hour, holiday ? Double.NaN : hours[hour]);
+                }
+            }
+            if (date.toEpochDay() > daily.lastStep()) {
+                daily.observe(date.toEpochDay(), holiday ? Double.NaN : total);
+            }
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.exception.InvalidRequestException;
+import com.Bank.analytics.repository.FootfallRollupRepository;
+import com.Bank.analytics.repository.projection.DailyBranchFootfall;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Rolling-origin backtests of the footfall forecasters.
+ *
+ * The daily visits of every branch over the requested range are loaded once into memory. For each
+ * origin from minTrainDays onwards (every stride days) a forecaster sees only the days before the
+ * origin and forecasts the next horizon days, which are scored against what actually happened.
+ * Windows are split recursively across a fork/join pool, and per-horizon error sums are merged on
+ * the way back, so thousands of windows need no further queries.
+ *
+ * MAPE skips days with no visitors (closed days), RMSE counts every day; holidays are left out of
+ * both, as they are left out of the model fit.
+ */
+@Service
+@Slf4j
+public class ForecastBacktestService implements DisposableBean {
+    
+    private static final int MAX_HORIZON = 90;
+    private static final int MIN_TRAIN_DAYS = 14;
+    private static final int LEAF_WINDOWS = 16;
+    
+    private static final Map<String, ForecasterFactory> FORECASTERS = new LinkedHashMap<>();
+    
+    static {
+        FORECASTERS.put("holt-winters", ForecastBacktestService::holtWinters);
+        FORECASTERS.put("seasonal-naive", (firstStep, values, trainDays) -> (origin, horizon) -> seasonalNaive(values, origin, horizon));
+        FORECASTERS.put("naive", (firstStep, values, trainDays) -> (origin, horizon) -> naive(values, origin, horizon));
+    }
+    
+    private final FootfallRollupRepository footfallRollupRepository;
+    private final BusinessCalendarService businessCalendarService;
+    private final ForkJoinPool pool;
+    
+    public ForecastBacktestService(FootfallRollupRepository footfallRollupRepository,
+                                   BusinessCalendarService businessCalendarService,
+                                   @Value("${analytics.backtest.parallelism:0}") int parallelism) {
+        this.footfallRollupRepository = footfallRollupRepository;
+        this.businessCalendarService = businessCalendarService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Backtests each named forecaster (all when empty) over the branches (all with visits when
+     * empty) and reports MAPE and RMSE per branch and horizon, and across branches.
+     */
+    public Map<String, Object> backtest(LocalDate startDate, LocalDate endDate, List<Long> branchIds, List<String> forecasters,
+                                        int horizon, int minTrainDays, int stride) {
+        if (horizon < 1 || horizon > MAX_HORIZON) {
+            throw new InvalidRequestException("Horizon must be between 1 and " + MAX_HORIZON + " days");
+        }
+        if (minTrainDays < MIN_TRAIN_DAYS || stride < 1) {
+            throw new InvalidRequestException("Training needs at least " + MIN_TRAIN_DAYS + " days and a stride of at least 1");
+        }
+        List<String> names = forecasters == null || forecasters.isEmpty() ? List.copyOf(FORECASTERS.keySet()) : forecasters;
+        for (String name : names) {
+            if (!FORECASTERS.containsKey(name)) {
+                throw new InvalidRequestException("Unknown forecaster '" + name + "', expected one of " + FORECASTERS.keySet());
+            }
+        }
+        
+        long started = System.currentTimeMillis();
+        Map<Long, Series> dataset = load(startDate, endDate, branchIds);
+        
+        // One root task per forecaster and branch, each splitting its own windows
+        Map<String, Map<Long, ForkJoinTask<Errors>>> tasks = new LinkedHashMap<>();
+        for (String name : names) {
+            Map<Long, ForkJoinTask<Errors>> byBranch = new LinkedHashMap<>();
+            for (Series series : dataset.values()) {
+                int lastOrigin = series.values.length - 1;
+                if (lastOrigin < minTrainDays) {
+                    continue;
+                }
+                Forecaster forecaster = FORECASTERS.get(name).prepare(series.firstStep, series.values, minTrainDays);
+                byBranch.put(series.branchId, pool.submit(new WindowTask(series, forecaster, horizon, stride, minTrainDays, lastOrigin + 1)));
+            }
+            tasks.put(name, byBranch);
+        }
+        
+        List<Map<String, Object>> results = new ArrayList<>();
+        long windows = 0;
+        for (Map.Entry<String, Map<Long, ForkJoinTask<Errors>>> forecaster : tasks.entrySet()) {
+            Errors overall = new Errors(horizon);
+            List<Map<String, Object>> branches = new ArrayList<>();
+            for (Map.Entry<Long, ForkJoinTask<Errors>> branch : forecaster.getValue().entrySet()) {
+                Errors errors = branch.getValue().join();
+                overall.merge(errors);
+                windows += errors.windows;
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("branchId", branch.getKey());
+                row.putAll(errors.summary());
+                branches.add(row);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("forecaster", forecaster.getKey());
+            result.putAll(overall.summary());
+            result.put("branches", branches);
+            results.add(result);
+        }
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("startDate", startDate);
+        response.put("endDate", endDate);
+        response.put("horizon", horizon);
+        response.put("minTrainDays", minTrainDays);
+        response.put("stride", stride);
+        response.put("windowsEvaluated", windows);
+        response.put("elapsedMs", System.currentTimeMillis() - started);
+        response.put("results", results);
+        log.info("Backtested {} over {} branches: {} windows in {} ms", names, dataset.size(), windows, response.get("elapsedMs"));
+        return response;
+    }
+    
+    /**
+     * Daily visits per branch from one grouped query, starting at each branch's first visit.
+     * Holidays are NaN.
+     */
+    private Map<Long, Series> load(LocalDate startDate, LocalDate endDate, List<Long> branchIds) {
+        int days = (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+        if (days <= 0) {
+            throw new InvalidRequestException("End date must not be before start date");
+        }
+        Map<Long, double[]> visits = new TreeMap<>();
+        for (DailyBranchFootfall row : footfallRollupRepository.sumDailyFootfallByBranch(startDate, endDate)) {
+            if (branchIds == null || branchIds.isEmpty() || branchIds.contains(row.getBranchId())) {
+                visits.computeIfAbsent(row.getBranchId(), id -> new double[days])
+                    [(int) (row.getEntryDate().toEpochDay() - startDate.toEpochDay())] += row.getVisitors();
+            }
+        }
+        boolean[] holidays = new boolean[days];
+        for (int i = 0; i < days; i++) {
+            holidays[i] = businessCalendarService.isHoliday(startDate.plusDays(i));
+        }
+        
+        Map<Long, Series> dataset = new TreeMap<>();
+        visits.forEach((branchId, values) -> {
+            int start = 0;
+            while (start < values.length && values[start] == 0) {
+                start++;
+            }
+            double[] series = Arrays.copyOfRange(values, start, values.length);
+            for (int i = 0; i < series.length; i++) {
+                if (holidays[start + i]) {
+                    series[i] = Double.NaN;
+                }
+            }
+            dataset.put(branchId, new Series(branchId, startDate.toEpochDay() + start, series));
+        });
+        return dataset;
+    }
+    
+    /** Tunes the smoothing parameters on the first training window only, then retrains per window. */
+    private static Forecaster holtWinters(long firstStep, double[] values, int trainDays) {
+        HoltWintersModel tuned = HoltWintersModel.fit(FootfallForecastService.DAILY_PERIODS, firstStep,
+            Arrays.copyOf(values, trainDays));
+        return (origin, horizon) -> {
+            HoltWintersModel model = tuned.retrain(firstStep, values, origin);
+            double[] forecast = new double[horizon];
+            for (int h = 0; h < horizon; h++) {
+                forecast[h] = Math.max(0.0, model.forecast(firstStep + origin + h));
+            }
+            return forecast;
+        };
+    }
+    
+    /** The same weekday of the last week before the origin. */
+    private static double[] seasonalNaive(double[] values, int origin, int horizon) {
+        double[] forecast = new double[horizon];
+        for (int h = 0; h < horizon; h++) {
+            forecast[h] = lastObserved(values, origin - 7 + h % 7, 7);
+        }
+        return forecast;
+    }
+    
+    /** The last day before the origin. */
+    private static double[] naive(double[] values, int origin, int horizon) {
+        double[] forecast = new double[horizon];
+        Arrays.fill(forecast, lastObserved(values, origin - 1, 1));
+        return forecast;
+    }
+    
+    /** The value at index, stepping back by step over missing values; 0 when there is none. */
+    private static double lastObserved(double[] values, int index, int step) {
+        for (int i = index; i >= 0; i -= step) {
+            if (!Double.isNaN(values[i])) {
+                return values[i];
+            }
+        }
+        return 0.0;
+    }
+    
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+    
+    /**
+     * Forecasts the horizon days after values[0, origin) of the series it was prepared for.
+     */
+    private interface Forecaster {
+        double[] forecast(int origin, int horizon);
+    }
+    
+    private interface ForecasterFactory {
+        Forecaster prepare(long firstStep, double[] values, int trainDays);
+    }
+    
+    private record Series(Long branchId, long firstStep, double[] values) {
+    }
+    
+    /**
+     * Scores the windows with origins in [from, to) stepping by stride, splitting while there are
+     * more than {@link #LEAF_WINDOWS} of them.
+     */
+    private static final class WindowTask extends RecursiveTask<Errors> {
+        
+        private final Series series;
+        private final Forecaster forecaster;
+        private final int horizon;
+        private final int stride;
+        private final int from;
+        private final int to;
+        
+        WindowTask(Series series, Forecaster forecaster, int horizon, int stride, int from, int to) {
+            this.series = series;
+            this.forecaster = forecaster;
+            this.horizon = horizon;
+            this.stride = stride;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected Errors compute() {
+            int windows = (to - from + stride - 1) / stride;
+            if (windows > LEAF_WINDOWS) {
+                int middle = from + (windows / 2) * stride;
+                WindowTask left = new WindowTask(series, forecaster, horizon, stride, from, middle);
+                left.fork();
+                Errors errors = new WindowTask(series, forecaster, horizon, stride, middle, to).compute();
+                errors.merge(left.join());
+                return errors;
+            }
+            
+            Errors errors = new Errors(horizon);
+            double[] values = series.values;
+            for (int origin = from; origin < to; origin += stride) {
+                double[] forecast = forecaster.forecast(origin, horizon);
+                for (int h = 0; h < horizon && origin + h < values.length; h++) {
+                    errors.add(h, forecast[h], values[origin + h]);
+                }
+                errors.windows++;
+            }
+            return errors;
+        }
+    }
+    
+    /**
+     * Error sums per horizon step (0 is one day ahead).
+     */
+    private static final class Errors {
+        
+        private final double[] absolutePercentSum;
+        private final long[] percentCount;
+        private final double[] squaredSum;
+        private final long[] count;
+        private long windows;
+        
+        Errors(int horizon) {
+            absolutePercentSum = new double[horizon];
+            percentCount = new long[horizon];
+            squaredSum = new double[horizon];
+            count = new long[horizon];
+        }
+        
+        void add(int h, double forecast, double actual) {
+            if (Double.isNaN(actual)) {
+                return;
+            }
+            double error = forecast - actual;
+            squaredSum[h] += error * error;
+            count[h]++;
+            if (actual > 0) {
+                absolutePercentSum[h] += Math.abs(error) / actual;
+                percentCount[h]++;
+            }
+        }
+        
+        void merge(Errors other) {
+            for (int h = 0; h < count.length; h++) {
+                absolutePercentSum[h] += other.absolutePercentSum[h];
+                percentCount[h] += other.percentCount[h];
+                squaredSum[h] += other.squaredSum[h];
+                count[h] += other.count[h];
+            }
+            windows += other.windows;
+        }
+        
+        Map<String, Object> summary() {
+            List<Map<String, Object>> horizons = new ArrayList<>();
+            double percentTotal = 0.0;
+            double squaredTotal = 0.0;
+            long percentSamples = 0;
+            long samples = 0;
+            for (int h = 0; h < count.length; h++) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("horizon", h + 1);
+                row.put("samples", count[h]);
+                row.put("mape", mape(absolutePercentSum[h], percentCount[h]));
+                row.put("rmse", rmse(squaredSum[h], count[h]));
+                horizons.add(row);
+                percentTotal += absolutePercentSum[h];
+                percentSamples += percentCount[h];
+                squaredTotal += squaredSum[h];
+                samples += count[h];
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("windows", windows);
+            summary.put("mape", mape(percentTotal, percentSamples));
+            summary.put("rmse", rmse(squaredTotal, samples));
+            summary.put("horizons", horizons);
+            return summary;
+        }
+        
+        /** Mean absolute percentage error as a percentage, null without samples. */
+        private static Double mape(double sum, long samples) {
+            return samples > 0 ? Math.round(sum / samples * 10000.0) / 100.0 : null;
+        }
+        
+        private static Double rmse(double sum, long samples) {
+            return samples > 0 ? Math.round(Math.sqrt(sum / samples) * 100.0) / 100.0 : null;
+        }
+    }
+}
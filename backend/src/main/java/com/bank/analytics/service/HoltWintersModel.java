@@ -0,0 +1,232 @@
+package com.Bank.analytics.service;
+
+import java.util.Arrays;
+
+/**
+ * Additive Holt-Winters exponential smoothing with a damped trend and one or more seasonal cycles,
+ * e.g. a week and a year of days, or a day and a week of hours.
+ *
+ * Time is an absolute step (epoch day or epoch hour) and each cycle's seasonal index is the step
+ * modulo its period, so the model needs no calendar. Observations arrive in step order; a step
+ * without an observation (or with NaN) is treated as missing and only moves the level along the
+ * trend. The one-step-ahead forecast made before each observation is kept as the fitted value for
+ * that step, for as many of the latest steps as the model was trained on, so a model fed for ever
+ * stays the same size. Not thread-safe.
+ */
+public final class HoltWintersModel {
+    
+    private static final double DAMPING = 0.98;
+    private static final double[] ALPHAS = {0.05, 0.1, 0.2, 0.35, 0.5};
+    private static final double[] BETAS = {0.0, 0.01, 0.05};
+    private static final double[] GAMMAS = {0.05, 0.15, 0.3};
+    
+    private final int[] periods;
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final double[][] seasonal;
+    private double level;
+    private double trend;
+    private long lastStep;
+    private boolean initialized;
+    
+    private long fittedOrigin;
+    private long fittedThrough;
+    private boolean hasFitted;
+    // Ring of the fitted values of the last fitted.length steps, indexed by step
+    private final double[] fitted;
+    private double squaredError;
+    private long errorCount;
+    
+    HoltWintersModel(int[] periods, double alpha, double beta, double gamma, int fittedWindow) {
+        this.periods = periods.clone();
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.seasonal = new double[periods.length][];
+        for (int k = 0; k < periods.length; k++) {
+            seasonal[k] = new double[periods[k]];
+        }
+        this.fitted = new double[fittedWindow];
+        Arrays.fill(fitted, Double.NaN);
+    }
+    
+    /**
+     * Fits a model to consecutive observations starting at {@code firstStep}, picking the smoothing
+     * parameters with the lowest one-step-ahead error from a fixed grid. The first two cycles of
+     * the shortest period seed the level, trend and that cycle's seasonal indices.
+     */
+    public static HoltWintersModel fit(int[] periods, long firstStep, double[] values) {
+        HoltWintersModel best = null;
+        for (double alpha : ALPHAS) {
+            for (double beta : BETAS) {
+                for (double gamma : GAMMAS) {
+                    HoltWintersModel candidate = new HoltWintersModel(periods, alpha, beta, gamma, fittedWindow(periods, values.length));
+                    candidate.train(firstStep, values, values.length);
+                    if (best == null || candidate.meanSquaredError() < best.meanSquaredError()) {
+                        best = candidate;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * A new model with the same periods and smoothing parameters, trained on the first
+     * {@code count} values starting at {@code firstStep}.
+     */
+    public HoltWintersModel retrain(long firstStep, double[] values, int count) {
+        HoltWintersModel model = new HoltWintersModel(periods, alpha, beta, gamma, fittedWindow(periods, count));
+        model.train(firstStep, values, count);
+        return model;
+    }
+    
+    private static int fittedWindow(int[] periods, int count) {
+        return Math.max(count, periods[0]);
+    }
+    
+    private void train(long firstStep, double[] values, int count) {
+        initialize(firstStep, values, count);
+        for (int i = 0; i < count; i++) {
+            observe(firstStep + i, values[i]);
+        }
+    }
+    
+    private void initialize(long firstStep, double[] values, int count) {
+        int period = periods[0];
+        double first = mean(values, 0, Math.min(period, count));
+        double second = mean(values, period, Math.min(2 * period, count));
+        if (Double.isNaN(first)) {
+            return;
+        }
+        level = first;
+        trend = Double.isNaN(second) ? 0.0 : (second - first) / period;
+        for (int i = 0; i < Math.min(count, 2 * period); i++) {
+            double cycleMean = i < period || Double.isNaN(second) ? first : second;
+            if (!Double.isNaN(values[i])) {
+                int index = index(firstStep + i, period);
+                seasonal[0][index] += (values[i] - cycleMean) / (count >= 2 * period ? 2 : 1);
+            }
+        }
+        lastStep = firstStep - 1;
+        initialized = true;
+    }
+    
+    /** Mean of the non-missing values in [from, to), NaN when there are none. */
+    private static double mean(double[] values, int from, int to) {
+        double sum = 0.0;
+        int count = 0;
+        for (int i = from; i < Math.min(to, values.length); i++) {
+            if (!Double.isNaN(values[i])) {
+                sum += values[i];
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : Double.NaN;
+    }
+    
+    /**
+     * Feeds the observation for {@code step}, which must be later than every step seen so far.
+     */
+    public void observe(long step, double value) {
+        if (initialized && step <= lastStep) {
+            throw new IllegalArgumentException("Step " + step + " is not after " + lastStep);
+        }
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (!initialized) {
+            level = value;
+            lastStep = step;
+            initialized = true;
+            return;
+        }
+        
+        int gap = (int) (step - lastStep);
+        double season = season(step);
+        double expected = level + trend * dampedSum(gap) + season;
+        recordFitted(step, expected);
+        if (step - fittedOrigin >= 2L * periods[0]) {
+            squaredError += (value - expected) * (value - expected);
+            errorCount++;
+        }
+        
+        double previousLevel = level + trend * dampedSum(gap - 1);
+        level = alpha * (value - season) + (1 - alpha) * (expected - season);
+        trend = beta * (level - previousLevel) + (1 - beta) * trend * Math.pow(DAMPING, gap);
+        for (int k = 0; k < periods.length; k++) {
+            int index = index(step, periods[k]);
+            double others = season - seasonal[k][index];
+            seasonal[k][index] = gamma * (value - level - others) + (1 - gamma) * seasonal[k][index];
+        }
+        lastStep = step;
+    }
+    
+    /**
+     * Forecast for a step after the last observation; for earlier steps the fitted value if one
+     * is still kept, otherwise the current level and seasonality without trend.
+     */
+    public double forecast(long step) {
+        return forecast(step, step);
+    }
+    
+    /**
+     * {@link #forecast(long)} using the seasonal indices of {@code seasonStep}, e.g. to forecast a
+     * holiday with the pattern of a closed day.
+     */
+    public double forecast(long step, long seasonStep) {
+        if (!initialized) {
+            return 0.0;
+        }
+        if (step > lastStep) {
+            return level + trend * dampedSum((int) Math.min(Integer.MAX_VALUE, step - lastStep)) + season(seasonStep);
+        }
+        if (step == seasonStep && hasFitted && step >= fittedOrigin && step <= fittedThrough
+                && fittedThrough - step < fitted.length && !Double.isNaN(fitted[index(step, fitted.length)])) {
+            return fitted[index(step, fitted.length)];
+        }
+        return level + season(seasonStep);
+    }
+    
+    /** The last step observed. */
+    public long lastStep() {
+        return lastStep;
+    }
+    
+    /** Mean squared one-step-ahead error after the first two cycles; infinite without any. */
+    public double meanSquaredError() {
+        return errorCount > 0 ? squaredError / errorCount : Double.POSITIVE_INFINITY;
+    }
+    
+    private double season(long step) {
+        double season = 0.0;
+        for (int k = 0; k < periods.length; k++) {
+            season += seasonal[k][index(step, periods[k])];
+        }
+        return season;
+    }
+    
+    private static int index(long step, int period) {
+        return (int) Math.floorMod(step, (long) period);
+    }
+    
+    /** phi + phi^2 + ... + phi^steps. */
+    private static double dampedSum(int steps) {
+        return steps <= 0 ? 0.0 : DAMPING * (1 - Math.pow(DAMPING, steps)) / (1 - DAMPING);
+    }
+    
+    private void recordFitted(long step, double value) {
+        if (!hasFitted) {
+            fittedOrigin = step;
+            hasFitted = true;
+        } else {
+            // Steps skipped since the last one have no fitted value
+            for (long skipped = Math.max(fittedThrough + 1, step - fitted.length + 1); skipped < step; skipped++) {
+                fitted[index(skipped, fitted.length)] = Double.NaN;
+            }
+        }
+        fitted[index(step, fitted.length)] = value;
+        fittedThrough = step;
+    }
+}
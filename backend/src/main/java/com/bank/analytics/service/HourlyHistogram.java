@@ -0,0 +1,46 @@
+package com.Bank.analytics.service;
+
+import java.util.Arrays;
+
+/**
+ * Visitors per hour of the day (0-23) for one branch, or all branches, over a date range.
+ */
+public final class HourlyHistogram {
+    
+    public static final int HOURS_PER_DAY = 24;
+    
+    private final long[] visitors;
+    
+    HourlyHistogram(long[] visitors) {
+        if (visitors.length != HOURS_PER_DAY) {
+            throw new IllegalArgumentException("Histogram needs exactly " + HOURS_PER_DAY + " buckets");
+        }
+        this.visitors = visitors.clone();
+    }
+    
+    public long visitors(int hour) {
+        return visitors[hour];
+    }
+    
+    public long total() {
+        return Arrays.stream(visitors).sum();
+    }
+    
+    /**
+     * Busiest hour of the day, earliest hour wins a tie; -1 when there were no visitors.
+     */
+    public int peakHour() {
+        int peak = -1;
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+            if (visitors[hour] > 0 && (peak < 0 || visitors[hour] > visitors[peak])) {
+                peak = hour;
+            }
+        }
+        return peak;
+    }
+    
+    public long peakVisitors() {
+        int peak = peakHour();
+        return peak < 0 ? 0L : visitors[peak];
+    }
+}
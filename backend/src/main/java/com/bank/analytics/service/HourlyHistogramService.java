@@ -0,0 +1,48 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.store.DailyPrefixCube;
+import com.Bank.analytics.store.FootfallStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import java.time.LocalDate;
+
+/**
+ * Loads all 24 hourly visitor buckets for a branch/range with one grouped query.
+ *
+ * Within an HTTP request the histogram is memoised as a request attribute, so every
+ * peak-hour computation made while serving that request shares the same scan. Calls
+ * made outside a request (scheduled jobs) simply query each time.
+ */
+@Service
+@RequiredArgsConstructor
+public class HourlyHistogramService {
+    
+    private static final String ATTRIBUTE_PREFIX = HourlyHistogramService.class.getName() + ".";
+    
+    private final FootfallStore footfallStore;
+    private final DailyPrefixCube dailyPrefixCube;
+    
+    public HourlyHistogram getHistogram(Long branchId, LocalDate startDate, LocalDate endDate) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return loadHistogram(branchId, startDate, endDate);
+        }
+        
+        String key = ATTRIBUTE_PREFIX + branchId + ":" + startDate + ":" + endDate;
+        HourlyHistogram histogram = (HourlyHistogram) request.getAttribute(key, RequestAttributes.SCOPE_REQUEST);
+        if (histogram == null) {
+            histogram = loadHistogram(branchId, startDate, endDate);
+            request.setAttribute(key, histogram, RequestAttributes.SCOPE_REQUEST);
+        }
+        return histogram;
+    }
+    
+    private HourlyHistogram loadHistogram(Long branchId, LocalDate startDate, LocalDate endDate) {
+        if (dailyPrefixCube.isReady()) {
+            return new HourlyHistogram(dailyPrefixCube.totals(DailyPrefixCube.seriesFor(branchId), startDate, endDate).visitsByHour());
+        }
+        return new HourlyHistogram(footfallStore.visitsByHour(branchId, startDate, endDate));
+    }
+}
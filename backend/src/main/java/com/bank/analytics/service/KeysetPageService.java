@@ -0,0 +1,96 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.dto.KeysetPage;
+import com.Bank.analytics.dto.KeysetToken;
+import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.entity.Staff;
+import com.Bank.analytics.entity.Transaction;
+import com.Bank.analytics.exception.InvalidRequestException;
+import com.Bank.analytics.repository.CustomerEntryRepository;
+import com.Bank.analytics.repository.StaffRepository;
+import com.Bank.analytics.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pages of entries, transactions and staff in (date, id) order.
+ *
+ * A page is one index range seek past the token's row with a LIMIT and no OFFSET, so every page
+ * costs the same however deep it is. One row beyond the page is read to tell whether another page
+ * follows, so the last page carries no token. Without a size a page holds
+ * {@code analytics.paging.default-size} rows. Callers that want a whole listing in one response,
+ * such as the admin staff screens, opt in with {@code all}, which is capped separately by
+ * {@code analytics.paging.max-all-size} and still returns a token when rows remain.
+ */
+@Service
+@RequiredArgsConstructor
+public class KeysetPageService {
+    
+    private final CustomerEntryRepository customerEntryRepository;
+    private final TransactionRepository transactionRepository;
+    private final StaffRepository staffRepository;
+    
+    @Value("${analytics.paging.default-size:100}")
+    private int defaultSize;
+    
+    @Value("${analytics.paging.max-size:1000}")
+    private int maxSize;
+    
+    @Value("${analytics.paging.max-all-size:5000}")
+    private int maxAllSize;
+    
+    public KeysetPage<CustomerEntry> entries(String pageToken, Integer size, boolean all) {
+        KeysetToken after = KeysetToken.decode(pageToken);
+        Pageable limit = limit(size, all);
+        List<CustomerEntry> rows = after == null
+            ? customerEntryRepository.findPage(limit)
+            : customerEntryRepository.findPageAfter(after.date(), after.id(), limit);
+        return page(rows, limit, entry -> new KeysetToken(entry.getEntryDate(), entry.getEntryId()));
+    }
+    
+    public KeysetPage<Transaction> transactions(String pageToken, Integer size, boolean all) {
+        KeysetToken after = KeysetToken.decode(pageToken);
+        Pageable limit = limit(size, all);
+        List<Transaction> rows = after == null
+            ? transactionRepository.findPage(limit)
+            : transactionRepository.findPageAfter(after.date(), after.id(), limit);
+        return page(rows, limit, transaction -> new KeysetToken(transaction.getTransactionDate(), transaction.getTransactionId()));
+    }
+    
+    public KeysetPage<Staff> staff(String pageToken, Integer size, boolean all) {
+        KeysetToken after = KeysetToken.decode(pageToken);
+        Pageable limit = limit(size, all);
+        List<Staff> rows = after == null
+            ? staffRepository.findPage(limit)
+            : staffRepository.findPageAfter(after.date(), after.id(), limit);
+        return page(rows, limit, staff -> new KeysetToken(staff.getHireDate(), staff.getStaffId()));
+    }
+    
+    /** The requested size capped at the maximum, or the whole-listing cap, plus the one look-ahead row. */
+    private Pageable limit(Integer size, boolean all) {
+        if (size != null && size < 1) {
+            throw new InvalidRequestException("size must be at least 1");
+        }
+        if (all) {
+            if (size != null) {
+                throw new InvalidRequestException("size cannot be combined with all");
+            }
+            return PageRequest.of(0, maxAllSize + 1);
+        }
+        return PageRequest.of(0, Math.min(size != null ? size : defaultSize, maxSize) + 1);
+    }
+    
+    private static <T> KeysetPage<T> page(List<T> rows, Pageable limit, Function<T, KeysetToken> position) {
+        int size = limit.getPageSize() - 1;
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new KeysetPage<>(items, position.apply(items.get(size - 1)).encode());
+    }
+}
@@ -0,0 +1,62 @@
+package com.Bank.analytics.service;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013): keeps the first and last point
+ * and, from each of threshold - 2 equal slices in between, the point forming the largest triangle
+ * with the previously kept point and the mean of the next slice. Peaks and troughs survive where
+ * averaging or striding would flatten them.
+ */
+final class LttbDownsampler {
+    
+    private LttbDownsampler() {
+    }
+    
+    /**
+     * Indices of the points to keep, ascending; all of them when there are no more than threshold.
+     * x must be ascending.
+     */
+    static int[] select(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        
+        int[] kept = new int[threshold];
+        double every = (double) (n - 2) / (threshold - 2);
+        int previous = 0;
+        for (int i = 0; i < threshold - 2; i++) {
+            // Mean of the next slice, or the last point for the final slice
+            int nextStart = (int) Math.floor((i + 1) * every) + 1;
+            int nextEnd = Math.min((int) Math.floor((i + 2) * every) + 1, n);
+            double meanX = 0.0;
+            double meanY = 0.0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                meanX += x[j];
+                meanY += y[j];
+            }
+            meanX /= nextEnd - nextStart;
+            meanY /= nextEnd - nextStart;
+            
+            int from = (int) Math.floor(i * every) + 1;
+            int to = (int) Math.floor((i + 1) * every) + 1;
+            double largest = -1.0;
+            int chosen = from;
+            for (int j = from; j < to; j++) {
+                double area = Math.abs((x[previous] - meanX) * (y[j] - y[previous])
+                    - (x[previous] - x[j]) * (meanY - y[previous]));
+                if (area > largest) {
+                    largest = area;
+                    chosen = j;
+                }
+            }
+            kept[i + 1] = chosen;
+            previous = chosen;
+        }
+        kept[threshold - 1] = n - 1;
+        return kept;
+    }
+}
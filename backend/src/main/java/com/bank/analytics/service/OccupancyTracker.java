@@ -0,0 +1,147 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.repository.CustomerEntryRepository;
+import com.Bank.analytics.repository.projection.OpenVisit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live count of customers inside each branch right now.
+ *
+ * A customer is inside from entryTime until exitTime (or until the entry is closed when it has no
+ * exit time yet). The tracker keeps today's unfinished visits keyed by entry id and one counter per
+ * branch; entry writes and a periodic sweep move visits in and out, so reads are a counter lookup.
+ * Everything is rebuilt from today's rows at startup and when the date rolls over. Rebuilds, sweeps
+ * and entry writes share the instance lock, so a write is never applied half-way through a rebuild
+ * and then wiped by it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OccupancyTracker {
+    
+    private final CustomerEntryRepository customerEntryRepository;
+    
+    private final Map<Long, Visit> visits = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> occupancy = new ConcurrentHashMap<>();
+    private final AtomicInteger totalOccupancy = new AtomicInteger();
+    private volatile LocalDate day;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+        visits.clear();
+        occupancy.clear();
+        totalOccupancy.set(0);
+        day = today;
+        for (OpenVisit open : customerEntryRepository.findOpenVisits(today, now)) {
+            apply(open.getEntryId(), new Visit(open.getBranchId(), open.getEntryTime(), open.getExitTime(), false), now);
+        }
+        log.info("Occupancy rebuilt for {}: {} customers inside, {} visits tracked", today, totalOccupancy.get(), visits.size());
+    }
+    
+    /**
+     * Admits visits whose entry time has come and releases those whose exit time has passed.
+     */
+    @Scheduled(fixedDelayString = "${analytics.occupancy.sweep-interval-ms:60000}", initialDelay = 60000)
+    public synchronized void sweep() {
+        if (!LocalDate.now().equals(day)) {
+            rebuild();
+            return;
+        }
+        LocalTime now = LocalTime.now();
+        for (Long entryId : visits.keySet()) {
+            visits.computeIfPresent(entryId, (id, visit) -> transition(visit, visit, now));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onDataChanged(AnalyticsDataChangedEvent event) {
+        if (event.getKind() != AnalyticsDataChangedEvent.DataKind.CUSTOMER_ENTRY
+                || !(event.getEntity() instanceof CustomerEntry entry) || entry.getEntryId() == null) {
+            return;
+        }
+        boolean today = LocalDate.now().equals(entry.getEntryDate()) && LocalDate.now().equals(day);
+        if (event.getChange() == AnalyticsDataChangedEvent.ChangeType.DELETED || !today
+                || event.getBranchId() == null || entry.getEntryTime() == null) {
+            apply(entry.getEntryId(), null, LocalTime.now());
+        } else {
+            apply(entry.getEntryId(), new Visit(event.getBranchId(), entry.getEntryTime(), entry.getExitTime(), false), LocalTime.now());
+        }
+    }
+    
+    /** Customers inside the branch, or inside any branch when branchId is null. */
+    public int occupancy(Long branchId) {
+        if (branchId == null) {
+            return totalOccupancy.get();
+        }
+        AtomicInteger count = occupancy.get(branchId);
+        return count != null ? count.get() : 0;
+    }
+    
+    /** Customers inside per branch, for branches with anyone inside. */
+    public Map<Long, Integer> occupancyByBranch() {
+        Map<Long, Integer> byBranch = new TreeMap<>();
+        occupancy.forEach((branchId, count) -> {
+            if (count.get() > 0) {
+                byBranch.put(branchId, count.get());
+            }
+        });
+        return byBranch;
+    }
+    
+    private void apply(Long entryId, Visit next, LocalTime now) {
+        visits.compute(entryId, (id, previous) -> transition(previous, next, now));
+    }
+    
+    /**
+     * Moves the counters from the previous state of a visit to the next one and returns what to keep
+     * tracking. Runs inside the map's per-key compute, so one visit never races with itself.
+     */
+    private Visit transition(Visit previous, Visit next, LocalTime now) {
+        Visit current = next != null ? next.at(now) : null;
+        boolean wasInside = previous != null && previous.inside;
+        boolean isInside = current != null && current.inside;
+        if (wasInside && (!isInside || !previous.branchId.equals(current.branchId))) {
+            adjust(previous.branchId, -1);
+        }
+        if (isInside && (!wasInside || !previous.branchId.equals(current.branchId))) {
+            adjust(current.branchId, 1);
+        }
+        return current != null && !current.finished(now) ? current : null;
+    }
+    
+    private void adjust(Long branchId, int delta) {
+        occupancy.computeIfAbsent(branchId, id -> new AtomicInteger()).addAndGet(delta);
+        totalOccupancy.addAndGet(delta);
+    }
+    
+    private record Visit(Long branchId, LocalTime entryTime, LocalTime exitTime, boolean inside) {
+        
+        Visit at(LocalTime now) {
+            boolean arrived = !entryTime.isAfter(now);
+            return new Visit(branchId, entryTime, exitTime, arrived && !finished(now));
+        }
+        
+        boolean finished(LocalTime now) {
+            return exitTime != null && !exitTime.isAfter(now);
+        }
+    }
+}
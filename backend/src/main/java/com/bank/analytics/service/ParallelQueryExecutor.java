@@ -0,0 +1,192 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.exception.ParallelQueryException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs independent analytics sub-queries concurrently on virtual threads.
+ *
+ * Usage follows the structured-concurrency shape of StructuredTaskScope (still a preview
+ * API on Java 21): open a scope, fork the sub-queries, join, then read the results. If a
+ * task fails or runs past its timeout, every other task in the scope is cancelled and
+ * join() throws. Fewer tasks than the Hikari pool has connections run at once (half the
+ * pool unless configured), so a burst of dashboard requests queues on cheap virtual threads
+ * instead of on connection checkout and leaves connections for everything else. A task's
+ * timeout covers its run; waiting for a permit is bounded separately by the same amount.
+ */
+@Component
+@Slf4j
+public class ParallelQueryExecutor implements DisposableBean {
+    
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final Duration defaultTimeout;
+    
+    public ParallelQueryExecutor(@Value("${analytics.parallel.max-concurrency:0}") int maxConcurrency,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                 @Value("${analytics.parallel.task-timeout-ms:5000}") long taskTimeoutMs) {
+        int concurrency = maxConcurrency > 0 ? Math.min(maxConcurrency, poolSize - 1) : poolSize / 2;
+        if (maxConcurrency >= poolSize) {
+            log.warn("analytics.parallel.max-concurrency={} is not below the pool size {}, using {}", maxConcurrency, poolSize, concurrency);
+        }
+        this.permits = new Semaphore(Math.max(1, concurrency), true);
+        this.defaultTimeout = Duration.ofMillis(taskTimeoutMs);
+    }
+    
+    public Scope openScope() {
+        return new Scope();
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Handle to the result of a forked task, readable once the scope has been joined.
+     */
+    public static final class Subtask<T> {
+        
+        private final String name;
+        private final long timeoutNanos;
+        // Until the task holds a permit this bounds the wait for one, then it bounds the run
+        private volatile long deadlineNanos;
+        private volatile Future<?> future;
+        private volatile boolean done;
+        private volatile T result;
+        private volatile Throwable failure;
+        
+        private Subtask(String name, Duration timeout) {
+            this.name = name;
+            this.timeoutNanos = timeout.toNanos();
+            this.deadlineNanos = System.nanoTime() + timeoutNanos;
+        }
+        
+        public T get() {
+            if (!done || failure != null) {
+                throw new IllegalStateException("Subtask '" + name + "' has no result, was the scope joined?");
+            }
+            return result;
+        }
+    }
+    
+    public final class Scope implements AutoCloseable {
+        
+        private final List<Subtask<?>> subtasks = new ArrayList<>();
+        private final BlockingQueue<Subtask<?>> completed = new LinkedBlockingQueue<>();
+        
+        private Scope() {
+        }
+        
+        public <T> Subtask<T> fork(String name, Callable<T> task) {
+            return fork(name, task, defaultTimeout);
+        }
+        
+        public <T> Subtask<T> fork(String name, Callable<T> task, Duration timeout) {
+            Subtask<T> subtask = new Subtask<>(name, timeout);
+            // Carry request attributes over so request-scoped memoisation keeps working
+            RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            subtask.future = executor.submit(() -> {
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                try {
+                    if (!permits.tryAcquire(subtask.timeoutNanos, TimeUnit.NANOSECONDS)) {
+                        throw new TimeoutException("Subtask '" + name + "' timed out waiting for a connection permit");
+                    }
+                    subtask.deadlineNanos = System.nanoTime() + subtask.timeoutNanos;
+                    try {
+                        subtask.result = task.call();
+                    } finally {
+                        permits.release();
+                    }
+                } catch (Throwable t) {
+                    subtask.failure = t;
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                    subtask.done = true;
+                    completed.add(subtask);
+                }
+            });
+            subtasks.add(subtask);
+            return subtask;
+        }
+        
+        /**
+         * Waits for every forked task. Fails fast: the first failure or timeout cancels the
+         * rest of the scope and is rethrown as a ParallelQueryException.
+         */
+        public void join() {
+            int outstanding = subtasks.size();
+            try {
+                while (outstanding > 0) {
+                    Subtask<?> next = completed.poll(nanosUntilEarliestDeadline(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        Subtask<?> late = earliestPendingSubtask();
+                        if (late != null && late.deadlineNanos <= System.nanoTime()) {
+                            throw fail(late, new TimeoutException("Subtask '" + late.name + "' timed out"));
+                        }
+                        continue;
+                    }
+                    if (next.failure != null) {
+                        throw fail(next, next.failure);
+                    }
+                    outstanding--;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelPending();
+                throw new ParallelQueryException("Interrupted while waiting for parallel queries", e);
+            }
+        }
+        
+        @Override
+        public void close() {
+            cancelPending();
+        }
+        
+        private long nanosUntilEarliestDeadline() {
+            Subtask<?> earliest = earliestPendingSubtask();
+            return earliest == null ? 0L : Math.max(0L, earliest.deadlineNanos - System.nanoTime());
+        }
+        
+        private Subtask<?> earliestPendingSubtask() {
+            Subtask<?> earliest = null;
+            for (Subtask<?> subtask : subtasks) {
+                if (!subtask.done && (earliest == null || subtask.deadlineNanos < earliest.deadlineNanos)) {
+                    earliest = subtask;
+                }
+            }
+            return earliest;
+        }
+        
+        private ParallelQueryException fail(Subtask<?> subtask, Throwable cause) {
+            cancelPending();
+            log.warn("Parallel query '{}' failed, cancelled the remaining tasks: {}", subtask.name, cause.toString());
+            return new ParallelQueryException("Parallel query '" + subtask.name + "' failed", cause);
+        }
+        
+        private void cancelPending() {
+            for (Subtask<?> subtask : subtasks) {
+                if (!subtask.done) {
+                    subtask.future.cancel(true);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.repository.TransactionRollupRepository;
+import com.Bank.analytics.repository.projection.BranchTransactionTotals;
+import com.Bank.analytics.repository.projection.TransactionTotals;
+import com.Bank.analytics.store.CubeMeasure;
+import com.Bank.analytics.store.CubeTotals;
+import com.Bank.analytics.store.DailyPrefixCube;
+import com.Bank.analytics.store.FootfallStore;
+import com.Bank.analytics.store.FootfallSummary;
+import com.Bank.analytics.store.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Additive totals for a branch (null for all branches) over an inclusive date range.
+ *
+ * Served by two lookups into {@link DailyPrefixCube} once it has loaded; until then they are
+ * aggregated from the footfall store and the transaction rollup.
+ */
+@Service
+@RequiredArgsConstructor
+public class RangeTotalsService {
+    
+    private static final FootfallSummary EMPTY_FOOTFALL = new FootfallSummary(0, 0, 0, 0, 0, 0, 0);
+    
+    private final DailyPrefixCube dailyPrefixCube;
+    private final FootfallStore footfallStore;
+    private final TransactionRollupRepository transactionRollupRepository;
+    
+    public boolean isCubeReady() {
+        return dailyPrefixCube.isReady();
+    }
+    
+    public CubeTotals totals(Long branchId, LocalDate startDate, LocalDate endDate) {
+        if (dailyPrefixCube.isReady()) {
+            return dailyPrefixCube.totals(DailyPrefixCube.seriesFor(branchId), startDate, endDate);
+        }
+        
+        FootfallSummary footfall = footfallStore.summarize(branchId, startDate, endDate);
+        TransactionTotals transactions = transactionRollupRepository.sumTransactionTotals(branchId, startDate, endDate);
+        return CubeTotals.of(measures(footfall, transactions), footfallStore.visitsByHour(branchId, startDate, endDate));
+    }
+    
+    /**
+     * {@link #totals} for each of the given branches, in a constant number of lookups: per-branch
+     * cube lookups once it has loaded, otherwise three grouped aggregates covering every branch.
+     */
+    public Map<Long, CubeTotals> totalsByBranch(Collection<Long> branchIds, LocalDate startDate, LocalDate endDate) {
+        Map<Long, CubeTotals> totals = new HashMap<>();
+        if (dailyPrefixCube.isReady()) {
+            for (Long branchId : branchIds) {
+                totals.put(branchId, dailyPrefixCube.totals(DailyPrefixCube.branchSeries(branchId), startDate, endDate));
+            }
+            return totals;
+        }
+        
+        Map<Long, FootfallSummary> footfall = footfallStore.summarizeByBranch(startDate, endDate);
+        Map<Long, long[]> visitsByHour = footfallStore.visitsByBranchAndHour(startDate, endDate);
+        Map<Long, TransactionTotals> transactions = new HashMap<>();
+        for (BranchTransactionTotals row : transactionRollupRepository.sumTransactionTotalsByBranch(startDate, endDate)) {
+            transactions.put(row.getBranchId(), row);
+        }
+        for (Long branchId : branchIds) {
+            totals.put(branchId, CubeTotals.of(
+                measures(footfall.getOrDefault(branchId, EMPTY_FOOTFALL), transactions.get(branchId)),
+                visitsByHour.getOrDefault(branchId, new long[HourlyHistogram.HOURS_PER_DAY])));
+        }
+        return totals;
+    }
+    
+    /**
+     * Totals per region, keyed by cube series (e.g. {@link DailyPrefixCube#stateSeries}). Once the
+     * cube has loaded each region is one pre-aggregated lookup; until then the given member branches
+     * are aggregated once and summed per region.
+     */
+    public Map<String, CubeTotals> totalsByRegion(Map<String, List<Long>> branchesByRegion, LocalDate startDate, LocalDate endDate) {
+        Map<String, CubeTotals> totals = new HashMap<>();
+        if (dailyPrefixCube.isReady()) {
+            for (String seriesKey : branchesByRegion.keySet()) {
+                totals.put(seriesKey, dailyPrefixCube.totals(seriesKey, startDate, endDate));
+            }
+            return totals;
+        }
+        
+        Set<Long> branchIds = new HashSet<>();
+        branchesByRegion.values().forEach(branchIds::addAll);
+        Map<Long, CubeTotals> byBranch = totalsByBranch(branchIds, startDate, endDate);
+        branchesByRegion.forEach((seriesKey, members) ->
+            totals.put(seriesKey, CubeTotals.sum(members.stream().map(byBranch::get).toList())));
+        return totals;
+    }
+    
+    private static long[] measures(FootfallSummary footfall, TransactionTotals transactions) {
+        long[] measures = new long[CubeMeasure.values().length];
+        measures[CubeMeasure.VISITS.ordinal()] = footfall.getVisits();
+        measures[CubeMeasure.WAIT_SUM.ordinal()] = footfall.getWaitSum();
+        measures[CubeMeasure.WAIT_COUNT.ordinal()] = footfall.getWaitCount();
+        measures[CubeMeasure.SERVICE_SUM.ordinal()] = footfall.getServiceSum();
+        measures[CubeMeasure.SERVICE_COUNT.ordinal()] = footfall.getServiceCount();
+        measures[CubeMeasure.RATING_SUM.ordinal()] = footfall.getRatingSum();
+        measures[CubeMeasure.RATING_COUNT.ordinal()] = footfall.getRatingCount();
+        if (transactions != null) {
+            measures[CubeMeasure.TRANSACTIONS.ordinal()] = transactions.getTransactions();
+            measures[CubeMeasure.COMPLETED_TRANSACTIONS.ordinal()] = transactions.getCompletedTransactions();
+            measures[CubeMeasure.REVENUE_CENTS.ordinal()] = Money.cents(transactions.getRevenueCents());
+            measures[CubeMeasure.PROCESSING_SUM.ordinal()] = transactions.getProcessingSum();
+            measures[CubeMeasure.PROCESSING_COUNT.ordinal()] = transactions.getProcessingCount();
+        }
+        return measures;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.dto.RegionMetricsDTO;
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.exception.InvalidRequestException;
+import com.Bank.analytics.exception.ResourceNotFoundException;
+import com.Bank.analytics.repository.BranchRepository;
+import com.Bank.analytics.store.CubeMeasure;
+import com.Bank.analytics.store.CubeTotals;
+import com.Bank.analytics.store.DailyPrefixCube;
+import com.Bank.analytics.store.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Branch metrics rolled up the branch -> city -> state -> national hierarchy.
+ *
+ * A drill-down request names one node (national, a state, or a city within a state) and gets that
+ * node's totals plus one row per child. Every node is read from its pre-aggregated series in
+ * {@link DailyPrefixCube}, so a state costs the same as a branch; until the cube has loaded the
+ * member branches are aggregated once and summed per node.
+ */
+@Service
+@RequiredArgsConstructor
+public class RegionalAnalyticsService {
+    
+    private final BranchRepository branchRepository;
+    private final RangeTotalsService rangeTotalsService;
+    
+    /**
+     * Totals for national (no state), a state, or a city of a state, with its states, cities or
+     * branches as children.
+     */
+    public RegionMetricsDTO getRegionBreakdown(String state, String city, LocalDate startDate, LocalDate endDate) {
+        if (city != null && state == null) {
+            throw new InvalidRequestException("A city drill-down also needs its state");
+        }
+        List<Branch> branches = new ArrayList<>(branchRepository.findAll());
+        branches.sort(Comparator.comparing(Branch::getBranchId));
+        
+        Region parent;
+        List<Region> children = new ArrayList<>();
+        if (state == null) {
+            parent = new Region("national", DailyPrefixCube.ALL_BRANCHES, "All branches", null, null, null, ids(branches));
+            groupBy(branches, Branch::getState).forEach((key, members) -> {
+                String name = members.get(0).getState().trim();
+                children.add(new Region("state", DailyPrefixCube.stateSeries(name), name, name, null, null, ids(members)));
+            });
+        } else {
+            List<Branch> inState = branches.stream()
+                .filter(b -> DailyPrefixCube.regionName(b.getState()).equals(DailyPrefixCube.regionName(state))).toList();
+            if (inState.isEmpty()) {
+                throw new ResourceNotFoundException("No branches found in state: " + state);
+            }
+            String stateName = inState.get(0).getState().trim();
+            if (city == null) {
+                parent = new Region("state", DailyPrefixCube.stateSeries(stateName), stateName, stateName, null, null, ids(inState));
+                groupBy(inState, Branch::getCity).forEach((key, members) -> {
+                    String name = members.get(0).getCity().trim();
+                    children.add(new Region("city", DailyPrefixCube.citySeries(stateName, name), name, stateName, name, null, ids(members)));
+                });
+            } else {
+                List<Branch> inCity = inState.stream()
+                    .filter(b -> DailyPrefixCube.regionName(b.getCity()).equals(DailyPrefixCube.regionName(city))).toList();
+                if (inCity.isEmpty()) {
+                    throw new ResourceNotFoundException("No branches found in city: " + city + ", " + state);
+                }
+                String cityName = inCity.get(0).getCity().trim();
+                parent = new Region("city", DailyPrefixCube.citySeries(stateName, cityName), cityName, stateName, cityName, null, ids(inCity));
+                for (Branch branch : inCity) {
+                    children.add(new Region("branch", DailyPrefixCube.branchSeries(branch.getBranchId()), branch.getBranchName(),
+                        stateName, cityName, branch.getBranchId(), List.of(branch.getBranchId())));
+                }
+            }
+        }
+        
+        Map<String, List<Long>> members = new HashMap<>();
+        members.put(parent.seriesKey, parent.branchIds);
+        children.forEach(child -> members.put(child.seriesKey, child.branchIds));
+        Map<String, CubeTotals> totals = rangeTotalsService.totalsByRegion(members, startDate, endDate);
+        
+        RegionMetricsDTO result = toDto(parent, totals.get(parent.seriesKey));
+        result.setChildren(children.stream().map(child -> toDto(child, totals.get(child.seriesKey))).toList());
+        return result;
+    }
+    
+    private static Map<String, List<Branch>> groupBy(List<Branch> branches, Function<Branch, String> name) {
+        Map<String, List<Branch>> groups = new TreeMap<>();
+        for (Branch branch : branches) {
+            groups.computeIfAbsent(DailyPrefixCube.regionName(name.apply(branch)), k -> new ArrayList<>()).add(branch);
+        }
+        return groups;
+    }
+    
+    private static List<Long> ids(List<Branch> branches) {
+        return branches.stream().map(Branch::getBranchId).toList();
+    }
+    
+    private static RegionMetricsDTO toDto(Region region, CubeTotals totals) {
+        return RegionMetricsDTO.builder()
+            .level(region.level)
+            .name(region.name)
+            .state(region.state)
+            .city(region.city)
+            .branchId(region.branchId)
+            .branchCount(region.branchIds.size())
+            .totalFootfall(totals.get(CubeMeasure.VISITS))
+            .totalTransactions(totals.get(CubeMeasure.TRANSACTIONS))
+            .totalRevenue(Money.toDouble(totals.get(CubeMeasure.REVENUE_CENTS)))
+            .avgWaitTime(round(totals.average(CubeMeasure.WAIT_SUM, CubeMeasure.WAIT_COUNT)))
+            .customerSatisfaction(round(totals.average(CubeMeasure.RATING_SUM, CubeMeasure.RATING_COUNT)))
+            .build();
+    }
+    
+    private static Double round(Double value) {
+        return value != null ? Math.round(value * 100.0) / 100.0 : null;
+    }
+    
+    private record Region(String level, String seriesKey, String name, String state, String city, Long branchId, List<Long> branchIds) {
+    }
+}
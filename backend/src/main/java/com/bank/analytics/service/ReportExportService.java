@@ -0,0 +1,105 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.dto.ExportDataset;
+import com.Bank.analytics.dto.ExportFormat;
+import com.Bank.analytics.exception.InvalidRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes entries, transactions or per-branch daily totals for a set of branches (empty for all
+ * branches) and inclusive date range as CSV or TSV, optionally gzipped.
+ *
+ * Rows go from the {@link RowStreamService} cursor through a fixed-size buffer to the output
+ * stream, so memory stays bounded however many rows the range holds. Raw rows are written in
+ * (date, id) order, one branch after another when several are given: an export of one branch or all
+ * of them that was cut short resumes with startDate set to the date of its last complete row and
+ * afterId to that row's id.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportExportService {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final RowStreamService rowStreamService;
+    
+    /** Checks the request up front, before any output is committed. */
+    public void validate(ExportDataset dataset, List<Long> branchIds, LocalDate startDate, LocalDate endDate, Long afterId) {
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidRequestException("endDate must not be before startDate");
+        }
+        if (afterId != null && dataset == ExportDataset.DAILY_SUMMARY) {
+            throw new InvalidRequestException("afterId only applies to the entries and transactions datasets");
+        }
+        if (afterId != null && branchIds.size() > 1) {
+            throw new InvalidRequestException("afterId only applies to a single branch or all branches");
+        }
+    }
+    
+    /** e.g. transactions_2025-01-01_2025-03-31.csv.gz */
+    public String fileName(ExportDataset dataset, ExportFormat format, LocalDate startDate, LocalDate endDate, boolean gzip) {
+        return dataset.getKey() + "_" + startDate + "_" + endDate + "." + format.getKey() + (gzip ? ".gz" : "");
+    }
+    
+    /**
+     * Writes the export to out, which is flushed but left open.
+     */
+    public void export(ExportDataset dataset, ExportFormat format, List<Long> branchIds, LocalDate startDate, LocalDate endDate,
+                       Long afterId, boolean gzip, OutputStream out) throws IOException {
+        validate(dataset, branchIds, startDate, endDate, afterId);
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? compressed : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        DelimitedWriter rows = new DelimitedWriter(writer, format);
+        rows.row(header(dataset));
+        List<Long> branches = branchIds.isEmpty() ? Collections.singletonList(null) : branchIds;
+        for (Long branchId : branches) {
+            writeRows(dataset, rows, branchId, startDate, endDate, afterId);
+        }
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+    }
+    
+    private static Object[] header(ExportDataset dataset) {
+        return switch (dataset) {
+            case ENTRIES -> new Object[] {"entry_id", "entry_date", "entry_time", "exit_time", "customer_type", "visit_purpose",
+                "queue_number", "wait_time_minutes", "service_time_minutes", "satisfaction_rating", "branch_code", "branch_name"};
+            case TRANSACTIONS -> new Object[] {"transaction_id", "transaction_date", "transaction_time", "service_type",
+                "transaction_amount", "transaction_status", "processing_time_minutes", "notes", "branch_code", "branch_name"};
+            case DAILY_SUMMARY -> new Object[] {"date", "branch_code", "branch_name", "visitors", "avg_wait_minutes",
+                "avg_service_minutes", "avg_satisfaction", "transactions", "completed_transactions", "revenue", "avg_processing_minutes"};
+        };
+    }
+    
+    private void writeRows(ExportDataset dataset, DelimitedWriter rows, Long branchId, LocalDate startDate, LocalDate endDate,
+                           Long afterId) throws IOException {
+        switch (dataset) {
+            case ENTRIES -> rowStreamService.forEachEntry(branchId, startDate, endDate, afterId, entry -> rows.row(
+                entry.getEntryId(), entry.getEntryDate(), entry.getEntryTime(), entry.getExitTime(), entry.getCustomerType(),
+                entry.getVisitPurpose(), entry.getQueueNumber(), entry.getWaitTimeMinutes(), entry.getServiceTimeMinutes(),
+                entry.getSatisfactionRating(), entry.getBranchCode(), entry.getBranchName()));
+            case TRANSACTIONS -> rowStreamService.forEachTransaction(branchId, startDate, endDate, afterId, transaction -> rows.row(
+                transaction.getTransactionId(), transaction.getTransactionDate(), transaction.getTransactionTime(),
+                transaction.getServiceType(), transaction.getTransactionAmount(), transaction.getTransactionStatus(),
+                transaction.getProcessingTimeMinutes(), transaction.getNotes(), transaction.getBranchCode(),
+                transaction.getBranchName()));
+            case DAILY_SUMMARY -> rowStreamService.forEachDailySummary(branchId, startDate, endDate, day -> rows.row(
+                day.getDate(), day.getBranchCode(), day.getBranchName(), day.getVisitors(), day.getAvgWaitTime(),
+                day.getAvgServiceTime(), day.getAvgSatisfaction(), day.getTransactions(), day.getCompletedTransactions(),
+                day.getRevenue(), day.getAvgProcessingTime()));
+        }
+    }
+}
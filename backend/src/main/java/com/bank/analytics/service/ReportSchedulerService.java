@@ -0,0 +1,264 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.dto.ExportDataset;
+import com.Bank.analytics.dto.ExportFormat;
+import com.Bank.analytics.dto.ReportRange;
+import com.Bank.analytics.entity.ReportDefinition;
+import com.Bank.analytics.entity.ReportFile;
+import com.Bank.analytics.exception.InvalidRequestException;
+import com.Bank.analytics.exception.ResourceNotFoundException;
+import com.Bank.analytics.repository.BranchRepository;
+import com.Bank.analytics.repository.ReportDefinitionRepository;
+import com.Bank.analytics.repository.ReportFileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Materializes {@link ReportDefinition}s on their cron schedules into gzipped files under
+ * {@code analytics.reports.output-dir}, catalogued as {@link ReportFile}s.
+ *
+ * A poller picks up active definitions whose next run is due, moves them on to their following
+ * cron time and hands the run to a small dedicated pool, so exports run neither on the request path
+ * nor on the shared scheduling thread. A report's range is resolved against the day the run was due,
+ * so a late run still covers the days it was scheduled for; runs missed while the application was
+ * down collapse into one. Each file is written beside its final name and moved into place once
+ * complete, and only the newest {@code keep-files} files of a report are kept.
+ */
+@Service
+@Slf4j
+public class ReportSchedulerService implements DisposableBean {
+    
+    private static final DateTimeFormatter RUN_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    
+    private final ReportDefinitionRepository reportDefinitionRepository;
+    private final ReportFileRepository reportFileRepository;
+    private final BranchRepository branchRepository;
+    private final ReportExportService reportExportService;
+    private final Path outputDir;
+    private final int keepFiles;
+    private final ExecutorService executor;
+    // Reports with a run queued or in progress, so a report never runs twice at once
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    
+    public ReportSchedulerService(ReportDefinitionRepository reportDefinitionRepository,
+                                  ReportFileRepository reportFileRepository,
+                                  BranchRepository branchRepository,
+                                  ReportExportService reportExportService,
+                                  @Value("${analytics.reports.output-dir:reports}") String outputDir,
+                                  @Value("${analytics.reports.keep-files:30}") int keepFiles,
+                                  @Value("${analytics.reports.max-concurrent-runs:2}") int maxConcurrentRuns) {
+        this.reportDefinitionRepository = reportDefinitionRepository;
+        this.reportFileRepository = reportFileRepository;
+        this.branchRepository = branchRepository;
+        this.reportExportService = reportExportService;
+        this.outputDir = Paths.get(outputDir).toAbsolutePath();
+        this.keepFiles = keepFiles;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, maxConcurrentRuns));
+    }
+    
+    public List<ReportDefinition> definitions() {
+        return reportDefinitionRepository.findAll();
+    }
+    
+    public ReportDefinition definition(Long reportId) {
+        return reportDefinitionRepository.findById(reportId)
+            .orElseThrow(() -> new ResourceNotFoundException("Report", reportId));
+    }
+    
+    /**
+     * Creates the definition (null reportId) or replaces an existing one, keeping its run history.
+     * The next run is rescheduled from the cron expression as of now.
+     */
+    public ReportDefinition save(Long reportId, ReportDefinition definition) {
+        normalize(definition);
+        definition.setReportId(reportId);
+        if (reportId != null) {
+            ReportDefinition existing = definition(reportId);
+            definition.setCreatedAt(existing.getCreatedAt());
+            definition.setLastRunAt(existing.getLastRunAt());
+            definition.setLastStatus(existing.getLastStatus());
+            definition.setLastError(existing.getLastError());
+        } else {
+            definition.setLastRunAt(null);
+            definition.setLastStatus(null);
+            definition.setLastError(null);
+        }
+        definition.setNextRunAt(definition.getActive() ? nextRun(definition.getCron(), LocalDateTime.now()) : null);
+        return reportDefinitionRepository.save(definition);
+    }
+    
+    /**
+     * Deletes the definition together with its files. The definition goes first, so a run in flight
+     * either sees it gone and discards its own file, or catalogues the file before it is swept here.
+     */
+    public void delete(Long reportId) {
+        definition(reportId);
+        reportDefinitionRepository.deleteById(reportId);
+        for (ReportFile file : reportFileRepository.findByReportId(reportId)) {
+            deleteFile(file);
+        }
+    }
+    
+    /** Queues a run covering the range as of today; false when the report is already running. */
+    public boolean runNow(Long reportId) {
+        definition(reportId);
+        return submit(reportId, LocalDate.now());
+    }
+    
+    /** Newest first, for one report or for all of them. */
+    public List<ReportFile> files(Long reportId) {
+        return reportFileRepository.findCatalog(reportId);
+    }
+    
+    public ReportFile file(Long fileId) {
+        return reportFileRepository.findById(fileId)
+            .orElseThrow(() -> new ResourceNotFoundException("Report file", fileId));
+    }
+    
+    public Path path(ReportFile file) {
+        return outputDir.resolve(file.getReportId().toString()).resolve(file.getFileName());
+    }
+    
+    @Scheduled(fixedDelayString = "${analytics.reports.poll-interval-ms:60000}", initialDelay = 60000)
+    public void runDue() {
+        LocalDateTime now = LocalDateTime.now();
+        for (ReportDefinition definition : reportDefinitionRepository.findDue(now)) {
+            reportDefinitionRepository.updateNextRunAt(definition.getReportId(), nextRun(definition.getCron(), now));
+            submit(definition.getReportId(), definition.getNextRunAt().toLocalDate());
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+    
+    private boolean submit(Long reportId, LocalDate runDate) {
+        if (!running.add(reportId)) {
+            log.info("Report {} is still running; skipping the run for {}", reportId, runDate);
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                run(reportId, runDate);
+            } finally {
+                running.remove(reportId);
+            }
+        });
+        return true;
+    }
+    
+    private void run(Long reportId, LocalDate runDate) {
+        ReportDefinition definition = reportDefinitionRepository.findById(reportId).orElse(null);
+        if (definition == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            ReportFile file = materialize(definition, runDate, startedAt);
+            // Deleted while running: the sweep in delete may have missed this file
+            if (!reportDefinitionRepository.existsById(reportId)) {
+                deleteFile(file);
+                log.info("Report {} was deleted while running; discarded {}", reportId, file.getFileName());
+                return;
+            }
+            reportDefinitionRepository.updateLastRun(reportId, startedAt, "SUCCEEDED", null);
+            log.info("Report {} wrote {} ({} bytes)", reportId, file.getFileName(), file.getSizeBytes());
+            prune(reportId);
+        } catch (Exception e) {
+            log.error("Report {} failed", reportId, e);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            reportDefinitionRepository.updateLastRun(reportId, startedAt, "FAILED",
+                message.length() > 1000 ? message.substring(0, 1000) : message);
+        }
+    }
+    
+    private ReportFile materialize(ReportDefinition definition, LocalDate runDate, LocalDateTime startedAt) throws IOException {
+        ExportDataset dataset = ExportDataset.fromKey(definition.getDataset());
+        ExportFormat format = ExportFormat.fromKey(definition.getFormat());
+        ReportRange range = ReportRange.fromKey(definition.getRangeTemplate());
+        LocalDate startDate = range.startDate(runDate);
+        LocalDate endDate = range.endDate(runDate);
+        
+        Path dir = outputDir.resolve(definition.getReportId().toString());
+        Files.createDirectories(dir);
+        String fileName = RUN_STAMP.format(startedAt) + "_" + reportExportService.fileName(dataset, format, startDate, endDate, true);
+        Path target = dir.resolve(fileName);
+        Path partial = dir.resolve(fileName + ".part");
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            reportExportService.export(dataset, format, new ArrayList<>(definition.getBranchIds()), startDate, endDate, null, true, out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+        
+        ReportFile file = new ReportFile(null, definition.getReportId(), definition.getName(), fileName, startDate, endDate,
+            Files.size(target), LocalDateTime.now());
+        return reportFileRepository.save(file);
+    }
+    
+    private void prune(Long reportId) {
+        if (keepFiles <= 0) {
+            return;
+        }
+        List<ReportFile> files = reportFileRepository.findCatalog(reportId);
+        for (ReportFile file : files.subList(Math.min(keepFiles, files.size()), files.size())) {
+            deleteFile(file);
+        }
+    }
+    
+    private void deleteFile(ReportFile file) {
+        try {
+            Files.deleteIfExists(path(file));
+        } catch (IOException e) {
+            log.warn("Could not delete report file {}: {}", path(file), e.getMessage());
+        }
+        reportFileRepository.delete(file);
+    }
+    
+    /** Validates the keys, cron expression and branches, storing keys in their canonical form. */
+    private void normalize(ReportDefinition definition) {
+        if (definition.getCron() == null || !CronExpression.isValidExpression(definition.getCron())) {
+            throw new InvalidRequestException("Invalid cron expression '" + definition.getCron() + "'");
+        }
+        definition.setDataset(ExportDataset.fromKey(definition.getDataset()).getKey());
+        definition.setRangeTemplate(ReportRange.fromKey(definition.getRangeTemplate()).getKey());
+        definition.setFormat(ExportFormat.fromKey(definition.getFormat()).getKey());
+        List<Long> branchIds = definition.getBranchIds() != null
+            ? new ArrayList<>(definition.getBranchIds().stream().distinct().toList())
+            : new ArrayList<>();
+        for (Long branchId : branchIds) {
+            if (branchId == null || !branchRepository.existsById(branchId)) {
+                throw new InvalidRequestException("Unknown branch " + branchId);
+            }
+        }
+        definition.setBranchIds(branchIds);
+        if (definition.getActive() == null) {
+            definition.setActive(true);
+        }
+    }
+    
+    private static LocalDateTime nextRun(String cron, LocalDateTime after) {
+        return CronExpression.parse(cron).next(after);
+    }
+}
@@ -0,0 +1,123 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.entity.Transaction;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.ChangeType;
+import com.Bank.analytics.event.RollupDay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records in rollup_changes the branch-days of the JPA writes the created_at window of the rollup
+ * refresh cannot see, inside the writing transaction, so the next refresh re-aggregates those days:
+ * updates and deletes (an update that moves a row to another day or branch records the day it left
+ * as well), back-dated inserts, which land on a day consumers already consider closed, and inserts
+ * that commit after a refresh cutoff has moved past their created_at. Ordinary inserts are left to
+ * the window.
+ */
+@Component
+@RequiredArgsConstructor
+public class RollupChangeLog {
+    
+    private static final String INSERT_CHANGE =
+        "INSERT INTO rollup_changes (rollup_name, branch_id, change_date) VALUES (?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${analytics.rollup.lag-seconds:5}")
+    private long lagSeconds;
+    
+    // Runs synchronously in the writer's transaction, unlike the after-commit listeners
+    @EventListener
+    public void onDataChanged(AnalyticsDataChangedEvent event) {
+        if (event.getEntity() instanceof CustomerEntry entry) {
+            onWrite(RollupRefreshService.FOOTFALL_ROLLUP, event, entry.getPersistedDay(),
+                new RollupDay(event.getBranchId(), entry.getEntryDate()), entry.getCreatedAt());
+        } else if (event.getEntity() instanceof Transaction transaction) {
+            onWrite(RollupRefreshService.TRANSACTION_ROLLUP, event, transaction.getPersistedDay(),
+                new RollupDay(event.getBranchId(), transaction.getTransactionDate()), transaction.getCreatedAt());
+        }
+    }
+    
+    private void onWrite(String rollupName, AnalyticsDataChangedEvent event, RollupDay persistedDay,
+                         RollupDay day, LocalDateTime createdAt) {
+        if (event.getChange() != ChangeType.CREATED) {
+            record(rollupName, persistedDay);
+            record(rollupName, day);
+        } else if (createdAt == null || (day.date() != null && day.date().isBefore(createdAt.toLocalDate()))) {
+            record(rollupName, day);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionState().pendingInserts.add(new PendingInsert(rollupName, day, createdAt));
+        } else if (isPastWindow(createdAt)) {
+            record(rollupName, day);
+        }
+    }
+    
+    /**
+     * A refresh started now folds in rows created up to now minus the lag, so a row whose
+     * created_at is already at or below that may commit after the high-water mark passed it.
+     */
+    private boolean isPastWindow(LocalDateTime createdAt) {
+        return !createdAt.isAfter(LocalDateTime.now().minusSeconds(lagSeconds));
+    }
+    
+    private void record(String rollupName, RollupDay day) {
+        if (day == null || day.branchId() == null || day.date() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !transactionState().recorded.add(rollupName + "|" + day.branchId() + "|" + day.date())) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_CHANGE, rollupName, day.branchId(), day.date());
+    }
+    
+    /**
+     * Days already recorded by the current transaction, so bulk writes log each day once, and the
+     * inserts to re-check just before it commits.
+     */
+    private TransactionState transactionState() {
+        TransactionState state = (TransactionState) TransactionSynchronizationManager.getResource(this);
+        if (state == null) {
+            TransactionState created = new TransactionState();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    for (PendingInsert insert : created.pendingInserts) {
+                        if (isPastWindow(insert.createdAt())) {
+                            record(insert.rollupName(), insert.day());
+                        }
+                    }
+                    created.pendingInserts.clear();
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RollupChangeLog.this);
+                }
+            });
+            state = created;
+        }
+        return state;
+    }
+    
+    private static final class TransactionState {
+        private final Set<String> recorded = new HashSet<>();
+        private final List<PendingInsert> pendingInserts = new ArrayList<>();
+    }
+    
+    private record PendingInsert(String rollupName, RollupDay day, LocalDateTime createdAt) {
+    }
+}
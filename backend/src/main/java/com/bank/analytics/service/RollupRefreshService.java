@@ -0,0 +1,197 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.entity.RollupChange;
+import com.Bank.analytics.entity.RollupWatermark;
+import com.Bank.analytics.event.RollupDay;
+import com.Bank.analytics.event.RollupRefreshedEvent;
+import com.Bank.analytics.repository.RollupChangeRepository;
+import com.Bank.analytics.repository.RollupWatermarkRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps footfall_hourly_rollup and transaction_hourly_rollup in step with the raw tables.
+ *
+ * Each refresh folds in only the source rows whose created_at lies between the stored
+ * high-water mark and "now minus a small lag", so the cost of a refresh depends on the
+ * number of new rows rather than the size of the tables. Writes that window cannot see
+ * (updates, deletes, back-dated inserts, inserts committed after the cutoff passed them) are
+ * logged per branch-day by {@link RollupChangeLog}; each refresh then re-aggregates those
+ * days from the raw rows and drops the log entries it consumed.
+ * A {@link RollupRefreshedEvent} describing the absorbed window and restated days follows every commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RollupRefreshService {
+    
+    static final String FOOTFALL_ROLLUP = "footfall_hourly";
+    static final String TRANSACTION_ROLLUP = "transaction_hourly";
+    
+    private static final String FOOTFALL_UPSERT =
+        "INSERT INTO footfall_hourly_rollup (branch_id, rollup_date, rollup_hour, visit_purpose, visit_count, " +
+        "wait_sum, wait_count, service_sum, service_count, rating_sum, rating_count) " +
+        "SELECT branch_id, entry_date, HOUR(entry_time), COALESCE(visit_purpose, 'Unspecified'), COUNT(*), " +
+        "COALESCE(SUM(wait_time_minutes), 0), COUNT(wait_time_minutes), " +
+        "COALESCE(SUM(service_time_minutes), 0), COUNT(service_time_minutes), " +
+        "COALESCE(SUM(satisfaction_rating), 0), COUNT(satisfaction_rating) " +
+        "FROM customer_entries WHERE %s " +
+        "GROUP BY branch_id, entry_date, HOUR(entry_time), COALESCE(visit_purpose, 'Unspecified') " +
+        "ON DUPLICATE KEY UPDATE visit_count = visit_count + VALUES(visit_count), " +
+        "wait_sum = wait_sum + VALUES(wait_sum), wait_count = wait_count + VALUES(wait_count), " +
+        "service_sum = service_sum + VALUES(service_sum), service_count = service_count + VALUES(service_count), " +
+        "rating_sum = rating_sum + VALUES(rating_sum), rating_count = rating_count + VALUES(rating_count)";
+    
+    private static final String TRANSACTION_UPSERT =
+        "INSERT INTO transaction_hourly_rollup (branch_id, rollup_date, rollup_hour, service_type, transaction_count, " +
+        "completed_count, completed_amount, processing_sum, processing_count) " +
+        "SELECT branch_id, transaction_date, HOUR(transaction_time), service_type, COUNT(*), " +
+        "SUM(CASE WHEN transaction_status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+        "COALESCE(SUM(CASE WHEN transaction_status = 'COMPLETED' THEN transaction_amount END), 0), " +
+        "COALESCE(SUM(processing_time_minutes), 0), COUNT(processing_time_minutes) " +
+        "FROM transactions WHERE %s " +
+        "GROUP BY branch_id, transaction_date, HOUR(transaction_time), service_type " +
+        "ON DUPLICATE KEY UPDATE transaction_count = transaction_count + VALUES(transaction_count), " +
+        "completed_count = completed_count + VALUES(completed_count), " +
+        "completed_amount = completed_amount + VALUES(completed_amount), " +
+        "processing_sum = processing_sum + VALUES(processing_sum), processing_count = processing_count + VALUES(processing_count)";
+    
+    // First load also absorbs imported rows that never had created_at set
+    private static final String INITIAL_WINDOW = "(created_at IS NULL OR created_at <= ?)";
+    private static final String INCREMENTAL_WINDOW = "created_at > ? AND created_at <= ?";
+    private static final String FOOTFALL_DAY_WINDOW = "branch_id = ? AND entry_date = ? AND " + INITIAL_WINDOW;
+    private static final String TRANSACTION_DAY_WINDOW = "branch_id = ? AND transaction_date = ? AND " + INITIAL_WINDOW;
+    
+    private static final int CHANGE_DELETE_BATCH = 1000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final RollupWatermarkRepository watermarkRepository;
+    private final RollupChangeRepository changeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    // Serialises refreshes with rebuilds, and keeps RollupRefreshedEvent listeners in commit order
+    private final Object refreshLock = new Object();
+    
+    @Value("${analytics.rollup.lag-seconds:5}")
+    private long lagSeconds;
+    
+    @Scheduled(fixedDelayString = "${analytics.rollup.refresh-interval-ms:60000}", initialDelay = 5000)
+    public void refresh() {
+        synchronized (refreshLock) {
+            LocalDateTime cutoff = LocalDateTime.now().minusSeconds(lagSeconds);
+            LocalDateTime footfallSince = highWaterMark(FOOTFALL_ROLLUP);
+            LocalDateTime transactionSince = highWaterMark(TRANSACTION_ROLLUP);
+            Refreshed refreshed = transactionTemplate.execute(status -> {
+                int windowRows = refreshRollups(cutoff);
+                Set<RollupDay> restatedDays = new HashSet<>();
+                int restatedRows = restateChangedDays(cutoff, restatedDays);
+                return new Refreshed(windowRows + restatedRows, restatedDays);
+            });
+            eventPublisher.publishEvent(new RollupRefreshedEvent(cutoff, footfallSince, transactionSince,
+                refreshed.rowsTouched(), refreshed.restatedDays(), false));
+        }
+    }
+    
+    /**
+     * Drops both rollups and rebuilds them from scratch, e.g. after rows were changed with SQL
+     * behind JPA's back, which neither the created_at watermark nor the change log can see.
+     */
+    public void rebuild() {
+        synchronized (refreshLock) {
+            log.info("Rebuilding analytics rollups from raw tables");
+            LocalDateTime cutoff = LocalDateTime.now().minusSeconds(lagSeconds);
+            int rowsTouched = transactionTemplate.execute(status -> {
+                jdbcTemplate.update("DELETE FROM footfall_hourly_rollup");
+                jdbcTemplate.update("DELETE FROM transaction_hourly_rollup");
+                watermarkRepository.deleteAllInBatch();
+                // The reload covers every logged change that is visible to it
+                deleteChanges(changeRepository.findAll());
+                return refreshRollups(cutoff);
+            });
+            eventPublisher.publishEvent(new RollupRefreshedEvent(cutoff, null, null, rowsTouched, Set.of(), true));
+        }
+    }
+    
+    private LocalDateTime highWaterMark(String rollupName) {
+        return watermarkRepository.findById(rollupName).map(RollupWatermark::getHighWaterMark).orElse(null);
+    }
+    
+    private int refreshRollups(LocalDateTime cutoff) {
+        int footfallRows = refreshRollup(FOOTFALL_ROLLUP, FOOTFALL_UPSERT, cutoff);
+        int transactionRows = refreshRollup(TRANSACTION_ROLLUP, TRANSACTION_UPSERT, cutoff);
+        log.debug("Rollups refreshed up to {} ({} footfall, {} transaction rows touched)", cutoff, footfallRows, transactionRows);
+        return footfallRows + transactionRows;
+    }
+    
+    /**
+     * Re-aggregates every logged branch-day from the raw rows up to the cutoff, adding the days to
+     * {@code restatedDays}. Only the log entries read here are deleted; entries committed meanwhile
+     * wait for the next refresh.
+     */
+    private int restateChangedDays(LocalDateTime cutoff, Set<RollupDay> restatedDays) {
+        List<RollupChange> changes = changeRepository.findAll();
+        Set<String> restated = new HashSet<>();
+        int rows = 0;
+        for (RollupChange change : changes) {
+            if (!restated.add(change.getRollupName() + "|" + change.getBranchId() + "|" + change.getChangeDate())) {
+                continue;
+            }
+            if (FOOTFALL_ROLLUP.equals(change.getRollupName())) {
+                jdbcTemplate.update("DELETE FROM footfall_hourly_rollup WHERE branch_id = ? AND rollup_date = ?",
+                    change.getBranchId(), change.getChangeDate());
+                rows += jdbcTemplate.update(String.format(FOOTFALL_UPSERT, FOOTFALL_DAY_WINDOW),
+                    change.getBranchId(), change.getChangeDate(), cutoff);
+            } else if (TRANSACTION_ROLLUP.equals(change.getRollupName())) {
+                jdbcTemplate.update("DELETE FROM transaction_hourly_rollup WHERE branch_id = ? AND rollup_date = ?",
+                    change.getBranchId(), change.getChangeDate());
+                rows += jdbcTemplate.update(String.format(TRANSACTION_UPSERT, TRANSACTION_DAY_WINDOW),
+                    change.getBranchId(), change.getChangeDate(), cutoff);
+            }
+            restatedDays.add(new RollupDay(change.getBranchId(), change.getChangeDate()));
+        }
+        deleteChanges(changes);
+        if (!restatedDays.isEmpty()) {
+            log.debug("Restated {} rollup branch-days from {} logged changes", restated.size(), changes.size());
+        }
+        return rows;
+    }
+    
+    private void deleteChanges(List<RollupChange> changes) {
+        List<Long> ids = changes.stream().map(RollupChange::getChangeId).toList();
+        for (int from = 0; from < ids.size(); from += CHANGE_DELETE_BATCH) {
+            changeRepository.deleteAllByIdInBatch(ids.subList(from, Math.min(ids.size(), from + CHANGE_DELETE_BATCH)));
+        }
+    }
+    
+    private int refreshRollup(String rollupName, String upsertTemplate, LocalDateTime cutoff) {
+        RollupWatermark watermark = watermarkRepository.findById(rollupName)
+            .orElseGet(() -> new RollupWatermark(rollupName, null, null));
+        
+        int rows;
+        if (watermark.getHighWaterMark() == null) {
+            rows = jdbcTemplate.update(String.format(upsertTemplate, INITIAL_WINDOW), cutoff);
+        } else if (watermark.getHighWaterMark().isBefore(cutoff)) {
+            rows = jdbcTemplate.update(String.format(upsertTemplate, INCREMENTAL_WINDOW), watermark.getHighWaterMark(), cutoff);
+        } else {
+            return 0;
+        }
+        
+        watermark.setHighWaterMark(cutoff);
+        watermark.setRefreshedAt(LocalDateTime.now());
+        watermarkRepository.save(watermark);
+        return rows;
+    }
+    
+    private record Refreshed(int rowsTouched, Set<RollupDay> restatedDays) {
+    }
+}
@@ -0,0 +1,254 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.dto.CustomerEntryDTO;
+import com.Bank.analytics.dto.DailyBranchSummaryDTO;
+import com.Bank.analytics.dto.TransactionDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams raw customer entries and transactions for a date range without holding the result.
+ *
+ * Rows are read through a forward-only, read-only JDBC cursor (row by row on MySQL) and handed to
+ * the caller one at a time, so memory stays flat however long the range is and output starts with
+ * the first row. Raw rows come in (date, id) order, so a stream cut short can be resumed from the
+ * last row it delivered.
+ *
+ * A cursor holds its pooled connection until the last row is written, which for a slow client can
+ * be minutes, so streamed responses first reserve one of a fixed number of slots (a quarter of the
+ * Hikari pool unless configured) and are turned away when none is free.
+ */
+@Service
+public class RowStreamService {
+    
+    // Rows per round trip for drivers that honour a positive fetch size
+    private static final int FETCH_SIZE = 1000;
+    
+    private static final String ENTRY_ROWS =
+        "SELECT ce.entry_id, ce.entry_date, ce.entry_time, ce.exit_time, ce.customer_type, ce.visit_purpose, ce.queue_number, " +
+        "ce.wait_time_minutes, ce.service_time_minutes, ce.satisfaction_rating, b.branch_name, b.branch_code " +
+        "FROM customer_entries ce JOIN branches b ON b.branch_id = ce.branch_id WHERE ce.entry_date BETWEEN ? AND ?";
+    
+    private static final String TRANSACTION_ROWS =
+        "SELECT t.transaction_id, t.transaction_date, t.transaction_time, t.service_type, t.transaction_amount, " +
+        "t.transaction_status, t.processing_time_minutes, t.notes, b.branch_name, b.branch_code " +
+        "FROM transactions t JOIN branches b ON b.branch_id = t.branch_id WHERE t.transaction_date BETWEEN ? AND ?";
+    
+    // Footfall and transaction rollups side by side, summed per branch and day
+    private static final String DAILY_SUMMARY_ROWS =
+        "SELECT r.rollup_date, b.branch_code, b.branch_name, SUM(r.visit_count), SUM(r.wait_sum), SUM(r.wait_count), " +
+        "SUM(r.service_sum), SUM(r.service_count), SUM(r.rating_sum), SUM(r.rating_count), SUM(r.transaction_count), " +
+        "SUM(r.completed_count), SUM(r.completed_amount), SUM(r.processing_sum), SUM(r.processing_count) FROM (" +
+        "SELECT rollup_date, branch_id, visit_count, wait_sum, wait_count, service_sum, service_count, rating_sum, rating_count, " +
+        "0 AS transaction_count, 0 AS completed_count, 0 AS completed_amount, 0 AS processing_sum, 0 AS processing_count " +
+        "FROM footfall_hourly_rollup WHERE rollup_date BETWEEN ? AND ? UNION ALL " +
+        "SELECT rollup_date, branch_id, 0, 0, 0, 0, 0, 0, 0, transaction_count, completed_count, completed_amount, processing_sum, processing_count " +
+        "FROM transaction_hourly_rollup WHERE rollup_date BETWEEN ? AND ?" +
+        ") r JOIN branches b ON b.branch_id = r.branch_id";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Semaphore streamSlots;
+    
+    public RowStreamService(JdbcTemplate jdbcTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${analytics.row-streams.max-concurrent:0}") int maxConcurrent,
+                            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.streamSlots = new Semaphore(Math.max(1, maxConcurrent > 0 ? Math.min(maxConcurrent, poolSize - 1) : poolSize / 4));
+    }
+    
+    /**
+     * Reserves a slot for one streamed response, to be closed once the response is written.
+     * Returns null when every slot is in use.
+     */
+    public StreamSlot tryReserveStream() {
+        return streamSlots.tryAcquire() ? new StreamSlot(streamSlots) : null;
+    }
+    
+    /** A reserved stream slot; closing it more than once releases it once. */
+    public static final class StreamSlot implements AutoCloseable {
+        
+        private final Semaphore slots;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        private StreamSlot(Semaphore slots) {
+            this.slots = slots;
+        }
+        
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+    }
+    
+    /** Receives streamed rows; an IOException aborts the stream. */
+    @FunctionalInterface
+    public interface RowWriter<T> {
+        void write(T row) throws IOException;
+    }
+    
+    /** Writes the entries of a branch (null for all branches) in the range as one JSON array. */
+    public void writeEntriesJson(Long branchId, LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            forEachEntry(branchId, startDate, endDate, null, generator::writeObject);
+            generator.writeEndArray();
+        }
+    }
+    
+    /** Writes the transactions of a branch (null for all branches) in the range as one JSON array. */
+    public void writeTransactionsJson(Long branchId, LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            forEachTransaction(branchId, startDate, endDate, null, generator::writeObject);
+            generator.writeEndArray();
+        }
+    }
+    
+    /**
+     * Streams entries in (entry date, id) order. With afterId, rows on startDate up to and including
+     * that id are skipped, so an interrupted stream resumes from its last row's date and id.
+     */
+    public void forEachEntry(Long branchId, LocalDate startDate, LocalDate endDate, Long afterId,
+                             RowWriter<CustomerEntryDTO> writer) throws IOException {
+        stream(raw(ENTRY_ROWS, "ce.entry_date", "ce.entry_id", "ce.branch_id", branchId, startDate, endDate, afterId), rs -> writer.write(CustomerEntryDTO.builder()
+            .entryId(rs.getLong(1))
+            .entryDate(rs.getObject(2, LocalDate.class))
+            .entryTime(rs.getObject(3, LocalTime.class))
+            .exitTime(rs.getObject(4, LocalTime.class))
+            .customerType(rs.getString(5))
+            .visitPurpose(rs.getString(6))
+            .queueNumber(rs.getString(7))
+            .waitTimeMinutes(rs.getObject(8, Integer.class))
+            .serviceTimeMinutes(rs.getObject(9, Integer.class))
+            .satisfactionRating(rs.getObject(10, Integer.class))
+            .branchName(rs.getString(11))
+            .branchCode(rs.getString(12))
+            .build()));
+    }
+    
+    /** Streams transactions in (transaction date, id) order, resuming after afterId as {@link #forEachEntry} does. */
+    public void forEachTransaction(Long branchId, LocalDate startDate, LocalDate endDate, Long afterId,
+                                   RowWriter<TransactionDTO> writer) throws IOException {
+        stream(raw(TRANSACTION_ROWS, "t.transaction_date", "t.transaction_id", "t.branch_id", branchId, startDate, endDate, afterId), rs -> writer.write(TransactionDTO.builder()
+            .transactionId(rs.getLong(1))
+            .transactionDate(rs.getObject(2, LocalDate.class))
+            .transactionTime(rs.getObject(3, LocalTime.class))
+            .serviceType(rs.getString(4))
+            .transactionAmount(rs.getBigDecimal(5))
+            .transactionStatus(rs.getString(6))
+            .processingTimeMinutes(rs.getObject(7, Integer.class))
+            .notes(rs.getString(8))
+            .branchName(rs.getString(9))
+            .branchCode(rs.getString(10))
+            .build()));
+    }
+    
+    /**
+     * Streams per-branch daily totals from the hourly rollups in (date, branch code) order; days
+     * with neither visits nor transactions are absent.
+     */
+    public void forEachDailySummary(Long branchId, LocalDate startDate, LocalDate endDate,
+                                    RowWriter<DailyBranchSummaryDTO> writer) throws IOException {
+        List<Object> args = new ArrayList<>(List.of(startDate, endDate, startDate, endDate));
+        String sql = DAILY_SUMMARY_ROWS;
+        if (branchId != null) {
+            sql += " WHERE r.branch_id = ?";
+            args.add(branchId);
+        }
+        sql += " GROUP BY r.rollup_date, b.branch_code, b.branch_name ORDER BY r.rollup_date, b.branch_code";
+        stream(new Query(sql, args), rs -> writer.write(DailyBranchSummaryDTO.builder()
+            .date(rs.getObject(1, LocalDate.class))
+            .branchCode(rs.getString(2))
+            .branchName(rs.getString(3))
+            .visitors(rs.getLong(4))
+            .avgWaitTime(average(rs.getLong(5), rs.getLong(6)))
+            .avgServiceTime(average(rs.getLong(7), rs.getLong(8)))
+            .avgSatisfaction(average(rs.getLong(9), rs.getLong(10)))
+            .transactions(rs.getLong(11))
+            .completedTransactions(rs.getLong(12))
+            .revenue(rs.getBigDecimal(13).setScale(2, RoundingMode.HALF_UP))
+            .avgProcessingTime(average(rs.getLong(14), rs.getLong(15)))
+            .build()));
+    }
+    
+    /** Reads one row of the current cursor position. */
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException, IOException;
+    }
+    
+    private record Query(String sql, List<Object> args) {
+    }
+    
+    private static Query raw(String sql, String date, String id, String branch, Long branchId,
+                             LocalDate startDate, LocalDate endDate, Long afterId) {
+        List<Object> args = new ArrayList<>(List.of(startDate, endDate));
+        String query = sql;
+        if (branchId != null) {
+            query += " AND " + branch + " = ?";
+            args.add(branchId);
+        }
+        if (afterId != null) {
+            query += " AND (" + date + " > ? OR " + id + " > ?)";
+            args.add(startDate);
+            args.add(afterId);
+        }
+        return new Query(query + " ORDER BY " + date + ", " + id, args);
+    }
+    
+    private void stream(Query query, RowHandler handler) throws IOException {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(query.sql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize(connection));
+                for (int i = 0; i < query.args().size(); i++) {
+                    ps.setObject(i + 1, query.args().get(i));
+                }
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    handler.handle(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Typically the client went away; stop reading and let the caller see it
+            throw e.getCause();
+        }
+    }
+    
+    private static Double average(long sum, long count) {
+        return count > 0 ? (double) sum / count : null;
+    }
+    
+    // Connector/J only streams row by row for this sentinel; other drivers read it as a batch size
+    private static int fetchSize(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        return product != null && product.toLowerCase(Locale.ROOT).contains("mysql") ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+}
@@ -0,0 +1,203 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.dto.TimeBucket;
+import com.Bank.analytics.dto.TimeSeriesMetric;
+import com.Bank.analytics.exception.InvalidRequestException;
+import com.Bank.analytics.repository.CustomerEntryRepository;
+import com.Bank.analytics.repository.FootfallRollupRepository;
+import com.Bank.analytics.repository.TransactionRepository;
+import com.Bank.analytics.repository.TransactionRollupRepository;
+import com.Bank.analytics.repository.projection.FootfallTotals;
+import com.Bank.analytics.repository.projection.TimeBucketFootfall;
+import com.Bank.analytics.repository.projection.TimeBucketTransactions;
+import com.Bank.analytics.repository.projection.TransactionTotals;
+import com.Bank.analytics.store.CubeMeasure;
+import com.Bank.analytics.store.CubeTotals;
+import com.Bank.analytics.store.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buckets any {@link TimeSeriesMetric} over a date range into {@link TimeBucket}s.
+ *
+ * Day, week and month buckets are range lookups into the daily cube once it has loaded. Otherwise
+ * the range is read in one grouped pass at the coarsest grain that fits the bucket - the rollups
+ * per day or per hour, or the raw rows per quarter hour - and folded into the buckets in memory.
+ * Series longer than the requested point budget are downsampled with {@link LttbDownsampler}.
+ */
+@Service
+@RequiredArgsConstructor
+public class TimeSeriesService {
+    
+    private static final int MEASURES = CubeMeasure.values().length;
+    
+    private final RangeTotalsService rangeTotalsService;
+    private final FootfallRollupRepository footfallRollupRepository;
+    private final TransactionRollupRepository transactionRollupRepository;
+    private final CustomerEntryRepository customerEntryRepository;
+    private final TransactionRepository transactionRepository;
+    
+    @Value("${analytics.time-series.max-buckets:100000}")
+    private int maxBuckets;
+    
+    /**
+     * The metric per bucket from startDate through endDate for a branch (null for all branches),
+     * reduced to at most maxPoints points when given. Buckets are labelled with their start; the
+     * first and last are clipped to the range.
+     */
+    public Map<String, Object> series(TimeSeriesMetric metric, TimeBucket bucket, Long branchId,
+                                      LocalDate startDate, LocalDate endDate, Integer maxPoints) {
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidRequestException("endDate must not be before startDate");
+        }
+        if (maxPoints != null && maxPoints < 3) {
+            throw new InvalidRequestException("maxPoints must be at least 3");
+        }
+        
+        List<LocalDateTime> starts = bucketStarts(bucket, startDate, endDate);
+        List<CubeTotals> totals = bucketTotals(metric, bucket, branchId, startDate, endDate, starts);
+        List<Map<String, Object>> points = new ArrayList<>();
+        if (maxPoints == null || starts.size() <= maxPoints) {
+            for (int i = 0; i < starts.size(); i++) {
+                points.add(point(starts.get(i), value(metric, totals.get(i))));
+            }
+        } else {
+            // Empty buckets of an average have no value to keep, so only valued buckets compete
+            List<Integer> valued = new ArrayList<>();
+            List<Double> values = new ArrayList<>();
+            for (int i = 0; i < starts.size(); i++) {
+                Double value = value(metric, totals.get(i));
+                if (value != null) {
+                    valued.add(i);
+                    values.add(value);
+                }
+            }
+            double[] x = new double[valued.size()];
+            double[] y = new double[valued.size()];
+            for (int i = 0; i < x.length; i++) {
+                x[i] = starts.get(valued.get(i)).toEpochSecond(ZoneOffset.UTC);
+                y[i] = values.get(i);
+            }
+            for (int index : LttbDownsampler.select(x, y, maxPoints)) {
+                points.add(point(starts.get(valued.get(index)), y[index]));
+            }
+        }
+        
+        Map<String, Object> series = new LinkedHashMap<>();
+        series.put("metric", metric.getKey());
+        series.put("bucket", bucket.getKey());
+        series.put("branchId", branchId);
+        series.put("startDate", startDate);
+        series.put("endDate", endDate);
+        series.put("bucketCount", starts.size());
+        series.put("points", points);
+        return series;
+    }
+    
+    private List<LocalDateTime> bucketStarts(TimeBucket bucket, LocalDate startDate, LocalDate endDate) {
+        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (LocalDateTime start = bucket.floor(startDate.atStartOfDay()); start.isBefore(end); start = bucket.next(start)) {
+            if (starts.size() == maxBuckets) {
+                throw new InvalidRequestException("More than " + maxBuckets + " " + bucket.getKey()
+                    + " buckets requested; use a wider bucket or a shorter range");
+            }
+            starts.add(start);
+        }
+        return starts;
+    }
+    
+    private List<CubeTotals> bucketTotals(TimeSeriesMetric metric, TimeBucket bucket, Long branchId,
+                                          LocalDate startDate, LocalDate endDate, List<LocalDateTime> starts) {
+        List<CubeTotals> totals = new ArrayList<>(starts.size());
+        boolean daily = bucket == TimeBucket.DAY || bucket == TimeBucket.WEEK || bucket == TimeBucket.MONTH;
+        if (daily && rangeTotalsService.isCubeReady()) {
+            for (LocalDateTime start : starts) {
+                LocalDate from = start.toLocalDate().isBefore(startDate) ? startDate : start.toLocalDate();
+                LocalDate last = bucket.next(start).toLocalDate().minusDays(1);
+                totals.add(rangeTotalsService.totals(branchId, from, last.isAfter(endDate) ? endDate : last));
+            }
+            return totals;
+        }
+        
+        Map<LocalDateTime, Integer> index = new HashMap<>();
+        for (int i = 0; i < starts.size(); i++) {
+            index.put(starts.get(i), i);
+        }
+        long[][] measures = new long[starts.size()][MEASURES];
+        if (metric.isTransactional()) {
+            List<TimeBucketTransactions> rows = switch (bucket) {
+                case MINUTE_15 -> transactionRepository.sumTransactionTotalsByQuarterHour(branchId, startDate, endDate);
+                case HOUR -> transactionRollupRepository.sumTransactionTotalsByDateAndHour(branchId, startDate, endDate);
+                default -> transactionRollupRepository.sumTransactionTotalsByDate(branchId, startDate, endDate);
+            };
+            for (TimeBucketTransactions row : rows) {
+                addTransactions(measures[index.get(bucketOf(bucket, row.getBucketDate(), row.getHour(), row.getMinute()))], row);
+            }
+        } else {
+            List<TimeBucketFootfall> rows = switch (bucket) {
+                case MINUTE_15 -> customerEntryRepository.sumFootfallTotalsByQuarterHour(branchId, startDate, endDate);
+                case HOUR -> footfallRollupRepository.sumFootfallTotalsByDateAndHour(branchId, startDate, endDate);
+                default -> footfallRollupRepository.sumFootfallTotalsByDate(branchId, startDate, endDate);
+            };
+            for (TimeBucketFootfall row : rows) {
+                addFootfall(measures[index.get(bucketOf(bucket, row.getBucketDate(), row.getHour(), row.getMinute()))], row);
+            }
+        }
+        for (long[] bucketMeasures : measures) {
+            totals.add(CubeTotals.of(bucketMeasures, new long[HourlyHistogram.HOURS_PER_DAY]));
+        }
+        return totals;
+    }
+    
+    private static LocalDateTime bucketOf(TimeBucket bucket, LocalDate date, Integer hour, Integer minute) {
+        return bucket.floor(date.atTime(hour, minute));
+    }
+    
+    private static void addFootfall(long[] measures, FootfallTotals row) {
+        measures[CubeMeasure.VISITS.ordinal()] += row.getVisits();
+        measures[CubeMeasure.WAIT_SUM.ordinal()] += row.getWaitSum();
+        measures[CubeMeasure.WAIT_COUNT.ordinal()] += row.getWaitCount();
+        measures[CubeMeasure.SERVICE_SUM.ordinal()] += row.getServiceSum();
+        measures[CubeMeasure.SERVICE_COUNT.ordinal()] += row.getServiceCount();
+        measures[CubeMeasure.RATING_SUM.ordinal()] += row.getRatingSum();
+        measures[CubeMeasure.RATING_COUNT.ordinal()] += row.getRatingCount();
+    }
+    
+    private static void addTransactions(long[] measures, TransactionTotals row) {
+        measures[CubeMeasure.TRANSACTIONS.ordinal()] += row.getTransactions();
+        measures[CubeMeasure.COMPLETED_TRANSACTIONS.ordinal()] += row.getCompletedTransactions();
+        measures[CubeMeasure.REVENUE_CENTS.ordinal()] += Money.cents(row.getRevenueCents());
+        measures[CubeMeasure.PROCESSING_SUM.ordinal()] += row.getProcessingSum();
+        measures[CubeMeasure.PROCESSING_COUNT.ordinal()] += row.getProcessingCount();
+    }
+    
+    private static Double value(TimeSeriesMetric metric, CubeTotals totals) {
+        return switch (metric) {
+            case FOOTFALL -> (double) totals.get(CubeMeasure.VISITS);
+            case AVG_WAIT_TIME -> totals.average(CubeMeasure.WAIT_SUM, CubeMeasure.WAIT_COUNT);
+            case AVG_SERVICE_TIME -> totals.average(CubeMeasure.SERVICE_SUM, CubeMeasure.SERVICE_COUNT);
+            case CUSTOMER_SATISFACTION -> totals.average(CubeMeasure.RATING_SUM, CubeMeasure.RATING_COUNT);
+            case TRANSACTIONS -> (double) totals.get(CubeMeasure.TRANSACTIONS);
+            case COMPLETED_TRANSACTIONS -> (double) totals.get(CubeMeasure.COMPLETED_TRANSACTIONS);
+            case REVENUE -> Money.toDouble(totals.get(CubeMeasure.REVENUE_CENTS));
+            case AVG_PROCESSING_TIME -> totals.average(CubeMeasure.PROCESSING_SUM, CubeMeasure.PROCESSING_COUNT);
+        };
+    }
+    
+    private static Map<String, Object> point(LocalDateTime timestamp, Double value) {
+        Map<String, Object> point = new LinkedHashMap<>();
+        point.put("timestamp", timestamp);
+        point.put("value", value);
+        return point;
+    }
+}
@@ -0,0 +1,486 @@
+package com.Bank.analytics.store;
+
+import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.DataKind;
+import com.Bank.analytics.event.RollupRefreshedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * In-process columnar {@link FootfallStore}, enabled with {@code analytics.columnar.enabled=true}.
+ *
+ * customer_entries is streamed from MySQL once after startup into {@link FootfallColumns}, sorted
+ * by day, so a date range is a binary search plus a tight loop over primitive columns. Entity
+ * writes are applied as they commit: rows that keep the day order are appended to the sorted
+ * region, anything else goes to a small unsorted tail that every query also scans. Once the tail
+ * passes {@code analytics.columnar.max-unsorted-rows}, or the rollups are rebuilt after a bulk
+ * regeneration, the store reloads in the background. Until the first load completes, queries are
+ * served by {@link RollupFootfallStore}.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "analytics.columnar", name = "enabled", havingValue = "true")
+@Slf4j
+public class ColumnarFootfallStore implements FootfallStore {
+    
+    private static final int HOURS_PER_DAY = 24;
+    private static final int SUMMARY_WIDTH = 7;
+    private static final String LOAD_QUERY =
+        "SELECT entry_id, entry_date, entry_time, branch_id, customer_type, visit_purpose, " +
+        "wait_time_minutes, service_time_minutes, satisfaction_rating FROM customer_entries ORDER BY entry_id";
+    
+    private final RollupFootfallStore fallback;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    
+    @Value("${analytics.columnar.max-unsorted-rows:100000}")
+    private int maxUnsortedRows;
+    
+    // Guarded by lock
+    private FootfallColumns columns;
+    private int sortedSize;
+    private final Map<Long, Integer> branchIndex = new HashMap<>();
+    private final List<Long> branchIds = new ArrayList<>();
+    private final Map<String, Integer> purposeIndex = new HashMap<>();
+    private final List<String> purposes = new ArrayList<>();
+    private final List<CustomerEntry> pendingWhileLoading = new ArrayList<>();
+    private final List<CustomerEntry> pendingDeletesWhileLoading = new ArrayList<>();
+    
+    public ColumnarFootfallStore(RollupFootfallStore fallback, JdbcTemplate jdbcTemplate) {
+        this.fallback = fallback;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        scheduleReload();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRollupRefreshed(RollupRefreshedEvent event) {
+        if (event.isRebuilt()) {
+            scheduleReload();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(AnalyticsDataChangedEvent event) {
+        if (event.getKind() != DataKind.CUSTOMER_ENTRY) {
+            return;
+        }
+        CustomerEntry entry = (CustomerEntry) event.getEntity();
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            if (reloading.get()) {
+                (event.getChange() == AnalyticsDataChangedEvent.ChangeType.DELETED ? pendingDeletesWhileLoading : pendingWhileLoading).add(entry);
+                return;
+            }
+            if (columns == null) {
+                return;
+            }
+            switch (event.getChange()) {
+                case CREATED -> upsert(entry, false);
+                case UPDATED -> upsert(entry, true);
+                case DELETED -> delete(entry);
+            }
+            compact = columns.size() - sortedSize > maxUnsortedRows;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            scheduleReload();
+        }
+    }
+    
+    @Override
+    public Map<LocalDate, Map<Long, Long>> dailyVisitsByBranch(LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            if (columns == null) {
+                return fallback.dailyVisitsByBranch(startDate, endDate);
+            }
+            if (endDate.isBefore(startDate) || branchIds.isEmpty()) {
+                return new HashMap<>();
+            }
+            int firstDay = (int) startDate.toEpochDay();
+            int branchCount = branchIds.size();
+            long[] counts = new long[(int) (endDate.toEpochDay() - firstDay + 1) * branchCount];
+            scan(null, startDate, endDate, row ->
+                counts[(columns.day(row) - firstDay) * branchCount + columns.branch(row)]++);
+            
+            Map<LocalDate, Map<Long, Long>> visits = new HashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    visits.computeIfAbsent(LocalDate.ofEpochDay(firstDay + i / branchCount), d -> new HashMap<>())
+                        .put(branchIds.get(i % branchCount), counts[i]);
+                }
+            }
+            return visits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public long[] visitsByHour(Long branchId, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            if (columns == null) {
+                return fallback.visitsByHour(branchId, startDate, endDate);
+            }
+            long[] visitors = new long[HOURS_PER_DAY];
+            scan(branchId, startDate, endDate, row -> visitors[columns.minute(row) / 60]++);
+            return visitors;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public Map<String, long[]> visitsByPurposeAndHour(Long branchId, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            if (columns == null) {
+                return fallback.visitsByPurposeAndHour(branchId, startDate, endDate);
+            }
+            // Slot 0 collects entries without a purpose, like the rollup's 'Unspecified'
+            long[][] visitors = new long[purposes.size() + 1][HOURS_PER_DAY];
+            scan(branchId, startDate, endDate, row -> visitors[columns.purpose(row) + 1][columns.minute(row) / 60]++);
+            
+            Map<String, long[]> visits = new HashMap<>();
+            for (int p = 0; p < visitors.length; p++) {
+                if (hasVisits(visitors[p])) {
+                    visits.put(p == 0 ? "Unspecified" : purposes.get(p - 1), visitors[p]);
+                }
+            }
+            return visits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public FootfallSummary summarize(Long branchId, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            if (columns == null) {
+                return fallback.summarize(branchId, startDate, endDate);
+            }
+            long[] sums = new long[SUMMARY_WIDTH];
+            scan(branchId, startDate, endDate, row -> accumulate(sums, row));
+            return toSummary(sums);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public Map<Long, FootfallSummary> summarizeByBranch(LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            if (columns == null) {
+                return fallback.summarizeByBranch(startDate, endDate);
+            }
+            long[][] sums = new long[branchIds.size()][SUMMARY_WIDTH];
+            scan(null, startDate, endDate, row -> accumulate(sums[columns.branch(row)], row));
+            
+            Map<Long, FootfallSummary> summaries = new HashMap<>();
+            for (int b = 0; b < sums.length; b++) {
+                if (sums[b][0] > 0) {
+                    summaries.put(branchIds.get(b), toSummary(sums[b]));
+                }
+            }
+            return summaries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public Map<Long, long[]> visitsByBranchAndHour(LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            if (columns == null) {
+                return fallback.visitsByBranchAndHour(startDate, endDate);
+            }
+            long[][] visitors = new long[branchIds.size()][HOURS_PER_DAY];
+            scan(null, startDate, endDate, row -> visitors[columns.branch(row)][columns.minute(row) / 60]++);
+            
+            Map<Long, long[]> visits = new HashMap<>();
+            for (int b = 0; b < visitors.length; b++) {
+                if (hasVisits(visitors[b])) {
+                    visits.put(branchIds.get(b), visitors[b]);
+                }
+            }
+            return visits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Summary slots: visits, waitSum, waitCount, serviceSum, serviceCount, ratingSum, ratingCount
+    
+    private void accumulate(long[] sums, int row) {
+        sums[0]++;
+        int wait = columns.wait(row);
+        if (wait != FootfallColumns.NULL_VALUE) {
+            sums[1] += wait;
+            sums[2]++;
+        }
+        int service = columns.service(row);
+        if (service != FootfallColumns.NULL_VALUE) {
+            sums[3] += service;
+            sums[4]++;
+        }
+        int rating = columns.rating(row);
+        if (rating != 0) {
+            sums[5] += rating;
+            sums[6]++;
+        }
+    }
+    
+    private static FootfallSummary toSummary(long[] sums) {
+        return new FootfallSummary(sums[0], sums[1], sums[2], sums[3], sums[4], sums[5], sums[6]);
+    }
+    
+    /**
+     * Visits every live row of the branch (all branches when null) within the range. Caller holds the lock.
+     */
+    private void scan(Long branchId, LocalDate startDate, LocalDate endDate, IntConsumer visitor) {
+        int branch;
+        if (branchId == null) {
+            branch = FootfallColumns.DELETED;
+        } else {
+            Integer index = branchIndex.get(branchId);
+            if (index == null) {
+                return;
+            }
+            branch = index;
+        }
+        int firstDay = (int) startDate.toEpochDay();
+        int lastDay = (int) endDate.toEpochDay();
+        
+        int end = columns.lowerBound(sortedSize, lastDay + 1);
+        for (int row = columns.lowerBound(sortedSize, firstDay); row < end; row++) {
+            int rowBranch = columns.branch(row);
+            if (rowBranch != FootfallColumns.DELETED && (branch == FootfallColumns.DELETED || rowBranch == branch)) {
+                visitor.accept(row);
+            }
+        }
+        for (int row = sortedSize; row < columns.size(); row++) {
+            int rowBranch = columns.branch(row);
+            int day = columns.day(row);
+            if (rowBranch != FootfallColumns.DELETED && (branch == FootfallColumns.DELETED || rowBranch == branch)
+                    && day >= firstDay && day <= lastDay) {
+                visitor.accept(row);
+            }
+        }
+    }
+    
+    private void scheduleReload() {
+        if (reloading.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("columnar-footfall-load").start(this::reload);
+        }
+    }
+    
+    private void reload() {
+        long started = System.currentTimeMillis();
+        try {
+            Map<Long, Integer> loadedBranchIndex = new HashMap<>();
+            List<Long> loadedBranchIds = new ArrayList<>();
+            Map<String, Integer> loadedPurposeIndex = new HashMap<>();
+            List<String> loadedPurposes = new ArrayList<>();
+            Map<String, Integer> unknownCustomerTypes = new HashMap<>();
+            FootfallColumns loaded = new FootfallColumns(1 << 16);
+            
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    LOAD_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Makes MySQL Connector/J stream rows instead of buffering the whole table
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            }, (ResultSet rs) -> {
+                Date entryDate = rs.getDate("entry_date");
+                Time entryTime = rs.getTime("entry_time");
+                if (entryDate == null || entryTime == null) {
+                    return;
+                }
+                long branchId = rs.getLong("branch_id");
+                String customerType = rs.getString("customer_type");
+                String purpose = rs.getString("visit_purpose");
+                loaded.append(rs.getLong("entry_id"), (int) entryDate.toLocalDate().toEpochDay(),
+                    minuteOfDay(entryTime.toLocalTime()),
+                    loadedBranchIndex.computeIfAbsent(branchId, id -> { loadedBranchIds.add(id); return loadedBranchIds.size() - 1; }),
+                    customerTypeOrdinal(customerType, unknownCustomerTypes),
+                    purpose != null ? loadedPurposeIndex.computeIfAbsent(purpose, p -> { loadedPurposes.add(p); return loadedPurposes.size() - 1; })
+                                    : FootfallColumns.NULL_VALUE,
+                    nullableInt(rs, "wait_time_minutes"), nullableInt(rs, "service_time_minutes"),
+                    Math.max(0, nullableInt(rs, "satisfaction_rating")));
+            });
+            FootfallColumns sorted = loaded.sortedByDay();
+            if (!unknownCustomerTypes.isEmpty()) {
+                log.warn("Columnar footfall store loaded entries with unknown customer types as untyped: {}", unknownCustomerTypes);
+            }
+            
+            lock.writeLock().lock();
+            try {
+                columns = sorted;
+                sortedSize = sorted.size();
+                branchIndex.clear();
+                branchIndex.putAll(loadedBranchIndex);
+                branchIds.clear();
+                branchIds.addAll(loadedBranchIds);
+                purposeIndex.clear();
+                purposeIndex.putAll(loadedPurposeIndex);
+                purposes.clear();
+                purposes.addAll(loadedPurposes);
+                // Replays are idempotent, so writes that also made it into the load are harmless
+                pendingWhileLoading.forEach(entry -> upsert(entry, true));
+                pendingDeletesWhileLoading.forEach(this::delete);
+                pendingWhileLoading.clear();
+                pendingDeletesWhileLoading.clear();
+                reloading.set(false);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Columnar footfall store loaded {} entries ({} KB off-heap) in {} ms",
+                sorted.size(), sorted.offHeapBytes() / 1024, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingWhileLoading.clear();
+                pendingDeletesWhileLoading.clear();
+                reloading.set(false);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Columnar footfall store load failed, analytics stay on the rollups", e);
+        }
+    }
+    
+    // Callers hold the write lock
+    
+    private void upsert(CustomerEntry entry, boolean mayHaveMoved) {
+        if (entry.getEntryId() == null || entry.getEntryDate() == null || entry.getEntryTime() == null
+                || entry.getBranch() == null) {
+            return;
+        }
+        int day = (int) entry.getEntryDate().toEpochDay();
+        int branch = branchIndex.computeIfAbsent(entry.getBranch().getBranchId(), id -> { branchIds.add(id); return branchIds.size() - 1; });
+        int purpose = entry.getVisitPurpose() != null
+            ? purposeIndex.computeIfAbsent(entry.getVisitPurpose(), p -> { purposes.add(p); return purposes.size() - 1; })
+            : FootfallColumns.NULL_VALUE;
+        int customerType = entry.getCustomerType() != null ? entry.getCustomerType().ordinal() : FootfallColumns.NULL_VALUE;
+        int wait = entry.getWaitTimeMinutes() != null ? entry.getWaitTimeMinutes() : FootfallColumns.NULL_VALUE;
+        int service = entry.getServiceTimeMinutes() != null ? entry.getServiceTimeMinutes() : FootfallColumns.NULL_VALUE;
+        int rating = entry.getSatisfactionRating() != null ? entry.getSatisfactionRating() : 0;
+        int minute = minuteOfDay(entry.getEntryTime());
+        
+        int row = findRow(entry.getEntryId(), day, mayHaveMoved);
+        if (row >= 0 && columns.day(row) != day) {
+            // The entry moved to another day, which would break the sorted region's order
+            columns.delete(row);
+            row = -1;
+        }
+        if (row >= 0) {
+            columns.set(row, day, minute, branch, customerType, purpose, wait, service, rating);
+            return;
+        }
+        boolean keepsOrder = sortedSize == columns.size()
+            && (sortedSize == 0 || columns.day(sortedSize - 1) <= day);
+        columns.append(entry.getEntryId(), day, minute, branch, customerType, purpose, wait, service, rating);
+        if (keepsOrder) {
+            sortedSize++;
+        }
+    }
+    
+    private void delete(CustomerEntry entry) {
+        if (entry.getEntryId() == null || entry.getEntryDate() == null) {
+            return;
+        }
+        int row = findRow(entry.getEntryId(), (int) entry.getEntryDate().toEpochDay(), true);
+        if (row >= 0) {
+            columns.delete(row);
+        }
+    }
+    
+    /**
+     * Row of a live entry: its day in the sorted region, then the tail. Only when the entry may
+     * have been moved from another day is the whole sorted region scanned.
+     */
+    private int findRow(long entryId, int day, boolean fullScan) {
+        int end = columns.lowerBound(sortedSize, day + 1);
+        for (int row = columns.lowerBound(sortedSize, day); row < end; row++) {
+            if (isLive(row, entryId)) {
+                return row;
+            }
+        }
+        int stop = fullScan ? 0 : sortedSize;
+        for (int row = columns.size() - 1; row >= stop; row--) {
+            if (isLive(row, entryId)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+    
+    private boolean isLive(int row, long entryId) {
+        return columns.entryId(row) == entryId && columns.branch(row) != FootfallColumns.DELETED;
+    }
+    
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+    
+    /** Ordinal of the customer type, or NULL_VALUE for none or an unknown one, counted into {@code unknown}. */
+    private static int customerTypeOrdinal(String customerType, Map<String, Integer> unknown) {
+        if (customerType == null) {
+            return FootfallColumns.NULL_VALUE;
+        }
+        try {
+            return CustomerEntry.CustomerType.valueOf(customerType).ordinal();
+        } catch (IllegalArgumentException e) {
+            unknown.merge(customerType, 1, Integer::sum);
+            return FootfallColumns.NULL_VALUE;
+        }
+    }
+    
+    private static int nullableInt(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? FootfallColumns.NULL_VALUE : value;
+    }
+    
+    private static boolean hasVisits(long[] visitors) {
+        for (long count : visitors) {
+            if (count > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package com.Bank.analytics.store;
+
+/**
+ * Additive per-day measures held by {@link DailyPrefixCube}. Each *_COUNT is the number of rows
+ * that had the value, so averages are SUM / COUNT over any range.
+ */
+public enum CubeMeasure {
+    VISITS,
+    WAIT_SUM,
+    WAIT_COUNT,
+    SERVICE_SUM,
+    SERVICE_COUNT,
+    RATING_SUM,
+    RATING_COUNT,
+    TRANSACTIONS,
+    COMPLETED_TRANSACTIONS,
+    REVENUE_CENTS,
+    PROCESSING_SUM,
+    PROCESSING_COUNT;
+    
+    static final int COUNT = values().length;
+}
@@ -0,0 +1,60 @@
+package com.Bank.analytics.store;
+
+import java.util.Collection;
+
+/**
+ * Sums of every {@link CubeMeasure}, and visitors per hour of the day, over one series and date range.
+ */
+public final class CubeTotals {
+    
+    private final long[] values;
+    
+    CubeTotals(long[] values) {
+        this.values = values;
+    }
+    
+    /**
+     * Totals assembled from another source: measure values in {@link CubeMeasure} order and 24 hourly buckets.
+     */
+    public static CubeTotals of(long[] measures, long[] visitsByHour) {
+        if (measures.length != CubeMeasure.COUNT || visitsByHour.length != 24) {
+            throw new IllegalArgumentException("Expected " + CubeMeasure.COUNT + " measures and 24 hours");
+        }
+        long[] values = new long[DailyPrefixCube.WIDTH];
+        System.arraycopy(measures, 0, values, 0, measures.length);
+        System.arraycopy(visitsByHour, 0, values, DailyPrefixCube.HOUR_OFFSET, visitsByHour.length);
+        return new CubeTotals(values);
+    }
+    
+    /** Element-wise sum, e.g. the branches of a region. */
+    public static CubeTotals sum(Collection<CubeTotals> parts) {
+        long[] values = new long[DailyPrefixCube.WIDTH];
+        for (CubeTotals part : parts) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] += part.values[i];
+            }
+        }
+        return new CubeTotals(values);
+    }
+    
+    public long get(CubeMeasure measure) {
+        return values[measure.ordinal()];
+    }
+    
+    /** Null when the count is zero. */
+    public Double average(CubeMeasure sum, CubeMeasure count) {
+        return values[count.ordinal()] > 0 ? (double) values[sum.ordinal()] / values[count.ordinal()] : null;
+    }
+    
+    public long[] visitsByHour() {
+        long[] hours = new long[24];
+        System.arraycopy(values, DailyPrefixCube.HOUR_OFFSET, hours, 0, hours.length);
+        return hours;
+    }
+    
+    public FootfallSummary footfall() {
+        return new FootfallSummary(get(CubeMeasure.VISITS), get(CubeMeasure.WAIT_SUM), get(CubeMeasure.WAIT_COUNT),
+            get(CubeMeasure.SERVICE_SUM), get(CubeMeasure.SERVICE_COUNT),
+            get(CubeMeasure.RATING_SUM), get(CubeMeasure.RATING_COUNT));
+    }
+}
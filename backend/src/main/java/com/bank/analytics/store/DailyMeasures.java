@@ -0,0 +1,26 @@
+package com.Bank.analytics.store;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * One branch/day worth of {@link DailyPrefixCube} values: {@link CubeMeasure} values indexed by
+ * ordinal, followed by visitors per hour of the day.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DailyMeasures {
+    
+    private final Long branchId;
+    private final LocalDate date;
+    private final long[] values;
+    
+    public static long[] empty() {
+        return new long[DailyPrefixCube.WIDTH];
+    }
+    
+    public static int hourSlot(int hour) {
+        return DailyPrefixCube.HOUR_OFFSET + hour;
+    }
+}
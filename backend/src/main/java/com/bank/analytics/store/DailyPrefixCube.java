@@ -0,0 +1,282 @@
+package com.Bank.analytics.store;
+
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-series cumulative sums of every {@link CubeMeasure}, plus visitors per hour of the day,
+ * at day granularity.
+ *
+ * Slot i of a series holds the totals of all days before origin + i, so any inclusive date range
+ * is {@code prefix[end + 1] - prefix[start]}: two lookups regardless of the span. There is one
+ * series per branch plus {@link #ALL_BRANCHES}. Adding a day's values touches every later slot,
+ * which is O(1) for today and O(days) for back-dated data.
+ *
+ * Branches also roll up into city and state series ({@link #setRegions}). Those are merged from
+ * the branch series when the cube loads or the regions change, and kept current by adding each
+ * branch delta to its regions as well, so a region costs the same two lookups as one branch.
+ */
+@Component
+public class DailyPrefixCube {
+    
+    public static final String ALL_BRANCHES = "all";
+    
+    /** Values per day: the scalar measures, then 24 hourly visitor buckets. */
+    static final int WIDTH = CubeMeasure.COUNT + 24;
+    static final int HOUR_OFFSET = CubeMeasure.COUNT;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private Map<String, Series> series = new HashMap<>();
+    // Guarded by lock: branch id -> the region series it rolls up into
+    private Map<Long, List<String>> regions = Map.of();
+    private volatile boolean ready;
+    
+    public static String branchSeries(Long branchId) {
+        return "branch:" + branchId;
+    }
+    
+    public static String stateSeries(String state) {
+        return "state:" + regionName(state);
+    }
+    
+    public static String citySeries(String state, String city) {
+        return "city:" + regionName(state) + "/" + regionName(city);
+    }
+    
+    /** Region names compare case-insensitively and ignore surrounding whitespace. */
+    public static String regionName(String name) {
+        return name != null ? name.trim().toUpperCase(Locale.ROOT) : "";
+    }
+    
+    public static String seriesFor(Long branchId) {
+        return branchId != null ? branchSeries(branchId) : ALL_BRANCHES;
+    }
+    
+    /** False until the first {@link #load}; callers fall back to the rollups until then. */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public CubeTotals totals(String seriesKey, LocalDate startDate, LocalDate endDate) {
+        long[] values = new long[WIDTH];
+        lock.readLock().lock();
+        try {
+            Series target = series.get(seriesKey);
+            if (target != null) {
+                target.rangeSum(startDate.toEpochDay(), endDate.toEpochDay(), values);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new CubeTotals(values);
+    }
+    
+    /**
+     * Replaces the whole cube with the given per-branch days.
+     */
+    public void load(List<DailyMeasures> days) {
+        Map<String, Series> loaded = new HashMap<>();
+        for (DailyMeasures day : days) {
+            for (String key : seriesOf(day.getBranchId())) {
+                loaded.computeIfAbsent(key, k -> new Series()).add(day.getDate().toEpochDay(), day.getValues());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            series = withRegions(loaded, regions);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Adds per-branch day deltas, e.g. the rows a rollup refresh has just absorbed.
+     */
+    public void add(List<DailyMeasures> deltas) {
+        lock.writeLock().lock();
+        try {
+            for (DailyMeasures delta : deltas) {
+                apply(delta.getBranchId(), delta.getDate().toEpochDay(), delta.getValues());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Sets each given branch-day to the sum of the entries for it, e.g. days a rollup refresh
+     * re-aggregated; a branch-day given only as {@link DailyMeasures#empty()} values is cleared.
+     */
+    public void replace(List<DailyMeasures> days) {
+        Map<Long, Map<Long, long[]>> totals = new HashMap<>();
+        for (DailyMeasures day : days) {
+            long[] total = totals.computeIfAbsent(day.getBranchId(), id -> new HashMap<>())
+                .computeIfAbsent(day.getDate().toEpochDay(), d -> new long[WIDTH]);
+            for (int m = 0; m < WIDTH; m++) {
+                total[m] += day.getValues()[m];
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            totals.forEach((branchId, byDay) -> byDay.forEach((epochDay, total) -> {
+                long[] current = new long[WIDTH];
+                Series branch = series.get(branchSeries(branchId));
+                if (branch != null) {
+                    branch.rangeSum(epochDay, epochDay, current);
+                }
+                for (int m = 0; m < WIDTH; m++) {
+                    current[m] = total[m] - current[m];
+                }
+                apply(branchId, epochDay, current);
+            }));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Sets the region series each branch rolls up into (e.g. its city and state series) and
+     * rebuilds every region series from the branch series.
+     */
+    public void setRegions(Map<Long, List<String>> regionsByBranch) {
+        Map<Long, List<String>> copy = new HashMap<>();
+        regionsByBranch.forEach((branchId, keys) -> copy.put(branchId, List.copyOf(keys)));
+        lock.writeLock().lock();
+        try {
+            regions = copy;
+            series = withRegions(series, copy);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** The branch and national series of the given map, plus region series merged from them. */
+    private static Map<String, Series> withRegions(Map<String, Series> source, Map<Long, List<String>> regions) {
+        Map<String, Series> merged = new HashMap<>();
+        source.forEach((key, value) -> {
+            if (key.equals(ALL_BRANCHES) || key.startsWith("branch:")) {
+                merged.put(key, value);
+            }
+        });
+        regions.forEach((branchId, keys) -> {
+            Series branch = merged.get(branchSeries(branchId));
+            if (branch != null) {
+                for (String key : keys) {
+                    merged.computeIfAbsent(key, k -> new Series()).addSeries(branch);
+                }
+            }
+        });
+        return merged;
+    }
+    
+    /** Adds one branch-day delta to the branch, national and region series; caller holds the write lock. */
+    private void apply(Long branchId, long epochDay, long[] values) {
+        List<String> keys = new ArrayList<>(seriesOf(branchId));
+        keys.addAll(regions.getOrDefault(branchId, List.of()));
+        for (String key : keys) {
+            series.computeIfAbsent(key, k -> new Series()).add(epochDay, values);
+        }
+    }
+    
+    private static List<String> seriesOf(Long branchId) {
+        return List.of(ALL_BRANCHES, branchSeries(branchId));
+    }
+    
+    /**
+     * Prefix sums for one series; slot i, measure m lives at prefix[i * WIDTH + m].
+     */
+    private static final class Series {
+        
+        private long originDay;
+        private int days;
+        private long[] prefix = new long[0];
+        
+        void rangeSum(long startDay, long endDay, long[] into) {
+            int from = slot(startDay);
+            int to = slot(endDay + 1);
+            if (to <= from) {
+                return;
+            }
+            for (int m = 0; m < WIDTH; m++) {
+                into[m] = prefix[to * WIDTH + m] - prefix[from * WIDTH + m];
+            }
+        }
+        
+        void add(long epochDay, long[] values) {
+            if (days == 0) {
+                originDay = epochDay;
+                ensureDays(1);
+            } else if (epochDay < originDay) {
+                prepend((int) (originDay - epochDay));
+            } else if (epochDay >= originDay + days) {
+                ensureDays((int) (epochDay - originDay) + 1);
+            }
+            for (int i = (int) (epochDay - originDay) + 1; i <= days; i++) {
+                int base = i * WIDTH;
+                for (int m = 0; m < WIDTH; m++) {
+                    prefix[base + m] += values[m];
+                }
+            }
+        }
+        
+        /** Adds another series day by day, extending this one to cover its range. */
+        void addSeries(Series other) {
+            if (other.days == 0) {
+                return;
+            }
+            if (days == 0) {
+                originDay = other.originDay;
+                ensureDays(other.days);
+            } else {
+                if (other.originDay < originDay) {
+                    prepend((int) (originDay - other.originDay));
+                }
+                if (other.originDay + other.days > originDay + days) {
+                    ensureDays((int) (other.originDay + other.days - originDay));
+                }
+            }
+            for (int i = 1; i <= days; i++) {
+                int from = other.slot(originDay + i) * WIDTH;
+                int base = i * WIDTH;
+                for (int m = 0; m < WIDTH; m++) {
+                    prefix[base + m] += other.prefix[from + m];
+                }
+            }
+        }
+        
+        private int slot(long epochDay) {
+            return (int) Math.max(0, Math.min(days, epochDay - originDay));
+        }
+        
+        /** Extends the series to {@code newDays}, carrying the running total into the new slots. */
+        private void ensureDays(int newDays) {
+            if ((newDays + 1) * WIDTH > prefix.length) {
+                long[] grown = new long[Math.max(newDays + 1, days * 2 + 1) * WIDTH];
+                System.arraycopy(prefix, 0, grown, 0, Math.min(prefix.length, (days + 1) * WIDTH));
+                prefix = grown;
+            }
+            for (int i = days + 1; i <= newDays; i++) {
+                System.arraycopy(prefix, days * WIDTH, prefix, i * WIDTH, WIDTH);
+            }
+            days = newDays;
+        }
+        
+        /** Moves the origin back by {@code shift} empty days. */
+        private void prepend(int shift) {
+            long[] grown = new long[Math.max(days + shift + 1, days * 2 + 1) * WIDTH];
+            System.arraycopy(prefix, 0, grown, shift * WIDTH, (days + 1) * WIDTH);
+            prefix = grown;
+            originDay -= shift;
+            days += shift;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.Bank.analytics.store;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable HDR-style histogram of durations in whole minutes.
+ *
+ * Values below 32 have a bucket each and are exact. Above that every power of two is split into
+ * 16 buckets, so a reported value is at most about 6% above the true one, up to {@link #MAX_MINUTES}
+ * (larger values are clamped). Merging adds bucket counts, so the histogram of a range is the sum of
+ * the histograms of its days. Not thread-safe.
+ */
+public final class DurationHistogram {
+    
+    static final int MAX_MINUTES = (1 << 20) - 1;
+    private static final int EXACT = 32;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_BITS = Integer.numberOfTrailingZeros(EXACT);
+    
+    // Grown to the highest bucket recorded
+    private long[] counts = new long[0];
+    private long total;
+    private int max = -1;
+    
+    public void record(int minutes, long count) {
+        if (count <= 0) {
+            return;
+        }
+        int value = Math.min(Math.max(minutes, 0), MAX_MINUTES);
+        int bucket = bucketOf(value);
+        if (bucket >= counts.length) {
+            counts = Arrays.copyOf(counts, bucket + 1);
+        }
+        counts[bucket] += count;
+        total += count;
+        max = Math.max(max, value);
+    }
+    
+    /** Adds every count of the other histogram to this one. */
+    public void add(DurationHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+    
+    public long count() {
+        return total;
+    }
+    
+    /** The largest value recorded, null when empty. */
+    public Integer max() {
+        return total > 0 ? max : null;
+    }
+    
+    /**
+     * The smallest value at or below which the given percentage (0-100) of the durations fall,
+     * reported as the highest value of its bucket and never above {@link #max()}; null when empty.
+     */
+    public Integer percentile(double percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (total == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percent / 100.0 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(bucket), max);
+            }
+        }
+        return max;
+    }
+    
+    static int bucketOf(int value) {
+        if (value < EXACT) {
+            return value;
+        }
+        int magnitude = 31 - Integer.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return EXACT + (magnitude - EXACT_BITS) * SUB_BUCKETS + ((value >>> shift) - SUB_BUCKETS);
+    }
+    
+    static int highestValueOf(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int magnitude = (bucket - EXACT) / SUB_BUCKETS + EXACT_BITS;
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int lowest = (SUB_BUCKETS + (bucket - EXACT) % SUB_BUCKETS) << shift;
+        return lowest + (1 << shift) - 1;
+    }
+}
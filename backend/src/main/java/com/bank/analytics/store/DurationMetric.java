@@ -0,0 +1,11 @@
+package com.Bank.analytics.store;
+
+/**
+ * Durations in minutes tracked by {@link DurationSketchStore}: wait and service times of customer
+ * entries (keyed by visit purpose) and processing times of transactions (keyed by service type).
+ */
+public enum DurationMetric {
+    WAIT,
+    SERVICE,
+    PROCESSING
+}
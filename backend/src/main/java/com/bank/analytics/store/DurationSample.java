@@ -0,0 +1,20 @@
+package com.Bank.analytics.store;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * {@code count} occurrences of one duration, in minutes, for a branch, day and service type.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DurationSample {
+    
+    private final Long branchId;
+    private final LocalDate date;
+    private final String serviceType;
+    private final DurationMetric metric;
+    private final int minutes;
+    private final long count;
+}
@@ -0,0 +1,168 @@
+package com.Bank.analytics.store;
+
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One {@link DurationHistogram} per {@link DurationMetric}, branch, day and service type.
+ *
+ * Each sample is also recorded into the day's sketches for the branch across service types, for
+ * the service type across branches and for everything, so percentiles over a range merge exactly
+ * one sketch per day whatever the filter.
+ */
+@Component
+public class DurationSketchStore {
+    
+    private static final String ANY = "*";
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock: epoch day -> sketch key -> one histogram per DurationMetric
+    private TreeMap<Long, Map<String, DurationHistogram[]>> days = new TreeMap<>();
+    private volatile boolean ready;
+    
+    /** False until the first {@link #load}; callers fall back to the source tables until then. */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Replaces every sketch with the given samples.
+     */
+    public void load(List<DurationSample> samples) {
+        TreeMap<Long, Map<String, DurationHistogram[]>> loaded = new TreeMap<>();
+        for (DurationSample sample : samples) {
+            record(loaded, sample);
+        }
+        lock.writeLock().lock();
+        try {
+            days = loaded;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Adds samples, e.g. the rows a rollup refresh has just absorbed.
+     */
+    public void add(List<DurationSample> samples) {
+        lock.writeLock().lock();
+        try {
+            for (DurationSample sample : samples) {
+                record(days, sample);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Replaces the sketches of the given branches on the given days with the given samples, which
+     * must all fall on those branch-days, and re-merges those days' across-branch sketches from
+     * the sketches of each branch.
+     */
+    public void replaceBranchDays(Map<LocalDate, Set<Long>> branchesByDate, List<DurationSample> samples) {
+        TreeMap<Long, Map<String, DurationHistogram[]>> replaced = new TreeMap<>();
+        for (DurationSample sample : samples) {
+            record(replaced, sample);
+        }
+        lock.writeLock().lock();
+        try {
+            branchesByDate.forEach((date, branchIds) -> {
+                Set<String> restated = new HashSet<>();
+                branchIds.forEach(branchId -> restated.add(branchId.toString()));
+                Map<String, DurationHistogram[]> day = new HashMap<>();
+                days.getOrDefault(date.toEpochDay(), Map.of()).forEach((key, sketches) -> {
+                    String branch = branchOf(key);
+                    if (!branch.equals(ANY) && !restated.contains(branch)) {
+                        day.put(key, sketches);
+                    }
+                });
+                replaced.getOrDefault(date.toEpochDay(), Map.of()).forEach((key, sketches) -> {
+                    if (!branchOf(key).equals(ANY)) {
+                        day.put(key, sketches);
+                    }
+                });
+                mergeAcrossBranches(day);
+                if (day.isEmpty()) {
+                    days.remove(date.toEpochDay());
+                } else {
+                    days.put(date.toEpochDay(), day);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * The merged histogram of the metric over an inclusive date range, for a branch and service
+     * type; null for either means all of them.
+     */
+    public DurationHistogram merged(DurationMetric metric, Long branchId, String serviceType,
+                                    LocalDate startDate, LocalDate endDate) {
+        String key = key(branchId != null ? branchId.toString() : ANY, serviceType != null ? serviceType : ANY);
+        DurationHistogram merged = new DurationHistogram();
+        lock.readLock().lock();
+        try {
+            for (Map<String, DurationHistogram[]> day : days.subMap(startDate.toEpochDay(), true, endDate.toEpochDay(), true).values()) {
+                DurationHistogram[] sketches = day.get(key);
+                if (sketches != null && sketches[metric.ordinal()] != null) {
+                    merged.add(sketches[metric.ordinal()]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return merged;
+    }
+    
+    private static void record(TreeMap<Long, Map<String, DurationHistogram[]>> days, DurationSample sample) {
+        Map<String, DurationHistogram[]> day = days.computeIfAbsent(sample.getDate().toEpochDay(), d -> new HashMap<>());
+        String branch = sample.getBranchId().toString();
+        for (String key : List.of(key(branch, sample.getServiceType()), key(branch, ANY),
+                key(ANY, sample.getServiceType()), key(ANY, ANY))) {
+            DurationHistogram[] sketches = day.computeIfAbsent(key, k -> new DurationHistogram[DurationMetric.values().length]);
+            if (sketches[sample.getMetric().ordinal()] == null) {
+                sketches[sample.getMetric().ordinal()] = new DurationHistogram();
+            }
+            sketches[sample.getMetric().ordinal()].record(sample.getMinutes(), sample.getCount());
+        }
+    }
+    
+    /** Adds the across-branch sketches of a day that holds only per-branch ones. */
+    private static void mergeAcrossBranches(Map<String, DurationHistogram[]> day) {
+        for (Map.Entry<String, DurationHistogram[]> branchSketches : List.copyOf(day.entrySet())) {
+            String key = branchSketches.getKey();
+            DurationHistogram[] merged = day.computeIfAbsent(ANY + key.substring(key.indexOf('|')),
+                k -> new DurationHistogram[DurationMetric.values().length]);
+            DurationHistogram[] sketches = branchSketches.getValue();
+            for (int metric = 0; metric < sketches.length; metric++) {
+                if (sketches[metric] != null) {
+                    if (merged[metric] == null) {
+                        merged[metric] = new DurationHistogram();
+                    }
+                    merged[metric].add(sketches[metric]);
+                }
+            }
+        }
+    }
+    
+    private static String branchOf(String key) {
+        return key.substring(0, key.indexOf('|'));
+    }
+    
+    /** Service types compare case-insensitively and ignore surrounding whitespace. */
+    private static String key(String branch, String serviceType) {
+        return branch + "|" + (serviceType.equals(ANY) ? ANY : serviceType.trim().toUpperCase(Locale.ROOT));
+    }
+}
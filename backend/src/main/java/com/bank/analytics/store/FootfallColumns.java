@@ -0,0 +1,184 @@
+package com.Bank.analytics.store;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Customer entries as parallel primitive columns in direct (off-heap) buffers, one slot per row.
+ *
+ * Nullable integers use -1 (wait, service, customer type, purpose) or 0 (rating) as the null
+ * marker. A deleted row keeps its slot with branch index {@link #DELETED}. Not thread-safe;
+ * {@link ColumnarFootfallStore} guards every access.
+ */
+final class FootfallColumns {
+    
+    static final short DELETED = -1;
+    static final int NULL_VALUE = -1;
+    
+    // Bytes per row: entry id, epoch day, minute of day, branch, customer type, purpose, wait, service, rating
+    private static final int[] WIDTHS = {8, 4, 2, 2, 1, 2, 2, 2, 1};
+    private static final int ENTRY_ID = 0, DAY = 1, MINUTE = 2, BRANCH = 3, TYPE = 4,
+                             PURPOSE = 5, WAIT = 6, SERVICE = 7, RATING = 8;
+    
+    private final ByteBuffer[] columns = new ByteBuffer[WIDTHS.length];
+    private int capacity;
+    private int size;
+    
+    FootfallColumns(int initialCapacity) {
+        capacity = Math.max(initialCapacity, 1024);
+        for (int c = 0; c < WIDTHS.length; c++) {
+            columns[c] = allocate(capacity * WIDTHS[c]);
+        }
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    long offHeapBytes() {
+        long bytes = 0;
+        for (ByteBuffer column : columns) {
+            bytes += column.capacity();
+        }
+        return bytes;
+    }
+    
+    int append(long entryId, int epochDay, int minuteOfDay, int branch, int customerType,
+               int purpose, int wait, int service, int rating) {
+        if (size == capacity) {
+            grow();
+        }
+        int row = size++;
+        columns[ENTRY_ID].putLong(row * 8, entryId);
+        set(row, epochDay, minuteOfDay, branch, customerType, purpose, wait, service, rating);
+        return row;
+    }
+    
+    void set(int row, int epochDay, int minuteOfDay, int branch, int customerType,
+             int purpose, int wait, int service, int rating) {
+        columns[DAY].putInt(row * 4, epochDay);
+        columns[MINUTE].putShort(row * 2, (short) minuteOfDay);
+        columns[BRANCH].putShort(row * 2, (short) branch);
+        columns[TYPE].put(row, (byte) customerType);
+        columns[PURPOSE].putShort(row * 2, (short) purpose);
+        columns[WAIT].putShort(row * 2, (short) wait);
+        columns[SERVICE].putShort(row * 2, (short) service);
+        columns[RATING].put(row, (byte) rating);
+    }
+    
+    void delete(int row) {
+        columns[BRANCH].putShort(row * 2, DELETED);
+    }
+    
+    long entryId(int row) {
+        return columns[ENTRY_ID].getLong(row * 8);
+    }
+    
+    int day(int row) {
+        return columns[DAY].getInt(row * 4);
+    }
+    
+    int minute(int row) {
+        return columns[MINUTE].getShort(row * 2);
+    }
+    
+    int branch(int row) {
+        return columns[BRANCH].getShort(row * 2);
+    }
+    
+    int customerType(int row) {
+        return columns[TYPE].get(row);
+    }
+    
+    int purpose(int row) {
+        return columns[PURPOSE].getShort(row * 2);
+    }
+    
+    int wait(int row) {
+        return columns[WAIT].getShort(row * 2);
+    }
+    
+    int service(int row) {
+        return columns[SERVICE].getShort(row * 2);
+    }
+    
+    int rating(int row) {
+        return columns[RATING].get(row);
+    }
+    
+    /**
+     * First row in [0, sortedSize) whose day is not before {@code epochDay}, assuming those rows
+     * are ordered by day.
+     */
+    int lowerBound(int sortedSize, int epochDay) {
+        int low = 0;
+        int high = sortedSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (day(mid) < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Stable counting sort by epoch day into a new, tightly sized set of columns. Live rows only.
+     */
+    FootfallColumns sortedByDay() {
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        int live = 0;
+        for (int row = 0; row < size; row++) {
+            if (branch(row) != DELETED) {
+                minDay = Math.min(minDay, day(row));
+                maxDay = Math.max(maxDay, day(row));
+                live++;
+            }
+        }
+        FootfallColumns sorted = new FootfallColumns(live);
+        if (live == 0) {
+            return sorted;
+        }
+        
+        int[] offsets = new int[maxDay - minDay + 2];
+        for (int row = 0; row < size; row++) {
+            if (branch(row) != DELETED) {
+                offsets[day(row) - minDay + 1]++;
+            }
+        }
+        for (int d = 1; d < offsets.length; d++) {
+            offsets[d] += offsets[d - 1];
+        }
+        for (int row = 0; row < size; row++) {
+            if (branch(row) != DELETED) {
+                sorted.copyRow(this, row, offsets[day(row) - minDay]++);
+            }
+        }
+        sorted.size = live;
+        return sorted;
+    }
+    
+    private void copyRow(FootfallColumns source, int sourceRow, int targetRow) {
+        for (int c = 0; c < WIDTHS.length; c++) {
+            int width = WIDTHS[c];
+            columns[c].put(targetRow * width, source.columns[c], sourceRow * width, width);
+        }
+    }
+    
+    private void grow() {
+        int newCapacity = capacity + (capacity >> 1);
+        for (int c = 0; c < WIDTHS.length; c++) {
+            ByteBuffer grown = allocate(newCapacity * WIDTHS[c]);
+            grown.put(0, columns[c], 0, size * WIDTHS[c]);
+            columns[c] = grown;
+        }
+        capacity = newCapacity;
+    }
+    
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,28 @@
+package com.Bank.analytics.store;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Footfall aggregates used by the analytics services. A null branchId means all branches;
+ * date ranges are inclusive on both ends.
+ */
+public interface FootfallStore {
+    
+    /** Visitors per date and branch; dates and branches without visitors are absent. */
+    Map<LocalDate, Map<Long, Long>> dailyVisitsByBranch(LocalDate startDate, LocalDate endDate);
+    
+    /** Visitors per hour of the day, always 24 buckets. */
+    long[] visitsByHour(Long branchId, LocalDate startDate, LocalDate endDate);
+    
+    /** Visitors per visit purpose, each with 24 hourly buckets. */
+    Map<String, long[]> visitsByPurposeAndHour(Long branchId, LocalDate startDate, LocalDate endDate);
+    
+    FootfallSummary summarize(Long branchId, LocalDate startDate, LocalDate endDate);
+    
+    /** {@link #summarize} for every branch at once; branches without visitors are absent. */
+    Map<Long, FootfallSummary> summarizeByBranch(LocalDate startDate, LocalDate endDate);
+    
+    /** {@link #visitsByHour} for every branch at once; branches without visitors are absent. */
+    Map<Long, long[]> visitsByBranchAndHour(LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,37 @@
+package com.Bank.analytics.store;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Additive footfall sums for a branch/range, with the averages derived from them.
+ */
+@Getter
+@AllArgsConstructor
+public class FootfallSummary {
+    
+    private final long visits;
+    private final long waitSum;
+    private final long waitCount;
+    private final long serviceSum;
+    private final long serviceCount;
+    private final long ratingSum;
+    private final long ratingCount;
+    
+    /** Null when no entry in the range recorded a wait time. */
+    public Double averageWaitTime() {
+        return average(waitSum, waitCount);
+    }
+    
+    public Double averageServiceTime() {
+        return average(serviceSum, serviceCount);
+    }
+    
+    public Double averageRating() {
+        return average(ratingSum, ratingCount);
+    }
+    
+    private static Double average(long sum, long count) {
+        return count > 0 ? (double) sum / count : null;
+    }
+}
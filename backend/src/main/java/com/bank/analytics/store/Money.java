@@ -0,0 +1,29 @@
+package com.Bank.analytics.store;
+
+import java.math.BigDecimal;
+
+/**
+ * Money as long minor units (cents). The queries convert summed amounts to cents in SQL (the
+ * transaction rollup keeps DECIMAL(18,2) amounts), the cube adds cents, and a decimal is only
+ * built for the response.
+ */
+public final class Money {
+    
+    private Money() {
+    }
+    
+    /** Cents from a nullable aggregate, 0 for null. */
+    public static long cents(Long cents) {
+        return cents != null ? cents : 0L;
+    }
+    
+    /** The cents as a two-decimal amount. */
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+    
+    /** The cents in currency units, for response fields typed Double; the nearest double to the exact amount. */
+    public static double toDouble(long cents) {
+        return cents / 100.0;
+    }
+}
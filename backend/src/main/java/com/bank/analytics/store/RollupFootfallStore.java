@@ -0,0 +1,82 @@
+package com.Bank.analytics.store;
+
+import com.Bank.analytics.repository.FootfallRollupRepository;
+import com.Bank.analytics.repository.projection.BranchFootfallTotals;
+import com.Bank.analytics.repository.projection.BranchHourlyVisits;
+import com.Bank.analytics.repository.projection.DailyBranchFootfall;
+import com.Bank.analytics.repository.projection.FootfallTotals;
+import com.Bank.analytics.repository.projection.HourlyVisits;
+import com.Bank.analytics.repository.projection.PurposeHourCount;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Default {@link FootfallStore}: grouped queries over footfall_hourly_rollup.
+ */
+@Component
+@RequiredArgsConstructor
+public class RollupFootfallStore implements FootfallStore {
+    
+    private static final int HOURS_PER_DAY = 24;
+    
+    private final FootfallRollupRepository footfallRollupRepository;
+    
+    @Override
+    public Map<LocalDate, Map<Long, Long>> dailyVisitsByBranch(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, Map<Long, Long>> visits = new HashMap<>();
+        for (DailyBranchFootfall row : footfallRollupRepository.sumDailyFootfallByBranch(startDate, endDate)) {
+            visits.computeIfAbsent(row.getEntryDate(), d -> new HashMap<>())
+                .put(row.getBranchId(), row.getVisitors());
+        }
+        return visits;
+    }
+    
+    @Override
+    public long[] visitsByHour(Long branchId, LocalDate startDate, LocalDate endDate) {
+        long[] visitors = new long[HOURS_PER_DAY];
+        for (HourlyVisits row : footfallRollupRepository.sumVisitsByHour(branchId, startDate, endDate)) {
+            visitors[row.getHour()] = row.getVisitors();
+        }
+        return visitors;
+    }
+    
+    @Override
+    public Map<String, long[]> visitsByPurposeAndHour(Long branchId, LocalDate startDate, LocalDate endDate) {
+        Map<String, long[]> visits = new HashMap<>();
+        for (PurposeHourCount row : footfallRollupRepository.sumVisitsByPurposeAndHour(branchId, startDate, endDate)) {
+            visits.computeIfAbsent(row.getVisitPurpose(), p -> new long[HOURS_PER_DAY])[row.getHour()] += row.getVisitors();
+        }
+        return visits;
+    }
+    
+    @Override
+    public FootfallSummary summarize(Long branchId, LocalDate startDate, LocalDate endDate) {
+        return toSummary(footfallRollupRepository.sumFootfallTotals(branchId, startDate, endDate));
+    }
+    
+    @Override
+    public Map<Long, FootfallSummary> summarizeByBranch(LocalDate startDate, LocalDate endDate) {
+        Map<Long, FootfallSummary> summaries = new HashMap<>();
+        for (BranchFootfallTotals row : footfallRollupRepository.sumFootfallTotalsByBranch(startDate, endDate)) {
+            summaries.put(row.getBranchId(), toSummary(row));
+        }
+        return summaries;
+    }
+    
+    @Override
+    public Map<Long, long[]> visitsByBranchAndHour(LocalDate startDate, LocalDate endDate) {
+        Map<Long, long[]> visits = new HashMap<>();
+        for (BranchHourlyVisits row : footfallRollupRepository.sumVisitsByBranchAndHour(startDate, endDate)) {
+            visits.computeIfAbsent(row.getBranchId(), b -> new long[HOURS_PER_DAY])[row.getHour()] += row.getVisitors();
+        }
+        return visits;
+    }
+    
+    private static FootfallSummary toSummary(FootfallTotals totals) {
+        return new FootfallSummary(totals.getVisits(), totals.getWaitSum(), totals.getWaitCount(),
+            totals.getServiceSum(), totals.getServiceCount(), totals.getRatingSum(), totals.getRatingCount());
+    }
+}
@@ -0,0 +1,102 @@
+package com.Bank.analytics.controller;
+
+import com.Bank.analytics.dto.DashboardWidget;
+import com.Bank.analytics.service.AnalyticsService;
+import com.Bank.analytics.service.DataVersionService;
+import com.Bank.analytics.service.DurationPercentileService;
+import com.Bank.analytics.service.ForecastBacktestService;
+import com.Bank.analytics.service.RegionalAnalyticsService;
+import com.Bank.analytics.service.TimeSeriesService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AnalyticsController.class)
+class AnalyticsControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private AnalyticsService analyticsService;
+    
+    @MockBean
+    private RegionalAnalyticsService regionalAnalyticsService;
+    
+    @MockBean
+    private ForecastBacktestService forecastBacktestService;
+    
+    @MockBean
+    private TimeSeriesService timeSeriesService;
+    
+    @MockBean
+    private DurationPercentileService durationPercentileService;
+    
+    @MockBean
+    private DataVersionService dataVersionService;
+    
+    @Test
+    void bundleParsesTheRequestedWidgets() throws Exception {
+        when(analyticsService.getDashboardBundle(eq(1L), eq(LocalDate.of(2024, 3, 1)), eq(LocalDate.of(2024, 3, 7)),
+            eq(EnumSet.of(DashboardWidget.METRICS, DashboardWidget.PEAK_HOURS))))
+            .thenReturn(Map.of("branchId", 1L));
+        
+        mockMvc.perform(get("/analytics/dashboard-bundle")
+                .param("branchId", "1")
+                .param("startDate", "2024-03-01")
+                .param("endDate", "2024-03-07")
+                .param("widgets", "metrics,peakHours"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.branchId").value(1));
+    }
+    
+    @Test
+    void historicalRangesStillRevalidate() throws Exception {
+        when(analyticsService.getDashboardBundle(any(), any(), any(), any())).thenReturn(Map.of("branchId", 1L));
+        
+        mockMvc.perform(get("/analytics/dashboard-bundle")
+                .param("branchId", "1")
+                .param("startDate", "2024-03-01")
+                .param("endDate", "2024-03-07"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "no-cache, private"))
+            .andExpect(header().exists("ETag"));
+    }
+    
+    @Test
+    void unknownWidgetIsABadRequest() throws Exception {
+        mockMvc.perform(get("/analytics/dashboard-bundle")
+                .param("startDate", "2024-03-01")
+                .param("endDate", "2024-03-07")
+                .param("widgets", "metrics,nope"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Unknown dashboard widget 'nope'"));
+        verifyNoInteractions(analyticsService);
+    }
+    
+    @Test
+    void internalArgumentErrorsAreNotReturnedToTheCaller() throws Exception {
+        when(analyticsService.getDashboardBundle(any(), any(), any(), any()))
+            .thenThrow(new IllegalArgumentException("Histogram needs exactly 24 buckets"));
+        
+        mockMvc.perform(get("/analytics/dashboard-bundle")
+                .param("startDate", "2024-03-01")
+                .param("endDate", "2024-03-07"))
+            .andExpect(status().isInternalServerError())
+            .andExpect(jsonPath("$.message").value("An unexpected error occurred"));
+    }
+}
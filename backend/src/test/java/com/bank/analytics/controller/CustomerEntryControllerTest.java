@@ -0,0 +1,72 @@
+package com.Bank.analytics.controller;
+
+import com.Bank.analytics.repository.CustomerEntryRepository;
+import com.Bank.analytics.service.DataVersionService;
+import com.Bank.analytics.service.KeysetPageService;
+import com.Bank.analytics.service.RowStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CustomerEntryController.class)
+class CustomerEntryControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private CustomerEntryRepository customerEntryRepository;
+    
+    @MockBean
+    private RowStreamService rowStreamService;
+    
+    @MockBean
+    private KeysetPageService keysetPageService;
+    
+    @MockBean
+    private DataVersionService dataVersionService;
+    
+    @Test
+    void streamsWhileASlotIsFreeAndReleasesIt() throws Exception {
+        RowStreamService slots = new RowStreamService(null, null, 1, 10);
+        when(rowStreamService.tryReserveStream()).thenReturn(slots.tryReserveStream());
+        
+        MvcResult result = mockMvc.perform(get("/entries/date-range")
+                .param("startDate", "2024-03-01")
+                .param("endDate", "2024-03-07"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        
+        verify(rowStreamService).writeEntriesJson(eq(null), eq(LocalDate.of(2024, 3, 1)), eq(LocalDate.of(2024, 3, 7)), any(OutputStream.class));
+        assertNotNull(slots.tryReserveStream());
+    }
+    
+    @Test
+    void turnsStreamsAwayWhenEverySlotIsTaken() throws Exception {
+        when(rowStreamService.tryReserveStream()).thenReturn(null);
+        
+        mockMvc.perform(get("/entries/branch/1/date-range")
+                .param("startDate", "2024-03-01")
+                .param("endDate", "2024-03-07"))
+            .andExpect(status().isServiceUnavailable());
+        
+        verify(rowStreamService, never()).writeEntriesJson(any(), any(), any(), any());
+    }
+}
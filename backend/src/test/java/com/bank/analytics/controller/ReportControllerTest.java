@@ -0,0 +1,84 @@
+package com.Bank.analytics.controller;
+
+import com.Bank.analytics.service.DataVersionService;
+import com.Bank.analytics.service.ReportExportService;
+import com.Bank.analytics.service.ReportSchedulerService;
+import com.Bank.analytics.service.RowStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ReportController.class, properties = "spring.mvc.async.request-timeout=1000")
+class ReportControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private ReportExportService reportExportService;
+    
+    @MockBean
+    private RowStreamService rowStreamService;
+    
+    @MockBean
+    private ReportSchedulerService reportSchedulerService;
+    
+    @MockBean
+    private DataVersionService dataVersionService;
+    
+    @Test
+    void exportRunsWithoutTheContainerAsyncTimeout() throws Exception {
+        RowStreamService.StreamSlot slot = mock(RowStreamService.StreamSlot.class);
+        when(rowStreamService.tryReserveStream()).thenReturn(slot);
+        when(reportExportService.fileName(any(), any(), any(), any(), anyBoolean())).thenReturn("entries.csv");
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(7).write("entry_id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reportExportService).export(any(), any(), anyList(), any(), any(), isNull(), eq(false), any());
+        
+        MvcResult result = mockMvc.perform(get("/reports/export")
+                .param("dataset", "entries").param("startDate", "2025-01-01").param("endDate", "2025-01-31").param("gzip", "false"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertEquals(0L, result.getRequest().getAsyncContext().getTimeout());
+        result.getAsyncResult(5000);
+        
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string("entry_id\n1\n"));
+        verify(slot).close();
+    }
+    
+    @Test
+    void exportIsRefusedWhenEveryStreamSlotIsTaken() throws Exception {
+        when(rowStreamService.tryReserveStream()).thenReturn(null);
+        
+        mockMvc.perform(get("/reports/export")
+                .param("dataset", "entries").param("startDate", "2025-01-01").param("endDate", "2025-01-31"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(request().asyncNotStarted());
+        verify(reportExportService, never()).export(any(), any(), anyList(), any(), any(), any(), anyBoolean(), any());
+    }
+}
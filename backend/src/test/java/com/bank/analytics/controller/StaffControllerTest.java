@@ -0,0 +1,62 @@
+package com.Bank.analytics.controller;
+
+import com.Bank.analytics.dto.KeysetPage;
+import com.Bank.analytics.entity.Staff;
+import com.Bank.analytics.repository.StaffRepository;
+import com.Bank.analytics.service.DataVersionService;
+import com.Bank.analytics.service.KeysetPageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(StaffController.class)
+class StaffControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private StaffRepository staffRepository;
+    
+    @MockBean
+    private KeysetPageService keysetPageService;
+    
+    @MockBean
+    private DataVersionService dataVersionService;
+    
+    @Test
+    void listsEveryoneWhenAskedForAll() throws Exception {
+        when(keysetPageService.staff(null, null, true)).thenReturn(new KeysetPage<>(List.of(staff(1L), staff(2L), staff(3L)), null));
+        
+        mockMvc.perform(get("/staff").param("all", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(header().doesNotExist(KeysetPage.NEXT_PAGE_TOKEN_HEADER));
+    }
+    
+    @Test
+    void pagesCarryTheNextTokenInAHeader() throws Exception {
+        when(keysetPageService.staff("abc", 1, false)).thenReturn(new KeysetPage<>(List.of(staff(4L)), "def"));
+        
+        mockMvc.perform(get("/staff").param("pageToken", "abc").param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].staffId").value(4))
+            .andExpect(header().string(KeysetPage.NEXT_PAGE_TOKEN_HEADER, "def"));
+    }
+    
+    private static Staff staff(Long id) {
+        Staff staff = new Staff();
+        staff.setStaffId(id);
+        return staff;
+    }
+}
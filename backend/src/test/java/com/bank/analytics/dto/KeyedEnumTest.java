@@ -0,0 +1,28 @@
+package com.Bank.analytics.dto;
+
+import com.Bank.analytics.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeyedEnumTest {
+    
+    @Test
+    void matchesKeyOrNameIgnoringCaseAndBlanks() {
+        assertEquals(ExportDataset.DAILY_SUMMARY, ExportDataset.fromKey("daily-summary"));
+        assertEquals(ExportDataset.DAILY_SUMMARY, ExportDataset.fromKey(" Daily_Summary "));
+        assertEquals(TimeBucket.MINUTE_15, TimeBucket.fromKey("15M"));
+        assertEquals(DashboardWidget.PEAK_HOURS, DashboardWidget.fromKey("peakhours"));
+        assertEquals(ExportFormat.TSV, ExportFormat.fromKey("tsv"));
+    }
+    
+    @Test
+    void unknownOrMissingKeysAreInvalidRequests() {
+        assertEquals("Unknown export format 'xml'",
+            assertThrows(InvalidRequestException.class, () -> ExportFormat.fromKey(" xml ")).getMessage());
+        assertEquals("Missing report range",
+            assertThrows(InvalidRequestException.class, () -> ReportRange.fromKey(null)).getMessage());
+        assertThrows(InvalidRequestException.class, () -> TimeSeriesMetric.fromKey(""));
+    }
+}
@@ -0,0 +1,50 @@
+package com.Bank.analytics.dto;
+
+import com.Bank.analytics.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetTokenTest {
+    
+    @Test
+    void roundTripsThroughAUrlSafeToken() {
+        KeysetToken token = new KeysetToken(LocalDate.of(2024, 12, 31), 9_007_199_254_740_993L);
+        
+        String encoded = token.encode();
+        
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+        assertEquals(token, KeysetToken.decode(encoded));
+        assertEquals(token, KeysetToken.decode(" " + encoded + " "));
+    }
+    
+    @Test
+    void missingTokenMeansTheFirstPage() {
+        assertNull(KeysetToken.decode(null));
+        assertNull(KeysetToken.decode("  "));
+    }
+    
+    @Test
+    void rejectsTamperedTokens() {
+        assertInvalid("!!not-base64");
+        assertInvalid(encode("2024-03-01"));
+        assertInvalid(encode("2024-13-01:5"));
+        assertInvalid(encode("2024-03-01:five"));
+        assertInvalid(encode(":5"));
+    }
+    
+    private static void assertInvalid(String token) {
+        InvalidRequestException e = assertThrows(InvalidRequestException.class, () -> KeysetToken.decode(token));
+        assertEquals("Invalid pageToken", e.getMessage());
+    }
+    
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
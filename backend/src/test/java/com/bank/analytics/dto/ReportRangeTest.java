@@ -0,0 +1,49 @@
+package com.Bank.analytics.dto;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportRangeTest {
+    
+    // A Wednesday
+    private static final LocalDate RUN_DATE = LocalDate.of(2024, 3, 13);
+    
+    @Test
+    void rollingRangesEndYesterday() {
+        assertRange(ReportRange.YESTERDAY, "2024-03-12", "2024-03-12");
+        assertRange(ReportRange.LAST_7_DAYS, "2024-03-06", "2024-03-12");
+        assertRange(ReportRange.LAST_30_DAYS, "2024-02-12", "2024-03-12");
+    }
+    
+    @Test
+    void previousWeekRunsMondayToSunday() {
+        assertRange(ReportRange.PREVIOUS_WEEK, "2024-03-04", "2024-03-10");
+        // Run on a Monday: the week that just ended
+        assertEquals(LocalDate.parse("2024-03-04"), ReportRange.PREVIOUS_WEEK.startDate(LocalDate.parse("2024-03-11")));
+        assertEquals(LocalDate.parse("2024-03-10"), ReportRange.PREVIOUS_WEEK.endDate(LocalDate.parse("2024-03-11")));
+    }
+    
+    @Test
+    void previousMonthCoversTheWholeCalendarMonth() {
+        assertRange(ReportRange.PREVIOUS_MONTH, "2024-02-01", "2024-02-29");
+        LocalDate newYear = LocalDate.parse("2024-01-01");
+        assertEquals(LocalDate.parse("2023-12-01"), ReportRange.PREVIOUS_MONTH.startDate(newYear));
+        assertEquals(LocalDate.parse("2023-12-31"), ReportRange.PREVIOUS_MONTH.endDate(newYear));
+    }
+    
+    @Test
+    void monthToDateOnTheFirstCoversThePreviousMonth() {
+        assertRange(ReportRange.MONTH_TO_DATE, "2024-03-01", "2024-03-12");
+        // Nothing of the new month is closed yet
+        LocalDate first = LocalDate.parse("2024-03-01");
+        assertEquals(LocalDate.parse("2024-02-01"), ReportRange.MONTH_TO_DATE.startDate(first));
+        assertEquals(LocalDate.parse("2024-02-29"), ReportRange.MONTH_TO_DATE.endDate(first));
+    }
+    
+    private static void assertRange(ReportRange range, String start, String end) {
+        assertEquals(LocalDate.parse(start), range.startDate(RUN_DATE), range + " start");
+        assertEquals(LocalDate.parse(end), range.endDate(RUN_DATE), range + " end");
+    }
+}
@@ -0,0 +1,42 @@
+package com.Bank.analytics.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GlobalExceptionHandlerTest {
+    
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    
+    @Test
+    void onlyTimeoutsAreServiceUnavailable() {
+        ResponseEntity<ErrorResponse> response = handler.handleParallelQuery(
+            new ParallelQueryException("Parallel query 'trends' failed", new TimeoutException("Subtask 'trends' timed out")));
+        
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("Parallel query 'trends' failed", response.getBody().getMessage());
+    }
+    
+    @Test
+    void requestErrorsInsideATaskKeepTheirStatus() {
+        ResponseEntity<ErrorResponse> invalid = handler.handleParallelQuery(
+            new ParallelQueryException("Parallel query 'trends' failed", new InvalidRequestException("Unknown metric 'x'")));
+        ResponseEntity<ErrorResponse> missing = handler.handleParallelQuery(
+            new ParallelQueryException("Parallel query 'branch' failed", new ResourceNotFoundException("Branch", 7L)));
+        
+        assertEquals(400, invalid.getStatusCode().value());
+        assertEquals("Unknown metric 'x'", invalid.getBody().getMessage());
+        assertEquals(404, missing.getStatusCode().value());
+    }
+    
+    @Test
+    void otherFailuresAreInternalErrors() {
+        ResponseEntity<ErrorResponse> response = handler.handleParallelQuery(
+            new ParallelQueryException("Parallel query 'trends' failed", new NullPointerException()));
+        
+        assertEquals(500, response.getStatusCode().value());
+        assertEquals("An unexpected error occurred", response.getBody().getMessage());
+    }
+}
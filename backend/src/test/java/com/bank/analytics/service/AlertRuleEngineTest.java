@@ -0,0 +1,174 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.config.AlertProperties;
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.ChangeType;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.DataKind;
+import com.Bank.analytics.repository.BranchRepository;
+import com.Bank.analytics.repository.CustomerEntryRepository;
+import com.Bank.analytics.repository.projection.HourlyBranchWait;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AlertRuleEngineTest {
+    
+    private final AlertProperties alertProperties = new AlertProperties();
+    private final BranchRepository branchRepository = mock(BranchRepository.class);
+    private final CustomerEntryRepository customerEntryRepository = mock(CustomerEntryRepository.class);
+    private final HourlyHistogramService hourlyHistogramService = mock(HourlyHistogramService.class);
+    private final BusinessCalendarService businessCalendarService = mock(BusinessCalendarService.class);
+    private final OccupancyTracker occupancyTracker = mock(OccupancyTracker.class);
+    private final AlertRuleEngine engine = new AlertRuleEngine(alertProperties, branchRepository, customerEntryRepository,
+        hourlyHistogramService, businessCalendarService, occupancyTracker);
+    private int hour;
+    
+    @BeforeEach
+    void setUp() {
+        LocalTime now = LocalTime.now();
+        // The rules read the clock themselves, so stay clear of an hour boundary
+        assumeTrue(now.getMinute() < 59);
+        hour = now.getHour();
+        
+        when(branchRepository.findAll()).thenReturn(List.of(branch(1L, "Main"), branch(2L, "Strict")));
+        // 40 visitors at this hour over 20 working days: usually 2 per day
+        long[] usual = new long[HourlyHistogram.HOURS_PER_DAY];
+        usual[hour] = 40;
+        when(hourlyHistogramService.getHistogram(anyLong(), any(), any())).thenReturn(new HourlyHistogram(usual));
+        when(businessCalendarService.workingDays(any(), any())).thenReturn(20L);
+        when(businessCalendarService.capacity(anyLong())).thenReturn(10);
+        
+        // Branch 2 tolerates longer waits
+        AlertProperties.Thresholds strict = new AlertProperties.Thresholds();
+        strict.setWaitSlaMinutes(30);
+        alertProperties.setBranches(Map.of(2L, strict));
+    }
+    
+    @Test
+    void thresholdsApplyPerBranch() {
+        when(occupancyTracker.occupancy(1L)).thenReturn(9);
+        when(occupancyTracker.occupancy(2L)).thenReturn(10);
+        when(customerEntryRepository.sumVisitsAndWaitByBranchAndHour(LocalDate.now()))
+            .thenReturn(List.of(hourRow(1L, 9, 20), hourRow(2L, 9, 20)));
+        
+        engine.rebuild();
+        
+        Map<String, Object> alerts = alertTypes();
+        assertEquals("warning", alerts.get("1-OCCUPANCY"));
+        assertEquals("warning", alerts.get("1-WAIT_SLA"));
+        assertEquals("critical", alerts.get("2-OCCUPANCY"));
+        // 20 minutes is inside branch 2's 30 minute SLA, and 9 visitors is below the spike minimum
+        assertEquals(3, alerts.size());
+        
+        engine.onDataChanged(entryCreated(1L, 20));
+        assertEquals("warning", alertTypes().get("1-FOOTFALL_SPIKE"));
+    }
+    
+    @Test
+    void quietBranchesReportNormalOperation() {
+        when(customerEntryRepository.sumVisitsAndWaitByBranchAndHour(LocalDate.now())).thenReturn(List.of());
+        
+        engine.rebuild();
+        
+        assertEquals(List.of(AlertRuleEngine.normalAlert()), engine.currentAlerts());
+        assertFalse(engine.currentAlerts().isEmpty());
+    }
+    
+    @Test
+    void deletedEntriesAreCountedOut() {
+        when(customerEntryRepository.sumVisitsAndWaitByBranchAndHour(LocalDate.now())).thenReturn(List.of(hourRow(1L, 9, 1)));
+        engine.rebuild();
+        
+        // A regeneration: today's nine entries deleted and nine created again
+        for (int i = 0; i < 9; i++) {
+            engine.onDataChanged(entryEvent(ChangeType.DELETED, 1L, 1));
+        }
+        for (int i = 0; i < 9; i++) {
+            engine.onDataChanged(entryEvent(ChangeType.CREATED, 1L, 1));
+        }
+        assertFalse(alertTypes().containsKey("1-FOOTFALL_SPIKE"));
+        
+        engine.onDataChanged(entryCreated(1L, 1));
+        assertEquals("warning", alertTypes().get("1-FOOTFALL_SPIKE"));
+    }
+    
+    @Test
+    void updatesReReadTodaysCounters() {
+        when(customerEntryRepository.sumVisitsAndWaitByBranchAndHour(LocalDate.now()))
+            .thenReturn(List.of(hourRow(1L, 9, 20)), List.of(hourRow(1L, 9, 1)));
+        engine.rebuild();
+        assertEquals("warning", alertTypes().get("1-WAIT_SLA"));
+        
+        engine.onDataChanged(entryEvent(ChangeType.UPDATED, 1L, 1));
+        
+        assertFalse(alertTypes().containsKey("1-WAIT_SLA"));
+    }
+    
+    @Test
+    void writesWaitForARunningRebuild() throws InterruptedException {
+        Thread[] writer = new Thread[1];
+        when(customerEntryRepository.sumVisitsAndWaitByBranchAndHour(LocalDate.now())).thenAnswer(invocation -> {
+            writer[0] = Thread.ofPlatform().start(() -> engine.onDataChanged(entryCreated(1L, 1)));
+            for (int i = 0; i < 200 && writer[0].getState() != Thread.State.BLOCKED; i++) {
+                Thread.sleep(5);
+            }
+            assertEquals(Thread.State.BLOCKED, writer[0].getState());
+            // Nine visits so far; the tenth is the write still waiting
+            return List.of(hourRow(1L, 9, 1));
+        });
+        
+        engine.rebuild();
+        writer[0].join(2000);
+        
+        assertEquals("warning", alertTypes().get("1-FOOTFALL_SPIKE"));
+    }
+    
+    private Map<String, Object> alertTypes() {
+        return engine.activeAlerts().stream().collect(Collectors.toMap(alert -> (String) alert.get("id"), alert -> alert.get("type")));
+    }
+    
+    private AnalyticsDataChangedEvent entryCreated(Long branchId, int waitMinutes) {
+        return entryEvent(ChangeType.CREATED, branchId, waitMinutes);
+    }
+    
+    private AnalyticsDataChangedEvent entryEvent(ChangeType change, Long branchId, int waitMinutes) {
+        CustomerEntry entry = new CustomerEntry();
+        entry.setEntryId(100L);
+        entry.setEntryDate(LocalDate.now());
+        entry.setEntryTime(LocalTime.of(hour, 0));
+        entry.setWaitTimeMinutes(waitMinutes);
+        return new AnalyticsDataChangedEvent(DataKind.CUSTOMER_ENTRY, change, branchId, entry);
+    }
+    
+    private HourlyBranchWait hourRow(Long branchId, long visitors, long waitMinutes) {
+        return new HourlyBranchWait() {
+            public Long getBranchId() { return branchId; }
+            public Integer getHour() { return hour; }
+            public Long getVisitors() { return visitors; }
+            public Long getWaitSum() { return visitors * waitMinutes; }
+            public Long getWaitCount() { return visitors; }
+        };
+    }
+    
+    private static Branch branch(Long id, String name) {
+        Branch branch = new Branch();
+        branch.setBranchId(id);
+        branch.setBranchName(name);
+        branch.setStatus(Branch.BranchStatus.ACTIVE);
+        return branch;
+    }
+}
@@ -0,0 +1,120 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.dto.DashboardWidget;
+import com.Bank.analytics.dto.FootfallTrendDTO;
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.exception.InvalidRequestException;
+import com.Bank.analytics.repository.BranchRepository;
+import com.Bank.analytics.store.CubeMeasure;
+import com.Bank.analytics.store.CubeTotals;
+import com.Bank.analytics.store.FootfallStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServiceTest {
+    
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+    
+    @Mock
+    private FootfallStore footfallStore;
+    
+    @Mock
+    private BranchRepository branchRepository;
+    
+    @Mock
+    private RangeTotalsService rangeTotalsService;
+    
+    @Spy
+    private ParallelQueryExecutor parallelQueryExecutor = new ParallelQueryExecutor(0, 10, 5000);
+    
+    @InjectMocks
+    private AnalyticsService analyticsService;
+    
+    @AfterEach
+    void tearDown() {
+        parallelQueryExecutor.destroy();
+    }
+    
+    @Test
+    void footfallTrendsFillEveryDayAndKnownBranchFromOneGroupedQuery() {
+        when(branchRepository.findAll()).thenReturn(List.of(branch(2L), branch(1L)));
+        when(footfallStore.dailyVisitsByBranch(START, START.plusDays(2))).thenReturn(Map.of(
+            START, Map.of(1L, 5L, 2L, 3L),
+            START.plusDays(2), Map.of(2L, 4L, 7L, 1L)));
+        
+        List<FootfallTrendDTO> trends = analyticsService.getFootfallTrends(START, START.plusDays(2));
+        
+        assertEquals(3, trends.size());
+        assertEquals(Map.of(1L, 5L, 2L, 3L), trends.get(0).getBranchFootfall());
+        assertEquals(8L, trends.get(0).getTotal());
+        assertEquals(Map.of(1L, 0L, 2L, 0L), trends.get(1).getBranchFootfall());
+        assertEquals(0L, trends.get(1).getTotal());
+        // A branch missing from the branch table still shows up with its visits
+        assertEquals(Map.of(1L, 0L, 2L, 4L, 7L, 1L), trends.get(2).getBranchFootfall());
+        assertEquals(4L, trends.get(2).getTnagar());
+        assertEquals(5L, trends.get(2).getTotal());
+        verify(footfallStore).dailyVisitsByBranch(START, START.plusDays(2));
+    }
+    
+    @Test
+    void dashboardBundleRejectsAReversedRange() {
+        assertThrows(InvalidRequestException.class, () -> analyticsService.getDashboardBundle(
+            1L, START, START.minusDays(1), EnumSet.allOf(DashboardWidget.class)));
+    }
+    
+    @Test
+    void satisfactionChangeComparesWithThePreviousPeriod() {
+        LocalDate end = START.plusDays(6);
+        when(rangeTotalsService.totals(1L, START, end)).thenReturn(ratings(90, 20));
+        when(rangeTotalsService.totals(1L, START.minusDays(6), START.minusDays(1))).thenReturn(ratings(80, 20));
+        
+        Map<String, Object> bundle = analyticsService.getDashboardBundle(
+            1L, START, end, EnumSet.of(DashboardWidget.CUSTOMER_SATISFACTION));
+        
+        @SuppressWarnings("unchecked")
+        Map<String, Object> satisfaction = (Map<String, Object>) bundle.get(DashboardWidget.CUSTOMER_SATISFACTION.getKey());
+        assertEquals(4.5, satisfaction.get("score"));
+        assertEquals(0.5, satisfaction.get("change"));
+        assertEquals(20, satisfaction.get("reviewCount"));
+    }
+    
+    @Test
+    void satisfactionChangeIsZeroWithoutPreviousRatings() {
+        LocalDate end = START.plusDays(6);
+        when(rangeTotalsService.totals(1L, START, end)).thenReturn(ratings(90, 20));
+        when(rangeTotalsService.totals(1L, START.minusDays(6), START.minusDays(1))).thenReturn(ratings(0, 0));
+        
+        @SuppressWarnings("unchecked")
+        Map<String, Object> satisfaction = (Map<String, Object>) analyticsService.calculateCustomerSatisfaction(1L, START, end);
+        
+        assertEquals(0.0, satisfaction.get("change"));
+    }
+    
+    private static CubeTotals ratings(long sum, long count) {
+        long[] measures = new long[CubeMeasure.values().length];
+        measures[CubeMeasure.RATING_SUM.ordinal()] = sum;
+        measures[CubeMeasure.RATING_COUNT.ordinal()] = count;
+        return CubeTotals.of(measures, new long[24]);
+    }
+    
+    private static Branch branch(Long id) {
+        Branch branch = new Branch();
+        branch.setBranchId(id);
+        return branch;
+    }
+}
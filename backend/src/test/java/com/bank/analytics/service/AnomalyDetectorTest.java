@@ -0,0 +1,145 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.ChangeType;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.DataKind;
+import com.Bank.analytics.repository.BranchRepository;
+import com.Bank.analytics.repository.CustomerEntryRepository;
+import com.Bank.analytics.repository.FootfallRollupRepository;
+import com.Bank.analytics.repository.projection.DailyBranchHourVisits;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AnomalyDetectorTest {
+    
+    private final BranchRepository branchRepository = mock(BranchRepository.class);
+    private final FootfallRollupRepository footfallRollupRepository = mock(FootfallRollupRepository.class);
+    private final CustomerEntryRepository customerEntryRepository = mock(CustomerEntryRepository.class);
+    private final BusinessCalendarService businessCalendarService = mock(BusinessCalendarService.class);
+    private final AnomalyDetector detector = new AnomalyDetector(branchRepository, footfallRollupRepository,
+        customerEntryRepository, businessCalendarService);
+    private LocalDate today;
+    private int hour;
+    
+    @BeforeEach
+    void setUp() {
+        LocalTime now = LocalTime.now();
+        // Entries only count towards the hour in progress, so stay clear of an hour boundary
+        assumeTrue(now.getMinute() < 59);
+        today = LocalDate.now();
+        hour = now.getHour();
+        ReflectionTestUtils.setField(detector, "smoothing", 0.1);
+        ReflectionTestUtils.setField(detector, "zThreshold", 3.0);
+        ReflectionTestUtils.setField(detector, "warmupSamples", 3);
+        ReflectionTestUtils.setField(detector, "minVisitors", 5);
+        ReflectionTestUtils.setField(detector, "minWaitSamples", 3);
+        ReflectionTestUtils.setField(detector, "seedWeeks", 8);
+        
+        // Every past day of the seed window had 10 visitors at this hour, waiting 5 minutes each
+        List<DailyBranchHourVisits> history = new ArrayList<>();
+        for (LocalDate date = today.minusWeeks(8); date.isBefore(today); date = date.plusDays(1)) {
+            history.add(hourRow(date, 10, 5));
+        }
+        when(footfallRollupRepository.sumVisitsByBranchDateAndHour(today.minusWeeks(8), today.minusDays(1))).thenReturn(history);
+        when(businessCalendarService.activeBranchIds()).thenReturn(List.of(1L));
+    }
+    
+    @Test
+    void flagsAFootfallSpikeOnceTheUsualRangeIsExceeded() {
+        detector.seed();
+        
+        // Usually 10 with the deviation floored at sqrt(10): the spike needs 10 + 3 * 3.16 visitors
+        for (int i = 0; i < 19; i++) {
+            detector.onDataChanged(entryCreated(hour, 5));
+        }
+        assertTrue(detector.currentAnomalies().isEmpty());
+        
+        detector.onDataChanged(entryCreated(hour, 5));
+        
+        Map<String, Object> anomaly = single("FOOTFALL_ANOMALY_HIGH");
+        assertEquals("warning", anomaly.get("type"));
+        assertEquals(20.0, anomaly.get("observed"));
+        assertEquals(10.0, anomaly.get("expected"));
+    }
+    
+    @Test
+    void flagsAWaitBlowupAfterEnoughSamples() {
+        detector.seed();
+        
+        detector.onDataChanged(entryCreated(hour, 30));
+        detector.onDataChanged(entryCreated(hour, 30));
+        assertTrue(detector.currentAnomalies().isEmpty());
+        
+        detector.onDataChanged(entryCreated(hour, 30));
+        
+        Map<String, Object> anomaly = single("WAIT_ANOMALY");
+        assertEquals("critical", anomaly.get("type"));
+        assertEquals(30.0, anomaly.get("observed"));
+        assertEquals(5.0, anomaly.get("expected"));
+    }
+    
+    @Test
+    void holidaysAreNotChecked() {
+        when(businessCalendarService.isHoliday(any())).thenReturn(true);
+        detector.seed();
+        
+        for (int i = 0; i < 30; i++) {
+            detector.onDataChanged(entryCreated(hour, 30));
+        }
+        
+        assertTrue(detector.currentAnomalies().isEmpty());
+    }
+    
+    @Test
+    void ignoresEntriesOutsideTheHourInProgress() {
+        assumeTrue(hour > 0);
+        detector.seed();
+        
+        for (int i = 0; i < 30; i++) {
+            detector.onDataChanged(entryCreated(hour - 1, 30));
+        }
+        
+        assertTrue(detector.currentAnomalies().isEmpty());
+    }
+    
+    private Map<String, Object> single(String rule) {
+        List<Map<String, Object>> anomalies = detector.currentAnomalies();
+        assertEquals(1, anomalies.size());
+        assertEquals(rule, anomalies.get(0).get("rule"));
+        assertEquals("1-" + rule, anomalies.get(0).get("id"));
+        return anomalies.get(0);
+    }
+    
+    private AnalyticsDataChangedEvent entryCreated(int entryHour, int waitMinutes) {
+        CustomerEntry entry = new CustomerEntry();
+        entry.setEntryDate(today);
+        entry.setEntryTime(LocalTime.of(entryHour, 0));
+        entry.setWaitTimeMinutes(waitMinutes);
+        return new AnalyticsDataChangedEvent(DataKind.CUSTOMER_ENTRY, ChangeType.CREATED, 1L, entry);
+    }
+    
+    private DailyBranchHourVisits hourRow(LocalDate date, long visitors, long waitMinutes) {
+        return new DailyBranchHourVisits() {
+            public LocalDate getEntryDate() { return date; }
+            public Long getBranchId() { return 1L; }
+            public Integer getHour() { return hour; }
+            public Long getVisitors() { return visitors; }
+            public Long getWaitSum() { return visitors * waitMinutes; }
+            public Long getWaitCount() { return visitors; }
+        };
+    }
+}
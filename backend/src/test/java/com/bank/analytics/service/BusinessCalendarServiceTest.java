@@ -0,0 +1,77 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.ChangeType;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.DataKind;
+import com.Bank.analytics.repository.BranchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BusinessCalendarServiceTest {
+    
+    private static final LocalDate JANUARY_FIRST = LocalDate.of(2024, 1, 1);
+    private static final LocalDate JANUARY_LAST = LocalDate.of(2024, 1, 31);
+    
+    private final BranchRepository branchRepository = mock(BranchRepository.class);
+    private BusinessCalendarService calendar;
+    
+    @BeforeEach
+    void setUp() {
+        calendar = new BusinessCalendarService(branchRepository);
+        ReflectionTestUtils.setField(calendar, "weekendDays", "SATURDAY,SUNDAY");
+        ReflectionTestUtils.setField(calendar, "holidayList", "2024-01-26");
+    }
+    
+    @Test
+    void workingDaysAndCapacityComeFromThePrefixTables() {
+        when(branchRepository.findAll()).thenReturn(List.of(branch(40)));
+        
+        // 23 weekdays in January 2024, less one holiday
+        assertEquals(22, calendar.workingDays(JANUARY_FIRST, JANUARY_LAST));
+        assertEquals(0, calendar.workingDays(JANUARY_LAST, JANUARY_FIRST));
+        assertTrue(calendar.isHoliday(LocalDate.of(2024, 1, 26)));
+        // Open from 09:30, so half of the 9 o'clock hour
+        assertEquals(11.0, calendar.openBranchDays(1L, 9, JANUARY_FIRST, JANUARY_LAST), 1e-9);
+        assertEquals(22.0 * 40, calendar.capacityHours(null, 10, JANUARY_FIRST, JANUARY_LAST), 1e-9);
+        assertFalse(calendar.isOpen(1L, 17));
+        assertEquals(40, calendar.capacity(null));
+        // Far outside the window it grows
+        assertEquals(261, calendar.workingDays(LocalDate.of(2010, 1, 1), LocalDate.of(2010, 12, 31)));
+    }
+    
+    @Test
+    void branchChangeDuringABuildIsNotLost() {
+        when(branchRepository.findAll())
+            .thenAnswer(invocation -> {
+                // The branch is updated while the first build is reading the old row
+                calendar.onDataChanged(new AnalyticsDataChangedEvent(DataKind.BRANCH, ChangeType.UPDATED, 1L, null));
+                return List.of(branch(40));
+            })
+            .thenReturn(List.of(branch(60)));
+        
+        assertEquals(40, calendar.capacity(1L));
+        assertEquals(60, calendar.capacity(1L));
+        assertEquals(60, calendar.capacity(1L));
+    }
+    
+    private static Branch branch(int maxCapacity) {
+        Branch branch = new Branch();
+        branch.setBranchId(1L);
+        branch.setOpeningTime(LocalTime.of(9, 30));
+        branch.setClosingTime(LocalTime.of(17, 0));
+        branch.setMaxCapacity(maxCapacity);
+        branch.setStatus(Branch.BranchStatus.ACTIVE);
+        return branch;
+    }
+}
@@ -0,0 +1,60 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.dto.ExportFormat;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DelimitedWriterTest {
+    
+    @Test
+    void csvQuotesAsRfc4180AndEndsRecordsWithCrlf() throws IOException {
+        String csv = write(ExportFormat.CSV,
+            new Object[] {"id", "note"},
+            new Object[] {1, "plain"},
+            new Object[] {2, "a, b"},
+            new Object[] {3, "say \"hi\""},
+            new Object[] {4, "line1\nline2"},
+            new Object[] {5, null});
+        
+        assertEquals("id,note\r\n1,plain\r\n2,\"a, b\"\r\n3,\"say \"\"hi\"\"\"\r\n4,\"line1\nline2\"\r\n5,\r\n", csv);
+    }
+    
+    @Test
+    void tsvFlattensTabsAndLineBreaks() throws IOException {
+        String tsv = write(ExportFormat.TSV, new Object[] {"a\tb", "c\r\nd", "e,\"f\""});
+        
+        assertEquals("a b\tc  d\te,\"f\"\n", tsv);
+    }
+    
+    @Test
+    void formatsDecimalsTimesAndDates() throws IOException {
+        String csv = write(ExportFormat.CSV,
+            new Object[] {new BigDecimal("1E+3"), new BigDecimal("10.50"), LocalTime.of(9, 5), LocalDate.of(2025, 1, 2)});
+        
+        assertEquals("1000,10.50,09:05:00,2025-01-02\r\n", csv);
+    }
+    
+    @Test
+    void textThatLooksLikeAFormulaIsDefused() throws IOException {
+        String csv = write(ExportFormat.CSV,
+            new Object[] {"=HYPERLINK(\"http://x\",\"y\")", "+1", "-2", "@SUM(A1)", "a=b"},
+            new Object[] {new BigDecimal("-5.00"), -3, ""});
+        
+        assertEquals("\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",'+1,'-2,'@SUM(A1),a=b\r\n-5.00,-3,\r\n", csv);
+    }
+    
+    private static String write(ExportFormat format, Object[]... rows) throws IOException {
+        StringWriter out = new StringWriter();
+        DelimitedWriter writer = new DelimitedWriter(out, format);
+        for (Object[] row : rows) {
+            writer.row(row);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,137 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.exception.InvalidRequestException;
+import com.Bank.analytics.repository.FootfallRollupRepository;
+import com.Bank.analytics.repository.projection.DailyBranchFootfall;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ForecastBacktestServiceTest {
+    
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = START.plusDays(29);
+    
+    private final FootfallRollupRepository footfallRollupRepository = mock(FootfallRollupRepository.class);
+    private final BusinessCalendarService businessCalendarService = mock(BusinessCalendarService.class);
+    private final ForecastBacktestService service = new ForecastBacktestService(footfallRollupRepository, businessCalendarService, 2);
+    
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+    
+    @Test
+    void naiveErrorsGrowWithTheHorizon() {
+        // 100, 101, 102, ... so a naive forecast h days ahead is off by h
+        when(footfallRollupRepository.sumDailyFootfallByBranch(START, END)).thenReturn(growing(1L, 0));
+        
+        Map<String, Object> result = forecaster(service.backtest(START, END, List.of(), List.of("naive"), 2, 14, 1));
+        
+        // Origins 14..29
+        assertEquals(16L, result.get("windows"));
+        List<Map<String, Object>> horizons = horizons(result);
+        assertEquals(16L, horizons.get(0).get("samples"));
+        assertEquals(1.0, horizons.get(0).get("rmse"));
+        // The last origin has no second day to score
+        assertEquals(15L, horizons.get(1).get("samples"));
+        assertEquals(2.0, horizons.get(1).get("rmse"));
+        assertEquals(1.57, result.get("rmse"));
+    }
+    
+    @Test
+    void seasonalNaiveIsExactOnAWeeklyPattern() {
+        List<DailyBranchFootfall> rows = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            rows.add(row(1L, START.plusDays(i), i % 7 == 6 ? 0 : 50 + 10 * (i % 7)));
+        }
+        when(footfallRollupRepository.sumDailyFootfallByBranch(START, END)).thenReturn(rows);
+        
+        Map<String, Object> result = forecaster(service.backtest(START, END, null, List.of("seasonal-naive"), 7, 14, 1));
+        
+        assertEquals(0.0, result.get("mape"));
+        assertEquals(0.0, result.get("rmse"));
+    }
+    
+    @Test
+    void holidaysAndUnrequestedBranchesAreLeftOut() {
+        List<DailyBranchFootfall> rows = new ArrayList<>(growing(1L, 0));
+        rows.addAll(growing(2L, 0));
+        when(footfallRollupRepository.sumDailyFootfallByBranch(START, END)).thenReturn(rows);
+        when(businessCalendarService.isHoliday(START.plusDays(20))).thenReturn(true);
+        
+        Map<String, Object> response = service.backtest(START, END, List.of(1L), List.of("naive"), 1, 14, 1);
+        
+        Map<String, Object> result = forecaster(response);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> branches = (List<Map<String, Object>>) result.get("branches");
+        assertEquals(1, branches.size());
+        assertEquals(1L, branches.get(0).get("branchId"));
+        assertEquals(15L, horizons(result).get(0).get("samples"));
+    }
+    
+    @Test
+    void seriesStartAtTheFirstVisit() {
+        // Opened on day 10: only 20 days of history, so origins 14..19
+        when(footfallRollupRepository.sumDailyFootfallByBranch(START, END)).thenReturn(growing(1L, 10));
+        
+        Map<String, Object> response = service.backtest(START, END, null, List.of("naive", "holt-winters"), 1, 14, 1);
+        
+        assertEquals(12L, response.get("windowsEvaluated"));
+    }
+    
+    @Test
+    void closedDaysHaveNoPercentageError() {
+        List<DailyBranchFootfall> rows = new ArrayList<>();
+        rows.add(row(1L, START, 10));
+        when(footfallRollupRepository.sumDailyFootfallByBranch(START, END)).thenReturn(rows);
+        
+        Map<String, Object> result = forecaster(service.backtest(START, END, null, List.of("naive"), 1, 14, 4));
+        
+        assertNull(result.get("mape"));
+        assertEquals(0.0, result.get("rmse"));
+    }
+    
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(InvalidRequestException.class, () -> service.backtest(START, END, null, null, 0, 14, 1));
+        assertThrows(InvalidRequestException.class, () -> service.backtest(START, END, null, null, 1, 7, 1));
+        assertThrows(InvalidRequestException.class, () -> service.backtest(START, END, null, List.of("oracle"), 1, 14, 1));
+        assertThrows(InvalidRequestException.class, () -> service.backtest(END, START, null, null, 1, 14, 1));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> forecaster(Map<String, Object> response) {
+        return ((List<Map<String, Object>>) response.get("results")).get(0);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> horizons(Map<String, Object> result) {
+        return (List<Map<String, Object>>) result.get("horizons");
+    }
+    
+    private static List<DailyBranchFootfall> growing(Long branchId, int openedDay) {
+        List<DailyBranchFootfall> rows = new ArrayList<>();
+        for (int i = openedDay; i < 30; i++) {
+            rows.add(row(branchId, START.plusDays(i), 100 + i));
+        }
+        return rows;
+    }
+    
+    private static DailyBranchFootfall row(Long branchId, LocalDate date, long visitors) {
+        return new DailyBranchFootfall() {
+            public LocalDate getEntryDate() { return date; }
+            public Long getBranchId() { return branchId; }
+            public Long getVisitors() { return visitors; }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.Bank.analytics.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HoltWintersModelTest {
+    
+    private static final int[] WEEK = {7};
+    private static final double[] PATTERN = {100, 120, 130, 125, 140, 60, 0};
+    
+    @Test
+    void forecastsAStableWeeklyPattern() {
+        double[] values = weeks(10, 0.0);
+        
+        HoltWintersModel model = HoltWintersModel.fit(WEEK, 0, values);
+        
+        assertEquals(values.length - 1, model.lastStep());
+        for (int h = 0; h < 7; h++) {
+            assertEquals(PATTERN[h], model.forecast(values.length + h), 1.0);
+        }
+        assertTrue(model.meanSquaredError() < 1.0);
+    }
+    
+    @Test
+    void followsATrend() {
+        double[] values = weeks(10, 2.0);
+        
+        HoltWintersModel model = HoltWintersModel.fit(WEEK, 0, values);
+        
+        int next = values.length;
+        assertEquals(PATTERN[0] + 2.0 * next, model.forecast(next), 5.0);
+        assertTrue(model.forecast(next + 7) > model.forecast(next));
+    }
+    
+    @Test
+    void missingDaysAreSkipped() {
+        double[] values = weeks(10, 0.0);
+        values[30] = Double.NaN;
+        values[45] = Double.NaN;
+        
+        HoltWintersModel model = HoltWintersModel.fit(WEEK, 0, values);
+        
+        assertEquals(PATTERN[0], model.forecast(values.length), 1.0);
+        assertTrue(Double.isFinite(model.meanSquaredError()));
+    }
+    
+    @Test
+    void seasonStepBorrowsAnotherDaysPattern() {
+        double[] values = weeks(10, 0.0);
+        HoltWintersModel model = HoltWintersModel.fit(WEEK, 0, values);
+        
+        // A holiday on the first weekday forecast like the closed seventh day
+        assertEquals(PATTERN[6], model.forecast(values.length, values.length + 6), 1.0);
+    }
+    
+    @Test
+    void pastStepsReturnTheFittedValue() {
+        double[] values = weeks(10, 0.0);
+        HoltWintersModel model = HoltWintersModel.fit(WEEK, 0, values);
+        
+        assertEquals(values[50], model.forecast(50), 1.0);
+    }
+    
+    @Test
+    void fittedValuesAreKeptOnlyForTheTrainingWindow() {
+        HoltWintersModel model = HoltWintersModel.fit(WEEK, 0, weeks(10, 2.0));
+        // Twenty more weeks: the last 70 steps keep their fitted value, older ones fall back to the level
+        for (int step = 70; step < 210; step++) {
+            model.observe(step, PATTERN[step % 7] + 2.0 * step);
+        }
+        
+        assertEquals(PATTERN[150 % 7] + 2.0 * 150, model.forecast(150), 5.0);
+        assertTrue(model.forecast(100) > PATTERN[100 % 7] + 2.0 * 100 + 100);
+    }
+    
+    @Test
+    void retrainKeepsTheParametersAndUsesOnlyTheFirstValues() {
+        double[] values = weeks(10, 0.0);
+        values[60] = 10_000;
+        HoltWintersModel model = HoltWintersModel.fit(WEEK, 0, values);
+        
+        HoltWintersModel retrained = model.retrain(0, values, 56);
+        
+        assertEquals(55, retrained.lastStep());
+        assertEquals(PATTERN[0], retrained.forecast(56), 1.0);
+    }
+    
+    @Test
+    void rejectsObservationsOutOfOrder() {
+        HoltWintersModel model = HoltWintersModel.fit(WEEK, 0, weeks(4, 0.0));
+        
+        assertThrows(IllegalArgumentException.class, () -> model.observe(27, 100));
+        model.observe(28, PATTERN[0]);
+        assertEquals(28, model.lastStep());
+    }
+    
+    @Test
+    void noObservationsForecastZero() {
+        HoltWintersModel model = HoltWintersModel.fit(WEEK, 0, new double[0]);
+        
+        assertEquals(0.0, model.forecast(3));
+        assertEquals(Double.POSITIVE_INFINITY, model.meanSquaredError());
+    }
+    
+    private static double[] weeks(int weeks, double slope) {
+        double[] values = new double[weeks * 7];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = PATTERN[i % 7] + slope * i;
+        }
+        return values;
+    }
+}
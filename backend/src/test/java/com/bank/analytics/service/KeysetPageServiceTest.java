@@ -0,0 +1,95 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.dto.KeysetPage;
+import com.Bank.analytics.dto.KeysetToken;
+import com.Bank.analytics.entity.Staff;
+import com.Bank.analytics.exception.InvalidRequestException;
+import com.Bank.analytics.repository.CustomerEntryRepository;
+import com.Bank.analytics.repository.StaffRepository;
+import com.Bank.analytics.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KeysetPageServiceTest {
+    
+    private static final LocalDate HIRED = LocalDate.of(2020, 1, 1);
+    
+    private final StaffRepository staffRepository = mock(StaffRepository.class);
+    private final KeysetPageService service = new KeysetPageService(mock(CustomerEntryRepository.class),
+        mock(TransactionRepository.class), staffRepository);
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "defaultSize", 2);
+        ReflectionTestUtils.setField(service, "maxSize", 3);
+        ReflectionTestUtils.setField(service, "maxAllSize", 5);
+    }
+    
+    @Test
+    void withoutTokenOrSizeTheDefaultSizeApplies() {
+        when(staffRepository.findPage(PageRequest.of(0, 3))).thenReturn(List.of(staff(1L), staff(2L), staff(3L)));
+        
+        KeysetPage<Staff> page = service.staff(null, null, false);
+        
+        assertEquals(List.of(1L, 2L), page.items().stream().map(Staff::getStaffId).toList());
+        assertEquals(new KeysetToken(HIRED, 2L), KeysetToken.decode(page.nextToken()));
+    }
+    
+    @Test
+    void allIsCappedSeparately() {
+        List<Staff> everyone = List.of(staff(1L), staff(2L), staff(3L), staff(4L));
+        when(staffRepository.findPage(PageRequest.of(0, 6))).thenReturn(everyone);
+        
+        KeysetPage<Staff> page = service.staff(null, null, true);
+        
+        assertEquals(everyone, page.items());
+        assertNull(page.nextToken());
+        assertThrows(InvalidRequestException.class, () -> service.staff(null, 2, true));
+    }
+    
+    @Test
+    void readsOneRowAheadToFindTheNextPage() {
+        when(staffRepository.findPage(PageRequest.of(0, 3))).thenReturn(List.of(staff(1L), staff(2L), staff(3L)));
+        
+        KeysetPage<Staff> page = service.staff(null, 2, false);
+        
+        assertEquals(List.of(1L, 2L), page.items().stream().map(Staff::getStaffId).toList());
+        assertEquals(new KeysetToken(HIRED, 2L), KeysetToken.decode(page.nextToken()));
+    }
+    
+    @Test
+    void theLastPageCarriesNoToken() {
+        String token = new KeysetToken(HIRED, 2L).encode();
+        when(staffRepository.findPageAfter(HIRED, 2L, PageRequest.of(0, 3))).thenReturn(List.of(staff(3L), staff(4L)));
+        
+        KeysetPage<Staff> page = service.staff(token, null, false);
+        
+        assertEquals(2, page.items().size());
+        assertNull(page.nextToken());
+    }
+    
+    @Test
+    void sizeIsCappedAndValidated() {
+        when(staffRepository.findPage(PageRequest.of(0, 4))).thenReturn(List.of(staff(1L)));
+        
+        assertEquals(1, service.staff(null, 500, false).items().size());
+        assertThrows(InvalidRequestException.class, () -> service.staff(null, 0, false));
+    }
+    
+    private static Staff staff(Long id) {
+        Staff staff = new Staff();
+        staff.setStaffId(id);
+        staff.setHireDate(HIRED);
+        return staff;
+    }
+}
@@ -0,0 +1,71 @@
+package com.Bank.analytics.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LttbDownsamplerTest {
+    
+    @Test
+    void keepsEveryPointAtOrBelowTheThreshold() {
+        double[] x = {0, 1, 2, 3};
+        double[] y = {5, 1, 4, 2};
+        
+        assertArrayEquals(new int[] {0, 1, 2, 3}, LttbDownsampler.select(x, y, 4));
+        assertArrayEquals(new int[] {0, 1, 2, 3}, LttbDownsampler.select(x, y, 10));
+        // Fewer than three points cannot form a triangle
+        assertArrayEquals(new int[] {0, 1, 2, 3}, LttbDownsampler.select(x, y, 2));
+    }
+    
+    @Test
+    void keepsTheEndpointsInAscendingOrder() {
+        int n = 1000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = Math.sin(i / 25.0) * 100 + (i % 7);
+        }
+        
+        int[] kept = LttbDownsampler.select(x, y, 50);
+        
+        assertEquals(50, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(n - 1, kept[kept.length - 1]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1], "indices must ascend: " + Arrays.toString(kept));
+        }
+    }
+    
+    @Test
+    void keepsASinglePeakThatStridingWouldMiss() {
+        int n = 101;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = 10;
+        }
+        y[37] = 500;
+        y[71] = -200;
+        
+        int[] kept = LttbDownsampler.select(x, y, 10);
+        
+        assertTrue(Arrays.stream(kept).anyMatch(i -> i == 37));
+        assertTrue(Arrays.stream(kept).anyMatch(i -> i == 71));
+    }
+    
+    @Test
+    void measuresTrianglesOnTheRealXSpacing() {
+        double[] x = {0, 1, 2, 10, 11, 12, 40, 41};
+        double[] y = {0, 0, 9, 0, 0, 0, 0, 0};
+        
+        int[] kept = LttbDownsampler.select(x, y, 4);
+        
+        // After the peak, x = 11 spans a larger triangle down to the last point than x = 40 does
+        assertArrayEquals(new int[] {0, 2, 4, 7}, kept);
+    }
+}
@@ -0,0 +1,122 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.ChangeType;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.DataKind;
+import com.Bank.analytics.repository.CustomerEntryRepository;
+import com.Bank.analytics.repository.projection.OpenVisit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OccupancyTrackerTest {
+    
+    private final CustomerEntryRepository customerEntryRepository = mock(CustomerEntryRepository.class);
+    private final OccupancyTracker tracker = new OccupancyTracker(customerEntryRepository);
+    private LocalTime now;
+    
+    @BeforeEach
+    void setUp() {
+        now = LocalTime.now();
+        // Visits are placed an hour either side of now, which must stay within today
+        assumeTrue(now.isAfter(LocalTime.of(1, 5)) && now.isBefore(LocalTime.of(22, 55)));
+    }
+    
+    @Test
+    void rebuildCountsOnlyCustomersAlreadyInside() {
+        when(customerEntryRepository.findOpenVisits(any(), any())).thenReturn(List.of(
+            openVisit(1L, 1L, now.minusMinutes(30), null),
+            openVisit(2L, 1L, now.minusMinutes(10), now.plusMinutes(20)),
+            openVisit(3L, 2L, now.plusMinutes(30), null)));
+        
+        tracker.rebuild();
+        
+        assertEquals(2, tracker.occupancy(1L));
+        assertEquals(0, tracker.occupancy(2L));
+        assertEquals(2, tracker.occupancy(null));
+        assertEquals(Map.of(1L, 2), tracker.occupancyByBranch());
+    }
+    
+    @Test
+    void entryWritesMoveCustomersInAndOut() {
+        when(customerEntryRepository.findOpenVisits(any(), any())).thenReturn(List.of());
+        tracker.rebuild();
+        
+        CustomerEntry entry = entry(10L, 1L, LocalDate.now(), now.minusMinutes(5), null);
+        changed(ChangeType.CREATED, entry);
+        assertEquals(1, tracker.occupancy(1L));
+        
+        // Moving the visit to another branch moves the customer
+        entry.getBranch().setBranchId(2L);
+        changed(ChangeType.UPDATED, entry);
+        assertEquals(0, tracker.occupancy(1L));
+        assertEquals(1, tracker.occupancy(2L));
+        
+        entry.setExitTime(now.minusMinutes(1));
+        changed(ChangeType.UPDATED, entry);
+        assertEquals(0, tracker.occupancy(null));
+        
+        changed(ChangeType.CREATED, entry(11L, 1L, LocalDate.now().minusDays(1), now.minusMinutes(5), null));
+        CustomerEntry deleted = entry(12L, 1L, LocalDate.now(), now.minusMinutes(5), null);
+        changed(ChangeType.CREATED, deleted);
+        assertEquals(1, tracker.occupancy(null));
+        changed(ChangeType.DELETED, deleted);
+        assertEquals(0, tracker.occupancy(null));
+    }
+    
+    @Test
+    void writesWaitForARunningRebuild() throws InterruptedException {
+        Thread[] writer = new Thread[1];
+        when(customerEntryRepository.findOpenVisits(any(), any())).thenAnswer(invocation -> {
+            writer[0] = Thread.ofPlatform().start(() ->
+                changed(ChangeType.CREATED, entry(20L, 1L, LocalDate.now(), now.minusMinutes(5), null)));
+            for (int i = 0; i < 200 && writer[0].getState() != Thread.State.BLOCKED; i++) {
+                Thread.sleep(5);
+            }
+            assertEquals(Thread.State.BLOCKED, writer[0].getState());
+            // The query ran before the write committed, so it does not see the visit
+            return List.of();
+        });
+        
+        tracker.rebuild();
+        writer[0].join(2000);
+        
+        assertEquals(1, tracker.occupancy(1L));
+    }
+    
+    private void changed(ChangeType change, CustomerEntry entry) {
+        tracker.onDataChanged(new AnalyticsDataChangedEvent(DataKind.CUSTOMER_ENTRY, change, entry.getBranch().getBranchId(), entry));
+    }
+    
+    private static CustomerEntry entry(Long id, Long branchId, LocalDate date, LocalTime entryTime, LocalTime exitTime) {
+        Branch branch = new Branch();
+        branch.setBranchId(branchId);
+        CustomerEntry entry = new CustomerEntry();
+        entry.setEntryId(id);
+        entry.setBranch(branch);
+        entry.setEntryDate(date);
+        entry.setEntryTime(entryTime);
+        entry.setExitTime(exitTime);
+        return entry;
+    }
+    
+    private static OpenVisit openVisit(Long entryId, Long branchId, LocalTime entryTime, LocalTime exitTime) {
+        return new OpenVisit() {
+            public Long getEntryId() { return entryId; }
+            public Long getBranchId() { return branchId; }
+            public LocalTime getEntryTime() { return entryTime; }
+            public LocalTime getExitTime() { return exitTime; }
+        };
+    }
+}
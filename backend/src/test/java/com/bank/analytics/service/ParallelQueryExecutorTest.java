@@ -0,0 +1,121 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.exception.ParallelQueryException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelQueryExecutorTest {
+    
+    private ParallelQueryExecutor executor;
+    
+    @AfterEach
+    void shutDown() {
+        executor.destroy();
+    }
+    
+    @Test
+    void joinReturnsEveryResult() {
+        executor = new ParallelQueryExecutor(0, 10, 1000);
+        try (ParallelQueryExecutor.Scope scope = executor.openScope()) {
+            ParallelQueryExecutor.Subtask<Integer> one = scope.fork("one", () -> 1);
+            ParallelQueryExecutor.Subtask<Integer> two = scope.fork("two", () -> 2);
+            scope.join();
+            assertEquals(1, one.get());
+            assertEquals(2, two.get());
+        }
+    }
+    
+    @Test
+    void timeoutCancelsTheRestOfTheScope() throws InterruptedException {
+        executor = new ParallelQueryExecutor(0, 10, 5000);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (ParallelQueryExecutor.Scope scope = executor.openScope()) {
+            scope.fork("slow", () -> {
+                Thread.sleep(10_000);
+                return null;
+            }, Duration.ofMillis(100));
+            scope.fork("sibling", () -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+            ParallelQueryException failure = assertThrows(ParallelQueryException.class, scope::join);
+            assertInstanceOf(TimeoutException.class, failure.getCause());
+        }
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS), "sibling task was not cancelled");
+    }
+    
+    @Test
+    void failureIsRethrownWithItsCause() {
+        executor = new ParallelQueryExecutor(0, 10, 1000);
+        try (ParallelQueryExecutor.Scope scope = executor.openScope()) {
+            scope.fork("broken", () -> {
+                throw new IllegalStateException("boom");
+            });
+            ParallelQueryException failure = assertThrows(ParallelQueryException.class, scope::join);
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+        }
+    }
+    
+    @Test
+    void timeoutStartsOnceTheTaskHoldsAPermit() {
+        // One permit: each task waits for the previous ones, longer in total than its own timeout
+        executor = new ParallelQueryExecutor(1, 10, 300);
+        try (ParallelQueryExecutor.Scope scope = executor.openScope()) {
+            List<ParallelQueryExecutor.Subtask<Integer>> subtasks = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                int value = i;
+                subtasks.add(scope.fork("task" + i, () -> {
+                    Thread.sleep(120);
+                    return value;
+                }));
+            }
+            scope.join();
+            for (int i = 0; i < 3; i++) {
+                assertEquals(i, subtasks.get(i).get());
+            }
+        }
+    }
+    
+    @Test
+    void concurrencyStaysBelowThePoolSize() {
+        executor = new ParallelQueryExecutor(0, 6, 5000);
+        assertEquals(3, maxConcurrent(8));
+        executor.destroy();
+        
+        executor = new ParallelQueryExecutor(20, 6, 5000);
+        assertEquals(5, maxConcurrent(8));
+    }
+    
+    private int maxConcurrent(int tasks) {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try (ParallelQueryExecutor.Scope scope = executor.openScope()) {
+            for (int i = 0; i < tasks; i++) {
+                scope.fork("task" + i, () -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(100);
+                    running.decrementAndGet();
+                    return null;
+                });
+            }
+            scope.join();
+        }
+        return peak.get();
+    }
+}
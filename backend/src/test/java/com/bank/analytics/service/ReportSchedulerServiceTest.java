@@ -0,0 +1,171 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.entity.ReportDefinition;
+import com.Bank.analytics.entity.ReportFile;
+import com.Bank.analytics.exception.InvalidRequestException;
+import com.Bank.analytics.repository.BranchRepository;
+import com.Bank.analytics.repository.ReportDefinitionRepository;
+import com.Bank.analytics.repository.ReportFileRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReportSchedulerServiceTest {
+    
+    @TempDir
+    Path outputDir;
+    
+    private final ReportDefinitionRepository reportDefinitionRepository = mock(ReportDefinitionRepository.class);
+    private final ReportFileRepository reportFileRepository = mock(ReportFileRepository.class);
+    private final BranchRepository branchRepository = mock(BranchRepository.class);
+    private final ReportExportService reportExportService = mock(ReportExportService.class);
+    private ReportSchedulerService service;
+    
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.destroy();
+        }
+    }
+    
+    @Test
+    void createDropsClientRunHistoryAndSchedulesFromCron() {
+        ReportDefinition definition = definition("0 30 6 * * *");
+        definition.setLastRunAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        definition.setLastStatus("SUCCEEDED");
+        definition.setLastError("boom");
+        when(reportDefinitionRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+        
+        LocalDateTime before = LocalDateTime.now();
+        ReportDefinition saved = service().save(null, definition);
+        
+        assertNull(saved.getLastRunAt());
+        assertNull(saved.getLastStatus());
+        assertNull(saved.getLastError());
+        assertEquals("entries", saved.getDataset());
+        assertEquals(LocalDateTime.of(saved.getNextRunAt().toLocalDate(), LocalTime.of(6, 30)), saved.getNextRunAt());
+        assertTrue(saved.getNextRunAt().isAfter(before));
+        assertTrue(saved.getNextRunAt().isBefore(before.plusDays(1).plusMinutes(1)));
+    }
+    
+    @Test
+    void updateKeepsStoredRunHistory() {
+        ReportDefinition existing = definition("0 0 6 * * *");
+        existing.setLastRunAt(LocalDateTime.of(2024, 1, 1, 6, 0));
+        existing.setLastStatus("FAILED");
+        existing.setLastError("disk full");
+        when(reportDefinitionRepository.findById(5L)).thenReturn(Optional.of(existing));
+        when(reportDefinitionRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+        ReportDefinition update = definition("0 0 7 * * *");
+        update.setActive(false);
+        
+        ReportDefinition saved = service().save(5L, update);
+        
+        assertEquals(5L, saved.getReportId());
+        assertEquals("FAILED", saved.getLastStatus());
+        assertEquals("disk full", saved.getLastError());
+        assertNull(saved.getNextRunAt());
+    }
+    
+    @Test
+    void rejectsInvalidCronAndUnknownBranches() {
+        assertEquals("Invalid cron expression '0 6 * *'",
+            assertThrows(InvalidRequestException.class, () -> service().save(null, definition("0 6 * *"))).getMessage());
+        ReportDefinition withBranch = definition("0 0 6 * * *");
+        withBranch.setBranchIds(List.of(9L));
+        assertThrows(InvalidRequestException.class, () -> service().save(null, withBranch));
+        verify(reportDefinitionRepository, never()).save(any());
+    }
+    
+    @Test
+    void deleteRemovesTheDefinitionBeforeSweepingItsFiles() throws Exception {
+        ReportDefinition definition = definition("0 0 6 * * *");
+        definition.setReportId(3L);
+        when(reportDefinitionRepository.findById(3L)).thenReturn(Optional.of(definition));
+        ReportFile file = new ReportFile(11L, 3L, "Daily", "a.csv.gz", LocalDate.now(), LocalDate.now(), 1L, LocalDateTime.now());
+        when(reportFileRepository.findByReportId(3L)).thenReturn(List.of(file));
+        Files.createDirectories(outputDir.resolve("3"));
+        Files.writeString(outputDir.resolve("3").resolve("a.csv.gz"), "x");
+        
+        service().delete(3L);
+        
+        var order = inOrder(reportDefinitionRepository, reportFileRepository);
+        order.verify(reportDefinitionRepository).deleteById(3L);
+        order.verify(reportFileRepository).findByReportId(3L);
+        order.verify(reportFileRepository).delete(file);
+        assertTrue(Files.notExists(outputDir.resolve("3").resolve("a.csv.gz")));
+    }
+    
+    @Test
+    void runDiscardsItsFileWhenTheReportWasDeletedMeanwhile() throws Exception {
+        ReportDefinition definition = definition("0 0 6 * * *");
+        definition.setReportId(4L);
+        definition.setName("Daily");
+        when(reportDefinitionRepository.findById(4L)).thenReturn(Optional.of(definition));
+        when(reportDefinitionRepository.existsById(4L)).thenReturn(false);
+        when(reportExportService.fileName(any(), any(), any(), any(), anyBoolean())).thenReturn("entries.csv.gz");
+        doAnswer(call -> {
+            call.getArgument(7, OutputStream.class).write(new byte[] {1, 2, 3});
+            return null;
+        }).when(reportExportService).export(any(), any(), anyList(), any(), any(), isNull(), anyBoolean(), any());
+        when(reportFileRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+        
+        assertTrue(service().runNow(4L));
+        
+        ArgumentCaptor<ReportFile> discarded = ArgumentCaptor.forClass(ReportFile.class);
+        verify(reportFileRepository, timeout(5000)).delete(discarded.capture());
+        assertEquals(3L, discarded.getValue().getSizeBytes());
+        try (Stream<Path> left = Files.list(outputDir.resolve("4"))) {
+            assertEquals(0, left.count());
+        }
+        verify(reportDefinitionRepository, never()).updateLastRun(anyLong(), any(), eq("SUCCEEDED"), any());
+    }
+    
+    private ReportSchedulerService service() {
+        if (service == null) {
+            service = new ReportSchedulerService(reportDefinitionRepository, reportFileRepository, branchRepository,
+                reportExportService, outputDir.toString(), 30, 1);
+        }
+        return service;
+    }
+    
+    private static ReportDefinition definition(String cron) {
+        ReportDefinition definition = new ReportDefinition();
+        definition.setName("Daily");
+        definition.setCron(cron);
+        definition.setDataset("ENTRIES");
+        definition.setRangeTemplate("yesterday");
+        definition.setFormat("csv");
+        definition.setBranchIds(new ArrayList<>());
+        return definition;
+    }
+}
@@ -0,0 +1,99 @@
+package com.Bank.analytics.service;
+
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.entity.Transaction;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.ChangeType;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.DataKind;
+import com.Bank.analytics.event.RollupDay;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RollupChangeLogTest {
+    
+    private static final LocalDate TODAY = LocalDate.now();
+    
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RollupChangeLog changeLog = new RollupChangeLog(jdbcTemplate);
+    
+    RollupChangeLogTest() {
+        ReflectionTestUtils.setField(changeLog, "lagSeconds", 5L);
+    }
+    
+    @Test
+    void ordinaryInsertsAreLeftToTheWindow() {
+        changeLog.onDataChanged(entryEvent(ChangeType.CREATED, entry(TODAY, LocalDateTime.now())));
+        changeLog.onDataChanged(transactionEvent(ChangeType.CREATED, transaction(TODAY, LocalDateTime.now())));
+        
+        verify(jdbcTemplate, never()).update(anyString(), (Object[]) any());
+    }
+    
+    @Test
+    void backDatedInsertsAreLogged() {
+        changeLog.onDataChanged(entryEvent(ChangeType.CREATED, entry(TODAY.minusDays(3), LocalDateTime.now())));
+        
+        verify(jdbcTemplate).update(anyString(), eq(RollupRefreshService.FOOTFALL_ROLLUP), eq(1L), eq(TODAY.minusDays(3)));
+    }
+    
+    @Test
+    void insertsTheWindowMayHavePassedAreLogged() {
+        LocalDateTime created = LocalDateTime.now().minusMinutes(1);
+        changeLog.onDataChanged(transactionEvent(ChangeType.CREATED, transaction(created.toLocalDate(), created)));
+        
+        verify(jdbcTemplate).update(anyString(), eq(RollupRefreshService.TRANSACTION_ROLLUP), eq(1L), eq(created.toLocalDate()));
+    }
+    
+    @Test
+    void updatesLogTheDayLeftAndTheNewDay() {
+        CustomerEntry entry = entry(TODAY, LocalDateTime.now());
+        entry.setPersistedDay(new RollupDay(2L, TODAY.minusDays(1)));
+        
+        changeLog.onDataChanged(entryEvent(ChangeType.UPDATED, entry));
+        changeLog.onDataChanged(entryEvent(ChangeType.DELETED, entry(TODAY, LocalDateTime.now())));
+        
+        verify(jdbcTemplate).update(anyString(), eq(RollupRefreshService.FOOTFALL_ROLLUP), eq(2L), eq(TODAY.minusDays(1)));
+        verify(jdbcTemplate, times(2)).update(anyString(), eq(RollupRefreshService.FOOTFALL_ROLLUP), eq(1L), eq(TODAY));
+    }
+    
+    private static CustomerEntry entry(LocalDate date, LocalDateTime createdAt) {
+        CustomerEntry entry = new CustomerEntry();
+        entry.setBranch(branch());
+        entry.setEntryDate(date);
+        entry.setCreatedAt(createdAt);
+        return entry;
+    }
+    
+    private static Transaction transaction(LocalDate date, LocalDateTime createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setBranch(branch());
+        transaction.setTransactionDate(date);
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+    
+    private static Branch branch() {
+        Branch branch = new Branch();
+        branch.setBranchId(1L);
+        return branch;
+    }
+    
+    private static AnalyticsDataChangedEvent entryEvent(ChangeType change, CustomerEntry entry) {
+        return new AnalyticsDataChangedEvent(DataKind.CUSTOMER_ENTRY, change, 1L, entry);
+    }
+    
+    private static AnalyticsDataChangedEvent transactionEvent(ChangeType change, Transaction transaction) {
+        return new AnalyticsDataChangedEvent(DataKind.TRANSACTION, change, 1L, transaction);
+    }
+}
@@ -0,0 +1,47 @@
+package com.Bank.analytics.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RowStreamServiceTest {
+    
+    @Test
+    void defaultsToAQuarterOfThePool() {
+        RowStreamService service = new RowStreamService(null, null, 0, 20);
+        
+        assertEquals(5, reserveAll(service).size());
+    }
+    
+    @Test
+    void configuredLimitStaysBelowThePool() {
+        assertEquals(3, reserveAll(new RowStreamService(null, null, 3, 20)).size());
+        assertEquals(9, reserveAll(new RowStreamService(null, null, 50, 10)).size());
+        assertEquals(1, reserveAll(new RowStreamService(null, null, 0, 2)).size());
+    }
+    
+    @Test
+    void closingASlotFreesItOnce() {
+        RowStreamService service = new RowStreamService(null, null, 2, 20);
+        List<RowStreamService.StreamSlot> slots = reserveAll(service);
+        assertNull(service.tryReserveStream());
+        
+        slots.get(0).close();
+        slots.get(0).close();
+        
+        assertNotNull(service.tryReserveStream());
+        assertNull(service.tryReserveStream());
+    }
+    
+    private static List<RowStreamService.StreamSlot> reserveAll(RowStreamService service) {
+        List<RowStreamService.StreamSlot> slots = new ArrayList<>();
+        for (RowStreamService.StreamSlot slot = service.tryReserveStream(); slot != null; slot = service.tryReserveStream()) {
+            slots.add(slot);
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,157 @@
+package com.Bank.analytics.store;
+
+import com.Bank.analytics.entity.Branch;
+import com.Bank.analytics.entity.CustomerEntry;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.ChangeType;
+import com.Bank.analytics.event.AnalyticsDataChangedEvent.DataKind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ColumnarFootfallStoreTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 6);
+    
+    private final RollupFootfallStore fallback = mock(RollupFootfallStore.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private ColumnarFootfallStore store;
+    
+    @BeforeEach
+    void load() throws Exception {
+        List<Map<String, Object>> rows = List.of(
+            row(1L, DAY, "10:15", 1L, "REGULAR", "Loans", 5, 10, 4),
+            row(2L, DAY, "11:00", 2L, "VIP", null, null, 20, null),
+            row(3L, DAY.plusDays(1), "10:30", 1L, null, "Loans", 7, null, 5));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map<String, Object> row : rows) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        
+        store = new ColumnarFootfallStore(fallback, jdbcTemplate);
+        ReflectionTestUtils.setField(store, "maxUnsortedRows", 1000);
+        store.loadOnStartup();
+        awaitLoaded();
+    }
+    
+    @Test
+    void unknownCustomerTypeIsLoadedAsUntyped() {
+        Map<LocalDate, Map<Long, Long>> visits = store.dailyVisitsByBranch(DAY, DAY.plusDays(1));
+        assertEquals(Map.of(1L, 1L, 2L, 1L), visits.get(DAY));
+        assertEquals(Map.of(1L, 1L), visits.get(DAY.plusDays(1)));
+    }
+    
+    @Test
+    void reversedRangeIsEmpty() {
+        assertTrue(store.dailyVisitsByBranch(DAY.plusDays(1), DAY).isEmpty());
+        assertEquals(0, store.summarize(null, DAY.plusDays(1), DAY).getVisits());
+    }
+    
+    @Test
+    void summariesSkipMissingValues() {
+        FootfallSummary summary = store.summarize(null, DAY, DAY.plusDays(1));
+        assertEquals(3, summary.getVisits());
+        assertEquals(12, summary.getWaitSum());
+        assertEquals(2, summary.getWaitCount());
+        assertEquals(30, summary.getServiceSum());
+        assertEquals(2, summary.getServiceCount());
+        assertEquals(4.5, summary.averageRating());
+        
+        long[] hours = store.visitsByHour(1L, DAY, DAY.plusDays(1));
+        long[] expected = new long[24];
+        expected[10] = 2;
+        assertArrayEquals(expected, hours);
+    }
+    
+    @Test
+    void appliesCommittedWritesIncludingMovesAndDeletes() {
+        CustomerEntry moved = entry(1L, DAY.plusDays(5), 2L);
+        store.onDataChanged(new AnalyticsDataChangedEvent(DataKind.CUSTOMER_ENTRY, ChangeType.UPDATED, 2L, moved));
+        store.onDataChanged(new AnalyticsDataChangedEvent(DataKind.CUSTOMER_ENTRY, ChangeType.DELETED, 1L, entry(3L, DAY.plusDays(1), 1L)));
+        store.onDataChanged(new AnalyticsDataChangedEvent(DataKind.CUSTOMER_ENTRY, ChangeType.CREATED, 3L, entry(4L, DAY.minusDays(2), 3L)));
+        
+        Map<LocalDate, Map<Long, Long>> visits = store.dailyVisitsByBranch(DAY.minusDays(5), DAY.plusDays(10));
+        assertEquals(Map.of(
+            DAY.minusDays(2), Map.of(3L, 1L),
+            DAY, Map.of(2L, 1L),
+            DAY.plusDays(5), Map.of(2L, 1L)), visits);
+    }
+    
+    private void awaitLoaded() throws InterruptedException {
+        // The fallback mock answers null, the loaded store never does
+        for (int i = 0; i < 200; i++) {
+            if (store.summarize(null, DAY, DAY) != null) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("columnar store did not load");
+    }
+    
+    private static CustomerEntry entry(Long id, LocalDate date, Long branchId) {
+        Branch branch = new Branch();
+        branch.setBranchId(branchId);
+        CustomerEntry entry = new CustomerEntry();
+        entry.setEntryId(id);
+        entry.setEntryDate(date);
+        entry.setEntryTime(LocalTime.of(9, 0));
+        entry.setBranch(branch);
+        return entry;
+    }
+    
+    private static Map<String, Object> row(Long id, LocalDate date, String time, Long branchId, String customerType,
+                                           String purpose, Integer wait, Integer service, Integer rating) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("entry_id", id);
+        row.put("entry_date", Date.valueOf(date));
+        row.put("entry_time", Time.valueOf(LocalTime.parse(time)));
+        row.put("branch_id", branchId);
+        row.put("customer_type", customerType);
+        row.put("visit_purpose", purpose);
+        row.put("wait_time_minutes", wait);
+        row.put("service_time_minutes", service);
+        row.put("satisfaction_rating", rating);
+        return row;
+    }
+    
+    private static ResultSet resultSet(Map<String, Object> row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        boolean[] lastWasNull = new boolean[1];
+        when(rs.getLong(anyString())).thenAnswer(i -> row.get(i.<String>getArgument(0)));
+        when(rs.getString(anyString())).thenAnswer(i -> row.get(i.<String>getArgument(0)));
+        when(rs.getDate(anyString())).thenAnswer(i -> row.get(i.<String>getArgument(0)));
+        when(rs.getTime(anyString())).thenAnswer(i -> row.get(i.<String>getArgument(0)));
+        when(rs.getInt(anyString())).thenAnswer(i -> {
+            Object value = row.get(i.<String>getArgument(0));
+            lastWasNull[0] = value == null;
+            return value != null ? value : 0;
+        });
+        when(rs.wasNull()).thenAnswer(i -> lastWasNull[0]);
+        return rs;
+    }
+}
@@ -0,0 +1,127 @@
+package com.Bank.analytics.store;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DailyPrefixCubeTest {
+    
+    private static final LocalDate START = LocalDate.of(2024, 1, 10);
+    
+    @Test
+    void rangeSumsMatchADayByDayTotal() {
+        DailyPrefixCube cube = new DailyPrefixCube();
+        assertFalse(cube.isReady());
+        Random random = new Random(1);
+        Map<LocalDate, Long> expected = new HashMap<>();
+        List<DailyMeasures> days = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            long visits = random.nextInt(100);
+            days.add(visits(1L, START.plusDays(i), visits, i % 24));
+            expected.merge(START.plusDays(i), visits, Long::sum);
+        }
+        cube.load(days);
+        assertTrue(cube.isReady());
+        
+        // Back-dated, forward and in-range deltas
+        cube.add(List.of(visits(1L, START.minusDays(5), 7, 3), visits(2L, START.plusDays(80), 9, 4), visits(1L, START.plusDays(3), 2, 3)));
+        expected.merge(START.minusDays(5), 7L, Long::sum);
+        expected.merge(START.plusDays(80), 9L, Long::sum);
+        expected.merge(START.plusDays(3), 2L, Long::sum);
+        
+        for (int from = -10; from < 90; from += 7) {
+            for (int to = from; to < 95; to += 11) {
+                LocalDate startDate = START.plusDays(from);
+                LocalDate endDate = START.plusDays(to);
+                long total = sum(expected, startDate, endDate);
+                CubeTotals totals = cube.totals(DailyPrefixCube.ALL_BRANCHES, startDate, endDate);
+                assertEquals(total, totals.get(CubeMeasure.VISITS), from + ".." + to);
+                assertEquals(total, Arrays.stream(totals.visitsByHour()).sum());
+            }
+        }
+        assertEquals(9, cube.totals(DailyPrefixCube.branchSeries(2L), START, START.plusDays(100)).get(CubeMeasure.VISITS));
+        assertEquals(0, cube.totals(DailyPrefixCube.branchSeries(99L), START, START.plusDays(100)).get(CubeMeasure.VISITS));
+        assertEquals(0, cube.totals(DailyPrefixCube.ALL_BRANCHES, START.plusDays(5), START.plusDays(4)).get(CubeMeasure.VISITS));
+    }
+    
+    @Test
+    void regionSeriesTrackTheirBranches() {
+        DailyPrefixCube cube = new DailyPrefixCube();
+        Random random = new Random(2);
+        List<DailyMeasures> days = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            days.add(visits(1L + random.nextInt(4), START.plusDays(random.nextInt(60) - 10), random.nextInt(50), random.nextInt(24)));
+        }
+        cube.setRegions(Map.of(1L, List.of(DailyPrefixCube.stateSeries("TN"))));
+        cube.load(days.subList(0, 150));
+        // Names compare case-insensitively, so branches 1 and 2 share a city and state
+        cube.setRegions(Map.of(
+            1L, List.of(DailyPrefixCube.citySeries("KA", "Blr"), DailyPrefixCube.stateSeries("KA")),
+            2L, List.of(DailyPrefixCube.citySeries("ka ", "BLR"), DailyPrefixCube.stateSeries("ka")),
+            3L, List.of(DailyPrefixCube.citySeries("TN", "Chennai"), DailyPrefixCube.stateSeries("TN"))));
+        cube.add(days.subList(150, 300));
+        cube.add(List.of(visits(4L, START.minusDays(40), 5, 1), visits(1L, START.plusDays(120), 3, 2)));
+        
+        for (int from = -50; from < 130; from += 13) {
+            for (int to = from; to < 140; to += 17) {
+                LocalDate startDate = START.plusDays(from);
+                LocalDate endDate = START.plusDays(to);
+                long[] branch = new long[5];
+                for (long b = 1; b <= 4; b++) {
+                    branch[(int) b] = cube.totals(DailyPrefixCube.branchSeries(b), startDate, endDate).get(CubeMeasure.VISITS);
+                }
+                assertEquals(branch[1] + branch[2], cube.totals(DailyPrefixCube.stateSeries("KA"), startDate, endDate).get(CubeMeasure.VISITS));
+                assertEquals(branch[1] + branch[2], cube.totals(DailyPrefixCube.citySeries("KA", "blr"), startDate, endDate).get(CubeMeasure.VISITS));
+                assertEquals(branch[3], cube.totals(DailyPrefixCube.stateSeries("TN"), startDate, endDate).get(CubeMeasure.VISITS));
+                assertEquals(branch[1] + branch[2] + branch[3] + branch[4],
+                    cube.totals(DailyPrefixCube.ALL_BRANCHES, startDate, endDate).get(CubeMeasure.VISITS));
+            }
+        }
+    }
+    
+    @Test
+    void replaceSetsBranchDaysInEverySeries() {
+        DailyPrefixCube cube = new DailyPrefixCube();
+        cube.setRegions(Map.of(1L, List.of(DailyPrefixCube.stateSeries("KA")), 2L, List.of(DailyPrefixCube.stateSeries("KA"))));
+        cube.load(List.of(visits(1L, START, 10, 9), visits(1L, START.plusDays(1), 4, 9), visits(2L, START, 6, 10)));
+        
+        // Branch 1's first day is re-aggregated from two hours, its second day lost every visit
+        cube.replace(List.of(
+            new DailyMeasures(1L, START, DailyMeasures.empty()),
+            visits(1L, START, 3, 11), visits(1L, START, 2, 12),
+            new DailyMeasures(1L, START.plusDays(1), DailyMeasures.empty())));
+        
+        assertEquals(5, cube.totals(DailyPrefixCube.branchSeries(1L), START, START).get(CubeMeasure.VISITS));
+        assertEquals(0, cube.totals(DailyPrefixCube.branchSeries(1L), START.plusDays(1), START.plusDays(1)).get(CubeMeasure.VISITS));
+        assertEquals(11, cube.totals(DailyPrefixCube.ALL_BRANCHES, START, START.plusDays(1)).get(CubeMeasure.VISITS));
+        assertEquals(11, cube.totals(DailyPrefixCube.stateSeries("KA"), START, START.plusDays(1)).get(CubeMeasure.VISITS));
+        long[] hours = cube.totals(DailyPrefixCube.ALL_BRANCHES, START, START).visitsByHour();
+        assertEquals(0, hours[9]);
+        assertEquals(6, hours[10]);
+        assertEquals(3, hours[11]);
+        assertEquals(2, hours[12]);
+    }
+    
+    private static DailyMeasures visits(long branchId, LocalDate date, long visits, int hour) {
+        long[] values = DailyMeasures.empty();
+        values[CubeMeasure.VISITS.ordinal()] = visits;
+        values[DailyMeasures.hourSlot(hour)] = visits;
+        return new DailyMeasures(branchId, date, values);
+    }
+    
+    private static long sum(Map<LocalDate, Long> byDay, LocalDate startDate, LocalDate endDate) {
+        return byDay.entrySet().stream()
+            .filter(day -> !day.getKey().isBefore(startDate) && !day.getKey().isAfter(endDate))
+            .mapToLong(Map.Entry::getValue)
+            .sum();
+    }
+}
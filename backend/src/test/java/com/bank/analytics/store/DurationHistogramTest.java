@@ -0,0 +1,89 @@
+package com.Bank.analytics.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DurationHistogramTest {
+    
+    @Test
+    void smallValuesAreExact() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (int minutes = 1; minutes <= 10; minutes++) {
+            histogram.record(minutes, 1);
+        }
+        
+        assertEquals(10, histogram.count());
+        assertEquals(1, histogram.percentile(0));
+        assertEquals(5, histogram.percentile(50));
+        assertEquals(9, histogram.percentile(90));
+        assertEquals(10, histogram.percentile(100));
+        assertEquals(10, histogram.max());
+    }
+    
+    @Test
+    void bucketsStayWithinTheRelativeErrorBound() {
+        int previousBucket = -1;
+        for (int value = 0; value <= DurationHistogram.MAX_MINUTES; value++) {
+            int bucket = DurationHistogram.bucketOf(value);
+            int reported = DurationHistogram.highestValueOf(bucket);
+            assertTrue(bucket == previousBucket || bucket == previousBucket + 1, "buckets must be contiguous at " + value);
+            assertTrue(reported >= value && reported - value <= value / 16, value + " reported as " + reported);
+            previousBucket = bucket;
+        }
+    }
+    
+    @Test
+    void percentilesNeverExceedTheMax() {
+        DurationHistogram histogram = new DurationHistogram();
+        histogram.record(40, 3);
+        
+        // 40 shares a bucket with 41
+        assertEquals(41, DurationHistogram.highestValueOf(DurationHistogram.bucketOf(40)));
+        assertEquals(40, histogram.percentile(99));
+    }
+    
+    @Test
+    void outOfRangeValuesAreClamped() {
+        DurationHistogram histogram = new DurationHistogram();
+        histogram.record(-3, 1);
+        histogram.record(Integer.MAX_VALUE, 1);
+        histogram.record(7, 0);
+        
+        assertEquals(2, histogram.count());
+        assertEquals(0, histogram.percentile(50));
+        assertEquals(DurationHistogram.MAX_MINUTES, histogram.max());
+    }
+    
+    @Test
+    void mergingMatchesRecordingEverything() {
+        DurationHistogram monday = new DurationHistogram();
+        DurationHistogram tuesday = new DurationHistogram();
+        DurationHistogram both = new DurationHistogram();
+        for (int minutes = 0; minutes < 500; minutes += 3) {
+            (minutes % 2 == 0 ? monday : tuesday).record(minutes, minutes % 5 + 1);
+            both.record(minutes, minutes % 5 + 1);
+        }
+        
+        monday.add(tuesday);
+        
+        assertEquals(both.count(), monday.count());
+        assertEquals(both.max(), monday.max());
+        for (double percent : new double[] {0, 25, 50, 90, 95, 99, 100}) {
+            assertEquals(both.percentile(percent), monday.percentile(percent));
+        }
+    }
+    
+    @Test
+    void emptyHistogramHasNoPercentiles() {
+        DurationHistogram histogram = new DurationHistogram();
+        histogram.add(new DurationHistogram());
+        
+        assertNull(histogram.percentile(50));
+        assertNull(histogram.max());
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(101));
+    }
+}
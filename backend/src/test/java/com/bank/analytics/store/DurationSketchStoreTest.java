@@ -0,0 +1,55 @@
+package com.Bank.analytics.store;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DurationSketchStoreTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 4);
+    private static final LocalDate NEXT_DAY = DAY.plusDays(1);
+    
+    private final DurationSketchStore store = new DurationSketchStore();
+    
+    @Test
+    void mergesAcrossBranchesAndServiceTypes() {
+        store.load(List.of(wait(1L, DAY, "Deposit", 5, 3), wait(1L, DAY, "Loans", 20, 1), wait(2L, DAY, "deposit ", 10, 2)));
+        
+        assertEquals(6, store.merged(DurationMetric.WAIT, null, null, DAY, DAY).count());
+        assertEquals(5, store.merged(DurationMetric.WAIT, null, "DEPOSIT", DAY, DAY).count());
+        assertEquals(4, store.merged(DurationMetric.WAIT, 1L, null, DAY, DAY).count());
+        assertEquals(20, store.merged(DurationMetric.WAIT, 1L, null, DAY, DAY).max());
+    }
+    
+    @Test
+    void replacingABranchDayKeepsTheOtherBranchesAndDays() {
+        store.load(List.of(wait(1L, DAY, "Deposit", 5, 3), wait(2L, DAY, "Deposit", 10, 2), wait(1L, NEXT_DAY, "Deposit", 5, 1)));
+        
+        store.replaceBranchDays(Map.of(DAY, Set.of(1L)), List.of(wait(1L, DAY, "Loans", 40, 1)));
+        
+        assertEquals(0, store.merged(DurationMetric.WAIT, 1L, "Deposit", DAY, DAY).count());
+        assertEquals(1, store.merged(DurationMetric.WAIT, 1L, null, DAY, DAY).count());
+        assertEquals(2, store.merged(DurationMetric.WAIT, 2L, null, DAY, DAY).count());
+        assertEquals(2, store.merged(DurationMetric.WAIT, null, "Deposit", DAY, DAY).count());
+        assertEquals(3, store.merged(DurationMetric.WAIT, null, null, DAY, DAY).count());
+        assertEquals(40, store.merged(DurationMetric.WAIT, null, null, DAY, DAY).max());
+        assertEquals(1, store.merged(DurationMetric.WAIT, null, null, NEXT_DAY, NEXT_DAY).count());
+    }
+    
+    @Test
+    void aDayLeftWithoutSamplesIsDropped() {
+        store.load(List.of(wait(1L, DAY, "Deposit", 5, 3)));
+        
+        store.replaceBranchDays(Map.of(DAY, Set.of(1L)), List.of());
+        
+        assertEquals(0, store.merged(DurationMetric.WAIT, null, null, DAY, DAY).count());
+    }
+    
+    private static DurationSample wait(Long branchId, LocalDate date, String serviceType, int minutes, long count) {
+        return new DurationSample(branchId, date, serviceType, DurationMetric.WAIT, minutes, count);
+    }
+}
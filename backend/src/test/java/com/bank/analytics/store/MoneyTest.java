@@ -0,0 +1,38 @@
+package com.Bank.analytics.store;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MoneyTest {
+    
+    @Test
+    void nullAggregatesCountAsZero() {
+        assertEquals(0L, Money.cents(null));
+        assertEquals(12345L, Money.cents(12345L));
+    }
+    
+    @Test
+    void fromCentsKeepsTwoDecimals() {
+        assertEquals(new BigDecimal("123.45"), Money.fromCents(12345L));
+        assertEquals(new BigDecimal("0.00"), Money.fromCents(0L));
+        assertEquals(new BigDecimal("-0.05"), Money.fromCents(-5L));
+    }
+    
+    @Test
+    void extremeAndNegativeCentsRoundTrip() {
+        for (long cents : new long[] {Long.MAX_VALUE, Long.MIN_VALUE, -1L, -12345L}) {
+            assertEquals(cents, Money.fromCents(cents).movePointRight(2).longValueExact());
+        }
+        assertEquals(new BigDecimal("92233720368547758.07"), Money.fromCents(Long.MAX_VALUE));
+        assertEquals(new BigDecimal("-92233720368547758.08"), Money.fromCents(Long.MIN_VALUE));
+    }
+    
+    @Test
+    void toDoubleIsTheNearestDouble() {
+        assertEquals(0.1, Money.toDouble(10L));
+        assertEquals(1234567.89, Money.toDouble(123456789L));
+        assertEquals(-0.05, Money.toDouble(-5L));
+    }
+}
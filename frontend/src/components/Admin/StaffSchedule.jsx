@@ -46,7 +46,7 @@ const StaffSchedule = () => {
     setIsLoading(true)
     try {
       // Try to fetch from API first
-      const response = await fetch('http://localhost:8080/api/staff')
+      const response = await fetch('http://localhost:8080/api/staff?all=true')
       const staffData = await response.json()
       
       // Convert staff data to schedule format
@@ -41,7 +41,7 @@ const UserManagement = () => {
   const fetchUsers = async () => {
     setIsLoading(true)
     try {
-      const response = await fetch('http://localhost:8080/api/staff')
+      const response = await fetch('http://localhost:8080/api/staff?all=true')
       const staffData = await response.json()
       
       // Convert staff data to user format